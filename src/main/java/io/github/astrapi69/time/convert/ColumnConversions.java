@@ -0,0 +1,397 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.convert;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * The class {@link ColumnConversions} provides methods for convert whole columns of {@link Date},
+ * {@link LocalDateTime} and epoch millisecond values. The zone is resolved once per column to
+ * its cached {@link ZoneOffsetTable}, and the offset segment of the previous value is reused
+ * as long as the values stay within it, so sorted or clustered columns mostly skip the lookup.
+ * Columns with at least {@link #PARALLEL_THRESHOLD} values are converted in parallel chunks
+ * that each have their own offset segment. Null elements of object columns are converted to
+ * null elements unless the result is a primitive column
+ */
+public final class ColumnConversions
+{
+
+	/**
+	 * The minimum number of values of a column that is converted in parallel
+	 */
+	public static final int PARALLEL_THRESHOLD = 1 << 16;
+
+	/**
+	 * The number of values of a chunk of a parallel conversion
+	 */
+	static final int CHUNK_SIZE = 1 << 13;
+
+	private ColumnConversions()
+	{
+	}
+
+	/**
+	 * Converts the given {@link Date} column to a column of epoch milliseconds
+	 *
+	 * @param dates
+	 *            the dates
+	 * @return the epoch milliseconds
+	 * @throws NullPointerException
+	 *             if an element of the given column is null
+	 */
+	public static long[] toEpochMilli(Date[] dates)
+	{
+		Objects.requireNonNull(dates, "dates");
+		long[] result = new long[dates.length];
+		convert(dates.length, null, (from, to, cursor) -> {
+			for (int i = from; i < to; i++)
+			{
+				result[i] = element(dates, i).getTime();
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Converts the given column of epoch milliseconds to an {@link Instant} column
+	 *
+	 * @param epochMillis
+	 *            the epoch milliseconds
+	 * @return the instants
+	 */
+	public static Instant[] toInstant(long[] epochMillis)
+	{
+		Objects.requireNonNull(epochMillis, "epochMillis");
+		Instant[] result = new Instant[epochMillis.length];
+		convert(epochMillis.length, null, (from, to, cursor) -> {
+			for (int i = from; i < to; i++)
+			{
+				result[i] = Instant.ofEpochMilli(epochMillis[i]);
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Converts the given {@link Date} column to a {@link LocalDateTime} column in the given zone.
+	 * The nanoseconds of {@link Timestamp} elements are kept
+	 *
+	 * @param dates
+	 *            the dates
+	 * @param zone
+	 *            the zone
+	 * @return the local date-times
+	 */
+	public static LocalDateTime[] toLocalDateTime(Date[] dates, ZoneId zone)
+	{
+		Objects.requireNonNull(dates, "dates");
+		LocalDateTime[] result = new LocalDateTime[dates.length];
+		convert(dates.length, ZoneOffsetTable.of(zone), (from, to, cursor) -> {
+			for (int i = from; i < to; i++)
+			{
+				Date date = dates[i];
+				if (date != null)
+				{
+					long epochMilli = date.getTime();
+					long epochSecond = Math.floorDiv(epochMilli, 1000L);
+					result[i] = LocalDateTime.ofEpochSecond(epochSecond, nanos(date, epochMilli),
+						cursor.offset(epochSecond));
+				}
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Converts the given column of epoch milliseconds to a {@link LocalDateTime} column in the
+	 * given zone
+	 *
+	 * @param epochMillis
+	 *            the epoch milliseconds
+	 * @param zone
+	 *            the zone
+	 * @return the local date-times
+	 */
+	public static LocalDateTime[] toLocalDateTime(long[] epochMillis, ZoneId zone)
+	{
+		Objects.requireNonNull(epochMillis, "epochMillis");
+		LocalDateTime[] result = new LocalDateTime[epochMillis.length];
+		convert(epochMillis.length, ZoneOffsetTable.of(zone), (from, to, cursor) -> {
+			for (int i = from; i < to; i++)
+			{
+				long epochSecond = Math.floorDiv(epochMillis[i], 1000L);
+				result[i] = LocalDateTime.ofEpochSecond(epochSecond,
+					(int)Math.floorMod(epochMillis[i], 1000L) * 1_000_000,
+					cursor.offset(epochSecond));
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Converts the given {@link Date} column to an {@link OffsetDateTime} column with the
+	 * offsets of the given zone. The nanoseconds of {@link Timestamp} elements are kept
+	 *
+	 * @param dates
+	 *            the dates
+	 * @param zone
+	 *            the zone
+	 * @return the offset date-times
+	 */
+	public static OffsetDateTime[] toOffsetDateTime(Date[] dates, ZoneId zone)
+	{
+		Objects.requireNonNull(dates, "dates");
+		OffsetDateTime[] result = new OffsetDateTime[dates.length];
+		convert(dates.length, ZoneOffsetTable.of(zone), (from, to, cursor) -> {
+			for (int i = from; i < to; i++)
+			{
+				Date date = dates[i];
+				if (date != null)
+				{
+					long epochMilli = date.getTime();
+					long epochSecond = Math.floorDiv(epochMilli, 1000L);
+					ZoneOffset offset = cursor.offset(epochSecond);
+					result[i] = OffsetDateTime.of(LocalDateTime.ofEpochSecond(epochSecond,
+						nanos(date, epochMilli), offset), offset);
+				}
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Converts the given column of epoch milliseconds to an {@link OffsetDateTime} column with
+	 * the offsets of the given zone
+	 *
+	 * @param epochMillis
+	 *            the epoch milliseconds
+	 * @param zone
+	 *            the zone
+	 * @return the offset date-times
+	 */
+	public static OffsetDateTime[] toOffsetDateTime(long[] epochMillis, ZoneId zone)
+	{
+		Objects.requireNonNull(epochMillis, "epochMillis");
+		OffsetDateTime[] result = new OffsetDateTime[epochMillis.length];
+		convert(epochMillis.length, ZoneOffsetTable.of(zone), (from, to, cursor) -> {
+			for (int i = from; i < to; i++)
+			{
+				long epochSecond = Math.floorDiv(epochMillis[i], 1000L);
+				ZoneOffset offset = cursor.offset(epochSecond);
+				result[i] = OffsetDateTime.of(LocalDateTime.ofEpochSecond(epochSecond,
+					(int)Math.floorMod(epochMillis[i], 1000L) * 1_000_000, offset), offset);
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Converts the given {@link LocalDateTime} column in the given zone to a column of epoch
+	 * milliseconds. A local date-time in a gap is shifted forward by the length of the gap and a
+	 * local date-time in an overlap gets the earlier offset
+	 *
+	 * @param localDateTimes
+	 *            the local date-times
+	 * @param zone
+	 *            the zone
+	 * @return the epoch milliseconds
+	 * @throws NullPointerException
+	 *             if an element of the given column is null
+	 */
+	public static long[] toEpochMilli(LocalDateTime[] localDateTimes, ZoneId zone)
+	{
+		Objects.requireNonNull(localDateTimes, "localDateTimes");
+		long[] result = new long[localDateTimes.length];
+		convert(localDateTimes.length, ZoneOffsetTable.of(zone), (from, to, cursor) -> {
+			for (int i = from; i < to; i++)
+			{
+				result[i] = toEpochMilli(element(localDateTimes, i), cursor);
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Converts the given {@link LocalDateTime} column in the given zone to a {@link Date} column.
+	 * A local date-time in a gap is shifted forward by the length of the gap and a local
+	 * date-time in an overlap gets the earlier offset
+	 *
+	 * @param localDateTimes
+	 *            the local date-times
+	 * @param zone
+	 *            the zone
+	 * @return the dates
+	 */
+	public static Date[] toDate(LocalDateTime[] localDateTimes, ZoneId zone)
+	{
+		Objects.requireNonNull(localDateTimes, "localDateTimes");
+		Date[] result = new Date[localDateTimes.length];
+		convert(localDateTimes.length, ZoneOffsetTable.of(zone), (from, to, cursor) -> {
+			for (int i = from; i < to; i++)
+			{
+				if (localDateTimes[i] != null)
+				{
+					result[i] = new Date(toEpochMilli(localDateTimes[i], cursor));
+				}
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Converts the given column of epoch milliseconds to a column of the packed local dates in
+	 * the given zone in the sense of {@link EpochConversions#packYmd(long, ZoneId)}
+	 *
+	 * @param epochMillis
+	 *            the epoch milliseconds
+	 * @param zone
+	 *            the zone
+	 * @return the packed local dates
+	 * @throws ArithmeticException
+	 *             if the year of a local date can not be packed
+	 */
+	public static int[] packYmd(long[] epochMillis, ZoneId zone)
+	{
+		Objects.requireNonNull(epochMillis, "epochMillis");
+		int[] result = new int[epochMillis.length];
+		convert(epochMillis.length, ZoneOffsetTable.of(zone), (from, to, cursor) -> {
+			for (int i = from; i < to; i++)
+			{
+				long epochSecond = Math.floorDiv(epochMillis[i], 1000L);
+				long localSecond = epochSecond + cursor.offset(epochSecond).getTotalSeconds();
+				result[i] = EpochConversions.epochDayToYmd(Math.floorDiv(localSecond, 86400L));
+			}
+		});
+		return result;
+	}
+
+	private static long toEpochMilli(LocalDateTime localDateTime, OffsetCursor cursor)
+	{
+		long epochSecond = cursor.toEpochSecond(localDateTime.toEpochSecond(ZoneOffset.UTC));
+		return Math.addExact(Math.multiplyExact(epochSecond, 1000L),
+			localDateTime.getNano() / 1_000_000);
+	}
+
+	private static int nanos(Date date, long epochMilli)
+	{
+		return date instanceof Timestamp
+			? ((Timestamp)date).getNanos()
+			: (int)Math.floorMod(epochMilli, 1000L) * 1_000_000;
+	}
+
+	private static <T> T element(T[] column, int index)
+	{
+		T element = column[index];
+		if (element == null)
+		{
+			throw new NullPointerException("element " + index + " is null");
+		}
+		return element;
+	}
+
+	/**
+	 * Converts the given number of values either at once or in parallel chunks
+	 */
+	private static void convert(int size, ZoneOffsetTable table, RangeConverter converter)
+	{
+		if (size < PARALLEL_THRESHOLD)
+		{
+			converter.convert(0, size, new OffsetCursor(table));
+			return;
+		}
+		int chunks = (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		IntStream.range(0, chunks).parallel()
+			.forEach(chunk -> converter.convert(chunk * CHUNK_SIZE,
+				Math.min(size, (chunk + 1) * CHUNK_SIZE), new OffsetCursor(table)));
+	}
+
+	/**
+	 * The conversion of the values of a range of indexes
+	 */
+	private interface RangeConverter
+	{
+		void convert(int from, int to, OffsetCursor cursor);
+	}
+
+	/**
+	 * The cursor that keeps the offset segments of the last lookups
+	 */
+	private static final class OffsetCursor
+	{
+		private final ZoneOffsetTable table;
+		private long start = 1;
+		private long end;
+		private ZoneOffset offset;
+		private long localStart = 1;
+		private long localEnd;
+		private int localOffsetSeconds;
+
+		OffsetCursor(ZoneOffsetTable table)
+		{
+			this.table = table;
+		}
+
+		ZoneOffset offset(long epochSecond)
+		{
+			if (epochSecond < start || end <= epochSecond)
+			{
+				int index = table.indexOf(epochSecond);
+				if (index < 0)
+				{
+					return table.getOffset(epochSecond);
+				}
+				start = table.segmentStart(index);
+				end = table.segmentEnd(index);
+				offset = table.offsetAt(index);
+			}
+			return offset;
+		}
+
+		long toEpochSecond(long localEpochSecond)
+		{
+			if (localEpochSecond < localStart || localEnd <= localEpochSecond)
+			{
+				int index = table.localIndexOf(localEpochSecond);
+				if (index < 0)
+				{
+					return table.toEpochSecond(localEpochSecond);
+				}
+				localStart = table.localSegmentStart(index);
+				localEnd = table.localSegmentEnd(index);
+				localOffsetSeconds = table.offsetAt(index).getTotalSeconds();
+			}
+			return localEpochSecond - localOffsetSeconds;
+		}
+	}
+
+}
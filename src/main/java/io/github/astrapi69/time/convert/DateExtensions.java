@@ -51,7 +51,7 @@ public class DateExtensions
 	 */
 	public static LocalDate toLocalDate(Date date, ZoneId zone)
 	{
-		return date.toInstant().atZone(zone).toLocalDate();
+		return ZoneOffsetTable.of(zone).toLocalDateTime(date.toInstant()).toLocalDate();
 	}
 
 	/**
@@ -66,7 +66,7 @@ public class DateExtensions
 	 */
 	public static LocalDateTime toLocalDateTime(Date date, ZoneId zone)
 	{
-		return date.toInstant().atZone(zone).toLocalDateTime();
+		return ZoneOffsetTable.of(zone).toLocalDateTime(date.toInstant());
 	}
 
 	/**
@@ -83,7 +83,7 @@ public class DateExtensions
 	{
 		Objects.requireNonNull(date);
 		Objects.requireNonNull(zone);
-		return toOffsetDateTime(date, zone.getRules().getOffset(date.toInstant()));
+		return toOffsetDateTime(date, ZoneOffsetTable.of(zone).getOffset(date.toInstant()));
 	}
 
 	/**
@@ -131,6 +131,6 @@ public class DateExtensions
 	 */
 	public static ZoneOffset toZoneOffset(Instant instant, ZoneId zoneId)
 	{
-		return zoneId.getRules().getOffset(instant);
+		return ZoneOffsetTable.of(zoneId).getOffset(instant);
 	}
 }
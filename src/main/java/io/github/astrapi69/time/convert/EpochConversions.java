@@ -0,0 +1,225 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.convert;
+
+import java.time.ZoneId;
+
+/**
+ * The class {@link EpochConversions} provides allocation free conversions from epoch
+ * milliseconds and epoch days to calendar fields of the ISO calendar system. A date is packed
+ * into the <code>int</code> value <code>year * 10000 + month * 100 + day</code>, that has the
+ * decimal digits <code>yyyyMMdd</code> for positive years, so the packed values of two dates
+ * compare like the dates and are readable when printed. The years of packed dates are
+ * restricted to the range from -214747 to 214747. The offsets of a zone are looked up from the
+ * cached {@link ZoneOffsetTable} of the zone
+ */
+public final class EpochConversions
+{
+
+	/**
+	 * The number of days from 0000-03-01 to 1970-01-01
+	 */
+	private static final long DAYS_0000_TO_1970 = 719468L;
+
+	private static final int DAYS_PER_CYCLE = 146097;
+
+	private static final int MILLIS_PER_DAY = 86_400_000;
+
+	private static final int MIN_PACKED_YEAR = -214747;
+
+	private static final int MAX_PACKED_YEAR = 214747;
+
+	private EpochConversions()
+	{
+	}
+
+	/**
+	 * Converts the given epoch milliseconds to the epoch day of the local date in the given zone
+	 *
+	 * @param epochMilli
+	 *            the milliseconds from 1970-01-01T00:00:00Z
+	 * @param zone
+	 *            the zone
+	 * @return the days from 1970-01-01 of the local date
+	 */
+	public static long epochMilliToEpochDay(long epochMilli, ZoneId zone)
+	{
+		return Math.floorDiv(toLocalMilli(epochMilli, zone), MILLIS_PER_DAY);
+	}
+
+	/**
+	 * Converts the given epoch milliseconds to the milliseconds of the local time of day in the
+	 * given zone
+	 *
+	 * @param epochMilli
+	 *            the milliseconds from 1970-01-01T00:00:00Z
+	 * @param zone
+	 *            the zone
+	 * @return the milliseconds from midnight of the local time
+	 */
+	public static int epochMilliToMilliOfDay(long epochMilli, ZoneId zone)
+	{
+		return Math.floorMod(toLocalMilli(epochMilli, zone), MILLIS_PER_DAY);
+	}
+
+	/**
+	 * Converts the given epoch milliseconds to the packed <code>yyyyMMdd</code> value of the
+	 * local date in the given zone
+	 *
+	 * @param epochMilli
+	 *            the milliseconds from 1970-01-01T00:00:00Z
+	 * @param zone
+	 *            the zone
+	 * @return the packed local date
+	 * @throws ArithmeticException
+	 *             if the year of the local date can not be packed
+	 */
+	public static int packYmd(long epochMilli, ZoneId zone)
+	{
+		return epochDayToYmd(epochMilliToEpochDay(epochMilli, zone));
+	}
+
+	/**
+	 * Converts the given epoch day to the packed <code>yyyyMMdd</code> value of its date with the
+	 * civil from days algorithm of Howard Hinnant
+	 *
+	 * @param epochDay
+	 *            the days from 1970-01-01
+	 * @return the packed date
+	 * @throws ArithmeticException
+	 *             if the year of the date can not be packed
+	 */
+	public static int epochDayToYmd(long epochDay)
+	{
+		long days = epochDay + DAYS_0000_TO_1970;
+		long cycle = Math.floorDiv(days, DAYS_PER_CYCLE);
+		int dayOfCycle = (int)(days - cycle * DAYS_PER_CYCLE);
+		int yearOfCycle = (dayOfCycle - dayOfCycle / 1460 + dayOfCycle / 36524
+			- dayOfCycle / 146096) / 365;
+		int dayOfYear = dayOfCycle - (365 * yearOfCycle + yearOfCycle / 4 - yearOfCycle / 100);
+		// the months are counted from march, so the leap day is the last day of the year
+		int marchMonth = (5 * dayOfYear + 2) / 153;
+		int day = dayOfYear - (153 * marchMonth + 2) / 5 + 1;
+		int month = marchMonth < 10 ? marchMonth + 3 : marchMonth - 9;
+		long year = cycle * 400 + yearOfCycle + (month <= 2 ? 1 : 0);
+		if (year < MIN_PACKED_YEAR || MAX_PACKED_YEAR < year)
+		{
+			throw new ArithmeticException("year can not be packed: " + year);
+		}
+		return (int)year * 10000 + month * 100 + day;
+	}
+
+	/**
+	 * Converts the given packed <code>yyyyMMdd</code> value to the epoch day of its date with
+	 * the days from civil algorithm of Howard Hinnant
+	 *
+	 * @param ymd
+	 *            the packed date
+	 * @return the days from 1970-01-01
+	 * @throws IllegalArgumentException
+	 *             if the month or the day of the given packed date is invalid
+	 */
+	public static long ymdToEpochDay(int ymd)
+	{
+		int year = year(ymd);
+		int month = month(ymd);
+		int day = dayOfMonth(ymd);
+		if (month < 1 || 12 < month || day < 1 || lengthOfMonth(year, month) < day)
+		{
+			throw new IllegalArgumentException("invalid packed date: " + ymd);
+		}
+		int marchYear = month <= 2 ? year - 1 : year;
+		int cycle = Math.floorDiv(marchYear, 400);
+		int yearOfCycle = marchYear - cycle * 400;
+		int dayOfYear = (153 * (month <= 2 ? month + 9 : month - 3) + 2) / 5 + day - 1;
+		int dayOfCycle = yearOfCycle * 365 + yearOfCycle / 4 - yearOfCycle / 100 + dayOfYear;
+		return (long)cycle * DAYS_PER_CYCLE + dayOfCycle - DAYS_0000_TO_1970;
+	}
+
+	/**
+	 * Gets the year of the given packed <code>yyyyMMdd</code> value
+	 *
+	 * @param ymd
+	 *            the packed date
+	 * @return the year
+	 */
+	public static int year(int ymd)
+	{
+		return Math.floorDiv(ymd, 10000);
+	}
+
+	/**
+	 * Gets the month of the given packed <code>yyyyMMdd</code> value
+	 *
+	 * @param ymd
+	 *            the packed date
+	 * @return the month from 1 to 12
+	 */
+	public static int month(int ymd)
+	{
+		return Math.floorMod(ymd, 10000) / 100;
+	}
+
+	/**
+	 * Gets the day of month of the given packed <code>yyyyMMdd</code> value
+	 *
+	 * @param ymd
+	 *            the packed date
+	 * @return the day of month from 1 to 31
+	 */
+	public static int dayOfMonth(int ymd)
+	{
+		return Math.floorMod(ymd, 100);
+	}
+
+	/**
+	 * Gets the ISO day of week of the given epoch day
+	 *
+	 * @param epochDay
+	 *            the days from 1970-01-01
+	 * @return the day of week from 1 for monday to 7 for sunday
+	 */
+	public static int dayOfWeek(long epochDay)
+	{
+		return (int)Math.floorMod(epochDay + 3, 7L) + 1;
+	}
+
+	private static int lengthOfMonth(int year, int month)
+	{
+		if (month == 2)
+		{
+			return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0) ? 29 : 28;
+		}
+		return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+	}
+
+	private static long toLocalMilli(long epochMilli, ZoneId zone)
+	{
+		int offsetSeconds = ZoneOffsetTable.of(zone)
+			.getOffsetSeconds(Math.floorDiv(epochMilli, 1000L));
+		return Math.addExact(epochMilli, offsetSeconds * 1000L);
+	}
+
+}
@@ -29,6 +29,7 @@ import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.Date;
 import java.util.Locale;
+import java.util.Objects;
 
 import io.github.astrapi69.time.enumtype.DatePattern;
 import io.github.astrapi69.time.formatter.DateTimeFormatterFactory;
@@ -63,6 +64,40 @@ public class LocalDateExtensions
 		return java.sql.Date.valueOf(localDate);
 	}
 
+	/**
+	 * Converts the start of the given {@link LocalDate} in the given zone to a {@link Timestamp}
+	 * object independent of the default zone
+	 *
+	 * @param localDate
+	 *            The {@link LocalDate} to convert
+	 * @param zone
+	 *            the zone of the local date
+	 * @return The {@link Timestamp} object from the {@link LocalDate}
+	 * @see SqlDateTimeConverter
+	 */
+	public static Timestamp toTimestamp(LocalDate localDate, ZoneId zone)
+	{
+		Objects.requireNonNull(localDate);
+		return SqlDateTimeConverter.of(zone).toTimestamp(localDate);
+	}
+
+	/**
+	 * Converts the start of the given {@link LocalDate} in the given zone to a
+	 * {@link java.sql.Date} object independent of the default zone
+	 *
+	 * @param localDate
+	 *            the {@link LocalDate} object
+	 * @param zone
+	 *            the zone of the local date
+	 * @return The {@link java.sql.Date} object
+	 * @see SqlDateTimeConverter
+	 */
+	public static java.sql.Date toSqlDate(LocalDate localDate, ZoneId zone)
+	{
+		Objects.requireNonNull(localDate);
+		return SqlDateTimeConverter.of(zone).toSqlDate(localDate);
+	}
+
 	/**
 	 * Converts the given {@link LocalDate} to a {@link String} object from the given pattern
 	 *
@@ -26,11 +26,12 @@ package io.github.astrapi69.time.convert;
 
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Date;
 import java.util.Objects;
 
 import javax.xml.datatype.DatatypeConfigurationException;
-import javax.xml.datatype.DatatypeFactory;
+import javax.xml.datatype.DatatypeConstants;
 import javax.xml.datatype.XMLGregorianCalendar;
 
 /**
@@ -53,7 +54,8 @@ public class LocalDateTimeExtensions
 		throws DatatypeConfigurationException
 	{
 		Objects.requireNonNull(localDateTime);
-		return DatatypeFactory.newInstance().newXMLGregorianCalendar(localDateTime.toString());
+		return XMLDateTimeCodec.newXMLGregorianCalendar(localDateTime,
+			DatatypeConstants.FIELD_UNDEFINED);
 	}
 
 	/**
@@ -80,4 +82,21 @@ public class LocalDateTimeExtensions
 		return Timestamp.valueOf(localDateTime);
 	}
 
+	/**
+	 * Converts the given {@link LocalDateTime} in the given zone to a {@link Timestamp} object
+	 * independent of the default zone
+	 *
+	 * @param localDateTime
+	 *            The {@link LocalDateTime} to convert
+	 * @param zone
+	 *            the zone of the local date-time
+	 * @return The {@link Timestamp} object from the {@link LocalDateTime}
+	 * @see SqlDateTimeConverter
+	 */
+	public static Timestamp toTimestamp(LocalDateTime localDateTime, ZoneId zone)
+	{
+		Objects.requireNonNull(localDateTime);
+		return SqlDateTimeConverter.of(zone).toTimestamp(localDateTime);
+	}
+
 }
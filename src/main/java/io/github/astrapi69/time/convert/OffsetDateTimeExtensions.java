@@ -31,11 +31,9 @@ import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.Date;
-import java.util.GregorianCalendar;
 import java.util.Objects;
 
 import javax.xml.datatype.DatatypeConfigurationException;
-import javax.xml.datatype.DatatypeFactory;
 import javax.xml.datatype.XMLGregorianCalendar;
 
 /**
@@ -85,7 +83,7 @@ public class OffsetDateTimeExtensions
 	{
 		Objects.requireNonNull(localDateTime);
 		Objects.requireNonNull(zone);
-		return localDateTime.atZone(zone).toOffsetDateTime();
+		return ZoneOffsetTable.of(zone).toOffsetDateTime(localDateTime);
 	}
 
 	/**
@@ -107,11 +105,13 @@ public class OffsetDateTimeExtensions
 	}
 
 	/**
-	 * Converts the given {@link OffsetDateTime} to a {@link Timestamp} object
+	 * Converts the given {@link OffsetDateTime} to a {@link Timestamp} object. Note that the
+	 * offset is dropped and the local date-time is taken in the default zone, see
+	 * {@link #toInstantTimestamp(OffsetDateTime)} for a conversion of the instant
 	 *
 	 * @param offsetDateTime
 	 *            the {@link OffsetDateTime} object
-	 * @return The {@link ZonedDateTime} object
+	 * @return The {@link Timestamp} object
 	 */
 	public static Timestamp toTimestamp(OffsetDateTime offsetDateTime)
 	{
@@ -120,6 +120,22 @@ public class OffsetDateTimeExtensions
 		return Timestamp.valueOf(localDateTime);
 	}
 
+	/**
+	 * Converts the given {@link OffsetDateTime} to a {@link Timestamp} object of the same
+	 * instant. Other than {@link #toTimestamp(OffsetDateTime)} the offset is taken into account
+	 * and the result is independent of the default zone
+	 *
+	 * @param offsetDateTime
+	 *            the {@link OffsetDateTime} object
+	 * @return The {@link Timestamp} object
+	 * @see SqlDateTimeConverter
+	 */
+	public static Timestamp toInstantTimestamp(OffsetDateTime offsetDateTime)
+	{
+		Objects.requireNonNull(offsetDateTime);
+		return SqlDateTimeConverter.of(ZoneOffset.UTC).toTimestamp(offsetDateTime);
+	}
+
 	/**
 	 * Converts the given {@link OffsetDateTime} to a {@link XMLGregorianCalendar} object
 	 *
@@ -132,7 +148,8 @@ public class OffsetDateTimeExtensions
 	public static XMLGregorianCalendar toXMLGregorianCalendar(OffsetDateTime offsetDateTime)
 		throws DatatypeConfigurationException
 	{
-		return DatatypeFactory.newInstance()
-			.newXMLGregorianCalendar(GregorianCalendar.from(toZonedDateTime(offsetDateTime)));
+		Objects.requireNonNull(offsetDateTime);
+		return XMLDateTimeCodec.newXMLGregorianCalendar(offsetDateTime.toLocalDateTime(),
+			offsetDateTime.getOffset().getTotalSeconds() / 60);
 	}
 }
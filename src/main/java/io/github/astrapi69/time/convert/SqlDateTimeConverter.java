@@ -0,0 +1,197 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.convert;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.Objects;
+
+/**
+ * The class {@link SqlDateTimeConverter} converts java.time objects to and from {@link Timestamp}
+ * and {@link java.sql.Date} objects in a fixed zone. The epoch milliseconds are computed from the
+ * {@link ZoneOffsetTable} of the zone and the JDBC objects are created from them directly, so
+ * neither the default zone nor the {@link java.util.Calendar} of {@link Timestamp#valueOf} is
+ * involved
+ * <p>
+ * Local date-times are proleptic ISO date-times: a local date-time in a gap is shifted forward
+ * by the length of the gap and a local date-time in an overlap gets the earlier offset like with
+ * {@link java.time.ZonedDateTime#of(LocalDateTime, ZoneId)}. Note that the legacy methods of the
+ * JDBC objects, like {@link Timestamp#toLocalDateTime()}, work in the default zone and with the
+ * julian calendar before 1582
+ */
+public final class SqlDateTimeConverter
+{
+
+	private static final long SECONDS_PER_DAY = 86_400L;
+
+	private final ZoneOffsetTable offsetTable;
+
+	private SqlDateTimeConverter(ZoneOffsetTable offsetTable)
+	{
+		this.offsetTable = offsetTable;
+	}
+
+	/**
+	 * Factory method for create a new {@link SqlDateTimeConverter} object for the given zone
+	 *
+	 * @param zone
+	 *            the zone of the local date-times
+	 * @return the new {@link SqlDateTimeConverter} object
+	 */
+	public static SqlDateTimeConverter of(ZoneId zone)
+	{
+		Objects.requireNonNull(zone, "zone");
+		return new SqlDateTimeConverter(ZoneOffsetTable.of(zone));
+	}
+
+	/**
+	 * Gets the zone of the local date-times
+	 *
+	 * @return the zone
+	 */
+	public ZoneId getZone()
+	{
+		return offsetTable.getZone();
+	}
+
+	/**
+	 * Converts the given {@link LocalDateTime} in the zone of this converter to a
+	 * {@link Timestamp} object
+	 *
+	 * @param localDateTime
+	 *            the local date-time
+	 * @return the {@link Timestamp} object
+	 */
+	public Timestamp toTimestamp(LocalDateTime localDateTime)
+	{
+		Objects.requireNonNull(localDateTime, "localDateTime");
+		return newTimestamp(offsetTable.toEpochSecond(localDateTime), localDateTime.getNano());
+	}
+
+	/**
+	 * Converts the start of the given {@link LocalDate} in the zone of this converter to a
+	 * {@link Timestamp} object
+	 *
+	 * @param localDate
+	 *            the local date
+	 * @return the {@link Timestamp} object
+	 */
+	public Timestamp toTimestamp(LocalDate localDate)
+	{
+		Objects.requireNonNull(localDate, "localDate");
+		return newTimestamp(toEpochSecond(localDate), 0);
+	}
+
+	/**
+	 * Converts the given {@link OffsetDateTime} to a {@link Timestamp} object of the same
+	 * instant. The zone of this converter is not needed for this
+	 *
+	 * @param offsetDateTime
+	 *            the offset date-time
+	 * @return the {@link Timestamp} object
+	 */
+	public Timestamp toTimestamp(OffsetDateTime offsetDateTime)
+	{
+		Objects.requireNonNull(offsetDateTime, "offsetDateTime");
+		return newTimestamp(offsetDateTime.toEpochSecond(), offsetDateTime.getNano());
+	}
+
+	/**
+	 * Converts the start of the given {@link LocalDate} in the zone of this converter to a
+	 * {@link java.sql.Date} object
+	 *
+	 * @param localDate
+	 *            the local date
+	 * @return the {@link java.sql.Date} object
+	 */
+	public java.sql.Date toSqlDate(LocalDate localDate)
+	{
+		Objects.requireNonNull(localDate, "localDate");
+		return new java.sql.Date(toEpochMilli(toEpochSecond(localDate)));
+	}
+
+	/**
+	 * Converts the given {@link Timestamp} to a {@link LocalDateTime} object in the zone of this
+	 * converter
+	 *
+	 * @param timestamp
+	 *            the timestamp
+	 * @return the {@link LocalDateTime} object
+	 */
+	public LocalDateTime toLocalDateTime(Timestamp timestamp)
+	{
+		Objects.requireNonNull(timestamp, "timestamp");
+		long epochSecond = Math.floorDiv(timestamp.getTime(), 1000L);
+		return LocalDateTime.ofEpochSecond(epochSecond, timestamp.getNanos(),
+			offsetTable.getOffset(epochSecond));
+	}
+
+	/**
+	 * Converts the given {@link java.sql.Date} to a {@link LocalDate} object in the zone of this
+	 * converter
+	 *
+	 * @param date
+	 *            the date
+	 * @return the {@link LocalDate} object
+	 */
+	public LocalDate toLocalDate(java.sql.Date date)
+	{
+		Objects.requireNonNull(date, "date");
+		long epochSecond = Math.floorDiv(date.getTime(), 1000L);
+		return LocalDateTime.ofEpochSecond(epochSecond, 0, offsetTable.getOffset(epochSecond))
+			.toLocalDate();
+	}
+
+	private long toEpochSecond(LocalDate localDate)
+	{
+		return offsetTable.toEpochSecond(localDate.toEpochDay() * SECONDS_PER_DAY);
+	}
+
+	private static long toEpochMilli(long epochSecond)
+	{
+		try
+		{
+			return Math.multiplyExact(epochSecond, 1000L);
+		}
+		catch (ArithmeticException exception)
+		{
+			throw new IllegalArgumentException(exception);
+		}
+	}
+
+	/**
+	 * Creates a new {@link Timestamp} object like {@link Timestamp#from(java.time.Instant)}
+	 */
+	private static Timestamp newTimestamp(long epochSecond, int nano)
+	{
+		Timestamp timestamp = new Timestamp(toEpochMilli(epochSecond));
+		timestamp.setNanos(nano);
+		return timestamp;
+	}
+
+}
@@ -0,0 +1,777 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.convert;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.GregorianCalendar;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.TimeZone;
+
+import javax.xml.datatype.DatatypeConfigurationException;
+import javax.xml.datatype.DatatypeConstants;
+import javax.xml.datatype.Duration;
+import javax.xml.datatype.XMLGregorianCalendar;
+import javax.xml.namespace.QName;
+
+/**
+ * The class {@link TemporalXMLGregorianCalendar} is an {@link XMLGregorianCalendar} that keeps
+ * its fields as the primitive values of java.time, so it is created from and converted to
+ * {@link LocalDateTime} and {@link OffsetDateTime} objects without a
+ * {@link java.util.GregorianCalendar} or a {@link javax.xml.datatype.DatatypeFactory}. The
+ * lexical form, the comparison and the normalization of complete date-times are computed
+ * directly. The addition of durations, the other comparisons and the conversions to a
+ * {@link GregorianCalendar} are delegated to a copy from the cached
+ * {@link javax.xml.datatype.DatatypeFactory}
+ * <p>
+ * The years are limited to the years of {@link LocalDate}, so there is no eon, and the
+ * fractional second is limited to nanoseconds. Note that the {@link XMLGregorianCalendar} of
+ * the JDK can only be compared with its own instances, so a comparison has to be called on an
+ * object of this class if the other calendar comes from the JDK
+ */
+public final class TemporalXMLGregorianCalendar extends XMLGregorianCalendar
+{
+
+	private static final int UNDEFINED = DatatypeConstants.FIELD_UNDEFINED;
+
+	private static final int MAX_YEAR = 999_999_999;
+
+	private int year;
+
+	private int month;
+
+	private int day;
+
+	private int hour;
+
+	private int minute;
+
+	private int second;
+
+	/**
+	 * The nanoseconds of the fractional second or undefined
+	 */
+	private int nano;
+
+	/**
+	 * The timezone offset in minutes or undefined
+	 */
+	private int timezone;
+
+	/**
+	 * The fields at the creation for {@link #reset()}
+	 */
+	private final int[] original;
+
+	private TemporalXMLGregorianCalendar(int year, int month, int day, int hour, int minute,
+		int second, int nano, int timezone)
+	{
+		this.year = year;
+		this.month = month;
+		this.day = day;
+		this.hour = hour;
+		this.minute = minute;
+		this.second = second;
+		this.nano = nano;
+		this.timezone = timezone;
+		this.original = fields();
+	}
+
+	/**
+	 * Factory method for create a new {@link TemporalXMLGregorianCalendar} object without a
+	 * timezone from the given {@link LocalDateTime} object
+	 *
+	 * @param localDateTime
+	 *            the local date-time
+	 * @return the new {@link TemporalXMLGregorianCalendar} object
+	 */
+	public static TemporalXMLGregorianCalendar of(LocalDateTime localDateTime)
+	{
+		Objects.requireNonNull(localDateTime, "localDateTime");
+		return new TemporalXMLGregorianCalendar(
+			XMLDateTimeCodec.toXmlYear(localDateTime.getYear()), localDateTime.getMonthValue(),
+			localDateTime.getDayOfMonth(), localDateTime.getHour(), localDateTime.getMinute(),
+			localDateTime.getSecond(), localDateTime.getNano(), UNDEFINED);
+	}
+
+	/**
+	 * Factory method for create a new {@link TemporalXMLGregorianCalendar} object with the
+	 * timezone of the offset from the given {@link OffsetDateTime} object
+	 *
+	 * @param offsetDateTime
+	 *            the offset date-time
+	 * @return the new {@link TemporalXMLGregorianCalendar} object
+	 * @throws IllegalArgumentException
+	 *             if the offset has seconds
+	 */
+	public static TemporalXMLGregorianCalendar of(OffsetDateTime offsetDateTime)
+	{
+		Objects.requireNonNull(offsetDateTime, "offsetDateTime");
+		int offsetSeconds = offsetDateTime.getOffset().getTotalSeconds();
+		if (offsetSeconds % 60 != 0)
+		{
+			throw new IllegalArgumentException(
+				"offset with seconds is not supported: " + offsetDateTime.getOffset());
+		}
+		TemporalXMLGregorianCalendar calendar = of(offsetDateTime.toLocalDateTime());
+		calendar.timezone = offsetSeconds / 60;
+		calendar.original[7] = calendar.timezone;
+		return calendar;
+	}
+
+	/**
+	 * Converts this calendar to a {@link LocalDateTime} object. The end of day
+	 * <code>24:00:00</code> is converted to the start of the next day and an undefined
+	 * fractional second is zero
+	 *
+	 * @return the {@link LocalDateTime} object
+	 * @throws IllegalStateException
+	 *             if this calendar is not a complete date-time or has a leap second
+	 */
+	public LocalDateTime toLocalDateTime()
+	{
+		LocalDateTime localDateTime = toLocalDateTime(this);
+		if (localDateTime == null)
+		{
+			throw new IllegalStateException(
+				"calendar is not a date-time that java.time can represent: " + toXMLFormat());
+		}
+		return localDateTime;
+	}
+
+	/**
+	 * Converts this calendar to an {@link OffsetDateTime} object in the sense of
+	 * {@link #toLocalDateTime()}
+	 *
+	 * @return the {@link OffsetDateTime} object
+	 * @throws IllegalStateException
+	 *             if this calendar is not a complete date-time with a timezone or has a leap
+	 *             second
+	 */
+	public OffsetDateTime toOffsetDateTime()
+	{
+		if (timezone == UNDEFINED)
+		{
+			throw new IllegalStateException("calendar has no timezone: " + toXMLFormat());
+		}
+		return toLocalDateTime().atOffset(ZoneOffset.ofTotalSeconds(timezone * 60));
+	}
+
+	/**
+	 * Converts this calendar to a {@link ZonedDateTime} object with the offset as zone in the
+	 * sense of {@link #toOffsetDateTime()}
+	 *
+	 * @return the {@link ZonedDateTime} object
+	 * @throws IllegalStateException
+	 *             if this calendar is not a complete date-time with a timezone or has a leap
+	 *             second
+	 */
+	public ZonedDateTime toZonedDateTime()
+	{
+		return toOffsetDateTime().toZonedDateTime();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void clear()
+	{
+		year = UNDEFINED;
+		month = UNDEFINED;
+		day = UNDEFINED;
+		hour = UNDEFINED;
+		minute = UNDEFINED;
+		second = UNDEFINED;
+		nano = UNDEFINED;
+		timezone = UNDEFINED;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void reset()
+	{
+		year = original[0];
+		month = original[1];
+		day = original[2];
+		hour = original[3];
+		minute = original[4];
+		second = original[5];
+		nano = original[6];
+		timezone = original[7];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the given year is outside of the years of {@link LocalDate}
+	 */
+	@Override
+	public void setYear(BigInteger year)
+	{
+		if (year == null)
+		{
+			this.year = UNDEFINED;
+			return;
+		}
+		if (BigInteger.valueOf(MAX_YEAR + 1L).compareTo(year.abs()) < 0)
+		{
+			throw new IllegalArgumentException("year is not supported: " + year);
+		}
+		setYear(year.intValue());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the given year is outside of the years of {@link LocalDate}
+	 */
+	@Override
+	public void setYear(int year)
+	{
+		if (year != UNDEFINED && (year < -MAX_YEAR - 1 || MAX_YEAR < year))
+		{
+			throw new IllegalArgumentException("year is not supported: " + year);
+		}
+		this.year = year;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setMonth(int month)
+	{
+		this.month = check("month", month, 1, 12);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setDay(int day)
+	{
+		this.day = check("day", day, 1, 31);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setTimezone(int offset)
+	{
+		this.timezone = check("timezone", offset, -14 * 60, 14 * 60);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setHour(int hour)
+	{
+		this.hour = check("hour", hour, 0, 24);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setMinute(int minute)
+	{
+		this.minute = check("minute", minute, 0, 59);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setSecond(int second)
+	{
+		this.second = check("second", second, 0, 60);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setMillisecond(int millisecond)
+	{
+		int value = check("millisecond", millisecond, 0, 999);
+		this.nano = value == UNDEFINED ? UNDEFINED : value * 1_000_000;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the given fractional second has more than nanosecond precision
+	 */
+	@Override
+	public void setFractionalSecond(BigDecimal fractional)
+	{
+		this.nano = toNano(fractional);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public BigInteger getEon()
+	{
+		return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getYear()
+	{
+		return year;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public BigInteger getEonAndYear()
+	{
+		return year == UNDEFINED ? null : BigInteger.valueOf(year);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getMonth()
+	{
+		return month;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getDay()
+	{
+		return day;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getTimezone()
+	{
+		return timezone;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getHour()
+	{
+		return hour;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getMinute()
+	{
+		return minute;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getSecond()
+	{
+		return second;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getMillisecond()
+	{
+		return nano == UNDEFINED ? UNDEFINED : nano / 1_000_000;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public BigDecimal getFractionalSecond()
+	{
+		return nano == UNDEFINED ? null : BigDecimal.valueOf(nano, 9).stripTrailingZeros();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int compare(XMLGregorianCalendar xmlGregorianCalendar)
+	{
+		Objects.requireNonNull(xmlGregorianCalendar, "xmlGregorianCalendar");
+		LocalDateTime first = toLocalDateTime(this);
+		LocalDateTime second = toLocalDateTime(xmlGregorianCalendar);
+		int otherTimezone = xmlGregorianCalendar.getTimezone();
+		if (first != null && second != null
+			&& (timezone == UNDEFINED) == (otherTimezone == UNDEFINED))
+		{
+			int result = timezone == UNDEFINED
+				? first.compareTo(second)
+				: first.minusMinutes(timezone).compareTo(second.minusMinutes(otherTimezone));
+			return Integer.signum(result);
+		}
+		return toDefault(this).compare(toDefault(xmlGregorianCalendar));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public XMLGregorianCalendar normalize()
+	{
+		LocalDateTime localDateTime = toLocalDateTime(this);
+		if (localDateTime != null && timezone != UNDEFINED && hour != 24)
+		{
+			LocalDateTime utc = localDateTime.minusMinutes(timezone);
+			return new TemporalXMLGregorianCalendar(XMLDateTimeCodec.toXmlYear(utc.getYear()),
+				utc.getMonthValue(), utc.getDayOfMonth(), utc.getHour(), utc.getMinute(),
+				utc.getSecond(), nano, 0);
+		}
+		XMLGregorianCalendar normalized = toDefault(this).normalize();
+		return new TemporalXMLGregorianCalendar(normalized.getYear(), normalized.getMonth(),
+			normalized.getDay(), normalized.getHour(), normalized.getMinute(),
+			normalized.getSecond(), toNano(normalized.getFractionalSecond()),
+			normalized.getTimezone());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toXMLFormat()
+	{
+		QName type = getXMLSchemaType();
+		StringBuilder builder = new StringBuilder(XMLDateTimeCodec.MAX_LENGTH);
+		if (DatatypeConstants.DATETIME.equals(type))
+		{
+			appendDate(builder).append('T');
+			appendTime(builder);
+		}
+		else if (DatatypeConstants.DATE.equals(type))
+		{
+			appendDate(builder);
+		}
+		else if (DatatypeConstants.TIME.equals(type))
+		{
+			appendTime(builder);
+		}
+		else if (DatatypeConstants.GYEARMONTH.equals(type))
+		{
+			appendYear(builder).append('-');
+			append(builder, month, 2);
+		}
+		else if (DatatypeConstants.GMONTHDAY.equals(type))
+		{
+			append(builder.append("--"), month, 2).append('-');
+			append(builder, day, 2);
+		}
+		else if (DatatypeConstants.GYEAR.equals(type))
+		{
+			appendYear(builder);
+		}
+		else if (DatatypeConstants.GMONTH.equals(type))
+		{
+			append(builder.append("--"), month, 2);
+		}
+		else
+		{
+			append(builder.append("---"), day, 2);
+		}
+		if (timezone == 0)
+		{
+			builder.append('Z');
+		}
+		else if (timezone != UNDEFINED)
+		{
+			builder.append(timezone < 0 ? '-' : '+');
+			append(builder, Math.abs(timezone) / 60, 2).append(':');
+			append(builder, Math.abs(timezone) % 60, 2);
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public QName getXMLSchemaType()
+	{
+		int mask = (year != UNDEFINED ? 0x20 : 0) | (month != UNDEFINED ? 0x10 : 0)
+			| (day != UNDEFINED ? 0x08 : 0) | (hour != UNDEFINED ? 0x04 : 0)
+			| (minute != UNDEFINED ? 0x02 : 0) | (second != UNDEFINED ? 0x01 : 0);
+		switch (mask)
+		{
+			case 0x3F :
+				return DatatypeConstants.DATETIME;
+			case 0x38 :
+				return DatatypeConstants.DATE;
+			case 0x07 :
+				return DatatypeConstants.TIME;
+			case 0x30 :
+				return DatatypeConstants.GYEARMONTH;
+			case 0x18 :
+				return DatatypeConstants.GMONTHDAY;
+			case 0x20 :
+				return DatatypeConstants.GYEAR;
+			case 0x10 :
+				return DatatypeConstants.GMONTH;
+			case 0x08 :
+				return DatatypeConstants.GDAY;
+			default :
+				throw new IllegalStateException(
+					"the set fields do not match an XML schema date-time type");
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isValid()
+	{
+		if (month != UNDEFINED && day != UNDEFINED)
+		{
+			// the year 2000 is a leap year for the day of a month without a year
+			int isoYear = year == UNDEFINED ? 2000 : XMLDateTimeCodec.toIsoYear(year);
+			if (LocalDate.of(isoYear, month, 1).lengthOfMonth() < day)
+			{
+				return false;
+			}
+		}
+		if (hour == 24 && (minute != 0 || second != 0 || 0 < nano))
+		{
+			return false;
+		}
+		return year != 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void add(Duration duration)
+	{
+		XMLGregorianCalendar calendar = toDefault(this);
+		calendar.add(duration);
+		copyFrom(calendar);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public GregorianCalendar toGregorianCalendar()
+	{
+		return toDefault(this).toGregorianCalendar();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public GregorianCalendar toGregorianCalendar(TimeZone timezone, Locale aLocale,
+		XMLGregorianCalendar defaults)
+	{
+		return toDefault(this).toGregorianCalendar(timezone, aLocale,
+			defaults == null ? null : toDefault(defaults));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public TimeZone getTimeZone(int defaultZoneoffset)
+	{
+		return toDefault(this).getTimeZone(defaultZoneoffset);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object clone()
+	{
+		return new TemporalXMLGregorianCalendar(year, month, day, hour, minute, second, nano,
+			timezone);
+	}
+
+	private int[] fields()
+	{
+		return new int[] { year, month, day, hour, minute, second, nano, timezone };
+	}
+
+	private void copyFrom(XMLGregorianCalendar calendar)
+	{
+		setYear(calendar.getEonAndYear());
+		setMonth(calendar.getMonth());
+		setDay(calendar.getDay());
+		setHour(calendar.getHour());
+		setMinute(calendar.getMinute());
+		setSecond(calendar.getSecond());
+		setFractionalSecond(calendar.getFractionalSecond());
+		setTimezone(calendar.getTimezone());
+	}
+
+	private StringBuilder appendYear(StringBuilder builder)
+	{
+		if (year < 0)
+		{
+			builder.append('-');
+		}
+		return append(builder, Math.abs(year), 4);
+	}
+
+	private StringBuilder appendDate(StringBuilder builder)
+	{
+		appendYear(builder).append('-');
+		append(builder, month, 2).append('-');
+		return append(builder, day, 2);
+	}
+
+	private StringBuilder appendTime(StringBuilder builder)
+	{
+		append(builder, hour, 2).append(':');
+		append(builder, minute, 2).append(':');
+		append(builder, second, 2);
+		if (nano != UNDEFINED && nano != 0)
+		{
+			int value = nano;
+			int length = 9;
+			while (value % 10 == 0)
+			{
+				value /= 10;
+				length--;
+			}
+			append(builder.append('.'), value, length);
+		}
+		return builder;
+	}
+
+	private static StringBuilder append(StringBuilder builder, int value, int length)
+	{
+		String digits = Integer.toString(value);
+		for (int i = digits.length(); i < length; i++)
+		{
+			builder.append('0');
+		}
+		return builder.append(digits);
+	}
+
+	private static int toNano(BigDecimal fractional)
+	{
+		if (fractional == null)
+		{
+			return UNDEFINED;
+		}
+		if (fractional.signum() < 0 || BigDecimal.ONE.compareTo(fractional) <= 0)
+		{
+			throw new IllegalArgumentException("invalid fractional second: " + fractional);
+		}
+		try
+		{
+			return fractional.movePointRight(9).intValueExact();
+		}
+		catch (ArithmeticException exception)
+		{
+			throw new IllegalArgumentException(
+				"more than nanosecond precision is not supported: " + fractional, exception);
+		}
+	}
+
+	private static int check(String name, int value, int min, int max)
+	{
+		if (value != UNDEFINED && (value < min || max < value))
+		{
+			throw new IllegalArgumentException("invalid " + name + ": " + value);
+		}
+		return value;
+	}
+
+	/**
+	 * Converts the given calendar to a {@link LocalDateTime} object
+	 *
+	 * @return the {@link LocalDateTime} object or null if the given calendar is not a complete
+	 *         date-time that java.time can represent
+	 */
+	static LocalDateTime toLocalDateTime(XMLGregorianCalendar calendar)
+	{
+		if (calendar.getYear() == UNDEFINED || calendar.getMonth() == UNDEFINED
+			|| calendar.getDay() == UNDEFINED || calendar.getHour() == UNDEFINED
+			|| calendar.getMinute() == UNDEFINED || calendar.getSecond() == UNDEFINED)
+		{
+			return null;
+		}
+		return XMLGregorianCalendarExtensions.toLocalFields(calendar);
+	}
+
+	/**
+	 * Copies the given calendar into an {@link XMLGregorianCalendar} object of the cached
+	 * {@link javax.xml.datatype.DatatypeFactory}
+	 */
+	private static XMLGregorianCalendar toDefault(XMLGregorianCalendar calendar)
+	{
+		try
+		{
+			return XMLDateTimeCodec.getDatatypeFactory().newXMLGregorianCalendar(
+				calendar.getEonAndYear(), calendar.getMonth(), calendar.getDay(),
+				calendar.getHour(), calendar.getMinute(), calendar.getSecond(),
+				calendar.getFractionalSecond(), calendar.getTimezone());
+		}
+		catch (DatatypeConfigurationException exception)
+		{
+			throw new IllegalStateException(exception);
+		}
+	}
+
+}
@@ -0,0 +1,616 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.convert;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Objects;
+
+import javax.xml.datatype.DatatypeConfigurationException;
+import javax.xml.datatype.DatatypeConstants;
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.datatype.XMLGregorianCalendar;
+
+/**
+ * The class {@link XMLDateTimeCodec} provides a cached {@link DatatypeFactory} and methods for
+ * format java.time values into the lexical form of <code>xs:dateTime</code> and parse them back
+ * without {@link DatatypeFactory} or {@link java.util.GregorianCalendar}. The values are written
+ * into a {@link StringBuilder} or an ASCII <code>byte</code> array and are parsed from a
+ * {@link CharSequence} or an ASCII <code>byte</code> array
+ * <p>
+ * The years are mapped like the {@link DatatypeFactory} maps the years of a
+ * {@link java.util.GregorianCalendar}: XML Schema 1.0 has no year zero, so the ISO year 0 is
+ * the year -0001, the ISO year -1 is the year -0002 and so on. A fractional second is written
+ * without trailing zeros and omitted if it is zero. A zero offset is written as <code>Z</code>
+ */
+public final class XMLDateTimeCodec
+{
+
+	/**
+	 * The maximum number of characters of a formatted value
+	 */
+	public static final int MAX_LENGTH = 42;
+
+	private static volatile DatatypeFactory datatypeFactory;
+
+	private XMLDateTimeCodec()
+	{
+	}
+
+	/**
+	 * Gets the cached {@link DatatypeFactory} object. The factory is created once with
+	 * {@link DatatypeFactory#newDefaultInstance()} and shared, so the implementation of the JDK
+	 * is used regardless of other providers on the class path. Its factory methods have no state
+	 * and can be called from any thread
+	 *
+	 * @return the cached {@link DatatypeFactory} object
+	 * @throws DatatypeConfigurationException
+	 *             is thrown if the implementation is not available or cannot be instantiated
+	 */
+	public static DatatypeFactory getDatatypeFactory() throws DatatypeConfigurationException
+	{
+		DatatypeFactory factory = datatypeFactory;
+		if (factory == null)
+		{
+			factory = DatatypeFactory.newDefaultInstance();
+			datatypeFactory = factory;
+		}
+		return factory;
+	}
+
+	/**
+	 * Creates a new {@link XMLGregorianCalendar} object of the cached {@link DatatypeFactory}
+	 * from the fields of the given {@link LocalDateTime} object. The fractional second has the
+	 * digits of {@link #toFractionalSecond(int)}
+	 *
+	 * @param localDateTime
+	 *            the local date-time
+	 * @param timezone
+	 *            the timezone offset in minutes or {@link DatatypeConstants#FIELD_UNDEFINED}
+	 * @return the new {@link XMLGregorianCalendar} object
+	 * @throws DatatypeConfigurationException
+	 *             is thrown if the implementation is not available or cannot be instantiated
+	 */
+	static XMLGregorianCalendar newXMLGregorianCalendar(LocalDateTime localDateTime,
+		int timezone) throws DatatypeConfigurationException
+	{
+		return getDatatypeFactory().newXMLGregorianCalendar(
+			BigInteger.valueOf(toXmlYear(localDateTime.getYear())),
+			localDateTime.getMonthValue(), localDateTime.getDayOfMonth(),
+			localDateTime.getHour(), localDateTime.getMinute(), localDateTime.getSecond(),
+			toFractionalSecond(localDateTime.getNano()), timezone);
+	}
+
+	/**
+	 * Converts the given nanoseconds to a fractional second with the millisecond, microsecond or
+	 * nanosecond digits like {@link LocalDateTime#toString()}, but with at least the millisecond
+	 * digits like a {@link XMLGregorianCalendar} from a {@link java.util.GregorianCalendar}
+	 *
+	 * @param nano
+	 *            the nanoseconds of the second
+	 * @return the fractional second
+	 */
+	static BigDecimal toFractionalSecond(int nano)
+	{
+		int scale = nano % 1_000_000 == 0 ? 3 : nano % 1_000 == 0 ? 6 : 9;
+		return BigDecimal.valueOf(nano, 9).setScale(scale);
+	}
+
+	/**
+	 * Formats the given {@link LocalDateTime} object into the lexical form of
+	 * <code>xs:dateTime</code> without a timezone
+	 *
+	 * @param localDateTime
+	 *            the local date-time
+	 * @return the formatted value
+	 */
+	public static String format(LocalDateTime localDateTime)
+	{
+		return format(localDateTime, new StringBuilder(MAX_LENGTH)).toString();
+	}
+
+	/**
+	 * Formats the given {@link OffsetDateTime} object into the lexical form of
+	 * <code>xs:dateTime</code> with a timezone
+	 *
+	 * @param offsetDateTime
+	 *            the offset date-time
+	 * @return the formatted value
+	 * @throws IllegalArgumentException
+	 *             if the offset has seconds
+	 */
+	public static String format(OffsetDateTime offsetDateTime)
+	{
+		return format(offsetDateTime, new StringBuilder(MAX_LENGTH)).toString();
+	}
+
+	/**
+	 * Appends the given {@link LocalDateTime} object in the lexical form of
+	 * <code>xs:dateTime</code> without a timezone to the given {@link StringBuilder}
+	 *
+	 * @param localDateTime
+	 *            the local date-time
+	 * @param builder
+	 *            the builder to append to
+	 * @return the given builder
+	 */
+	public static StringBuilder format(LocalDateTime localDateTime, StringBuilder builder)
+	{
+		Objects.requireNonNull(localDateTime, "localDateTime");
+		Objects.requireNonNull(builder, "builder");
+		byte[] buffer = new byte[MAX_LENGTH];
+		int length = format(localDateTime, buffer, 0);
+		for (int i = 0; i < length; i++)
+		{
+			builder.append((char)buffer[i]);
+		}
+		return builder;
+	}
+
+	/**
+	 * Appends the given {@link OffsetDateTime} object in the lexical form of
+	 * <code>xs:dateTime</code> with a timezone to the given {@link StringBuilder}
+	 *
+	 * @param offsetDateTime
+	 *            the offset date-time
+	 * @param builder
+	 *            the builder to append to
+	 * @return the given builder
+	 * @throws IllegalArgumentException
+	 *             if the offset has seconds
+	 */
+	public static StringBuilder format(OffsetDateTime offsetDateTime, StringBuilder builder)
+	{
+		Objects.requireNonNull(offsetDateTime, "offsetDateTime");
+		Objects.requireNonNull(builder, "builder");
+		byte[] buffer = new byte[MAX_LENGTH];
+		int length = format(offsetDateTime, buffer, 0);
+		for (int i = 0; i < length; i++)
+		{
+			builder.append((char)buffer[i]);
+		}
+		return builder;
+	}
+
+	/**
+	 * Writes the given {@link LocalDateTime} object in the lexical form of
+	 * <code>xs:dateTime</code> without a timezone as ASCII into the given buffer
+	 *
+	 * @param localDateTime
+	 *            the local date-time
+	 * @param buffer
+	 *            the buffer with at least {@link #MAX_LENGTH} bytes from the given position
+	 * @param position
+	 *            the position in the buffer to write to
+	 * @return the position after the written value
+	 */
+	public static int format(LocalDateTime localDateTime, byte[] buffer, int position)
+	{
+		Objects.requireNonNull(localDateTime, "localDateTime");
+		return formatDateTime(localDateTime, buffer, position);
+	}
+
+	/**
+	 * Writes the given {@link OffsetDateTime} object in the lexical form of
+	 * <code>xs:dateTime</code> with a timezone as ASCII into the given buffer
+	 *
+	 * @param offsetDateTime
+	 *            the offset date-time
+	 * @param buffer
+	 *            the buffer with at least {@link #MAX_LENGTH} bytes from the given position
+	 * @param position
+	 *            the position in the buffer to write to
+	 * @return the position after the written value
+	 * @throws IllegalArgumentException
+	 *             if the offset has seconds
+	 */
+	public static int format(OffsetDateTime offsetDateTime, byte[] buffer, int position)
+	{
+		Objects.requireNonNull(offsetDateTime, "offsetDateTime");
+		int offsetSeconds = offsetDateTime.getOffset().getTotalSeconds();
+		if (offsetSeconds % 60 != 0)
+		{
+			throw new IllegalArgumentException(
+				"offset with seconds can not be formatted: " + offsetDateTime.getOffset());
+		}
+		int end = formatDateTime(offsetDateTime.toLocalDateTime(), buffer, position);
+		return formatTimezone(offsetSeconds / 60, buffer, end);
+	}
+
+	/**
+	 * Parses the given value in the lexical form of <code>xs:dateTime</code> without a timezone
+	 *
+	 * @param value
+	 *            the value to parse
+	 * @return the parsed {@link LocalDateTime} object
+	 * @throws IllegalArgumentException
+	 *             if the given value is not a valid <code>xs:dateTime</code> without a timezone
+	 */
+	public static LocalDateTime parseLocalDateTime(CharSequence value)
+	{
+		TemporalXMLGregorianCalendar calendar = parse(value);
+		if (calendar.getTimezone() != DatatypeConstants.FIELD_UNDEFINED)
+		{
+			throw new IllegalArgumentException("value has a timezone: " + value);
+		}
+		return calendar.toLocalDateTime();
+	}
+
+	/**
+	 * Parses the given value in the lexical form of <code>xs:dateTime</code> with a timezone
+	 *
+	 * @param value
+	 *            the value to parse
+	 * @return the parsed {@link OffsetDateTime} object
+	 * @throws IllegalArgumentException
+	 *             if the given value is not a valid <code>xs:dateTime</code> with a timezone
+	 */
+	public static OffsetDateTime parseOffsetDateTime(CharSequence value)
+	{
+		TemporalXMLGregorianCalendar calendar = parse(value);
+		if (calendar.getTimezone() == DatatypeConstants.FIELD_UNDEFINED)
+		{
+			throw new IllegalArgumentException("value has no timezone: " + value);
+		}
+		return calendar.toOffsetDateTime();
+	}
+
+	/**
+	 * Parses the given value in the lexical form of <code>xs:dateTime</code> with an optional
+	 * timezone. The end of day <code>24:00:00</code> is parsed as the start of the next day
+	 *
+	 * @param value
+	 *            the value to parse
+	 * @return the parsed {@link TemporalXMLGregorianCalendar} object
+	 * @throws IllegalArgumentException
+	 *             if the given value is not a valid <code>xs:dateTime</code> or has more than
+	 *             nanosecond precision
+	 */
+	public static TemporalXMLGregorianCalendar parse(CharSequence value)
+	{
+		Objects.requireNonNull(value, "value");
+		return new Parser(value, 0, value.length()).parse();
+	}
+
+	/**
+	 * Parses the given ASCII bytes in the lexical form of <code>xs:dateTime</code> with an
+	 * optional timezone like {@link #parse(CharSequence)}
+	 *
+	 * @param bytes
+	 *            the bytes
+	 * @param from
+	 *            the index of the first byte to parse
+	 * @param to
+	 *            the index after the last byte to parse
+	 * @return the parsed {@link TemporalXMLGregorianCalendar} object
+	 * @throws IllegalArgumentException
+	 *             if the given bytes are not a valid <code>xs:dateTime</code> or have more than
+	 *             nanosecond precision
+	 */
+	public static TemporalXMLGregorianCalendar parse(byte[] bytes, int from, int to)
+	{
+		Objects.requireNonNull(bytes, "bytes");
+		Objects.checkFromToIndex(from, to, bytes.length);
+		return new Parser(new AsciiSequence(bytes), from, to).parse();
+	}
+
+	/**
+	 * Converts the given ISO year to the year of XML Schema 1.0
+	 */
+	static int toXmlYear(int isoYear)
+	{
+		return isoYear <= 0 ? isoYear - 1 : isoYear;
+	}
+
+	/**
+	 * Converts the given year of XML Schema 1.0 to the ISO year. The year zero is treated as
+	 * the year before the year 1 like in later versions of XML Schema
+	 */
+	static int toIsoYear(int xmlYear)
+	{
+		return xmlYear < 0 ? xmlYear + 1 : xmlYear;
+	}
+
+	private static int formatDateTime(LocalDateTime localDateTime, byte[] buffer, int position)
+	{
+		int year = toXmlYear(localDateTime.getYear());
+		int index = position;
+		if (year < 0)
+		{
+			buffer[index++] = '-';
+			year = -year;
+		}
+		if (year < 10000)
+		{
+			index = digits(year, 4, buffer, index);
+		}
+		else
+		{
+			index = digits(year, Integer.toString(year).length(), buffer, index);
+		}
+		buffer[index++] = '-';
+		index = digits(localDateTime.getMonthValue(), 2, buffer, index);
+		buffer[index++] = '-';
+		index = digits(localDateTime.getDayOfMonth(), 2, buffer, index);
+		buffer[index++] = 'T';
+		index = digits(localDateTime.getHour(), 2, buffer, index);
+		buffer[index++] = ':';
+		index = digits(localDateTime.getMinute(), 2, buffer, index);
+		buffer[index++] = ':';
+		index = digits(localDateTime.getSecond(), 2, buffer, index);
+		int nano = localDateTime.getNano();
+		if (nano != 0)
+		{
+			int length = 9;
+			while (nano % 10 == 0)
+			{
+				nano /= 10;
+				length--;
+			}
+			buffer[index++] = '.';
+			index = digits(nano, length, buffer, index);
+		}
+		return index;
+	}
+
+	private static int formatTimezone(int minutes, byte[] buffer, int position)
+	{
+		int index = position;
+		if (minutes == 0)
+		{
+			buffer[index++] = 'Z';
+			return index;
+		}
+		buffer[index++] = (byte)(minutes < 0 ? '-' : '+');
+		int absolute = Math.abs(minutes);
+		index = digits(absolute / 60, 2, buffer, index);
+		buffer[index++] = ':';
+		return digits(absolute % 60, 2, buffer, index);
+	}
+
+	private static int digits(int value, int length, byte[] buffer, int position)
+	{
+		int remaining = value;
+		for (int i = position + length - 1; position <= i; i--)
+		{
+			buffer[i] = (byte)('0' + remaining % 10);
+			remaining /= 10;
+		}
+		return position + length;
+	}
+
+	/**
+	 * The view of ASCII bytes as characters
+	 */
+	private static final class AsciiSequence implements CharSequence
+	{
+		private final byte[] bytes;
+
+		AsciiSequence(byte[] bytes)
+		{
+			this.bytes = bytes;
+		}
+
+		@Override
+		public int length()
+		{
+			return bytes.length;
+		}
+
+		@Override
+		public char charAt(int index)
+		{
+			return (char)(bytes[index] & 0xFF);
+		}
+
+		@Override
+		public CharSequence subSequence(int start, int end)
+		{
+			return new String(bytes, start, end - start, StandardCharsets.ISO_8859_1);
+		}
+
+		@Override
+		public String toString()
+		{
+			return subSequence(0, bytes.length).toString();
+		}
+	}
+
+	/**
+	 * The parser of one value
+	 */
+	private static final class Parser
+	{
+		private final CharSequence value;
+		private final int from;
+		private final int to;
+		private int index;
+
+		Parser(CharSequence value, int from, int to)
+		{
+			this.value = value;
+			this.from = from;
+			this.to = to;
+			this.index = from;
+		}
+
+		TemporalXMLGregorianCalendar parse()
+		{
+			boolean negative = index < to && value.charAt(index) == '-';
+			if (negative)
+			{
+				index++;
+			}
+			int yearStart = index;
+			long year = number(1, 10);
+			int yearLength = index - yearStart;
+			if (yearLength < 4 || 4 < yearLength && value.charAt(yearStart) == '0')
+			{
+				throw invalid();
+			}
+			if (year == 0 || 1_000_000_000L < year)
+			{
+				// XML Schema 1.0 has no year zero
+				throw invalid();
+			}
+			expect('-');
+			int month = (int)number(2, 2);
+			expect('-');
+			int day = (int)number(2, 2);
+			expect('T');
+			int hour = (int)number(2, 2);
+			expect(':');
+			int minute = (int)number(2, 2);
+			expect(':');
+			int second = (int)number(2, 2);
+			int nano = 0;
+			if (index < to && value.charAt(index) == '.')
+			{
+				index++;
+				int fractionStart = index;
+				for (; index < to && isDigit(value.charAt(index)); index++)
+				{
+					int digit = value.charAt(index) - '0';
+					int position = index - fractionStart;
+					if (position < 9)
+					{
+						nano = nano * 10 + digit;
+					}
+					else if (digit != 0)
+					{
+						throw new IllegalArgumentException(
+							"more than nanosecond precision is not supported: " + text());
+					}
+				}
+				int length = index - fractionStart;
+				if (length == 0)
+				{
+					throw invalid();
+				}
+				for (int i = length; i < 9; i++)
+				{
+					nano *= 10;
+				}
+			}
+			int timezone = DatatypeConstants.FIELD_UNDEFINED;
+			if (index < to)
+			{
+				char sign = value.charAt(index++);
+				if (sign == 'Z')
+				{
+					timezone = 0;
+				}
+				else if (sign == '+' || sign == '-')
+				{
+					int hours = (int)number(2, 2);
+					expect(':');
+					int minutes = (int)number(2, 2);
+					if (59 < minutes || 14 < hours || hours == 14 && minutes != 0)
+					{
+						throw invalid();
+					}
+					timezone = (sign == '-' ? -1 : 1) * (hours * 60 + minutes);
+				}
+				else
+				{
+					throw invalid();
+				}
+			}
+			if (index != to)
+			{
+				throw invalid();
+			}
+			int isoYear = toIsoYear((int)(negative ? -year : year));
+			LocalDateTime localDateTime;
+			try
+			{
+				if (hour == 24 && minute == 0 && second == 0 && nano == 0)
+				{
+					localDateTime = LocalDate.of(isoYear, month, day).plusDays(1).atStartOfDay();
+				}
+				else
+				{
+					localDateTime = LocalDateTime.of(isoYear, month, day, hour, minute, second,
+						nano);
+				}
+			}
+			catch (DateTimeException exception)
+			{
+				throw new IllegalArgumentException("invalid xs:dateTime: " + text(), exception);
+			}
+			return timezone == DatatypeConstants.FIELD_UNDEFINED
+				? TemporalXMLGregorianCalendar.of(localDateTime)
+				: TemporalXMLGregorianCalendar
+					.of(localDateTime.atOffset(ZoneOffset.ofTotalSeconds(timezone * 60)));
+		}
+
+		private long number(int minLength, int maxLength)
+		{
+			int start = index;
+			long number = 0;
+			while (index < to && isDigit(value.charAt(index)) && index - start < maxLength)
+			{
+				number = number * 10 + value.charAt(index) - '0';
+				index++;
+			}
+			if (index - start < minLength || index < to && isDigit(value.charAt(index)))
+			{
+				throw invalid();
+			}
+			return number;
+		}
+
+		private void expect(char expected)
+		{
+			if (to <= index || value.charAt(index) != expected)
+			{
+				throw invalid();
+			}
+			index++;
+		}
+
+		private static boolean isDigit(char character)
+		{
+			return '0' <= character && character <= '9';
+		}
+
+		private String text()
+		{
+			return value.subSequence(from, to).toString();
+		}
+
+		private IllegalArgumentException invalid()
+		{
+			return new IllegalArgumentException("invalid xs:dateTime: " + text());
+		}
+	}
+
+}
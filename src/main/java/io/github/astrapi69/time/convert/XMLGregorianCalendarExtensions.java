@@ -24,20 +24,40 @@
  */
 package io.github.astrapi69.time.convert;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
+import java.time.Year;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.GregorianCalendar;
 import java.util.Objects;
 
+import javax.xml.datatype.DatatypeConstants;
 import javax.xml.datatype.XMLGregorianCalendar;
 
 /**
  * The class {@link XMLGregorianCalendarExtensions} provides methods for convert
- * {@link XMLGregorianCalendar} objects
+ * {@link XMLGregorianCalendar} objects. The fields are read directly like
+ * {@link XMLGregorianCalendar#toGregorianCalendar()} would set them: undefined fields are the
+ * fields of <code>1970-01-01T00:00:00</code> and an undefined timezone is the default zone.
+ * Values that a {@link GregorianCalendar} would have to roll over, like leap seconds or days
+ * beyond the end of the month, are converted through the {@link GregorianCalendar}
  */
 public class XMLGregorianCalendarExtensions
 {
 
+	private static final int UNDEFINED = DatatypeConstants.FIELD_UNDEFINED;
+
+	private static final int MAX_TIMEZONE = 14 * 60;
+
+	/**
+	 * The zones with the id <code>GMT+hh:mm</code> of the timezone offsets in minutes
+	 */
+	private static final ZoneId[] GMT_ZONES = new ZoneId[2 * MAX_TIMEZONE + 1];
+
 	/**
 	 * Converts the given {@link XMLGregorianCalendar} to a {@link ZonedDateTime} object
 	 *
@@ -48,7 +68,18 @@ public class XMLGregorianCalendarExtensions
 	public static ZonedDateTime toZonedDateTime(XMLGregorianCalendar calendar)
 	{
 		Objects.requireNonNull(calendar);
-		return calendar.toGregorianCalendar().toZonedDateTime();
+		LocalDateTime localDateTime = toLocalFields(calendar);
+		if (localDateTime == null)
+		{
+			return calendar.toGregorianCalendar().toZonedDateTime();
+		}
+		int timezone = calendar.getTimezone();
+		if (timezone == UNDEFINED)
+		{
+			// a GregorianCalendar takes the standard time in an overlap
+			return localDateTime.atZone(ZoneId.systemDefault()).withLaterOffsetAtOverlap();
+		}
+		return ZonedDateTime.ofLocal(localDateTime, toZoneId(timezone), null);
 	}
 
 	/**
@@ -61,7 +92,13 @@ public class XMLGregorianCalendarExtensions
 	public static OffsetDateTime toOffsetDateTime(XMLGregorianCalendar calendar)
 	{
 		Objects.requireNonNull(calendar);
-		return toZonedDateTime(calendar).toOffsetDateTime();
+		int timezone = calendar.getTimezone();
+		LocalDateTime localDateTime = timezone == UNDEFINED ? null : toLocalFields(calendar);
+		if (localDateTime == null)
+		{
+			return toZonedDateTime(calendar).toOffsetDateTime();
+		}
+		return localDateTime.atOffset(ZoneOffset.ofTotalSeconds(timezone * 60));
 	}
 
 	/**
@@ -74,6 +111,77 @@ public class XMLGregorianCalendarExtensions
 	public static LocalDateTime toLocalDateTime(XMLGregorianCalendar calendar)
 	{
 		Objects.requireNonNull(calendar);
-		return toZonedDateTime(calendar).toLocalDateTime();
+		LocalDateTime localDateTime = toLocalFields(calendar);
+		if (localDateTime == null)
+		{
+			return toZonedDateTime(calendar).toLocalDateTime();
+		}
+		return localDateTime;
+	}
+
+	/**
+	 * Reads the fields of the given calendar with the defaults of a {@link GregorianCalendar}
+	 *
+	 * @return the {@link LocalDateTime} object or null if the fields have to be rolled over
+	 */
+	static LocalDateTime toLocalFields(XMLGregorianCalendar calendar)
+	{
+		int year = calendar.getYear();
+		int month = calendar.getMonth();
+		int day = calendar.getDay();
+		int hour = calendar.getHour();
+		int minute = calendar.getMinute();
+		int second = calendar.getSecond();
+		int timezone = calendar.getTimezone();
+		if (calendar.getEon() != null || second == 60
+			|| timezone != UNDEFINED && MAX_TIMEZONE < Math.abs(timezone))
+		{
+			return null;
+		}
+		int isoYear = year == UNDEFINED ? 1970 : XMLDateTimeCodec.toIsoYear(year);
+		month = month == UNDEFINED ? 1 : month;
+		day = day == UNDEFINED ? 1 : day;
+		hour = hour == UNDEFINED ? 0 : hour;
+		minute = minute == UNDEFINED ? 0 : minute;
+		second = second == UNDEFINED ? 0 : second;
+		int nano = 0;
+		BigDecimal fractional = calendar.getFractionalSecond();
+		if (fractional != null)
+		{
+			BigDecimal nanos = fractional.movePointRight(9);
+			if (nanos.signum() < 0 || 0 < nanos.stripTrailingZeros().scale()
+				|| BigDecimal.valueOf(1_000_000_000L).compareTo(nanos) <= 0)
+			{
+				return null;
+			}
+			nano = nanos.intValue();
+		}
+		if (isoYear < Year.MIN_VALUE || Year.MAX_VALUE < isoYear
+			|| LocalDate.of(isoYear, month, 1).lengthOfMonth() < day)
+		{
+			return null;
+		}
+		if (hour == 24)
+		{
+			if (minute != 0 || second != 0 || nano != 0
+				|| isoYear == Year.MAX_VALUE && month == 12 && day == 31)
+			{
+				return null;
+			}
+			return LocalDate.of(isoYear, month, day).plusDays(1).atStartOfDay();
+		}
+		return LocalDateTime.of(isoYear, month, day, hour, minute, second, nano);
+	}
+
+	private static ZoneId toZoneId(int timezone)
+	{
+		int index = timezone + MAX_TIMEZONE;
+		ZoneId zoneId = GMT_ZONES[index];
+		if (zoneId == null)
+		{
+			zoneId = ZoneId.ofOffset("GMT", ZoneOffset.ofTotalSeconds(timezone * 60));
+			GMT_ZONES[index] = zoneId;
+		}
+		return zoneId;
 	}
 }
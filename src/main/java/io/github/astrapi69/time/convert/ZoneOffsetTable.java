@@ -0,0 +1,452 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.convert;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The class {@link ZoneOffsetTable} provides the offsets of a {@link ZoneId} from the transitions
+ * of its rules that are compiled for a range of years into flat arrays. An instant or a local
+ * date-time is looked up with a branch free binary search over these arrays instead of the
+ * search of the {@link ZoneRules} that creates transition objects and walks several tables.
+ * Instants and local date-times outside of the compiled range are delegated to the
+ * {@link ZoneRules} of the zone. The result is always the same as with the {@link ZoneRules}:
+ * a local date-time in a gap is shifted forward by the length of the gap and a local date-time
+ * in an overlap gets the earlier offset like with {@link ZonedDateTime#of(LocalDateTime, ZoneId)}
+ */
+public final class ZoneOffsetTable
+{
+
+	/**
+	 * The first year of the range of the cached tables
+	 */
+	public static final int DEFAULT_MIN_YEAR = 1900;
+
+	/**
+	 * The last year of the range of the cached tables
+	 */
+	public static final int DEFAULT_MAX_YEAR = 2100;
+
+	private static final int SECONDS_PER_DAY = 86400;
+
+	private static final Map<ZoneId, ZoneOffsetTable> CACHE = new ConcurrentHashMap<>();
+
+	private final ZoneId zone;
+
+	private final ZoneRules rules;
+
+	private final int minYear;
+
+	private final int maxYear;
+
+	/**
+	 * The first epoch second of the compiled range
+	 */
+	private final long rangeStart;
+
+	/**
+	 * The first epoch second after the compiled range
+	 */
+	private final long rangeEnd;
+
+	/**
+	 * The epoch seconds of the transitions
+	 */
+	private final long[] transitions;
+
+	/**
+	 * The local epoch seconds from which a local date-time is after the transition with the same
+	 * index, or null if local date-times can not be looked up in the arrays
+	 */
+	private final long[] localTransitions;
+
+	/**
+	 * The total seconds of the offsets before each transition and after the last transition
+	 */
+	private final int[] offsetSeconds;
+
+	/**
+	 * The offsets before each transition and after the last transition
+	 */
+	private final ZoneOffset[] offsets;
+
+	private ZoneOffsetTable(ZoneId zone, int minYear, int maxYear)
+	{
+		this.zone = zone;
+		this.rules = zone.getRules();
+		this.minYear = minYear;
+		this.maxYear = maxYear;
+		this.rangeStart = LocalDateTime.of(minYear, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+		this.rangeEnd = LocalDateTime.of(maxYear + 1, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+		long[] epochSeconds = new long[16];
+		ZoneOffset[] zoneOffsets = new ZoneOffset[17];
+		zoneOffsets[0] = rules.getOffset(Instant.ofEpochSecond(rangeStart));
+		int size = 0;
+		ZoneOffsetTransition transition = rules
+			.nextTransition(Instant.ofEpochSecond(rangeStart - 1));
+		while (transition != null && transition.toEpochSecond() < rangeEnd)
+		{
+			if (size == epochSeconds.length)
+			{
+				epochSeconds = Arrays.copyOf(epochSeconds, size * 2);
+				zoneOffsets = Arrays.copyOf(zoneOffsets, size * 2 + 1);
+			}
+			epochSeconds[size] = transition.toEpochSecond();
+			zoneOffsets[size + 1] = transition.getOffsetAfter();
+			size++;
+			transition = rules.nextTransition(transition.getInstant());
+		}
+		this.transitions = Arrays.copyOf(epochSeconds, size);
+		this.offsets = Arrays.copyOf(zoneOffsets, size + 1);
+		this.offsetSeconds = new int[size + 1];
+		for (int i = 0; i <= size; i++)
+		{
+			offsetSeconds[i] = offsets[i].getTotalSeconds();
+		}
+		long[] locals = new long[size];
+		boolean ascending = true;
+		for (int i = 0; i < size; i++)
+		{
+			// a local date-time before the later of both local transition points gets the
+			// offset before the transition, in a gap to shift it forward and in an overlap as
+			// the earlier offset
+			locals[i] = transitions[i] + Math.max(offsetSeconds[i], offsetSeconds[i + 1]);
+			ascending &= i == 0 || locals[i - 1] < locals[i];
+		}
+		this.localTransitions = ascending ? locals : null;
+	}
+
+	/**
+	 * Factory method for get the cached {@link ZoneOffsetTable} object of the given zone that is
+	 * compiled for the years from {@link #DEFAULT_MIN_YEAR} to {@link #DEFAULT_MAX_YEAR}
+	 *
+	 * @param zone
+	 *            the zone
+	 * @return the cached {@link ZoneOffsetTable} object
+	 */
+	public static ZoneOffsetTable of(ZoneId zone)
+	{
+		Objects.requireNonNull(zone, "zone");
+		ZoneOffsetTable table = CACHE.get(zone);
+		if (table == null)
+		{
+			table = CACHE.computeIfAbsent(zone,
+				key -> new ZoneOffsetTable(key, DEFAULT_MIN_YEAR, DEFAULT_MAX_YEAR));
+		}
+		return table;
+	}
+
+	/**
+	 * Factory method for create a new {@link ZoneOffsetTable} object of the given zone that is
+	 * compiled for the given range of years. The new object is not cached
+	 *
+	 * @param zone
+	 *            the zone
+	 * @param minYear
+	 *            the first year of the range
+	 * @param maxYear
+	 *            the last year of the range
+	 * @return the new {@link ZoneOffsetTable} object
+	 */
+	public static ZoneOffsetTable of(ZoneId zone, int minYear, int maxYear)
+	{
+		Objects.requireNonNull(zone, "zone");
+		if (maxYear < minYear)
+		{
+			throw new IllegalArgumentException(
+				"maxYear " + maxYear + " is before minYear " + minYear);
+		}
+		if (minYear < -999_999 || 999_998 < maxYear)
+		{
+			throw new IllegalArgumentException(
+				"years must be between -999999 and 999998: " + minYear + ".." + maxYear);
+		}
+		return new ZoneOffsetTable(zone, minYear, maxYear);
+	}
+
+	/**
+	 * Gets the zone
+	 *
+	 * @return the zone
+	 */
+	public ZoneId getZone()
+	{
+		return zone;
+	}
+
+	/**
+	 * Gets the first year of the compiled range
+	 *
+	 * @return the first year of the compiled range
+	 */
+	public int getMinYear()
+	{
+		return minYear;
+	}
+
+	/**
+	 * Gets the last year of the compiled range
+	 *
+	 * @return the last year of the compiled range
+	 */
+	public int getMaxYear()
+	{
+		return maxYear;
+	}
+
+	/**
+	 * Gets the offset of the zone at the given instant
+	 *
+	 * @param instant
+	 *            the instant
+	 * @return the offset at the given instant
+	 */
+	public ZoneOffset getOffset(Instant instant)
+	{
+		return getOffset(instant.getEpochSecond());
+	}
+
+	/**
+	 * Gets the offset of the zone at the given epoch second
+	 *
+	 * @param epochSecond
+	 *            the epoch second
+	 * @return the offset at the given epoch second
+	 */
+	public ZoneOffset getOffset(long epochSecond)
+	{
+		if (epochSecond < rangeStart || rangeEnd <= epochSecond)
+		{
+			return rules.getOffset(Instant.ofEpochSecond(epochSecond));
+		}
+		return offsets[countLessOrEqual(transitions, epochSecond)];
+	}
+
+	/**
+	 * Gets the total seconds of the offset of the zone at the given epoch second
+	 *
+	 * @param epochSecond
+	 *            the epoch second
+	 * @return the total seconds of the offset at the given epoch second
+	 */
+	public int getOffsetSeconds(long epochSecond)
+	{
+		if (epochSecond < rangeStart || rangeEnd <= epochSecond)
+		{
+			return rules.getOffset(Instant.ofEpochSecond(epochSecond)).getTotalSeconds();
+		}
+		return offsetSeconds[countLessOrEqual(transitions, epochSecond)];
+	}
+
+	/**
+	 * Converts the given local epoch second, that are the seconds of a local date-time from
+	 * 1970-01-01T00:00 without an offset, to the epoch second of the instant that the local
+	 * date-time represents in the zone
+	 *
+	 * @param localEpochSecond
+	 *            the local epoch second
+	 * @return the epoch second
+	 */
+	public long toEpochSecond(long localEpochSecond)
+	{
+		int index = localIndexOf(localEpochSecond);
+		if (index < 0)
+		{
+			LocalDateTime localDateTime = LocalDateTime.ofEpochSecond(localEpochSecond, 0,
+				ZoneOffset.UTC);
+			return ZonedDateTime.of(localDateTime, zone).toEpochSecond();
+		}
+		return localEpochSecond - offsetSeconds[index];
+	}
+
+	/**
+	 * Converts the given {@link LocalDateTime} to the epoch second of the instant that it
+	 * represents in the zone
+	 *
+	 * @param localDateTime
+	 *            the local date-time
+	 * @return the epoch second
+	 */
+	public long toEpochSecond(LocalDateTime localDateTime)
+	{
+		return toEpochSecond(localDateTime.toEpochSecond(ZoneOffset.UTC));
+	}
+
+	/**
+	 * Converts the given {@link Instant} to an {@link OffsetDateTime} object with the offset of
+	 * the zone at the given instant
+	 *
+	 * @param instant
+	 *            the instant
+	 * @return the {@link OffsetDateTime} object
+	 */
+	public OffsetDateTime toOffsetDateTime(Instant instant)
+	{
+		return instant.atOffset(getOffset(instant.getEpochSecond()));
+	}
+
+	/**
+	 * Converts the given {@link LocalDateTime} to an {@link OffsetDateTime} object with the
+	 * offset of the zone like {@link ZonedDateTime#of(LocalDateTime, ZoneId)} does it
+	 *
+	 * @param localDateTime
+	 *            the local date-time
+	 * @return the {@link OffsetDateTime} object
+	 */
+	public OffsetDateTime toOffsetDateTime(LocalDateTime localDateTime)
+	{
+		long localEpochSecond = localDateTime.toEpochSecond(ZoneOffset.UTC);
+		long epochSecond = toEpochSecond(localEpochSecond);
+		ZoneOffset offset = getOffset(epochSecond);
+		int shift = (int)(epochSecond + offset.getTotalSeconds() - localEpochSecond);
+		if (shift == 0)
+		{
+			return localDateTime.atOffset(offset);
+		}
+		return localDateTime.plusSeconds(shift).atOffset(offset);
+	}
+
+	/**
+	 * Converts the given {@link Instant} to a {@link LocalDateTime} object in the zone
+	 *
+	 * @param instant
+	 *            the instant
+	 * @return the {@link LocalDateTime} object
+	 */
+	public LocalDateTime toLocalDateTime(Instant instant)
+	{
+		return LocalDateTime.ofEpochSecond(instant.getEpochSecond(), instant.getNano(),
+			getOffset(instant.getEpochSecond()));
+	}
+
+	/**
+	 * Finds the index of the offset at the given epoch second
+	 *
+	 * @return the index of the offset or -1 if the given epoch second is outside of the
+	 *         compiled range
+	 */
+	int indexOf(long epochSecond)
+	{
+		if (epochSecond < rangeStart || rangeEnd <= epochSecond)
+		{
+			return -1;
+		}
+		return countLessOrEqual(transitions, epochSecond);
+	}
+
+	/**
+	 * Gets the first epoch second with the offset of the given index
+	 */
+	long segmentStart(int index)
+	{
+		return index == 0 ? rangeStart : transitions[index - 1];
+	}
+
+	/**
+	 * Gets the first epoch second after the offset of the given index
+	 */
+	long segmentEnd(int index)
+	{
+		return index == transitions.length ? rangeEnd : transitions[index];
+	}
+
+	/**
+	 * Gets the offset of the given index
+	 */
+	ZoneOffset offsetAt(int index)
+	{
+		return offsets[index];
+	}
+
+	/**
+	 * Finds the index of the offset that converts the given local epoch second to an epoch
+	 * second
+	 *
+	 * @return the index of the offset or -1 if the given local epoch second can not be looked up
+	 *         in the compiled arrays
+	 */
+	int localIndexOf(long localEpochSecond)
+	{
+		if (localTransitions == null || localEpochSecond < rangeStart + SECONDS_PER_DAY
+			|| rangeEnd - SECONDS_PER_DAY <= localEpochSecond)
+		{
+			return -1;
+		}
+		return countLessOrEqual(localTransitions, localEpochSecond);
+	}
+
+	/**
+	 * Gets the first local epoch second that is converted with the offset of the given index
+	 */
+	long localSegmentStart(int index)
+	{
+		long start = rangeStart + SECONDS_PER_DAY;
+		return index == 0 ? start : Math.max(start, localTransitions[index - 1]);
+	}
+
+	/**
+	 * Gets the first local epoch second after those that are converted with the offset of the
+	 * given index
+	 */
+	long localSegmentEnd(int index)
+	{
+		long end = rangeEnd - SECONDS_PER_DAY;
+		return index == localTransitions.length ? end : Math.min(end, localTransitions[index]);
+	}
+
+	/**
+	 * Counts the values of the given ascending array that are less than or equal to the given
+	 * value. The loop has a fixed number of iterations for an array length and no branch that
+	 * depends on the data
+	 */
+	private static int countLessOrEqual(long[] values, long value)
+	{
+		int length = values.length;
+		if (length == 0)
+		{
+			return 0;
+		}
+		int base = 0;
+		while (1 < length)
+		{
+			int half = length >>> 1;
+			base = values[base + half - 1] <= value ? base + half : base;
+			length -= half;
+		}
+		return values[base] <= value ? base + 1 : base;
+	}
+
+}
@@ -29,11 +29,9 @@ import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.Date;
-import java.util.GregorianCalendar;
 import java.util.Objects;
 
 import javax.xml.datatype.DatatypeConfigurationException;
-import javax.xml.datatype.DatatypeFactory;
 import javax.xml.datatype.XMLGregorianCalendar;
 
 /**
@@ -56,8 +54,8 @@ public class ZonedDateTimeExtensions
 		throws DatatypeConfigurationException
 	{
 		Objects.requireNonNull(zonedDateTime);
-		return DatatypeFactory.newInstance()
-			.newXMLGregorianCalendar(GregorianCalendar.from(zonedDateTime));
+		return XMLDateTimeCodec.newXMLGregorianCalendar(zonedDateTime.toLocalDateTime(),
+			zonedDateTime.getOffset().getTotalSeconds() / 60);
 	}
 
 	/**
@@ -0,0 +1,109 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.enumtype;
+
+/**
+ * The enum class {@link PeriodRelation} provides the thirteen relations from the interval algebra
+ * of Allen that a time range can have to another time range. Every constant describes the
+ * relation of the first time range to the second time range
+ */
+public enum PeriodRelation
+{
+
+	/**
+	 * The first time range ends before the start of the second time range
+	 */
+	BEFORE,
+
+	/**
+	 * The end of the first time range is equal with the start of the second time range
+	 */
+	MEETS,
+
+	/**
+	 * The first time range starts before and ends within the second time range
+	 */
+	OVERLAPS,
+
+	/**
+	 * The first time range starts before and ends together with the second time range
+	 */
+	FINISHED_BY,
+
+	/**
+	 * The first time range starts before and ends after the second time range
+	 */
+	CONTAINS,
+
+	/**
+	 * The first time range starts together with and ends before the second time range
+	 */
+	STARTS,
+
+	/**
+	 * The first time range is equal with the second time range
+	 */
+	EQUALS,
+
+	/**
+	 * The first time range starts together with and ends after the second time range
+	 */
+	STARTED_BY,
+
+	/**
+	 * The first time range starts after and ends before the second time range
+	 */
+	DURING,
+
+	/**
+	 * The first time range starts after and ends together with the second time range
+	 */
+	FINISHES,
+
+	/**
+	 * The first time range starts within and ends after the second time range
+	 */
+	OVERLAPPED_BY,
+
+	/**
+	 * The start of the first time range is equal with the end of the second time range
+	 */
+	MET_BY,
+
+	/**
+	 * The first time range starts after the end of the second time range
+	 */
+	AFTER;
+
+	/**
+	 * Gets the relation of the second time range to the first time range
+	 *
+	 * @return the inverse relation
+	 */
+	public PeriodRelation inverse()
+	{
+		return values()[values().length - 1 - ordinal()];
+	}
+}
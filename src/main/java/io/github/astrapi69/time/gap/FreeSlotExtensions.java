@@ -0,0 +1,271 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.gap;
+
+import java.math.BigInteger;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+import io.github.astrapi69.time.period.model.Period;
+
+/**
+ * The class {@link FreeSlotExtensions} provides methods for find the free slots between busy
+ * {@link Period} objects. The busy periods have to be sorted by start and disjoint, as they are
+ * for instance returned from the coalescer. Adjoining busy periods are allowed. The free slots are
+ * computed lazily, so a search stops as soon as the requested number of slots is found. Busy
+ * periods with zero length do not split a free slot
+ */
+public final class FreeSlotExtensions
+{
+
+	private static final BigInteger NANOS_PER_SECOND = BigInteger.valueOf(1_000_000_000L);
+
+	private FreeSlotExtensions()
+	{
+	}
+
+	/**
+	 * Finds the first free slots in the given window
+	 *
+	 * @param busyPeriods
+	 *            the busy periods sorted by start and disjoint
+	 * @param window
+	 *            the window to search in
+	 * @param minimumDuration
+	 *            the minimum duration of a free slot
+	 * @param alignment
+	 *            the alignment of the start of a free slot counted from the epoch or
+	 *            {@link Duration#ZERO} for no alignment
+	 * @param limit
+	 *            the maximum number of free slots to find
+	 * @return the free slots in ascending order
+	 */
+	public static List<Period> findFreeSlots(List<Period> busyPeriods, Period window,
+		Duration minimumDuration, Duration alignment, int limit)
+	{
+		if (limit < 0)
+		{
+			throw new IllegalArgumentException("limit is negative: " + limit);
+		}
+		Iterator<Period> freeSlots = freeSlots(busyPeriods, window, minimumDuration, alignment);
+		List<Period> result = new ArrayList<>();
+		while (result.size() < limit && freeSlots.hasNext())
+		{
+			result.add(freeSlots.next());
+		}
+		return result;
+	}
+
+	/**
+	 * Creates a lazy iterator over the free slots in the given window. A free slot starts at the
+	 * first aligned instant after a busy period and ends at the start of the next busy period or
+	 * at the end of the given window, whichever comes first
+	 *
+	 * @param busyPeriods
+	 *            the busy periods sorted by start and disjoint
+	 * @param window
+	 *            the window to search in
+	 * @param minimumDuration
+	 *            the minimum duration of a free slot
+	 * @param alignment
+	 *            the alignment of the start of a free slot counted from the epoch or
+	 *            {@link Duration#ZERO} for no alignment
+	 * @return the lazy iterator over the free slots in ascending order
+	 */
+	public static Iterator<Period> freeSlots(List<Period> busyPeriods, Period window,
+		Duration minimumDuration, Duration alignment)
+	{
+		Objects.requireNonNull(busyPeriods, "busyPeriods");
+		Objects.requireNonNull(window, "window");
+		Objects.requireNonNull(minimumDuration, "minimumDuration");
+		Objects.requireNonNull(alignment, "alignment");
+		if (minimumDuration.isNegative())
+		{
+			throw new IllegalArgumentException("minimumDuration is negative: " + minimumDuration);
+		}
+		if (alignment.isNegative())
+		{
+			throw new IllegalArgumentException("alignment is negative: " + alignment);
+		}
+		if (window.getEnd().isBefore(window.getStart()))
+		{
+			throw new IllegalArgumentException("window ends before it starts: " + window);
+		}
+		List<Period> busy = busyPeriods instanceof RandomAccess
+			? busyPeriods
+			: new ArrayList<>(busyPeriods);
+		return new FreeSlotIterator(busy, window, minimumDuration, alignment);
+	}
+
+	/**
+	 * Computes the first instant at or after the given instant that is a multiple of the given
+	 * alignment counted from the epoch
+	 *
+	 * @param instant
+	 *            the instant
+	 * @param alignment
+	 *            the alignment or {@link Duration#ZERO} for no alignment
+	 * @return the aligned instant or null if the aligned instant is after {@link Instant#MAX}
+	 */
+	static Instant alignUp(Instant instant, Duration alignment)
+	{
+		if (alignment.isZero())
+		{
+			return instant;
+		}
+		try
+		{
+			if (alignment.getNano() == 0)
+			{
+				long remainder = Math.floorMod(instant.getEpochSecond(), alignment.getSeconds());
+				if (remainder == 0 && instant.getNano() == 0)
+				{
+					return instant;
+				}
+				return Instant
+					.ofEpochSecond(instant.getEpochSecond() - remainder + alignment.getSeconds());
+			}
+			BigInteger nanos = toNanos(instant.getEpochSecond(), instant.getNano());
+			BigInteger step = toNanos(alignment.getSeconds(), alignment.getNano());
+			BigInteger remainder = nanos.mod(step);
+			if (remainder.signum() == 0)
+			{
+				return instant;
+			}
+			BigInteger[] aligned = nanos.subtract(remainder).add(step)
+				.divideAndRemainder(NANOS_PER_SECOND);
+			return Instant.ofEpochSecond(aligned[0].longValueExact(), aligned[1].longValue());
+		}
+		catch (DateTimeException | ArithmeticException exception)
+		{
+			return null;
+		}
+	}
+
+	private static BigInteger toNanos(long seconds, int nanos)
+	{
+		return BigInteger.valueOf(seconds).multiply(NANOS_PER_SECOND)
+			.add(BigInteger.valueOf(nanos));
+	}
+
+	/**
+	 * Finds the index of the first busy period that ends after the given instant
+	 */
+	private static int firstEndingAfter(List<Period> busy, Instant instant)
+	{
+		int low = 0;
+		int high = busy.size();
+		while (low < high)
+		{
+			int middle = (low + high) >>> 1;
+			if (busy.get(middle).getEnd().isAfter(instant))
+			{
+				high = middle;
+			}
+			else
+			{
+				low = middle + 1;
+			}
+		}
+		return low;
+	}
+
+	private static final class FreeSlotIterator implements Iterator<Period>
+	{
+		private final List<Period> busy;
+		private final Instant windowEnd;
+		private final Duration minimumDuration;
+		private final Duration alignment;
+		private Instant cursor;
+		private Instant previousEnd;
+		private int index;
+		private Period next;
+
+		FreeSlotIterator(List<Period> busy, Period window, Duration minimumDuration,
+			Duration alignment)
+		{
+			this.busy = busy;
+			this.windowEnd = window.getEnd();
+			this.minimumDuration = minimumDuration;
+			this.alignment = alignment;
+			this.cursor = window.getStart();
+			this.index = firstEndingAfter(busy, cursor);
+		}
+
+		@Override
+		public boolean hasNext()
+		{
+			while (next == null && cursor != null && cursor.isBefore(windowEnd))
+			{
+				Instant gapEnd = windowEnd;
+				Instant nextCursor = windowEnd;
+				if (index < busy.size() && busy.get(index).getStart().isBefore(windowEnd))
+				{
+					Period period = busy.get(index++);
+					if (previousEnd != null && period.getStart().isBefore(previousEnd))
+					{
+						throw new IllegalArgumentException(
+							"busy periods are not sorted and disjoint at: " + period);
+					}
+					previousEnd = period.getEnd();
+					if (!period.getStart().isBefore(period.getEnd()))
+					{
+						continue;
+					}
+					gapEnd = period.getStart();
+					nextCursor = cursor.isAfter(period.getEnd()) ? cursor : period.getEnd();
+				}
+				Instant slotStart = alignUp(cursor, alignment);
+				if (slotStart != null && slotStart.isBefore(gapEnd)
+					&& minimumDuration.compareTo(Duration.between(slotStart, gapEnd)) <= 0)
+				{
+					next = Period.of(slotStart, gapEnd);
+				}
+				cursor = nextCursor;
+			}
+			return next != null;
+		}
+
+		@Override
+		public Period next()
+		{
+			if (!hasNext())
+			{
+				throw new NoSuchElementException();
+			}
+			Period result = next;
+			next = null;
+			return result;
+		}
+	}
+
+}
@@ -0,0 +1,85 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.period;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import io.github.astrapi69.time.period.model.Period;
+
+/**
+ * The abstract class {@link AbstractPeriodIterator} is the base for the lazy iterators of this
+ * package that compute the next {@link Period} object only on demand
+ */
+abstract class AbstractPeriodIterator implements Iterator<Period>
+{
+
+	/**
+	 * The next period that is already computed but not yet returned
+	 */
+	private Period next;
+
+	/**
+	 * The flag if the end is reached
+	 */
+	private boolean done;
+
+	/**
+	 * Computes the next period
+	 *
+	 * @return the next period or null if there is no further period
+	 */
+	protected abstract Period computeNext();
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean hasNext()
+	{
+		if (next == null && !done)
+		{
+			next = computeNext();
+			done = next == null;
+		}
+		return next != null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Period next()
+	{
+		if (!hasNext())
+		{
+			throw new NoSuchElementException();
+		}
+		Period result = next;
+		next = null;
+		return result;
+	}
+
+}
@@ -0,0 +1,414 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.period;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.github.astrapi69.time.period.model.Period;
+
+/**
+ * The class {@link ConcurrentPeriodSet} is a thread safe set of {@link Period} objects that never
+ * contains two periods that overlaps each other in the sense of {@link Period#overlaps(Period)}.
+ * The periods are kept in a concurrent skip list that is ordered by start, so all read operations
+ * are lock free and the iterators are weakly consistent.
+ * <p>
+ * An insert first publishes its period as pending and then validates all periods that can overlap
+ * it. Conflicts between two pending inserts are resolved by the order in which the inserts have
+ * started, the younger insert spin waits for the older one or is aborted by it and retries. An
+ * insert is rejected only if an overlapping period was already committed
+ * <p>
+ * The committed periods never overlap each other, so of the committed periods that start before a
+ * period only the nearest one can overlap it. The search for overlapping periods therefore walks
+ * back from the start of a period only to the nearest committed period and as far as the longest
+ * pending period reaches, which keeps the search range small even if long and short periods are
+ * mixed
+ */
+public class ConcurrentPeriodSet implements Iterable<Period>
+{
+
+	/**
+	 * The state of a node that is published but not yet validated
+	 */
+	private static final int PENDING = 0;
+
+	/**
+	 * The state of a node that is part of this set
+	 */
+	private static final int COMMITTED = 1;
+
+	/**
+	 * The state of a node that is rejected, removed or has to be retried
+	 */
+	private static final int ABORTED = 2;
+
+	/**
+	 * The order of the nodes by start, end and ticket
+	 */
+	private static final Comparator<Node> NODE_ORDER = Comparator
+		.comparing((Node node) -> node.period).thenComparingLong(node -> node.ticket);
+
+	/**
+	 * The order of the nodes by duration and ticket
+	 */
+	private static final Comparator<Node> DURATION_ORDER = Comparator
+		.comparing((Node node) -> node.duration).thenComparingLong(node -> node.ticket);
+
+	/**
+	 * The published nodes
+	 */
+	private final ConcurrentSkipListSet<Node> nodes = new ConcurrentSkipListSet<>(NODE_ORDER);
+
+	/**
+	 * The nodes that can be pending, ordered by duration. A node is added before it is published
+	 * and removed after it is no longer pending, so the longest duration of this set bounds how
+	 * far a pending period reaches
+	 */
+	private final ConcurrentSkipListSet<Node> pending = new ConcurrentSkipListSet<>(
+		DURATION_ORDER);
+
+	/**
+	 * The generator for the tickets that give older inserts priority over younger inserts
+	 */
+	private final AtomicLong tickets = new AtomicLong();
+
+	/**
+	 * Inserts the given {@link Period} object if this set contains no period that overlaps it.
+	 * The check and the insert are atomic in respect to all other inserts
+	 *
+	 * @param period
+	 *            the period to insert
+	 * @return true if the given period was inserted, false if an overlapping period exists
+	 */
+	public boolean insertIfNoOverlap(Period period)
+	{
+		Objects.requireNonNull(period, "period");
+		long ticket = tickets.incrementAndGet();
+		Duration duration = durationOf(period);
+		while (true)
+		{
+			Node node = new Node(period, duration, ticket);
+			pending.add(node);
+			nodes.add(node);
+			int outcome = validate(node);
+			pending.remove(node);
+			if (outcome == COMMITTED)
+			{
+				return true;
+			}
+			nodes.remove(node);
+			if (outcome == ABORTED)
+			{
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Removes the given {@link Period} object from this set
+	 *
+	 * @param period
+	 *            the period to remove
+	 * @return true if the given period was removed otherwise false
+	 */
+	public boolean remove(Period period)
+	{
+		Objects.requireNonNull(period, "period");
+		for (Node node : range(period.getStart(), period.getStart(), true))
+		{
+			if (node.period.equals(period) && node.state.compareAndSet(COMMITTED, ABORTED))
+			{
+				nodes.remove(node);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Checks if this set contains the given {@link Period} object
+	 *
+	 * @param period
+	 *            the period to check
+	 * @return true if this set contains the given period otherwise false
+	 */
+	public boolean contains(Period period)
+	{
+		Objects.requireNonNull(period, "period");
+		for (Node node : range(period.getStart(), period.getStart(), true))
+		{
+			if (node.period.equals(period) && node.state.get() == COMMITTED)
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Finds the periods of this set that overlaps the given {@link Period} object
+	 *
+	 * @param period
+	 *            the period to check with
+	 * @return the overlapping periods in ascending order
+	 */
+	public List<Period> overlapping(Period period)
+	{
+		Objects.requireNonNull(period, "period");
+		List<Period> result = new ArrayList<>();
+		for (Node node : candidates(period))
+		{
+			if (node.state.get() == COMMITTED && node.period.overlaps(period))
+			{
+				result.add(node.period);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Creates a weakly consistent iterator over the periods of this set that starts in the given
+	 * range
+	 *
+	 * @param fromInclusive
+	 *            the lowest start inclusive
+	 * @param toExclusive
+	 *            the highest start exclusive
+	 * @return the weakly consistent iterator in ascending order
+	 */
+	public Iterator<Period> iterator(Instant fromInclusive, Instant toExclusive)
+	{
+		Objects.requireNonNull(fromInclusive, "fromInclusive");
+		Objects.requireNonNull(toExclusive, "toExclusive");
+		if (toExclusive.isBefore(fromInclusive))
+		{
+			throw new IllegalArgumentException("fromInclusive is after toExclusive");
+		}
+		return new CommittedIterator(range(fromInclusive, toExclusive, false).iterator());
+	}
+
+	/**
+	 * Creates a weakly consistent iterator over all periods of this set
+	 *
+	 * @return the weakly consistent iterator in ascending order
+	 */
+	@Override
+	public Iterator<Period> iterator()
+	{
+		return new CommittedIterator(nodes.iterator());
+	}
+
+	/**
+	 * Counts the periods of this set. This traverses the whole set and is only an estimate while
+	 * other threads modify this set
+	 *
+	 * @return the number of periods
+	 */
+	public int size()
+	{
+		int size = 0;
+		for (Node node : nodes)
+		{
+			if (node.state.get() == COMMITTED)
+			{
+				size++;
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Checks if this set contains no periods
+	 *
+	 * @return true if this set contains no periods otherwise false
+	 */
+	public boolean isEmpty()
+	{
+		return !iterator().hasNext();
+	}
+
+	private int validate(Node node)
+	{
+		for (Node other : candidates(node.period))
+		{
+			if (other == node || !other.period.overlaps(node.period))
+			{
+				continue;
+			}
+			while (true)
+			{
+				int state = other.state.get();
+				if (state == COMMITTED)
+				{
+					node.state.compareAndSet(PENDING, ABORTED);
+					return ABORTED;
+				}
+				if (state == ABORTED)
+				{
+					break;
+				}
+				if (node.ticket < other.ticket)
+				{
+					if (other.state.compareAndSet(PENDING, ABORTED))
+					{
+						break;
+					}
+				}
+				else
+				{
+					if (node.state.get() == ABORTED)
+					{
+						return PENDING;
+					}
+					Thread.onSpinWait();
+				}
+			}
+		}
+		return node.state.compareAndSet(PENDING, COMMITTED) ? COMMITTED : PENDING;
+	}
+
+	/**
+	 * Counts the nodes that are checked for overlaps with the given period
+	 *
+	 * @param period
+	 *            the period to check with
+	 * @return the number of checked nodes
+	 */
+	int countCandidates(Period period)
+	{
+		return candidates(period).size();
+	}
+
+	/**
+	 * Collects the nodes that can overlap the given period in ascending order. These are the
+	 * nodes that start in the period and the nodes before it back to a committed node that no
+	 * pending period reaches over
+	 */
+	private List<Node> candidates(Period period)
+	{
+		Instant start = period.getStart();
+		Instant reach;
+		try
+		{
+			reach = start.minus(longestPendingDuration());
+		}
+		catch (DateTimeException | ArithmeticException exception)
+		{
+			reach = Instant.MIN;
+		}
+		List<Node> candidates = new ArrayList<>();
+		Node from = new Node(Period.of(start, Instant.MIN), Duration.ZERO, Long.MIN_VALUE);
+		for (Node node : nodes.headSet(from, false).descendingSet())
+		{
+			candidates.add(node);
+			if (node.state.get() == COMMITTED && !reach.isBefore(node.period.getStart()))
+			{
+				break;
+			}
+		}
+		Collections.reverse(candidates);
+		candidates.addAll(range(start, period.getEnd(), true));
+		return candidates;
+	}
+
+	private Duration longestPendingDuration()
+	{
+		Iterator<Node> longest = pending.descendingIterator();
+		return longest.hasNext() ? longest.next().duration : Duration.ZERO;
+	}
+
+	private NavigableSet<Node> range(Instant fromInclusive, Instant to, boolean toInclusive)
+	{
+		Node from = new Node(Period.of(fromInclusive, Instant.MIN), Duration.ZERO,
+			Long.MIN_VALUE);
+		Node until = toInclusive
+			? new Node(Period.of(to, Instant.MAX), Duration.ZERO, Long.MAX_VALUE)
+			: new Node(Period.of(to, Instant.MIN), Duration.ZERO, Long.MIN_VALUE);
+		return nodes.subSet(from, true, until, toInclusive);
+	}
+
+	private static Duration durationOf(Period period)
+	{
+		Duration duration = Duration.between(period.getStart(), period.getEnd());
+		return duration.isNegative() ? Duration.ZERO : duration;
+	}
+
+	/**
+	 * A node is a published period with its duration, the ticket of its insert and its state
+	 */
+	private static final class Node
+	{
+		private final Period period;
+		private final Duration duration;
+		private final long ticket;
+		private final AtomicInteger state = new AtomicInteger(PENDING);
+
+		Node(Period period, Duration duration, long ticket)
+		{
+			this.period = period;
+			this.duration = duration;
+			this.ticket = ticket;
+		}
+	}
+
+	/**
+	 * The iterator that skips all nodes that are not committed
+	 */
+	private static final class CommittedIterator extends AbstractPeriodIterator
+	{
+		private final Iterator<Node> source;
+
+		CommittedIterator(Iterator<Node> source)
+		{
+			this.source = source;
+		}
+
+		@Override
+		protected Period computeNext()
+		{
+			while (source.hasNext())
+			{
+				Node node = source.next();
+				if (node.state.get() == COMMITTED)
+				{
+					return node.period;
+				}
+			}
+			return null;
+		}
+	}
+
+}
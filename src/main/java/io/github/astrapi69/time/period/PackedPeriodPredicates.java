@@ -0,0 +1,251 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.period;
+
+import java.time.Instant;
+import java.util.Objects;
+
+import io.github.astrapi69.time.period.model.Period;
+
+/**
+ * The class {@link PackedPeriodPredicates} provides batch predicates over periods that are packed
+ * into two <code>long</code> arrays with the start and the end of each period as nanoseconds since
+ * the epoch. The predicates have the same semantics as the corresponding methods of the class
+ * {@link Period} and write their results into a bitmask where the bit <code>i</code> of the word
+ * <code>i / 64</code> stands for the period at the index <code>i</code>
+ * <p>
+ * The kernels compute each bit with arithmetic instead of branches and assemble a whole word
+ * before it is stored, so the loops do not suffer from branch mispredictions on random data and
+ * are simple enough for the auto vectorization of the JIT compiler
+ */
+public final class PackedPeriodPredicates
+{
+
+	private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+	private PackedPeriodPredicates()
+	{
+	}
+
+	/**
+	 * Packs the given {@link Instant} object into nanoseconds since the epoch
+	 *
+	 * @param instant
+	 *            the instant to pack
+	 * @return the nanoseconds since the epoch
+	 * @throws ArithmeticException
+	 *             if the given instant is not between the years 1677 and 2262
+	 */
+	public static long pack(Instant instant)
+	{
+		Objects.requireNonNull(instant, "instant");
+		return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), NANOS_PER_SECOND),
+			instant.getNano());
+	}
+
+	/**
+	 * Unpacks the given nanoseconds since the epoch into a new {@link Instant} object
+	 *
+	 * @param epochNanos
+	 *            the nanoseconds since the epoch
+	 * @return the new {@link Instant} object
+	 */
+	public static Instant unpack(long epochNanos)
+	{
+		return Instant.ofEpochSecond(Math.floorDiv(epochNanos, NANOS_PER_SECOND),
+			Math.floorMod(epochNanos, NANOS_PER_SECOND));
+	}
+
+	/**
+	 * Factory method for create a new bitmask for the given number of periods
+	 *
+	 * @param size
+	 *            the number of periods
+	 * @return the new bitmask
+	 */
+	public static long[] newBitmask(int size)
+	{
+		if (size < 0)
+		{
+			throw new IllegalArgumentException("size must not be negative: " + size);
+		}
+		return new long[(size + 63) >>> 6];
+	}
+
+	/**
+	 * Marks in the given bitmask every packed period that overlaps the given query period in the
+	 * sense of {@link Period#overlaps(Period)}
+	 *
+	 * @param starts
+	 *            the packed starts
+	 * @param ends
+	 *            the packed ends
+	 * @param size
+	 *            the number of periods
+	 * @param queryStart
+	 *            the packed start of the query period
+	 * @param queryEnd
+	 *            the packed end of the query period
+	 * @param bitmask
+	 *            the bitmask that receives the result
+	 * @return the number of matching periods
+	 */
+	public static int overlaps(long[] starts, long[] ends, int size, long queryStart,
+		long queryEnd, long[] bitmask)
+	{
+		checkArguments(starts, ends, size, bitmask);
+		int count = 0;
+		for (int base = 0; base < size; base += 64)
+		{
+			int length = Math.min(64, size - base);
+			long word = 0;
+			for (int bit = 0; bit < length; bit++)
+			{
+				long start = starts[base + bit];
+				long end = ends[base + bit];
+				long equal = isZero((start ^ queryStart) | (end ^ queryEnd));
+				long match = equal | (lessThan(start, queryEnd) & lessThan(queryStart, end));
+				word |= match << bit;
+			}
+			bitmask[base >>> 6] = word;
+			count += Long.bitCount(word);
+		}
+		return count;
+	}
+
+	/**
+	 * Marks in the given bitmask every packed period that encloses the given query period in the
+	 * sense of {@link Period#encloses(Period)}
+	 *
+	 * @param starts
+	 *            the packed starts
+	 * @param ends
+	 *            the packed ends
+	 * @param size
+	 *            the number of periods
+	 * @param queryStart
+	 *            the packed start of the query period
+	 * @param queryEnd
+	 *            the packed end of the query period
+	 * @param bitmask
+	 *            the bitmask that receives the result
+	 * @return the number of matching periods
+	 */
+	public static int encloses(long[] starts, long[] ends, int size, long queryStart,
+		long queryEnd, long[] bitmask)
+	{
+		checkArguments(starts, ends, size, bitmask);
+		int count = 0;
+		for (int base = 0; base < size; base += 64)
+		{
+			int length = Math.min(64, size - base);
+			long word = 0;
+			for (int bit = 0; bit < length; bit++)
+			{
+				long notAfter = lessThan(queryStart, starts[base + bit]) ^ 1;
+				long notBefore = lessThan(ends[base + bit], queryEnd) ^ 1;
+				word |= (notAfter & notBefore) << bit;
+			}
+			bitmask[base >>> 6] = word;
+			count += Long.bitCount(word);
+		}
+		return count;
+	}
+
+	/**
+	 * Marks in the given bitmask every packed period that is enclosed by the given query period,
+	 * that is every period for that the query period encloses it in the sense of
+	 * {@link Period#encloses(Period)}
+	 *
+	 * @param starts
+	 *            the packed starts
+	 * @param ends
+	 *            the packed ends
+	 * @param size
+	 *            the number of periods
+	 * @param queryStart
+	 *            the packed start of the query period
+	 * @param queryEnd
+	 *            the packed end of the query period
+	 * @param bitmask
+	 *            the bitmask that receives the result
+	 * @return the number of matching periods
+	 */
+	public static int enclosedBy(long[] starts, long[] ends, int size, long queryStart,
+		long queryEnd, long[] bitmask)
+	{
+		checkArguments(starts, ends, size, bitmask);
+		int count = 0;
+		for (int base = 0; base < size; base += 64)
+		{
+			int length = Math.min(64, size - base);
+			long word = 0;
+			for (int bit = 0; bit < length; bit++)
+			{
+				long notBefore = lessThan(starts[base + bit], queryStart) ^ 1;
+				long notAfter = lessThan(queryEnd, ends[base + bit]) ^ 1;
+				word |= (notBefore & notAfter) << bit;
+			}
+			bitmask[base >>> 6] = word;
+			count += Long.bitCount(word);
+		}
+		return count;
+	}
+
+	/**
+	 * Computes 1 if the given first value is less than the given second value otherwise 0
+	 * without a branch and without overflow
+	 */
+	private static long lessThan(long value, long other)
+	{
+		long difference = value - other;
+		return (difference ^ ((value ^ other) & (difference ^ value))) >>> 63;
+	}
+
+	/**
+	 * Computes 1 if the given value is zero otherwise 0 without a branch
+	 */
+	private static long isZero(long value)
+	{
+		return ((value | -value) >>> 63) ^ 1;
+	}
+
+	private static void checkArguments(long[] starts, long[] ends, int size, long[] bitmask)
+	{
+		Objects.requireNonNull(starts, "starts");
+		Objects.requireNonNull(ends, "ends");
+		Objects.requireNonNull(bitmask, "bitmask");
+		if (size < 0 || starts.length < size || ends.length < size)
+		{
+			throw new IllegalArgumentException("size out of range of the arrays: " + size);
+		}
+		if (bitmask.length < (size + 63) >>> 6)
+		{
+			throw new IllegalArgumentException(
+				"bitmask is too small for " + size + " periods: " + bitmask.length);
+		}
+	}
+
+}
@@ -0,0 +1,381 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.period;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import io.github.astrapi69.time.period.model.Period;
+
+/**
+ * The class {@link PeriodCoalescer} provides algorithms for compute the disjoint union of
+ * {@link Period} objects. Two periods are merged if they are connected in the sense of
+ * {@link Period#isConnected(Period)}, so overlapping and adjoining periods become one period. The
+ * input is swept once in the order of the start and the results are emitted lazily
+ */
+public final class PeriodCoalescer
+{
+
+	/**
+	 * The minimum number of periods for that the parallel coalescing is used
+	 */
+	static final int PARALLEL_THRESHOLD = 1 << 13;
+
+	/**
+	 * The lowest epoch second that can be packed into nanoseconds since the epoch
+	 */
+	private static final long MIN_PACKABLE_SECOND = -9_223_372_035L;
+
+	/**
+	 * The highest epoch second that can be packed into nanoseconds since the epoch
+	 */
+	private static final long MAX_PACKABLE_SECOND = 9_223_372_035L;
+
+	private PeriodCoalescer()
+	{
+	}
+
+	/**
+	 * Coalesces the given periods that are sorted by their start to their disjoint union. The
+	 * returned iterator pulls from the given iterator only as far as it is needed for the next
+	 * result
+	 *
+	 * @param sortedPeriods
+	 *            the periods sorted by their start
+	 * @return the iterator over the coalesced periods in ascending order
+	 * @throws IllegalArgumentException
+	 *             while iterating if the given periods are not sorted by their start
+	 */
+	public static Iterator<Period> coalesce(Iterator<Period> sortedPeriods)
+	{
+		Objects.requireNonNull(sortedPeriods, "sortedPeriods");
+		return new CoalescingIterator(sortedPeriods);
+	}
+
+	/**
+	 * Coalesces the given stream of periods that are sorted by their start to their disjoint
+	 * union
+	 *
+	 * @param sortedPeriods
+	 *            the stream of periods sorted by their start
+	 * @return the lazy stream of the coalesced periods in ascending order
+	 * @throws IllegalArgumentException
+	 *             while consuming if the given periods are not sorted by their start
+	 */
+	public static Stream<Period> coalesce(Stream<Period> sortedPeriods)
+	{
+		Objects.requireNonNull(sortedPeriods, "sortedPeriods");
+		return toDisjointStream(coalesce(sortedPeriods.iterator()))
+			.onClose(sortedPeriods::close);
+	}
+
+	/**
+	 * Coalesces the given periods in any order to their disjoint union. The given array is not
+	 * modified
+	 *
+	 * @param periods
+	 *            the periods
+	 * @return the lazy stream of the coalesced periods in ascending order
+	 */
+	public static Stream<Period> coalesce(Period... periods)
+	{
+		return coalesce(Arrays.stream(sorted(periods)));
+	}
+
+	/**
+	 * Coalesces the given periods in any order to their disjoint union with all processors of
+	 * the common fork join pool. The result is identical to the result of
+	 * {@link #coalesce(Period...)}
+	 * <p>
+	 * The starts and the ends are packed into nanoseconds since the epoch and sorted separately
+	 * in parallel. For periods that do not end before they start, the sorted starts and ends
+	 * determine the coalesced periods: a coalesced period ends at the end with the index
+	 * <code>i</code> exactly if the start with the index <code>i + 1</code> is after it. So the
+	 * sorted arrays are scanned in independent chunks for such borders and the borders of all
+	 * chunks are stitched together to the coalesced periods. If a period ends before it starts or
+	 * can not be packed, the periods are sorted in parallel and coalesced sequentially
+	 *
+	 * @param periods
+	 *            the periods
+	 * @return the coalesced periods in ascending order
+	 */
+	public static List<Period> parallelCoalesce(Collection<Period> periods)
+	{
+		Objects.requireNonNull(periods, "periods");
+		Period[] array = periods.toArray(new Period[0]);
+		boolean packable = Arrays.stream(array).parallel()
+			.allMatch(period -> isPackable(Objects.requireNonNull(period, "period")));
+		if (array.length < PARALLEL_THRESHOLD || !packable)
+		{
+			Arrays.parallelSort(array);
+			return coalesce(Arrays.stream(array)).collect(Collectors.toList());
+		}
+		int size = array.length;
+		long[] starts = new long[size];
+		long[] ends = new long[size];
+		Arrays.parallelSetAll(starts, i -> PackedPeriodPredicates.pack(array[i].getStart()));
+		Arrays.parallelSetAll(ends, i -> PackedPeriodPredicates.pack(array[i].getEnd()));
+		Arrays.parallelSort(starts);
+		Arrays.parallelSort(ends);
+		int chunks = Math.min(size / (PARALLEL_THRESHOLD / 8),
+			ForkJoinPool.getCommonPoolParallelism() * 4);
+		int[][] borders = IntStream.range(0, chunks).parallel()
+			.mapToObj(chunk -> borders(starts, ends, (int)((long)size * chunk / chunks),
+				(int)((long)size * (chunk + 1) / chunks)))
+			.toArray(int[][]::new);
+		List<Period> result = new ArrayList<>();
+		int first = 0;
+		for (int[] chunkBorders : borders)
+		{
+			for (int border : chunkBorders)
+			{
+				result.add(Period.of(PackedPeriodPredicates.unpack(starts[first]),
+					PackedPeriodPredicates.unpack(ends[border])));
+				first = border + 1;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Computes the total duration that is covered by the given periods that are sorted by their
+	 * start. Periods that overlap are counted only once and no coalesced period is created
+	 *
+	 * @param sortedPeriods
+	 *            the periods sorted by their start
+	 * @return the covered duration
+	 * @throws IllegalArgumentException
+	 *             if the given periods are not sorted by their start
+	 */
+	public static Duration coveredDuration(Iterator<Period> sortedPeriods)
+	{
+		Objects.requireNonNull(sortedPeriods, "sortedPeriods");
+		long seconds = 0;
+		long nanos = 0;
+		Instant start = null;
+		Instant end = null;
+		while (sortedPeriods.hasNext())
+		{
+			Period next = Objects.requireNonNull(sortedPeriods.next(), "period");
+			if (start != null)
+			{
+				checkOrder(start, next);
+				if (!next.getStart().isAfter(end))
+				{
+					if (next.getEnd().isAfter(end))
+					{
+						end = next.getEnd();
+					}
+					continue;
+				}
+				seconds += end.getEpochSecond() - start.getEpochSecond();
+				nanos += end.getNano() - start.getNano();
+			}
+			start = next.getStart();
+			end = next.getEnd();
+		}
+		if (start != null)
+		{
+			seconds += end.getEpochSecond() - start.getEpochSecond();
+			nanos += end.getNano() - start.getNano();
+		}
+		return Duration.ofSeconds(seconds, nanos);
+	}
+
+	/**
+	 * Computes the total duration that is covered by the given periods in any order. Periods that
+	 * overlap are counted only once. The given array is not modified
+	 *
+	 * @param periods
+	 *            the periods
+	 * @return the covered duration
+	 */
+	public static Duration coveredDuration(Period... periods)
+	{
+		return coveredDuration(Arrays.asList(sorted(periods)).iterator());
+	}
+
+	/**
+	 * Wraps the given iterator over sorted and disjoint periods in a sequential stream
+	 *
+	 * @param disjointPeriods
+	 *            the iterator over sorted and disjoint periods
+	 * @return the new stream
+	 */
+	static Stream<Period> toDisjointStream(Iterator<Period> disjointPeriods)
+	{
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(disjointPeriods,
+			Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL),
+			false);
+	}
+
+	private static Period[] sorted(Period[] periods)
+	{
+		Objects.requireNonNull(periods, "periods");
+		Period[] sorted = periods.clone();
+		for (Period period : sorted)
+		{
+			Objects.requireNonNull(period, "period");
+		}
+		Arrays.sort(sorted);
+		return sorted;
+	}
+
+	/**
+	 * Finds the indexes in the given range where a coalesced period ends
+	 */
+	private static int[] borders(long[] starts, long[] ends, int from, int to)
+	{
+		int[] borders = new int[16];
+		int count = 0;
+		int last = starts.length - 1;
+		for (int i = from; i < to; i++)
+		{
+			if (i == last || ends[i] < starts[i + 1])
+			{
+				if (count == borders.length)
+				{
+					borders = Arrays.copyOf(borders, count * 2);
+				}
+				borders[count++] = i;
+			}
+		}
+		return Arrays.copyOf(borders, count);
+	}
+
+	private static boolean isPackable(Period period)
+	{
+		Instant start = period.getStart();
+		Instant end = period.getEnd();
+		return !end.isBefore(start) && MIN_PACKABLE_SECOND <= start.getEpochSecond()
+			&& end.getEpochSecond() <= MAX_PACKABLE_SECOND;
+	}
+
+	private static void checkOrder(Instant previousStart, Period next)
+	{
+		if (next.getStart().isBefore(previousStart))
+		{
+			throw new IllegalArgumentException("Given periods are not sorted by start: "
+				+ next.getStart() + " is before " + previousStart);
+		}
+	}
+
+	/**
+	 * The iterator that sweeps over the sorted periods and merges connected periods
+	 */
+	private static final class CoalescingIterator implements Iterator<Period>
+	{
+
+		/**
+		 * The sorted source periods
+		 */
+		private final Iterator<Period> source;
+
+		/**
+		 * The start of the first not yet emitted period that was pulled from the source
+		 */
+		private Instant pendingStart;
+
+		/**
+		 * The end of the first not yet emitted period that was pulled from the source
+		 */
+		private Instant pendingEnd;
+
+		/**
+		 * The start of the last pulled period for the order check
+		 */
+		private Instant lastStart;
+
+		CoalescingIterator(Iterator<Period> source)
+		{
+			this.source = source;
+		}
+
+		@Override
+		public boolean hasNext()
+		{
+			return pendingStart != null || pull();
+		}
+
+		@Override
+		public Period next()
+		{
+			if (!hasNext())
+			{
+				throw new NoSuchElementException();
+			}
+			Instant start = pendingStart;
+			Instant end = pendingEnd;
+			pendingStart = null;
+			pendingEnd = null;
+			while (pull())
+			{
+				if (pendingStart.isAfter(end))
+				{
+					break;
+				}
+				if (pendingEnd.isAfter(end))
+				{
+					end = pendingEnd;
+				}
+				pendingStart = null;
+				pendingEnd = null;
+			}
+			return Period.of(start, end);
+		}
+
+		private boolean pull()
+		{
+			if (!source.hasNext())
+			{
+				return false;
+			}
+			Period next = Objects.requireNonNull(source.next(), "period");
+			if (lastStart != null)
+			{
+				checkOrder(lastStart, next);
+			}
+			lastStart = next.getStart();
+			pendingStart = next.getStart();
+			pendingEnd = next.getEnd();
+			return true;
+		}
+	}
+
+}
@@ -0,0 +1,613 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.period;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import io.github.astrapi69.time.period.model.Period;
+
+/**
+ * The class {@link PeriodCodec} provides a compact binary format for sequences of {@link Period}
+ * objects. The periods are written in blocks, each block starts with the number of its periods as
+ * varint and a block with zero periods marks the end of the sequence. In a block the start of a
+ * period is written as zigzag varint delta of seconds from the start of the previous period and
+ * the end as zigzag varint delta of seconds from its own start. The lowest bit of each delta flags
+ * if the nano of second follows as varint. The first start of each block is written as delta from
+ * the epoch, so every block can be decoded on its own
+ * <p>
+ * The format works for any sequence, but sorted sequences give the smallest output
+ */
+public final class PeriodCodec
+{
+
+	/**
+	 * The default number of periods in a block
+	 */
+	public static final int DEFAULT_BLOCK_SIZE = 128;
+
+	/**
+	 * The maximum number of bytes of one encoded period
+	 */
+	private static final int MAX_PERIOD_BYTES = 2 * (10 + 5);
+
+	/**
+	 * The size of the read buffer of a decoder for an input stream
+	 */
+	private static final int READ_BUFFER_SIZE = 8192;
+
+	private PeriodCodec()
+	{
+	}
+
+	/**
+	 * Encodes the given {@link Period} objects to the given output stream. The given output
+	 * stream is not closed
+	 *
+	 * @param periods
+	 *            the periods to encode
+	 * @param out
+	 *            the output stream to write to
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	public static void encode(Iterable<Period> periods, OutputStream out) throws IOException
+	{
+		Objects.requireNonNull(periods, "periods");
+		try (Encoder encoder = newEncoder(out))
+		{
+			for (Period period : periods)
+			{
+				encoder.write(period);
+			}
+		}
+	}
+
+	/**
+	 * Encodes the given {@link Period} objects to the given byte buffer
+	 *
+	 * @param periods
+	 *            the periods to encode
+	 * @param target
+	 *            the byte buffer to write to
+	 * @throws java.nio.BufferOverflowException
+	 *             if the given byte buffer has not enough space
+	 */
+	public static void encode(Iterable<Period> periods, ByteBuffer target)
+	{
+		Objects.requireNonNull(periods, "periods");
+		try (Encoder encoder = newEncoder(target))
+		{
+			for (Period period : periods)
+			{
+				encoder.write(period);
+			}
+		}
+		catch (IOException exception)
+		{
+			throw new UncheckedIOException(exception);
+		}
+	}
+
+	/**
+	 * Creates a lazy iterator that decodes the periods from the given byte buffer
+	 *
+	 * @param source
+	 *            the byte buffer to read from
+	 * @return the lazy iterator over the decoded periods
+	 */
+	public static Iterator<Period> decode(ByteBuffer source)
+	{
+		return new DecodingIterator(newDecoder(source));
+	}
+
+	/**
+	 * Creates a lazy iterator that decodes the periods from the given input stream. I/O errors
+	 * are thrown as {@link UncheckedIOException}
+	 *
+	 * @param in
+	 *            the input stream to read from
+	 * @return the lazy iterator over the decoded periods
+	 */
+	public static Iterator<Period> decode(InputStream in)
+	{
+		return new DecodingIterator(newDecoder(in));
+	}
+
+	/**
+	 * Factory method for create a new {@link Encoder} object that writes to the given output
+	 * stream
+	 *
+	 * @param out
+	 *            the output stream to write to
+	 * @return the new {@link Encoder} object
+	 */
+	public static Encoder newEncoder(OutputStream out)
+	{
+		return newEncoder(out, DEFAULT_BLOCK_SIZE);
+	}
+
+	/**
+	 * Factory method for create a new {@link Encoder} object that writes to the given output
+	 * stream
+	 *
+	 * @param out
+	 *            the output stream to write to
+	 * @param blockSize
+	 *            the maximum number of periods in a block
+	 * @return the new {@link Encoder} object
+	 */
+	public static Encoder newEncoder(OutputStream out, int blockSize)
+	{
+		Objects.requireNonNull(out, "out");
+		return new Encoder(out, null, blockSize);
+	}
+
+	/**
+	 * Factory method for create a new {@link Encoder} object that writes to the given byte
+	 * buffer
+	 *
+	 * @param target
+	 *            the byte buffer to write to
+	 * @return the new {@link Encoder} object
+	 */
+	public static Encoder newEncoder(ByteBuffer target)
+	{
+		Objects.requireNonNull(target, "target");
+		return new Encoder(null, target, DEFAULT_BLOCK_SIZE);
+	}
+
+	/**
+	 * Factory method for create a new {@link Decoder} object that reads from the given byte
+	 * buffer. The position of the given byte buffer is moved behind the decoded bytes
+	 *
+	 * @param source
+	 *            the byte buffer to read from
+	 * @return the new {@link Decoder} object
+	 */
+	public static Decoder newDecoder(ByteBuffer source)
+	{
+		Objects.requireNonNull(source, "source");
+		return new Decoder(null, source);
+	}
+
+	/**
+	 * Factory method for create a new {@link Decoder} object that reads from the given input
+	 * stream. The decoder reads ahead, so the given input stream should contain only the encoded
+	 * periods
+	 *
+	 * @param in
+	 *            the input stream to read from
+	 * @return the new {@link Decoder} object
+	 */
+	public static Decoder newDecoder(InputStream in)
+	{
+		Objects.requireNonNull(in, "in");
+		return new Decoder(in, null);
+	}
+
+	private static long zigzag(long value)
+	{
+		return (value << 1) ^ (value >> 63);
+	}
+
+	private static long unzigzag(long value)
+	{
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private static void checkNano(int nano)
+	{
+		if (nano < 0 || 999_999_999 < nano)
+		{
+			throw new IllegalArgumentException("nano of second out of range: " + nano);
+		}
+	}
+
+	/**
+	 * An encoder writes periods block by block. Closing an encoder writes the pending block and
+	 * the end of the sequence but does not close the underlying output stream. An encoder is not
+	 * thread safe
+	 */
+	public static final class Encoder implements Closeable
+	{
+		private final OutputStream out;
+		private final ByteBuffer target;
+		private final int blockSize;
+		private final byte[] block;
+		private final byte[] header = new byte[5];
+		private int length;
+		private int count;
+		private long previousStartSecond;
+		private boolean closed;
+
+		private Encoder(OutputStream out, ByteBuffer target, int blockSize)
+		{
+			if (blockSize <= 0)
+			{
+				throw new IllegalArgumentException("blockSize is not positive: " + blockSize);
+			}
+			this.out = out;
+			this.target = target;
+			this.blockSize = blockSize;
+			this.block = new byte[Math.multiplyExact(blockSize, MAX_PERIOD_BYTES)];
+		}
+
+		/**
+		 * Writes the given {@link Period} object
+		 *
+		 * @param period
+		 *            the period to write
+		 * @throws IOException
+		 *             if an I/O error occurs
+		 */
+		public void write(Period period) throws IOException
+		{
+			Objects.requireNonNull(period, "period");
+			write(period.getStart().getEpochSecond(), period.getStart().getNano(),
+				period.getEnd().getEpochSecond(), period.getEnd().getNano());
+		}
+
+		/**
+		 * Writes the period with the given start and end
+		 *
+		 * @param startSecond
+		 *            the epoch second of the start
+		 * @param startNano
+		 *            the nano of second of the start
+		 * @param endSecond
+		 *            the epoch second of the end
+		 * @param endNano
+		 *            the nano of second of the end
+		 * @throws IOException
+		 *             if an I/O error occurs
+		 */
+		public void write(long startSecond, int startNano, long endSecond, int endNano)
+			throws IOException
+		{
+			if (closed)
+			{
+				throw new IllegalStateException("encoder is closed");
+			}
+			checkNano(startNano);
+			checkNano(endNano);
+			long previous = count == 0 ? 0 : previousStartSecond;
+			putDelta(startSecond - previous, startNano);
+			putDelta(endSecond - startSecond, endNano);
+			previousStartSecond = startSecond;
+			count++;
+			if (count == blockSize)
+			{
+				flush();
+			}
+		}
+
+		/**
+		 * Writes the pending block
+		 *
+		 * @throws IOException
+		 *             if an I/O error occurs
+		 */
+		public void flush() throws IOException
+		{
+			if (count == 0)
+			{
+				return;
+			}
+			int headerLength = putVarLong(header, 0, count);
+			if (out != null)
+			{
+				out.write(header, 0, headerLength);
+				out.write(block, 0, length);
+			}
+			else
+			{
+				target.put(header, 0, headerLength);
+				target.put(block, 0, length);
+			}
+			length = 0;
+			count = 0;
+		}
+
+		/**
+		 * Writes the pending block and the end of the sequence
+		 *
+		 * @throws IOException
+		 *             if an I/O error occurs
+		 */
+		@Override
+		public void close() throws IOException
+		{
+			if (closed)
+			{
+				return;
+			}
+			flush();
+			if (out != null)
+			{
+				out.write(0);
+				out.flush();
+			}
+			else
+			{
+				target.put((byte)0);
+			}
+			closed = true;
+		}
+
+		private void putDelta(long deltaSeconds, int nano)
+		{
+			long value = zigzag(deltaSeconds) << 1;
+			if (nano == 0)
+			{
+				length = putVarLong(block, length, value);
+			}
+			else
+			{
+				length = putVarLong(block, length, value | 1);
+				length = putVarLong(block, length, nano);
+			}
+		}
+
+		private static int putVarLong(byte[] bytes, int offset, long value)
+		{
+			int position = offset;
+			while ((value & ~0x7FL) != 0)
+			{
+				bytes[position++] = (byte)((value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+			bytes[position++] = (byte)value;
+			return position;
+		}
+	}
+
+	/**
+	 * A decoder is a flyweight view that moves over the encoded periods without creating objects.
+	 * A decoder is not thread safe
+	 */
+	public static final class Decoder
+	{
+		private final InputStream in;
+		private final ByteBuffer source;
+		private final byte[] buffer;
+		private int position;
+		private int limit;
+		private long remainingInBlock;
+		private boolean done;
+		private boolean positioned;
+		private long startSecond;
+		private int startNano;
+		private long endSecond;
+		private int endNano;
+
+		private Decoder(InputStream in, ByteBuffer source)
+		{
+			this.in = in;
+			this.source = source;
+			this.buffer = in != null ? new byte[READ_BUFFER_SIZE] : null;
+		}
+
+		/**
+		 * Decodes the next period
+		 *
+		 * @return true if this decoder points to a period otherwise false
+		 * @throws IOException
+		 *             if an I/O error occurs or the encoded data is corrupt
+		 */
+		public boolean next() throws IOException
+		{
+			positioned = false;
+			if (done)
+			{
+				return false;
+			}
+			boolean firstInBlock = false;
+			if (remainingInBlock == 0)
+			{
+				if (isAtEnd())
+				{
+					done = true;
+					return false;
+				}
+				remainingInBlock = readVarLong();
+				if (remainingInBlock == 0)
+				{
+					done = true;
+					return false;
+				}
+				firstInBlock = true;
+			}
+			long startHeader = readVarLong();
+			startSecond = (firstInBlock ? 0 : startSecond) + unzigzag(startHeader >>> 1);
+			startNano = (startHeader & 1) != 0 ? readNano() : 0;
+			long endHeader = readVarLong();
+			endSecond = startSecond + unzigzag(endHeader >>> 1);
+			endNano = (endHeader & 1) != 0 ? readNano() : 0;
+			remainingInBlock--;
+			positioned = true;
+			return true;
+		}
+
+		/**
+		 * Gets the epoch second of the start of the current period
+		 *
+		 * @return the epoch second of the start
+		 */
+		public long getStartSecond()
+		{
+			checkPositioned();
+			return startSecond;
+		}
+
+		/**
+		 * Gets the nano of second of the start of the current period
+		 *
+		 * @return the nano of second of the start
+		 */
+		public int getStartNano()
+		{
+			checkPositioned();
+			return startNano;
+		}
+
+		/**
+		 * Gets the epoch second of the end of the current period
+		 *
+		 * @return the epoch second of the end
+		 */
+		public long getEndSecond()
+		{
+			checkPositioned();
+			return endSecond;
+		}
+
+		/**
+		 * Gets the nano of second of the end of the current period
+		 *
+		 * @return the nano of second of the end
+		 */
+		public int getEndNano()
+		{
+			checkPositioned();
+			return endNano;
+		}
+
+		/**
+		 * Converts the current period to a new {@link Period} object
+		 *
+		 * @return the new {@link Period} object
+		 */
+		public Period toPeriod()
+		{
+			checkPositioned();
+			return Period.of(Instant.ofEpochSecond(startSecond, startNano),
+				Instant.ofEpochSecond(endSecond, endNano));
+		}
+
+		private void checkPositioned()
+		{
+			if (!positioned)
+			{
+				throw new NoSuchElementException("decoder is not positioned on a period");
+			}
+		}
+
+		private boolean isAtEnd() throws IOException
+		{
+			if (source != null)
+			{
+				return !source.hasRemaining();
+			}
+			return position == limit && !fill();
+		}
+
+		private boolean fill() throws IOException
+		{
+			int read = in.read(buffer);
+			position = 0;
+			limit = Math.max(read, 0);
+			return 0 < read;
+		}
+
+		private int readByte() throws IOException
+		{
+			if (source != null)
+			{
+				if (!source.hasRemaining())
+				{
+					throw new EOFException("encoded periods are truncated");
+				}
+				return source.get() & 0xFF;
+			}
+			if (position == limit && !fill())
+			{
+				throw new EOFException("encoded periods are truncated");
+			}
+			return buffer[position++] & 0xFF;
+		}
+
+		private long readVarLong() throws IOException
+		{
+			long value = 0;
+			for (int shift = 0; shift < 64; shift += 7)
+			{
+				int next = readByte();
+				value |= (long)(next & 0x7F) << shift;
+				if ((next & 0x80) == 0)
+				{
+					return value;
+				}
+			}
+			throw new IOException("encoded periods are corrupt: varint is too long");
+		}
+
+		private int readNano() throws IOException
+		{
+			long nano = readVarLong();
+			if (nano < 0 || 999_999_999 < nano)
+			{
+				throw new IOException("encoded periods are corrupt: nano of second " + nano);
+			}
+			return (int)nano;
+		}
+	}
+
+	/**
+	 * The iterator that creates a period for each decoded period
+	 */
+	private static final class DecodingIterator extends AbstractPeriodIterator
+	{
+		private final Decoder decoder;
+
+		DecodingIterator(Decoder decoder)
+		{
+			this.decoder = decoder;
+		}
+
+		@Override
+		protected Period computeNext()
+		{
+			try
+			{
+				return decoder.next() ? decoder.toPeriod() : null;
+			}
+			catch (IOException exception)
+			{
+				throw new UncheckedIOException(exception);
+			}
+		}
+	}
+
+}
@@ -24,8 +24,10 @@
  */
 package io.github.astrapi69.time.period;
 
+import java.time.Instant;
 import java.util.Objects;
 
+import io.github.astrapi69.time.enumtype.PeriodRelation;
 import io.github.astrapi69.time.period.model.Period;
 
 /**
@@ -35,10 +37,127 @@ import io.github.astrapi69.time.period.model.Period;
 public final class PeriodExtensions
 {
 
+	/**
+	 * The lookup table from the signs of the four boundary comparisons to the relation
+	 */
+	private static final PeriodRelation[] RELATIONS = newRelationTable();
+
 	private PeriodExtensions()
 	{
 	}
 
+	/**
+	 * Resolves the {@link PeriodRelation} of the given time range to the given time range to
+	 * check. The boundaries are compared only once and the result is mapped to the relation
+	 * through a lookup table, so this replaces the successive calls of the other predicates of
+	 * this class
+	 *
+	 * @param timeRange
+	 *            the time range
+	 * @param timeRangeToCheck
+	 *            the time range to check
+	 * @return the relation of the given time range to the given time range to check
+	 */
+	public static PeriodRelation relate(final Period timeRange, final Period timeRangeToCheck)
+	{
+		Objects.requireNonNull(timeRange);
+		Objects.requireNonNull(timeRangeToCheck);
+		return RELATIONS[relationIndex(timeRange, timeRangeToCheck)];
+	}
+
+	/**
+	 * Resolves the {@link PeriodRelation} of the given time range to every time range of the
+	 * given array and stores them in the given result array at the same index
+	 *
+	 * @param timeRange
+	 *            the time range
+	 * @param timeRangesToCheck
+	 *            the time ranges to check
+	 * @param result
+	 *            the array that receives the relations, it has to be at least as long as the
+	 *            array of the time ranges to check
+	 * @return the given result array
+	 */
+	public static PeriodRelation[] relate(final Period timeRange,
+		final Period[] timeRangesToCheck, final PeriodRelation[] result)
+	{
+		Objects.requireNonNull(timeRange);
+		Objects.requireNonNull(timeRangesToCheck);
+		Objects.requireNonNull(result);
+		if (result.length < timeRangesToCheck.length)
+		{
+			throw new IllegalArgumentException("result array is too small: " + result.length
+				+ " < " + timeRangesToCheck.length);
+		}
+		for (int i = 0; i < timeRangesToCheck.length; i++)
+		{
+			result[i] = RELATIONS[relationIndex(timeRange,
+				Objects.requireNonNull(timeRangesToCheck[i]))];
+		}
+		return result;
+	}
+
+	private static int relationIndex(final Period timeRange, final Period timeRangeToCheck)
+	{
+		Instant start = timeRange.getStart();
+		Instant end = timeRange.getEnd();
+		int startToStart = Integer.signum(start.compareTo(timeRangeToCheck.getStart()));
+		int startToEnd = Integer.signum(start.compareTo(timeRangeToCheck.getEnd()));
+		int endToStart = Integer.signum(end.compareTo(timeRangeToCheck.getStart()));
+		int endToEnd = Integer.signum(end.compareTo(timeRangeToCheck.getEnd()));
+		return (startToStart + 1) * 27 + (startToEnd + 1) * 9 + (endToStart + 1) * 3
+			+ (endToEnd + 1);
+	}
+
+	private static PeriodRelation[] newRelationTable()
+	{
+		PeriodRelation[] relations = new PeriodRelation[81];
+		for (int index = 0; index < relations.length; index++)
+		{
+			relations[index] = toRelation(index / 27 - 1, index / 9 % 3 - 1, index / 3 % 3 - 1,
+				index % 3 - 1);
+		}
+		return relations;
+	}
+
+	private static PeriodRelation toRelation(int startToStart, int startToEnd, int endToStart,
+		int endToEnd)
+	{
+		if (endToStart < 0)
+		{
+			return PeriodRelation.BEFORE;
+		}
+		if (0 < startToEnd)
+		{
+			return PeriodRelation.AFTER;
+		}
+		if (startToStart == 0 && endToEnd == 0)
+		{
+			return PeriodRelation.EQUALS;
+		}
+		if (endToStart == 0)
+		{
+			return PeriodRelation.MEETS;
+		}
+		if (startToEnd == 0)
+		{
+			return PeriodRelation.MET_BY;
+		}
+		if (startToStart < 0)
+		{
+			return endToEnd < 0
+				? PeriodRelation.OVERLAPS
+				: endToEnd == 0 ? PeriodRelation.FINISHED_BY : PeriodRelation.CONTAINS;
+		}
+		if (startToStart == 0)
+		{
+			return endToEnd < 0 ? PeriodRelation.STARTS : PeriodRelation.STARTED_BY;
+		}
+		return endToEnd < 0
+			? PeriodRelation.DURING
+			: endToEnd == 0 ? PeriodRelation.FINISHES : PeriodRelation.OVERLAPPED_BY;
+	}
+
 	/**
 	 * Checks if the given time range is after from the given time range to check
 	 * <p>
@@ -0,0 +1,453 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.period;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import io.github.astrapi69.time.period.model.Period;
+import io.github.astrapi69.time.period.model.StabbingResult;
+
+/**
+ * The class {@link PeriodIndex} is an immutable augmented interval tree over a collection of
+ * {@link Period} objects. The periods are kept in an array sorted by their natural order and the
+ * tree is laid out implicitly over this array, where every node stores the minimum and maximum end
+ * of its subtree. Queries use the same boundary semantics as {@link Period#overlaps(Period)} and
+ * {@link Period#encloses(Period)} and visit only the subtrees that can contain a result
+ */
+public final class PeriodIndex
+{
+
+	/**
+	 * The sorted periods
+	 */
+	private final Period[] periods;
+
+	/**
+	 * The maximum end of the subtree that has its root at the corresponding array position
+	 */
+	private final Instant[] maxEnd;
+
+	/**
+	 * The minimum end of the subtree that has its root at the corresponding array position
+	 */
+	private final Instant[] minEnd;
+
+	private PeriodIndex(Period[] periods)
+	{
+		this.periods = periods;
+		this.maxEnd = new Instant[periods.length];
+		this.minEnd = new Instant[periods.length];
+		build(0, periods.length);
+	}
+
+	/**
+	 * Factory method for create a new {@link PeriodIndex} object from the given periods in any
+	 * order
+	 *
+	 * @param periods
+	 *            the periods to index
+	 * @return the new created {@link PeriodIndex} object
+	 */
+	public static PeriodIndex of(Collection<Period> periods)
+	{
+		Objects.requireNonNull(periods, "periods");
+		Period[] array = periods.toArray(new Period[0]);
+		for (Period period : array)
+		{
+			Objects.requireNonNull(period, "period");
+		}
+		Arrays.sort(array);
+		return new PeriodIndex(array);
+	}
+
+	/**
+	 * Factory method for create a new {@link PeriodIndex} object from the given periods that are
+	 * already sorted by their natural order. This bulk loads the index in linear time
+	 *
+	 * @param sortedPeriods
+	 *            the sorted periods to index
+	 * @return the new created {@link PeriodIndex} object
+	 * @throws IllegalArgumentException
+	 *             if the given periods are not sorted
+	 */
+	public static PeriodIndex ofSorted(List<Period> sortedPeriods)
+	{
+		Objects.requireNonNull(sortedPeriods, "sortedPeriods");
+		Period[] array = sortedPeriods.toArray(new Period[0]);
+		for (int i = 0; i < array.length; i++)
+		{
+			Objects.requireNonNull(array[i], "period");
+			if (0 < i && 0 < array[i - 1].compareTo(array[i]))
+			{
+				throw new IllegalArgumentException(
+					"Given periods are not sorted at index " + i + ": " + array[i - 1].getStart()
+						+ " is after " + array[i].getStart());
+			}
+		}
+		return new PeriodIndex(array);
+	}
+
+	/**
+	 * Gets the number of indexed periods
+	 *
+	 * @return the number of indexed periods
+	 */
+	public int size()
+	{
+		return periods.length;
+	}
+
+	/**
+	 * Checks if this index contains no periods
+	 *
+	 * @return true if this index contains no periods otherwise false
+	 */
+	public boolean isEmpty()
+	{
+		return periods.length == 0;
+	}
+
+	/**
+	 * Finds all indexed periods that overlaps the given {@link Period} object in the sense of
+	 * {@link Period#overlaps(Period)}
+	 *
+	 * @param period
+	 *            the period to check with
+	 * @return the overlapping periods sorted by their natural order
+	 */
+	public List<Period> overlapping(Period period)
+	{
+		List<Period> result = new ArrayList<>();
+		forEachOverlapping(period, result::add);
+		return result;
+	}
+
+	/**
+	 * Passes all indexed periods that overlaps the given {@link Period} object in the sense of
+	 * {@link Period#overlaps(Period)} in their natural order to the given action
+	 *
+	 * @param period
+	 *            the period to check with
+	 * @param action
+	 *            the action that receives the overlapping periods
+	 */
+	public void forEachOverlapping(Period period, Consumer<? super Period> action)
+	{
+		Objects.requireNonNull(period, "period");
+		Objects.requireNonNull(action, "action");
+		visitOverlapping(0, periods.length, period, action);
+	}
+
+	/**
+	 * Finds all indexed periods that encloses the given {@link Instant} object, that are all
+	 * periods where the start is not after and the end is not before the given instant
+	 *
+	 * @param instant
+	 *            the instant to check with
+	 * @return the enclosing periods sorted by their natural order
+	 */
+	public List<Period> enclosing(Instant instant)
+	{
+		List<Period> result = new ArrayList<>();
+		forEachEnclosing(instant, result::add);
+		return result;
+	}
+
+	/**
+	 * Passes all indexed periods that encloses the given {@link Instant} object in their natural
+	 * order to the given action
+	 *
+	 * @param instant
+	 *            the instant to check with
+	 * @param action
+	 *            the action that receives the enclosing periods
+	 */
+	public void forEachEnclosing(Instant instant, Consumer<? super Period> action)
+	{
+		Objects.requireNonNull(instant, "instant");
+		Objects.requireNonNull(action, "action");
+		visitEnclosing(0, periods.length, instant, action);
+	}
+
+	/**
+	 * Finds for every instant of the given sorted array all indexed periods that encloses it in
+	 * the same sense as {@link #enclosing(Instant)}. The instants are merge walked against the
+	 * sorted periods, so the costs are linear in the number of instants, periods and results
+	 *
+	 * @param sortedInstants
+	 *            the query instants in ascending order
+	 * @return the {@link StabbingResult} object with the enclosing periods of every instant
+	 * @throws IllegalArgumentException
+	 *             if the given instants are not sorted
+	 */
+	public StabbingResult enclosingAll(Instant[] sortedInstants)
+	{
+		Objects.requireNonNull(sortedInstants, "sortedInstants");
+		long[] seconds = new long[sortedInstants.length];
+		int[] nanos = new int[sortedInstants.length];
+		for (int i = 0; i < sortedInstants.length; i++)
+		{
+			Instant instant = Objects.requireNonNull(sortedInstants[i], "instant");
+			seconds[i] = instant.getEpochSecond();
+			nanos[i] = instant.getNano();
+		}
+		return enclosingAll(seconds, nanos);
+	}
+
+	/**
+	 * Finds for every instant of the given sorted array of epoch milliseconds all indexed periods
+	 * that encloses it in the same sense as {@link #enclosing(Instant)}
+	 *
+	 * @param sortedEpochMillis
+	 *            the query instants as epoch milliseconds in ascending order
+	 * @return the {@link StabbingResult} object with the enclosing periods of every instant
+	 * @throws IllegalArgumentException
+	 *             if the given instants are not sorted
+	 * @see #enclosingAll(Instant[])
+	 */
+	public StabbingResult enclosingAll(long[] sortedEpochMillis)
+	{
+		Objects.requireNonNull(sortedEpochMillis, "sortedEpochMillis");
+		long[] seconds = new long[sortedEpochMillis.length];
+		int[] nanos = new int[sortedEpochMillis.length];
+		for (int i = 0; i < sortedEpochMillis.length; i++)
+		{
+			seconds[i] = Math.floorDiv(sortedEpochMillis[i], 1000L);
+			nanos[i] = (int)Math.floorMod(sortedEpochMillis[i], 1000L) * 1_000_000;
+		}
+		return enclosingAll(seconds, nanos);
+	}
+
+	/**
+	 * Finds all indexed periods that are enclosed by the given {@link Period} object in the sense
+	 * of {@link Period#encloses(Period)}
+	 *
+	 * @param period
+	 *            the enclosing period
+	 * @return the enclosed periods sorted by their natural order
+	 */
+	public List<Period> enclosedBy(Period period)
+	{
+		List<Period> result = new ArrayList<>();
+		forEachEnclosedBy(period, result::add);
+		return result;
+	}
+
+	/**
+	 * Passes all indexed periods that are enclosed by the given {@link Period} object in the sense
+	 * of {@link Period#encloses(Period)} in their natural order to the given action
+	 *
+	 * @param period
+	 *            the enclosing period
+	 * @param action
+	 *            the action that receives the enclosed periods
+	 */
+	public void forEachEnclosedBy(Period period, Consumer<? super Period> action)
+	{
+		Objects.requireNonNull(period, "period");
+		Objects.requireNonNull(action, "action");
+		visitEnclosedBy(0, periods.length, period, action);
+	}
+
+	private StabbingResult enclosingAll(long[] seconds, int[] nanos)
+	{
+		int[] offsets = new int[seconds.length + 1];
+		int[] active = new int[16];
+		int activeCount = 0;
+		int[] found = new int[16];
+		int foundCount = 0;
+		int next = 0;
+		for (int i = 0; i < seconds.length; i++)
+		{
+			if (0 < i && compare(seconds[i - 1], nanos[i - 1], seconds[i], nanos[i]) > 0)
+			{
+				throw new IllegalArgumentException("Given instants are not sorted at index " + i);
+			}
+			while (next < periods.length
+				&& compare(periods[next].getStart(), seconds[i], nanos[i]) <= 0)
+			{
+				if (activeCount == active.length)
+				{
+					active = Arrays.copyOf(active, activeCount * 2);
+				}
+				active[activeCount++] = next++;
+			}
+			int kept = 0;
+			for (int k = 0; k < activeCount; k++)
+			{
+				int candidate = active[k];
+				if (compare(periods[candidate].getEnd(), seconds[i], nanos[i]) < 0)
+				{
+					continue;
+				}
+				active[kept++] = candidate;
+				if (foundCount == found.length)
+				{
+					found = Arrays.copyOf(found, foundCount * 2);
+				}
+				found[foundCount++] = candidate;
+			}
+			activeCount = kept;
+			offsets[i + 1] = foundCount;
+		}
+		Period[] result = new Period[foundCount];
+		for (int k = 0; k < foundCount; k++)
+		{
+			result[k] = periods[found[k]];
+		}
+		return StabbingResult.of(offsets, result);
+	}
+
+	private static int compare(long second, int nano, long otherSecond, int otherNano)
+	{
+		int result = Long.compare(second, otherSecond);
+		return result != 0 ? result : Integer.compare(nano, otherNano);
+	}
+
+	private static int compare(Instant instant, long second, int nano)
+	{
+		return compare(instant.getEpochSecond(), instant.getNano(), second, nano);
+	}
+
+	private void build(int low, int high)
+	{
+		if (high <= low)
+		{
+			return;
+		}
+		int middle = (low + high) >>> 1;
+		build(low, middle);
+		build(middle + 1, high);
+		Instant max = periods[middle].getEnd();
+		Instant min = max;
+		if (low < middle)
+		{
+			int left = (low + middle) >>> 1;
+			max = later(max, maxEnd[left]);
+			min = earlier(min, minEnd[left]);
+		}
+		if (middle + 1 < high)
+		{
+			int right = (middle + 1 + high) >>> 1;
+			max = later(max, maxEnd[right]);
+			min = earlier(min, minEnd[right]);
+		}
+		maxEnd[middle] = max;
+		minEnd[middle] = min;
+	}
+
+	private void visitOverlapping(int low, int high, Period period, Consumer<? super Period> action)
+	{
+		if (high <= low)
+		{
+			return;
+		}
+		int middle = (low + high) >>> 1;
+		if (maxEnd[middle].isBefore(period.getStart()))
+		{
+			return;
+		}
+		visitOverlapping(low, middle, period, action);
+		Period current = periods[middle];
+		if (current.getStart().isAfter(period.getEnd()))
+		{
+			return;
+		}
+		if (current.overlaps(period))
+		{
+			action.accept(current);
+		}
+		visitOverlapping(middle + 1, high, period, action);
+	}
+
+	private void visitEnclosing(int low, int high, Instant instant,
+		Consumer<? super Period> action)
+	{
+		if (high <= low)
+		{
+			return;
+		}
+		int middle = (low + high) >>> 1;
+		if (maxEnd[middle].isBefore(instant))
+		{
+			return;
+		}
+		visitEnclosing(low, middle, instant, action);
+		Period current = periods[middle];
+		if (current.getStart().isAfter(instant))
+		{
+			return;
+		}
+		if (!current.getEnd().isBefore(instant))
+		{
+			action.accept(current);
+		}
+		visitEnclosing(middle + 1, high, instant, action);
+	}
+
+	private void visitEnclosedBy(int low, int high, Period period, Consumer<? super Period> action)
+	{
+		if (high <= low)
+		{
+			return;
+		}
+		int middle = (low + high) >>> 1;
+		if (minEnd[middle].isAfter(period.getEnd()))
+		{
+			return;
+		}
+		Period current = periods[middle];
+		if (!current.getStart().isBefore(period.getStart()))
+		{
+			visitEnclosedBy(low, middle, period, action);
+		}
+		if (current.getStart().isAfter(period.getEnd()))
+		{
+			return;
+		}
+		if (period.encloses(current))
+		{
+			action.accept(current);
+		}
+		visitEnclosedBy(middle + 1, high, period, action);
+	}
+
+	private static Instant later(Instant one, Instant other)
+	{
+		return one.isBefore(other) ? other : one;
+	}
+
+	private static Instant earlier(Instant one, Instant other)
+	{
+		return one.isAfter(other) ? other : one;
+	}
+
+}
@@ -0,0 +1,272 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.period;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BiConsumer;
+
+import io.github.astrapi69.time.period.model.Period;
+
+/**
+ * The class {@link PeriodJoinExtensions} provides algorithms for find all pairs of two collections
+ * of {@link Period} objects that overlaps each other in the sense of
+ * {@link Period#overlaps(Period)}. Both sides are sorted by start and swept with an active set per
+ * side, so every pair is checked only if the two periods are active at the same time. The pairs
+ * are passed to a callback and are never buffered
+ */
+public final class PeriodJoinExtensions
+{
+
+	private PeriodJoinExtensions()
+	{
+	}
+
+	/**
+	 * Passes every pair of the given collections that overlaps to the given callback
+	 *
+	 * @param left
+	 *            the left periods
+	 * @param right
+	 *            the right periods
+	 * @param callback
+	 *            the callback that receives the left and the right period of every overlapping
+	 *            pair
+	 */
+	public static void overlapJoin(Collection<Period> left, Collection<Period> right,
+		BiConsumer<? super Period, ? super Period> callback)
+	{
+		Objects.requireNonNull(callback, "callback");
+		Period[] sortedLeft = sorted(left);
+		Period[] sortedRight = sorted(right);
+		sweep(sortedLeft, 0, sortedLeft.length, new ArrayList<>(), sortedRight, 0,
+			sortedRight.length, new ArrayList<>(), callback);
+	}
+
+	/**
+	 * Passes every pair of the given collections that overlaps to the given callback. The time
+	 * axis is divided into ranges that are swept in parallel in the common {@link ForkJoinPool}
+	 *
+	 * @param left
+	 *            the left periods
+	 * @param right
+	 *            the right periods
+	 * @param callback
+	 *            the thread safe callback that receives the left and the right period of every
+	 *            overlapping pair
+	 */
+	public static void parallelOverlapJoin(Collection<Period> left, Collection<Period> right,
+		BiConsumer<? super Period, ? super Period> callback)
+	{
+		parallelOverlapJoin(left, right, callback, ForkJoinPool.commonPool(),
+			ForkJoinPool.commonPool().getParallelism() * 4);
+	}
+
+	/**
+	 * Passes every pair of the given collections that overlaps to the given callback. The time
+	 * axis is divided into about the given number of ranges that are swept in parallel in the
+	 * given {@link ForkJoinPool}. A pair is reported by the range that contains the later of the
+	 * two starts, and the periods that cross the lower border of a range are put into the active
+	 * sets before the sweep of this range starts, so every pair is reported exactly once
+	 *
+	 * @param left
+	 *            the left periods
+	 * @param right
+	 *            the right periods
+	 * @param callback
+	 *            the thread safe callback that receives the left and the right period of every
+	 *            overlapping pair
+	 * @param pool
+	 *            the pool that executes the sweeps
+	 * @param partitions
+	 *            the number of ranges for every side
+	 */
+	public static void parallelOverlapJoin(Collection<Period> left, Collection<Period> right,
+		BiConsumer<? super Period, ? super Period> callback, ForkJoinPool pool, int partitions)
+	{
+		Objects.requireNonNull(callback, "callback");
+		Objects.requireNonNull(pool, "pool");
+		if (partitions < 1)
+		{
+			throw new IllegalArgumentException("partitions must be positive: " + partitions);
+		}
+		Period[] sortedLeft = sorted(left);
+		Period[] sortedRight = sorted(right);
+		Instant[] borders = borders(sortedLeft, sortedRight, partitions);
+		if (borders.length == 0)
+		{
+			sweep(sortedLeft, 0, sortedLeft.length, new ArrayList<>(), sortedRight, 0,
+				sortedRight.length, new ArrayList<>(), callback);
+			return;
+		}
+		PeriodIndex leftIndex = PeriodIndex.ofSorted(Arrays.asList(sortedLeft));
+		PeriodIndex rightIndex = PeriodIndex.ofSorted(Arrays.asList(sortedRight));
+		List<ForkJoinTask<?>> tasks = new ArrayList<>();
+		for (int i = 0; i <= borders.length; i++)
+		{
+			Instant from = i == 0 ? null : borders[i - 1];
+			Instant to = i == borders.length ? null : borders[i];
+			tasks.add(ForkJoinTask.adapt(() -> sweepRange(sortedLeft, leftIndex, sortedRight,
+				rightIndex, from, to, callback)));
+		}
+		pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+	}
+
+	private static void sweepRange(Period[] left, PeriodIndex leftIndex, Period[] right,
+		PeriodIndex rightIndex, Instant from, Instant to,
+		BiConsumer<? super Period, ? super Period> callback)
+	{
+		int leftFrom = from == null ? 0 : lowerBound(left, from);
+		int leftTo = to == null ? left.length : lowerBound(left, to);
+		int rightFrom = from == null ? 0 : lowerBound(right, from);
+		int rightTo = to == null ? right.length : lowerBound(right, to);
+		List<Period> leftActive = crossing(leftIndex, from);
+		List<Period> rightActive = crossing(rightIndex, from);
+		sweep(left, leftFrom, leftTo, leftActive, right, rightFrom, rightTo, rightActive,
+			callback);
+	}
+
+	private static List<Period> crossing(PeriodIndex index, Instant border)
+	{
+		List<Period> crossing = new ArrayList<>();
+		if (border != null)
+		{
+			index.forEachEnclosing(border, period -> {
+				if (period.getStart().isBefore(border))
+				{
+					crossing.add(period);
+				}
+			});
+		}
+		return crossing;
+	}
+
+	private static void sweep(Period[] left, int leftFrom, int leftTo, List<Period> leftActive,
+		Period[] right, int rightFrom, int rightTo, List<Period> rightActive,
+		BiConsumer<? super Period, ? super Period> callback)
+	{
+		int i = leftFrom;
+		int j = rightFrom;
+		while (i < leftTo || j < rightTo)
+		{
+			if (j == rightTo || (i < leftTo && left[i].compareTo(right[j]) <= 0))
+			{
+				Period current = left[i++];
+				probe(current, rightActive, callback, true);
+				leftActive.add(current);
+			}
+			else
+			{
+				Period current = right[j++];
+				probe(current, leftActive, callback, false);
+				rightActive.add(current);
+			}
+		}
+	}
+
+	private static void probe(Period current, List<Period> active,
+		BiConsumer<? super Period, ? super Period> callback, boolean currentIsLeft)
+	{
+		Instant position = current.getStart();
+		int kept = 0;
+		for (int k = 0; k < active.size(); k++)
+		{
+			Period candidate = active.get(k);
+			if (candidate.getEnd().isBefore(position))
+			{
+				continue;
+			}
+			active.set(kept++, candidate);
+			if (candidate.overlaps(current))
+			{
+				if (currentIsLeft)
+				{
+					callback.accept(current, candidate);
+				}
+				else
+				{
+					callback.accept(candidate, current);
+				}
+			}
+		}
+		active.subList(kept, active.size()).clear();
+	}
+
+	private static Instant[] borders(Period[] left, Period[] right, int partitions)
+	{
+		TreeSet<Instant> borders = new TreeSet<>();
+		for (int k = 1; k < partitions; k++)
+		{
+			if (0 < left.length)
+			{
+				borders.add(left[(int)((long)k * left.length / partitions)].getStart());
+			}
+			if (0 < right.length)
+			{
+				borders.add(right[(int)((long)k * right.length / partitions)].getStart());
+			}
+		}
+		return borders.toArray(new Instant[0]);
+	}
+
+	private static int lowerBound(Period[] periods, Instant start)
+	{
+		int low = 0;
+		int high = periods.length;
+		while (low < high)
+		{
+			int middle = (low + high) >>> 1;
+			if (periods[middle].getStart().isBefore(start))
+			{
+				low = middle + 1;
+			}
+			else
+			{
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	private static Period[] sorted(Collection<Period> periods)
+	{
+		Objects.requireNonNull(periods, "periods");
+		Period[] sorted = periods.toArray(new Period[0]);
+		for (Period period : sorted)
+		{
+			Objects.requireNonNull(period, "period");
+		}
+		Arrays.sort(sorted);
+		return sorted;
+	}
+
+}
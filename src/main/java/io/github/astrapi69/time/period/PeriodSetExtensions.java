@@ -0,0 +1,381 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.period;
+
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import io.github.astrapi69.time.period.model.Period;
+
+/**
+ * The class {@link PeriodSetExtensions} provides set operations on sequences of {@link Period}
+ * objects that are sorted by their start. Both sequences are coalesced on the fly with the
+ * {@link PeriodCoalescer} and are then merged in a single linear pass. The results are emitted
+ * lazily in ascending order, so that timelines of any length never have to be materialized
+ */
+public final class PeriodSetExtensions
+{
+
+	private PeriodSetExtensions()
+	{
+	}
+
+	/**
+	 * Computes the intersection of the given sorted sequences. A part is emitted for every pair of
+	 * periods that overlaps in the sense of {@link Period#overlaps(Period)}
+	 *
+	 * @param sortedPeriods
+	 *            the first sequence sorted by start
+	 * @param otherSortedPeriods
+	 *            the second sequence sorted by start
+	 * @return the lazy iterator over the intersection
+	 */
+	public static Iterator<Period> intersect(Iterator<Period> sortedPeriods,
+		Iterator<Period> otherSortedPeriods)
+	{
+		return new IntersectionIterator(coalesced(sortedPeriods), coalesced(otherSortedPeriods));
+	}
+
+	/**
+	 * Computes the intersection of the given sorted streams
+	 *
+	 * @param sortedPeriods
+	 *            the first stream sorted by start
+	 * @param otherSortedPeriods
+	 *            the second stream sorted by start
+	 * @return the lazy stream of the intersection
+	 * @see #intersect(Iterator, Iterator)
+	 */
+	public static Stream<Period> intersect(Stream<Period> sortedPeriods,
+		Stream<Period> otherSortedPeriods)
+	{
+		return toStream(intersect(sortedPeriods.iterator(), otherSortedPeriods.iterator()),
+			sortedPeriods, otherSortedPeriods);
+	}
+
+	/**
+	 * Computes the parts of the first sorted sequence that are not overlapped by the second
+	 * sorted sequence. Periods of the second sequence that have no duration do not cut the
+	 * periods of the first sequence
+	 *
+	 * @param sortedPeriods
+	 *            the sequence sorted by start to subtract from
+	 * @param sortedPeriodsToSubtract
+	 *            the sequence sorted by start to subtract
+	 * @return the lazy iterator over the difference
+	 */
+	public static Iterator<Period> subtract(Iterator<Period> sortedPeriods,
+		Iterator<Period> sortedPeriodsToSubtract)
+	{
+		return new DifferenceIterator(coalesced(sortedPeriods),
+			coalesced(sortedPeriodsToSubtract));
+	}
+
+	/**
+	 * Computes the parts of the first sorted stream that are not overlapped by the second sorted
+	 * stream
+	 *
+	 * @param sortedPeriods
+	 *            the stream sorted by start to subtract from
+	 * @param sortedPeriodsToSubtract
+	 *            the stream sorted by start to subtract
+	 * @return the lazy stream of the difference
+	 * @see #subtract(Iterator, Iterator)
+	 */
+	public static Stream<Period> subtract(Stream<Period> sortedPeriods,
+		Stream<Period> sortedPeriodsToSubtract)
+	{
+		return toStream(subtract(sortedPeriods.iterator(), sortedPeriodsToSubtract.iterator()),
+			sortedPeriods, sortedPeriodsToSubtract);
+	}
+
+	/**
+	 * Computes the parts that are covered by exactly one of the given sorted sequences. Parts
+	 * that adjoin each other are coalesced
+	 *
+	 * @param sortedPeriods
+	 *            the first sequence sorted by start
+	 * @param otherSortedPeriods
+	 *            the second sequence sorted by start
+	 * @return the lazy iterator over the symmetric difference
+	 */
+	public static Iterator<Period> symmetricDifference(Iterator<Period> sortedPeriods,
+		Iterator<Period> otherSortedPeriods)
+	{
+		return PeriodCoalescer.coalesce(new SymmetricDifferenceIterator(coalesced(sortedPeriods),
+			coalesced(otherSortedPeriods)));
+	}
+
+	/**
+	 * Computes the parts that are covered by exactly one of the given sorted streams
+	 *
+	 * @param sortedPeriods
+	 *            the first stream sorted by start
+	 * @param otherSortedPeriods
+	 *            the second stream sorted by start
+	 * @return the lazy stream of the symmetric difference
+	 * @see #symmetricDifference(Iterator, Iterator)
+	 */
+	public static Stream<Period> symmetricDifference(Stream<Period> sortedPeriods,
+		Stream<Period> otherSortedPeriods)
+	{
+		return toStream(
+			symmetricDifference(sortedPeriods.iterator(), otherSortedPeriods.iterator()),
+			sortedPeriods, otherSortedPeriods);
+	}
+
+	private static Iterator<Period> coalesced(Iterator<Period> sortedPeriods)
+	{
+		return PeriodCoalescer.coalesce(Objects.requireNonNull(sortedPeriods, "sortedPeriods"));
+	}
+
+	private static Stream<Period> toStream(Iterator<Period> result, Stream<Period> source,
+		Stream<Period> otherSource)
+	{
+		return PeriodCoalescer.toDisjointStream(result).onClose(() -> {
+			try
+			{
+				source.close();
+			}
+			finally
+			{
+				otherSource.close();
+			}
+		});
+	}
+
+	private static Period nextOrNull(Iterator<Period> iterator)
+	{
+		return iterator.hasNext() ? iterator.next() : null;
+	}
+
+	private static Instant later(Instant one, Instant other)
+	{
+		return one.isBefore(other) ? other : one;
+	}
+
+	private static Instant earlier(Instant one, Instant other)
+	{
+		return one.isAfter(other) ? other : one;
+	}
+
+	/**
+	 * The iterator that merges two coalesced sequences to their intersection
+	 */
+	private static final class IntersectionIterator extends AbstractPeriodIterator
+	{
+		private final Iterator<Period> first;
+		private final Iterator<Period> second;
+		private Period one;
+		private Period other;
+
+		IntersectionIterator(Iterator<Period> first, Iterator<Period> second)
+		{
+			this.first = first;
+			this.second = second;
+			this.one = nextOrNull(first);
+			this.other = nextOrNull(second);
+		}
+
+		@Override
+		protected Period computeNext()
+		{
+			while (one != null && other != null)
+			{
+				Period result = null;
+				if (one.overlaps(other))
+				{
+					result = Period.of(later(one.getStart(), other.getStart()),
+						earlier(one.getEnd(), other.getEnd()));
+				}
+				int order = one.getEnd().compareTo(other.getEnd());
+				if (order <= 0)
+				{
+					one = nextOrNull(first);
+				}
+				if (0 <= order)
+				{
+					other = nextOrNull(second);
+				}
+				if (result != null)
+				{
+					return result;
+				}
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * The iterator that removes the parts of the second coalesced sequence from the first
+	 * coalesced sequence
+	 */
+	private static final class DifferenceIterator extends AbstractPeriodIterator
+	{
+		private final Iterator<Period> minuends;
+		private final Iterator<Period> subtrahends;
+		private Period remainder;
+		private Period subtrahend;
+
+		DifferenceIterator(Iterator<Period> minuends, Iterator<Period> subtrahends)
+		{
+			this.minuends = minuends;
+			this.subtrahends = subtrahends;
+			this.subtrahend = nextSubtrahend();
+		}
+
+		@Override
+		protected Period computeNext()
+		{
+			while (true)
+			{
+				if (remainder == null)
+				{
+					if (!minuends.hasNext())
+					{
+						return null;
+					}
+					remainder = minuends.next();
+				}
+				if (subtrahend == null
+					|| !subtrahend.getStart().isBefore(remainder.getEnd()))
+				{
+					Period result = remainder;
+					remainder = null;
+					return result;
+				}
+				if (!subtrahend.overlaps(remainder))
+				{
+					subtrahend = nextSubtrahend();
+					continue;
+				}
+				Period result = remainder.getStart().isBefore(subtrahend.getStart())
+					? Period.of(remainder.getStart(), subtrahend.getStart())
+					: null;
+				if (subtrahend.getEnd().isBefore(remainder.getEnd()))
+				{
+					remainder = Period.of(subtrahend.getEnd(), remainder.getEnd());
+					subtrahend = nextSubtrahend();
+				}
+				else
+				{
+					remainder = null;
+				}
+				if (result != null)
+				{
+					return result;
+				}
+			}
+		}
+
+		private Period nextSubtrahend()
+		{
+			while (subtrahends.hasNext())
+			{
+				Period next = subtrahends.next();
+				if (next.getStart().isBefore(next.getEnd()))
+				{
+					return next;
+				}
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * The iterator that emits the parts of two coalesced sequences that are covered by exactly
+	 * one of them. The emitted parts can adjoin each other and are coalesced afterwards
+	 */
+	private static final class SymmetricDifferenceIterator extends AbstractPeriodIterator
+	{
+		private final Iterator<Period> first;
+		private final Iterator<Period> second;
+		private Period one;
+		private Period other;
+
+		SymmetricDifferenceIterator(Iterator<Period> first, Iterator<Period> second)
+		{
+			this.first = first;
+			this.second = second;
+			this.one = nextOrNull(first);
+			this.other = nextOrNull(second);
+		}
+
+		@Override
+		protected Period computeNext()
+		{
+			while (one != null || other != null)
+			{
+				if (one == null || other == null || !one.overlaps(other))
+				{
+					boolean takeOne = other == null
+						|| (one != null && one.getStart().compareTo(other.getStart()) <= 0);
+					Period result;
+					if (takeOne)
+					{
+						result = one;
+						one = nextOrNull(first);
+					}
+					else
+					{
+						result = other;
+						other = nextOrNull(second);
+					}
+					return result;
+				}
+				boolean oneFirst = one.getStart().compareTo(other.getStart()) <= 0;
+				Period earlier = oneFirst ? one : other;
+				Period later = oneFirst ? other : one;
+				Period result = earlier.getStart().isBefore(later.getStart())
+					? Period.of(earlier.getStart(), later.getStart())
+					: null;
+				int order = one.getEnd().compareTo(other.getEnd());
+				if (order < 0)
+				{
+					other = Period.of(one.getEnd(), other.getEnd());
+					one = nextOrNull(first);
+				}
+				else if (0 < order)
+				{
+					one = Period.of(other.getEnd(), one.getEnd());
+					other = nextOrNull(second);
+				}
+				else
+				{
+					one = nextOrNull(first);
+					other = nextOrNull(second);
+				}
+				if (result != null)
+				{
+					return result;
+				}
+			}
+			return null;
+		}
+	}
+
+}
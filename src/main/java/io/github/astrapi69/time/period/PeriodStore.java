@@ -0,0 +1,573 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.period;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import io.github.astrapi69.time.period.model.Period;
+
+/**
+ * The class {@link PeriodStore} provides read access to {@link Period} objects that are stored
+ * sorted by start in a file with fixed width records. The file is mapped into memory, so opening
+ * a store does not read the periods and a store can be larger than the heap. A store is immutable
+ * and can be read from several threads
+ * <p>
+ * The file starts with a header of {@value #HEADER_SIZE} bytes that holds a magic number, the
+ * format version and the number of periods. Each period follows as a record of
+ * {@value #RECORD_SIZE} bytes with the epoch second and nano of second of the start and of the end
+ */
+public final class PeriodStore implements Closeable
+{
+
+	/**
+	 * The size of the header in bytes
+	 */
+	public static final int HEADER_SIZE = 24;
+
+	/**
+	 * The size of one record in bytes
+	 */
+	public static final int RECORD_SIZE = 24;
+
+	/**
+	 * The magic number at the beginning of a store file
+	 */
+	private static final int MAGIC = 0x544D5053;
+
+	/**
+	 * The version of the file format
+	 */
+	private static final int VERSION = 1;
+
+	/**
+	 * The default number of records that are mapped in one segment
+	 */
+	private static final int DEFAULT_RECORDS_PER_SEGMENT = 1 << 25;
+
+	/**
+	 * The size of the buffer for writing a store file
+	 */
+	private static final int WRITE_BUFFER_SIZE = RECORD_SIZE * 4096;
+
+	/**
+	 * The number of periods
+	 */
+	private final long size;
+
+	/**
+	 * The number of records in each segment
+	 */
+	private final int recordsPerSegment;
+
+	/**
+	 * The mapped segments or null if this store is closed
+	 */
+	private volatile MappedByteBuffer[] segments;
+
+	private PeriodStore(long size, int recordsPerSegment, MappedByteBuffer[] segments)
+	{
+		this.size = size;
+		this.recordsPerSegment = recordsPerSegment;
+		this.segments = segments;
+	}
+
+	/**
+	 * Writes the given {@link Period} objects sorted by start to a store file
+	 *
+	 * @param file
+	 *            the file to write
+	 * @param periods
+	 *            the periods to write
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	public static void write(Path file, Collection<Period> periods) throws IOException
+	{
+		Objects.requireNonNull(periods, "periods");
+		List<Period> sorted = new ArrayList<>(periods);
+		sorted.sort(null);
+		write(file, sorted.iterator());
+	}
+
+	/**
+	 * Writes the given {@link Period} objects that have to be sorted by start and end to a store
+	 * file. The periods are streamed to the file, so the given iterator can be larger than the
+	 * heap
+	 *
+	 * @param file
+	 *            the file to write
+	 * @param sortedPeriods
+	 *            the periods to write sorted by start and end
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	public static void write(Path file, Iterator<Period> sortedPeriods) throws IOException
+	{
+		Objects.requireNonNull(file, "file");
+		Objects.requireNonNull(sortedPeriods, "sortedPeriods");
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+			StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+		{
+			ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+			channel.position(HEADER_SIZE);
+			long count = 0;
+			Period previous = null;
+			while (sortedPeriods.hasNext())
+			{
+				Period period = sortedPeriods.next();
+				if (previous != null && previous.compareTo(period) > 0)
+				{
+					throw new IllegalArgumentException(
+						"periods are not sorted at: " + previous + " and " + period);
+				}
+				previous = period;
+				if (buffer.remaining() < RECORD_SIZE)
+				{
+					writeFully(channel, buffer);
+				}
+				buffer.putLong(period.getStart().getEpochSecond());
+				buffer.putInt(period.getStart().getNano());
+				buffer.putLong(period.getEnd().getEpochSecond());
+				buffer.putInt(period.getEnd().getNano());
+				count++;
+			}
+			writeFully(channel, buffer);
+			buffer.putInt(MAGIC).putInt(VERSION).putLong(count).putLong(0L);
+			channel.position(0);
+			writeFully(channel, buffer);
+		}
+	}
+
+	/**
+	 * Opens the given store file
+	 *
+	 * @param file
+	 *            the file to open
+	 * @return the new {@link PeriodStore} object
+	 * @throws IOException
+	 *             if an I/O error occurs or the file is not a valid store file
+	 */
+	public static PeriodStore open(Path file) throws IOException
+	{
+		return open(file, DEFAULT_RECORDS_PER_SEGMENT);
+	}
+
+	/**
+	 * Opens the given store file with the given number of records in each mapped segment
+	 *
+	 * @param file
+	 *            the file to open
+	 * @param recordsPerSegment
+	 *            the number of records in each mapped segment
+	 * @return the new {@link PeriodStore} object
+	 * @throws IOException
+	 *             if an I/O error occurs or the file is not a valid store file
+	 */
+	static PeriodStore open(Path file, int recordsPerSegment) throws IOException
+	{
+		Objects.requireNonNull(file, "file");
+		if (recordsPerSegment <= 0 || Integer.MAX_VALUE / RECORD_SIZE < recordsPerSegment)
+		{
+			throw new IllegalArgumentException(
+				"recordsPerSegment out of range: " + recordsPerSegment);
+		}
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+		{
+			long fileSize = channel.size();
+			if (fileSize < HEADER_SIZE)
+			{
+				throw new IOException("file is too small for a period store: " + file);
+			}
+			MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+			if (header.getInt(0) != MAGIC)
+			{
+				throw new IOException("file is not a period store: " + file);
+			}
+			if (header.getInt(4) != VERSION)
+			{
+				throw new IOException("unsupported period store version: " + header.getInt(4));
+			}
+			long size = header.getLong(8);
+			if (size < 0 || (fileSize - HEADER_SIZE) / RECORD_SIZE != size
+				|| (fileSize - HEADER_SIZE) % RECORD_SIZE != 0)
+			{
+				throw new IOException("period store is truncated or corrupt: " + file);
+			}
+			int segmentCount = (int)((size + recordsPerSegment - 1) / recordsPerSegment);
+			MappedByteBuffer[] segments = new MappedByteBuffer[segmentCount];
+			for (int i = 0; i < segmentCount; i++)
+			{
+				long first = (long)i * recordsPerSegment;
+				long records = Math.min(recordsPerSegment, size - first);
+				segments[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+					HEADER_SIZE + first * RECORD_SIZE, records * RECORD_SIZE);
+			}
+			return new PeriodStore(size, recordsPerSegment, segments);
+		}
+	}
+
+	/**
+	 * Gets the number of periods in this store
+	 *
+	 * @return the number of periods
+	 */
+	public long size()
+	{
+		return size;
+	}
+
+	/**
+	 * Checks if this store contains no periods
+	 *
+	 * @return true if this store contains no periods otherwise false
+	 */
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	/**
+	 * Gets the period at the given index
+	 *
+	 * @param index
+	 *            the index
+	 * @return the new {@link Period} object
+	 */
+	public Period get(long index)
+	{
+		return Period.of(Instant.ofEpochSecond(getStartSecond(index), getStartNano(index)),
+			Instant.ofEpochSecond(getEndSecond(index), getEndNano(index)));
+	}
+
+	/**
+	 * Gets the epoch second of the start of the period at the given index
+	 *
+	 * @param index
+	 *            the index
+	 * @return the epoch second of the start
+	 */
+	public long getStartSecond(long index)
+	{
+		return segment(index).getLong(offset(index));
+	}
+
+	/**
+	 * Gets the nano of second of the start of the period at the given index
+	 *
+	 * @param index
+	 *            the index
+	 * @return the nano of second of the start
+	 */
+	public int getStartNano(long index)
+	{
+		return segment(index).getInt(offset(index) + 8);
+	}
+
+	/**
+	 * Gets the epoch second of the end of the period at the given index
+	 *
+	 * @param index
+	 *            the index
+	 * @return the epoch second of the end
+	 */
+	public long getEndSecond(long index)
+	{
+		return segment(index).getLong(offset(index) + 12);
+	}
+
+	/**
+	 * Gets the nano of second of the end of the period at the given index
+	 *
+	 * @param index
+	 *            the index
+	 * @return the nano of second of the end
+	 */
+	public int getEndNano(long index)
+	{
+		return segment(index).getInt(offset(index) + 20);
+	}
+
+	/**
+	 * Finds the index of the first period that starts at or after the given instant with a binary
+	 * search
+	 *
+	 * @param instant
+	 *            the instant
+	 * @return the index of the first period that starts at or after the given instant or the size
+	 *         of this store if there is no such period
+	 */
+	public long ceilingIndex(Instant instant)
+	{
+		Objects.requireNonNull(instant, "instant");
+		openSegments();
+		long second = instant.getEpochSecond();
+		int nano = instant.getNano();
+		long low = 0;
+		long high = size;
+		while (low < high)
+		{
+			long middle = (low + high) >>> 1;
+			long middleSecond = getStartSecond(middle);
+			if (middleSecond < second || middleSecond == second && getStartNano(middle) < nano)
+			{
+				low = middle + 1;
+			}
+			else
+			{
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Creates a lazy iterator over the periods that starts in the given range
+	 *
+	 * @param fromInclusive
+	 *            the lowest start inclusive
+	 * @param toExclusive
+	 *            the highest start exclusive
+	 * @return the lazy iterator in ascending order
+	 */
+	public Iterator<Period> startingIn(Instant fromInclusive, Instant toExclusive)
+	{
+		Cursor cursor = cursor(fromInclusive, toExclusive);
+		return new AbstractPeriodIterator()
+		{
+			@Override
+			protected Period computeNext()
+			{
+				return cursor.next() ? cursor.toPeriod() : null;
+			}
+		};
+	}
+
+	/**
+	 * Creates a new cursor over all periods of this store
+	 *
+	 * @return the new cursor
+	 */
+	public Cursor cursor()
+	{
+		return new Cursor(0, size);
+	}
+
+	/**
+	 * Creates a new cursor over the periods that starts in the given range
+	 *
+	 * @param fromInclusive
+	 *            the lowest start inclusive
+	 * @param toExclusive
+	 *            the highest start exclusive
+	 * @return the new cursor
+	 */
+	public Cursor cursor(Instant fromInclusive, Instant toExclusive)
+	{
+		Objects.requireNonNull(fromInclusive, "fromInclusive");
+		Objects.requireNonNull(toExclusive, "toExclusive");
+		if (toExclusive.isBefore(fromInclusive))
+		{
+			throw new IllegalArgumentException("fromInclusive is after toExclusive");
+		}
+		long first = ceilingIndex(fromInclusive);
+		return new Cursor(first, Math.max(first, ceilingIndex(toExclusive)));
+	}
+
+	/**
+	 * Closes this store. The mapped memory is released when it is no longer reachable
+	 */
+	@Override
+	public void close()
+	{
+		segments = null;
+	}
+
+	private MappedByteBuffer[] openSegments()
+	{
+		MappedByteBuffer[] current = segments;
+		if (current == null)
+		{
+			throw new IllegalStateException("period store is closed");
+		}
+		return current;
+	}
+
+	private MappedByteBuffer segment(long index)
+	{
+		MappedByteBuffer[] current = openSegments();
+		Objects.checkIndex(index, size);
+		return current[(int)(index / recordsPerSegment)];
+	}
+
+	private int offset(long index)
+	{
+		return (int)(index % recordsPerSegment) * RECORD_SIZE;
+	}
+
+	private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException
+	{
+		buffer.flip();
+		while (buffer.hasRemaining())
+		{
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	/**
+	 * A cursor is a flyweight view that moves over a range of the periods of the enclosing
+	 * {@link PeriodStore} object without creating objects. A cursor is not thread safe
+	 */
+	public final class Cursor
+	{
+
+		/**
+		 * The first index of the range
+		 */
+		private final long first;
+
+		/**
+		 * The end index of the range exclusive
+		 */
+		private final long end;
+
+		/**
+		 * The current index
+		 */
+		private long index;
+
+		private Cursor(long first, long end)
+		{
+			this.first = first;
+			this.end = end;
+			this.index = first - 1;
+		}
+
+		/**
+		 * Moves this cursor to the next period
+		 *
+		 * @return true if this cursor points to a period otherwise false
+		 */
+		public boolean next()
+		{
+			if (index < end)
+			{
+				index++;
+			}
+			return index < end;
+		}
+
+		/**
+		 * Moves this cursor back to the position before the first period of its range
+		 */
+		public void reset()
+		{
+			index = first - 1;
+		}
+
+		/**
+		 * Gets the index of the current period in the enclosing store
+		 *
+		 * @return the index of the current period
+		 */
+		public long getIndex()
+		{
+			return index;
+		}
+
+		/**
+		 * Gets the epoch second of the start of the current period
+		 *
+		 * @return the epoch second of the start
+		 */
+		public long getStartSecond()
+		{
+			return PeriodStore.this.getStartSecond(current());
+		}
+
+		/**
+		 * Gets the nano of second of the start of the current period
+		 *
+		 * @return the nano of second of the start
+		 */
+		public int getStartNano()
+		{
+			return PeriodStore.this.getStartNano(current());
+		}
+
+		/**
+		 * Gets the epoch second of the end of the current period
+		 *
+		 * @return the epoch second of the end
+		 */
+		public long getEndSecond()
+		{
+			return PeriodStore.this.getEndSecond(current());
+		}
+
+		/**
+		 * Gets the nano of second of the end of the current period
+		 *
+		 * @return the nano of second of the end
+		 */
+		public int getEndNano()
+		{
+			return PeriodStore.this.getEndNano(current());
+		}
+
+		/**
+		 * Converts the current period to a new {@link Period} object
+		 *
+		 * @return the new {@link Period} object
+		 */
+		public Period toPeriod()
+		{
+			return get(current());
+		}
+
+		private long current()
+		{
+			if (index < first || end <= index)
+			{
+				throw new NoSuchElementException("cursor is not positioned on a period");
+			}
+			return index;
+		}
+	}
+
+}
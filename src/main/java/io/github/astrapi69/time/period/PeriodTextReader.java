@@ -0,0 +1,765 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.period;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import io.github.astrapi69.time.period.model.Period;
+
+/**
+ * The class {@link PeriodTextReader} reads {@link Period} objects from CSV or NDJSON text. The
+ * start and end values are ISO-8601 instants like they are formatted from
+ * {@link Instant#toString()} or with an offset like <code>2024-03-01T10:15:30+01:00</code>. The
+ * instants are parsed directly from the bytes, so no strings are created for valid rows. Rows that
+ * can not be parsed are reported to a {@link ErrorHandler} and skipped, empty rows are ignored
+ * <p>
+ * A reader is immutable and can be used from several threads at once, so the chunks of a large
+ * input that are created with {@link #split(ByteBuffer, int)} can be read in parallel
+ */
+public final class PeriodTextReader
+{
+
+	private static final int SECONDS_PER_DAY = 86400;
+
+	private static final int DAYS_0000_TO_1970 = 719468;
+
+	private static final int INITIAL_BUFFER_SIZE = 1 << 16;
+
+	private static final String INVALID_START = "invalid start instant";
+
+	private static final String INVALID_END = "invalid end instant";
+
+	private static final String MISSING_START = "missing start value";
+
+	private static final String MISSING_END = "missing end value";
+
+	/**
+	 * The delimiter of a CSV reader or -1 for a NDJSON reader
+	 */
+	private final int delimiter;
+
+	private final int startColumn;
+
+	private final int endColumn;
+
+	private final boolean header;
+
+	private final byte[] startKey;
+
+	private final byte[] endKey;
+
+	private PeriodTextReader(int delimiter, int startColumn, int endColumn, boolean header,
+		byte[] startKey, byte[] endKey)
+	{
+		this.delimiter = delimiter;
+		this.startColumn = startColumn;
+		this.endColumn = endColumn;
+		this.header = header;
+		this.startKey = startKey;
+		this.endKey = endKey;
+	}
+
+	/**
+	 * Factory method for create a new {@link PeriodTextReader} object for CSV text. Values can be
+	 * enclosed in double quotes
+	 *
+	 * @param delimiter
+	 *            the delimiter between the columns
+	 * @param startColumn
+	 *            the zero based index of the column with the start
+	 * @param endColumn
+	 *            the zero based index of the column with the end
+	 * @param header
+	 *            the flag if the first row is a header row that has to be skipped
+	 * @return the new {@link PeriodTextReader} object
+	 */
+	public static PeriodTextReader csv(char delimiter, int startColumn, int endColumn,
+		boolean header)
+	{
+		if (127 < delimiter || delimiter == '"' || delimiter == '\n' || delimiter == '\r')
+		{
+			throw new IllegalArgumentException("unsupported delimiter: " + delimiter);
+		}
+		if (startColumn < 0 || endColumn < 0)
+		{
+			throw new IllegalArgumentException("column index is negative");
+		}
+		return new PeriodTextReader(delimiter, startColumn, endColumn, header, null, null);
+	}
+
+	/**
+	 * Factory method for create a new {@link PeriodTextReader} object for NDJSON text where each
+	 * row is a JSON object with the start and end as string values
+	 *
+	 * @param startField
+	 *            the name of the field with the start
+	 * @param endField
+	 *            the name of the field with the end
+	 * @return the new {@link PeriodTextReader} object
+	 */
+	public static PeriodTextReader ndjson(String startField, String endField)
+	{
+		Objects.requireNonNull(startField, "startField");
+		Objects.requireNonNull(endField, "endField");
+		return new PeriodTextReader(-1, 0, 0, false,
+			('"' + startField + '"').getBytes(StandardCharsets.UTF_8),
+			('"' + endField + '"').getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Reads all rows from the position to the limit of the given byte buffer. The position of
+	 * the given byte buffer is not changed
+	 *
+	 * @param source
+	 *            the byte buffer to read from
+	 * @param sink
+	 *            the sink for the parsed periods
+	 * @param errorHandler
+	 *            the handler for the rows that can not be parsed
+	 * @return the number of parsed periods
+	 */
+	public long read(ByteBuffer source, Sink sink, ErrorHandler errorHandler)
+	{
+		return read(source, sink, errorHandler, header);
+	}
+
+	/**
+	 * Reads all rows of a chunk that was created with {@link #split(ByteBuffer, int)}. The line
+	 * numbers that are reported to the given error handler are relative to the chunk
+	 *
+	 * @param chunk
+	 *            the chunk to read from
+	 * @param sink
+	 *            the sink for the parsed periods
+	 * @param errorHandler
+	 *            the handler for the rows that can not be parsed
+	 * @return the number of parsed periods
+	 */
+	public long readChunk(ByteBuffer chunk, Sink sink, ErrorHandler errorHandler)
+	{
+		return read(chunk, sink, errorHandler, false);
+	}
+
+	/**
+	 * Reads all rows from the given channel. The given channel is not closed
+	 *
+	 * @param channel
+	 *            the channel to read from
+	 * @param sink
+	 *            the sink for the parsed periods
+	 * @param errorHandler
+	 *            the handler for the rows that can not be parsed
+	 * @return the number of parsed periods
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	public long read(ReadableByteChannel channel, Sink sink, ErrorHandler errorHandler)
+		throws IOException
+	{
+		Objects.requireNonNull(channel, "channel");
+		RowParser parser = new RowParser(sink, errorHandler, header);
+		ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+		while (true)
+		{
+			int read = channel.read(buffer);
+			if (read < 0)
+			{
+				buffer.flip();
+				parser.parse(buffer, buffer.position(), buffer.limit(), true);
+				return parser.parsed;
+			}
+			buffer.flip();
+			int consumed = parser.parse(buffer, buffer.position(), buffer.limit(), false);
+			buffer.position(consumed);
+			buffer.compact();
+			if (!buffer.hasRemaining())
+			{
+				ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+				buffer.flip();
+				larger.put(buffer);
+				buffer = larger;
+			}
+		}
+	}
+
+	/**
+	 * Splits the rows from the position to the limit of the given byte buffer into chunks of
+	 * about the same size. The chunks start and end at row boundaries and do not contain the
+	 * header row, so they can be read in parallel with {@link #readChunk(ByteBuffer, Sink,
+	 * ErrorHandler)}
+	 *
+	 * @param source
+	 *            the byte buffer to split
+	 * @param chunks
+	 *            the requested number of chunks
+	 * @return the chunks in the order of the rows, there can be less chunks than requested
+	 */
+	public List<ByteBuffer> split(ByteBuffer source, int chunks)
+	{
+		Objects.requireNonNull(source, "source");
+		if (chunks <= 0)
+		{
+			throw new IllegalArgumentException("chunks is not positive: " + chunks);
+		}
+		int limit = source.limit();
+		int start = header ? nextLine(source, source.position(), limit) : source.position();
+		List<ByteBuffer> result = new ArrayList<>();
+		long length = limit - start;
+		for (int i = 1; i <= chunks && start < limit; i++)
+		{
+			int end = i == chunks
+				? limit
+				: nextLine(source, Math.max(start, (int)(limit - length * (chunks - i) / chunks)),
+					limit);
+			if (start < end)
+			{
+				result.add(source.slice(start, end - start));
+			}
+			start = end;
+		}
+		return result;
+	}
+
+	private long read(ByteBuffer source, Sink sink, ErrorHandler errorHandler,
+		boolean skipHeader)
+	{
+		Objects.requireNonNull(source, "source");
+		RowParser parser = new RowParser(sink, errorHandler, skipHeader);
+		parser.parse(source, source.position(), source.limit(), true);
+		return parser.parsed;
+	}
+
+	/**
+	 * Finds the index after the next line feed at or after the given index
+	 */
+	private static int nextLine(ByteBuffer source, int from, int limit)
+	{
+		for (int i = from; i < limit; i++)
+		{
+			if (source.get(i) == '\n')
+			{
+				return i + 1;
+			}
+		}
+		return limit;
+	}
+
+	/**
+	 * Computes the days since the epoch of the given date of the proleptic gregorian calendar
+	 */
+	static long epochDay(long year, int month, int day)
+	{
+		long y = month <= 2 ? year - 1 : year;
+		long era = Math.floorDiv(y, 400);
+		long yearOfEra = y - era * 400;
+		int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+		long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+		return era * 146097 + dayOfEra - DAYS_0000_TO_1970;
+	}
+
+	private static int lengthOfMonth(long year, int month)
+	{
+		if (month == 2)
+		{
+			boolean leap = (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+			return leap ? 29 : 28;
+		}
+		return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+	}
+
+	/**
+	 * The sink for the parsed periods. The method reference <code>PeriodBatch::add</code> can be
+	 * used to fill a {@link io.github.astrapi69.time.period.model.PeriodBatch} object without
+	 * creating {@link Period} objects
+	 */
+	@FunctionalInterface
+	public interface Sink
+	{
+
+		/**
+		 * Factory method for create a new {@link Sink} object that creates a {@link Period}
+		 * object for each parsed period
+		 *
+		 * @param consumer
+		 *            the consumer of the periods
+		 * @return the new {@link Sink} object
+		 */
+		static Sink of(Consumer<Period> consumer)
+		{
+			Objects.requireNonNull(consumer, "consumer");
+			return (startSecond, startNano, endSecond, endNano) -> consumer
+				.accept(Period.of(Instant.ofEpochSecond(startSecond, startNano),
+					Instant.ofEpochSecond(endSecond, endNano)));
+		}
+
+		/**
+		 * Accepts a parsed period
+		 *
+		 * @param startSecond
+		 *            the epoch second of the start
+		 * @param startNano
+		 *            the nano of second of the start
+		 * @param endSecond
+		 *            the epoch second of the end
+		 * @param endNano
+		 *            the nano of second of the end
+		 */
+		void accept(long startSecond, int startNano, long endSecond, int endNano);
+	}
+
+	/**
+	 * The handler for the rows that can not be parsed
+	 */
+	@FunctionalInterface
+	public interface ErrorHandler
+	{
+
+		/**
+		 * Handles a row that can not be parsed
+		 *
+		 * @param lineNumber
+		 *            the one based line number of the row
+		 * @param row
+		 *            the content of the row
+		 * @param message
+		 *            the reason why the row can not be parsed
+		 */
+		void onError(long lineNumber, String row, String message);
+	}
+
+	/**
+	 * The state of one read operation
+	 */
+	private final class RowParser
+	{
+		private final Sink sink;
+		private final ErrorHandler errorHandler;
+		private boolean skipRow;
+		private long lineNumber;
+		private long parsed;
+		private int fieldStart;
+		private int fieldEnd;
+		private long second;
+		private int nano;
+
+		RowParser(Sink sink, ErrorHandler errorHandler, boolean skipHeader)
+		{
+			this.sink = Objects.requireNonNull(sink, "sink");
+			this.errorHandler = Objects.requireNonNull(errorHandler, "errorHandler");
+			this.skipRow = skipHeader;
+		}
+
+		/**
+		 * Parses the complete rows in the given range and the last row also if it is not
+		 * terminated and the given flag is set
+		 *
+		 * @return the index after the last parsed row
+		 */
+		int parse(ByteBuffer source, int from, int limit, boolean last)
+		{
+			int lineStart = from;
+			for (int i = from; i < limit; i++)
+			{
+				if (source.get(i) == '\n')
+				{
+					row(source, lineStart, i);
+					lineStart = i + 1;
+				}
+			}
+			if (last && lineStart < limit)
+			{
+				row(source, lineStart, limit);
+				lineStart = limit;
+			}
+			return lineStart;
+		}
+
+		private void row(ByteBuffer source, int from, int to)
+		{
+			lineNumber++;
+			int end = to;
+			if (from < end && source.get(end - 1) == '\r')
+			{
+				end--;
+			}
+			if (skipRow)
+			{
+				skipRow = false;
+				return;
+			}
+			if (isBlank(source, from, end))
+			{
+				return;
+			}
+			String error = delimiter < 0
+				? ndjsonRow(source, from, end)
+				: csvRow(source, from, end);
+			if (error != null)
+			{
+				byte[] bytes = new byte[end - from];
+				source.get(from, bytes);
+				errorHandler.onError(lineNumber, new String(bytes, StandardCharsets.UTF_8),
+					error);
+			}
+		}
+
+		private String csvRow(ByteBuffer source, int from, int to)
+		{
+			if (!findColumn(source, from, to, startColumn))
+			{
+				return MISSING_START;
+			}
+			if (!parseInstant(source, fieldStart, fieldEnd))
+			{
+				return INVALID_START;
+			}
+			long startSecond = second;
+			int startNano = nano;
+			if (!findColumn(source, from, to, endColumn))
+			{
+				return MISSING_END;
+			}
+			if (!parseInstant(source, fieldStart, fieldEnd))
+			{
+				return INVALID_END;
+			}
+			sink.accept(startSecond, startNano, second, nano);
+			parsed++;
+			return null;
+		}
+
+		private String ndjsonRow(ByteBuffer source, int from, int to)
+		{
+			if (!findValue(source, from, to, startKey))
+			{
+				return MISSING_START;
+			}
+			if (!parseInstant(source, fieldStart, fieldEnd))
+			{
+				return INVALID_START;
+			}
+			long startSecond = second;
+			int startNano = nano;
+			if (!findValue(source, from, to, endKey))
+			{
+				return MISSING_END;
+			}
+			if (!parseInstant(source, fieldStart, fieldEnd))
+			{
+				return INVALID_END;
+			}
+			sink.accept(startSecond, startNano, second, nano);
+			parsed++;
+			return null;
+		}
+
+		private boolean isBlank(ByteBuffer source, int from, int to)
+		{
+			for (int i = from; i < to; i++)
+			{
+				byte value = source.get(i);
+				if (value != ' ' && value != '\t')
+				{
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Finds the given column and stores its bounds without enclosing quotes and spaces
+		 */
+		private boolean findColumn(ByteBuffer source, int from, int to, int column)
+		{
+			int current = 0;
+			int start = from;
+			boolean quoted = false;
+			for (int i = from; i <= to; i++)
+			{
+				byte value = i < to ? source.get(i) : (byte)delimiter;
+				if (value == '"')
+				{
+					quoted = !quoted;
+				}
+				else if (value == delimiter && (!quoted || i == to))
+				{
+					if (current == column)
+					{
+						setField(source, start, i);
+						return true;
+					}
+					current++;
+					start = i + 1;
+				}
+			}
+			return false;
+		}
+
+		private void setField(ByteBuffer source, int from, int to)
+		{
+			int start = from;
+			int end = to;
+			while (start < end && source.get(start) == ' ')
+			{
+				start++;
+			}
+			while (start < end && source.get(end - 1) == ' ')
+			{
+				end--;
+			}
+			if (start + 1 < end && source.get(start) == '"' && source.get(end - 1) == '"')
+			{
+				start++;
+				end--;
+			}
+			fieldStart = start;
+			fieldEnd = end;
+		}
+
+		/**
+		 * Finds the string value of the given quoted key and stores its bounds
+		 */
+		private boolean findValue(ByteBuffer source, int from, int to, byte[] key)
+		{
+			int last = to - key.length;
+			for (int i = from; i <= last; i++)
+			{
+				if (!matches(source, i, key))
+				{
+					continue;
+				}
+				int position = skipSpaces(source, i + key.length, to);
+				if (position == to || source.get(position) != ':')
+				{
+					continue;
+				}
+				position = skipSpaces(source, position + 1, to);
+				if (position == to || source.get(position) != '"')
+				{
+					return false;
+				}
+				int start = position + 1;
+				for (int end = start; end < to; end++)
+				{
+					if (source.get(end) == '"')
+					{
+						fieldStart = start;
+						fieldEnd = end;
+						return true;
+					}
+				}
+				return false;
+			}
+			return false;
+		}
+
+		private boolean matches(ByteBuffer source, int index, byte[] key)
+		{
+			for (int k = 0; k < key.length; k++)
+			{
+				if (source.get(index + k) != key[k])
+				{
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private int skipSpaces(ByteBuffer source, int from, int to)
+		{
+			int position = from;
+			while (position < to && (source.get(position) == ' ' || source.get(position) == '\t'))
+			{
+				position++;
+			}
+			return position;
+		}
+
+		/**
+		 * Parses an ISO-8601 instant with offset and stores its epoch second and nano
+		 */
+		private boolean parseInstant(ByteBuffer source, int from, int to)
+		{
+			int position = from;
+			if (to - position < 16)
+			{
+				return false;
+			}
+			long year;
+			byte first = source.get(position);
+			if (first == '+' || first == '-')
+			{
+				int digitsEnd = position + 1;
+				while (digitsEnd < to && isDigit(source.get(digitsEnd)))
+				{
+					digitsEnd++;
+				}
+				int digits = digitsEnd - position - 1;
+				if (digits < 4 || 9 < digits)
+				{
+					return false;
+				}
+				year = number(source, position + 1, digits);
+				if (first == '-')
+				{
+					year = -year;
+				}
+				position = digitsEnd;
+			}
+			else
+			{
+				year = number(source, position, 4);
+				position += 4;
+			}
+			if (year < 0 && first != '-' || to - position < 12
+				|| source.get(position) != '-' || source.get(position + 3) != '-'
+				|| source.get(position + 9) != ':')
+			{
+				return false;
+			}
+			byte separator = source.get(position + 6);
+			if (separator != 'T' && separator != 't' && separator != ' ')
+			{
+				return false;
+			}
+			int month = (int)number(source, position + 1, 2);
+			int day = (int)number(source, position + 4, 2);
+			int hour = (int)number(source, position + 7, 2);
+			int minute = (int)number(source, position + 10, 2);
+			position += 12;
+			int secondOfMinute = 0;
+			int nanoOfSecond = 0;
+			if (position < to && source.get(position) == ':')
+			{
+				if (to < position + 3)
+				{
+					return false;
+				}
+				secondOfMinute = (int)number(source, position + 1, 2);
+				position += 3;
+				if (position < to && source.get(position) == '.')
+				{
+					position++;
+					int digits = 0;
+					while (position < to && isDigit(source.get(position)))
+					{
+						if (9 <= digits)
+						{
+							return false;
+						}
+						nanoOfSecond = nanoOfSecond * 10 + source.get(position) - '0';
+						digits++;
+						position++;
+					}
+					if (digits == 0)
+					{
+						return false;
+					}
+					for (; digits < 9; digits++)
+					{
+						nanoOfSecond *= 10;
+					}
+				}
+			}
+			if (month < 1 || 12 < month || day < 1 || lengthOfMonth(year, month) < day
+				|| hour < 0 || 23 < hour || minute < 0 || 59 < minute || secondOfMinute < 0
+				|| 59 < secondOfMinute || to <= position)
+			{
+				return false;
+			}
+			int offset;
+			byte zone = source.get(position);
+			if ((zone == 'Z' || zone == 'z') && position + 1 == to)
+			{
+				offset = 0;
+			}
+			else if ((zone == '+' || zone == '-') && (position + 3 == to || position + 6 == to))
+			{
+				int offsetHours = (int)number(source, position + 1, 2);
+				int offsetMinutes = 0;
+				if (position + 6 == to)
+				{
+					if (source.get(position + 3) != ':')
+					{
+						return false;
+					}
+					offsetMinutes = (int)number(source, position + 4, 2);
+				}
+				if (offsetHours < 0 || 18 < offsetHours || offsetMinutes < 0
+					|| 59 < offsetMinutes)
+				{
+					return false;
+				}
+				offset = (offsetHours * 3600 + offsetMinutes * 60) * (zone == '-' ? -1 : 1);
+			}
+			else
+			{
+				return false;
+			}
+			long epochSecond = epochDay(year, month, day) * SECONDS_PER_DAY + hour * 3600
+				+ minute * 60 + secondOfMinute - offset;
+			if (epochSecond < Instant.MIN.getEpochSecond()
+				|| Instant.MAX.getEpochSecond() < epochSecond)
+			{
+				return false;
+			}
+			second = epochSecond;
+			nano = nanoOfSecond;
+			return true;
+		}
+
+		private boolean isDigit(byte value)
+		{
+			return '0' <= value && value <= '9';
+		}
+
+		/**
+		 * Parses the given number of digits or returns -1 if a byte is not a digit
+		 */
+		private long number(ByteBuffer source, int from, int digits)
+		{
+			long value = 0;
+			for (int i = from; i < from + digits; i++)
+			{
+				byte digit = source.get(i);
+				if (!isDigit(digit))
+				{
+					return -1;
+				}
+				value = value * 10 + digit - '0';
+			}
+			return value;
+		}
+	}
+
+}
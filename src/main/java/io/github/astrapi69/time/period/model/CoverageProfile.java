@@ -0,0 +1,261 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.period.model;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A coverage profile is the step function of the number of {@link Period} objects that are active
+ * at an instant. A period is active from its start inclusive to its end exclusive, so periods
+ * that only adjoin each other are never active at the same time and periods without duration do
+ * not contribute. The steps are stored in primitive arrays, where the step <code>i</code> starts
+ * at its instant and lasts until the instant of the step <code>i + 1</code>. Before the first
+ * step and after the last step the depth is zero
+ */
+public class CoverageProfile
+{
+
+	/**
+	 * The epoch seconds of the step instants
+	 */
+	private final long[] seconds;
+
+	/**
+	 * The nano of second values of the step instants
+	 */
+	private final int[] nanos;
+
+	/**
+	 * The depths of the steps
+	 */
+	private final int[] depths;
+
+	/**
+	 * The maximum depth
+	 */
+	private final int peakDepth;
+
+	private CoverageProfile(long[] seconds, int[] nanos, int[] depths, int peakDepth)
+	{
+		this.seconds = seconds;
+		this.nanos = nanos;
+		this.depths = depths;
+		this.peakDepth = peakDepth;
+	}
+
+	/**
+	 * Factory method for create a new {@link CoverageProfile} object from the given periods. The
+	 * start and the end events are sorted and swept once
+	 *
+	 * @param periods
+	 *            the periods
+	 * @return the new created {@link CoverageProfile} object
+	 */
+	public static CoverageProfile of(Collection<Period> periods)
+	{
+		Objects.requireNonNull(periods, "periods");
+		int size = periods.size();
+		Instant[] starts = new Instant[size];
+		Instant[] ends = new Instant[size];
+		int count = 0;
+		for (Period period : periods)
+		{
+			Objects.requireNonNull(period, "period");
+			if (period.getStart().isBefore(period.getEnd()))
+			{
+				starts[count] = period.getStart();
+				ends[count] = period.getEnd();
+				count++;
+			}
+		}
+		Arrays.sort(starts, 0, count);
+		Arrays.sort(ends, 0, count);
+		long[] seconds = new long[2 * count];
+		int[] nanos = new int[2 * count];
+		int[] depths = new int[2 * count];
+		int steps = 0;
+		int depth = 0;
+		int peakDepth = 0;
+		int i = 0;
+		int j = 0;
+		while (j < count)
+		{
+			Instant instant = i < count && starts[i].isBefore(ends[j]) ? starts[i] : ends[j];
+			while (j < count && ends[j].equals(instant))
+			{
+				depth--;
+				j++;
+			}
+			while (i < count && starts[i].equals(instant))
+			{
+				depth++;
+				i++;
+			}
+			if (steps == 0 || depths[steps - 1] != depth)
+			{
+				seconds[steps] = instant.getEpochSecond();
+				nanos[steps] = instant.getNano();
+				depths[steps] = depth;
+				steps++;
+				peakDepth = Math.max(peakDepth, depth);
+			}
+		}
+		return new CoverageProfile(Arrays.copyOf(seconds, steps), Arrays.copyOf(nanos, steps),
+			Arrays.copyOf(depths, steps), peakDepth);
+	}
+
+	/**
+	 * Gets the maximum number of periods that are active at the same time
+	 *
+	 * @return the peak depth
+	 */
+	public int getPeakDepth()
+	{
+		return peakDepth;
+	}
+
+	/**
+	 * Gets the number of steps
+	 *
+	 * @return the number of steps
+	 */
+	public int getStepCount()
+	{
+		return depths.length;
+	}
+
+	/**
+	 * Gets the instant where the step with the given index starts
+	 *
+	 * @param index
+	 *            the index of the step
+	 * @return the instant where the step starts
+	 */
+	public Instant getStepStart(int index)
+	{
+		Objects.checkIndex(index, depths.length);
+		return Instant.ofEpochSecond(seconds[index], nanos[index]);
+	}
+
+	/**
+	 * Gets the depth of the step with the given index
+	 *
+	 * @param index
+	 *            the index of the step
+	 * @return the depth of the step
+	 */
+	public int getStepDepth(int index)
+	{
+		Objects.checkIndex(index, depths.length);
+		return depths[index];
+	}
+
+	/**
+	 * Gets the number of periods that are active at the given instant
+	 *
+	 * @param instant
+	 *            the instant
+	 * @return the depth at the given instant
+	 */
+	public int depthAt(Instant instant)
+	{
+		Objects.requireNonNull(instant, "instant");
+		int index = floorStep(instant.getEpochSecond(), instant.getNano());
+		return index < 0 ? 0 : depths[index];
+	}
+
+	/**
+	 * Computes the total duration where more than the given number of periods are active
+	 *
+	 * @param threshold
+	 *            the threshold
+	 * @return the total duration above the given threshold
+	 */
+	public Duration durationAbove(int threshold)
+	{
+		long totalSeconds = 0;
+		long totalNanos = 0;
+		for (int i = 0; i + 1 < depths.length; i++)
+		{
+			if (threshold < depths[i])
+			{
+				totalSeconds += seconds[i + 1] - seconds[i];
+				totalNanos += nanos[i + 1] - nanos[i];
+			}
+		}
+		return Duration.ofSeconds(totalSeconds, totalNanos);
+	}
+
+	/**
+	 * Finds all periods where the number of active periods is equal with the peak depth
+	 *
+	 * @return the periods with the peak depth in ascending order
+	 */
+	public List<Period> peakPeriods()
+	{
+		List<Period> result = new ArrayList<>();
+		for (int i = 0; i + 1 < depths.length; i++)
+		{
+			if (0 < peakDepth && depths[i] == peakDepth)
+			{
+				result.add(Period.of(getStepStart(i), getStepStart(i + 1)));
+			}
+		}
+		return result;
+	}
+
+	private int floorStep(long second, int nano)
+	{
+		int low = 0;
+		int high = depths.length - 1;
+		int result = -1;
+		while (low <= high)
+		{
+			int middle = (low + high) >>> 1;
+			int order = Long.compare(seconds[middle], second);
+			if (order == 0)
+			{
+				order = Integer.compare(nanos[middle], nano);
+			}
+			if (order <= 0)
+			{
+				result = middle;
+				low = middle + 1;
+			}
+			else
+			{
+				high = middle - 1;
+			}
+		}
+		return result;
+	}
+
+}
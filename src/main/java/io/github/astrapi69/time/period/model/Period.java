@@ -28,9 +28,10 @@ import java.time.Instant;
 import java.util.Objects;
 
 /**
- * A period consists of a start and an end {@link Instant} object that represents a time range
+ * A period consists of a start and an end {@link Instant} object that represents a time range.
+ * The natural order of {@link Period} objects is by start and then by end
  */
-public class Period
+public class Period implements Comparable<Period>
 {
 	/**
 	 * The start {@link Instant} object
@@ -173,6 +174,20 @@ public class Period
 		return end;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int compareTo(Period other)
+	{
+		int result = start.compareTo(other.start);
+		if (result != 0)
+		{
+			return result;
+		}
+		return end.compareTo(other.end);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -191,4 +206,13 @@ public class Period
 		return false;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode()
+	{
+		return 31 * start.hashCode() + end.hashCode();
+	}
+
 }
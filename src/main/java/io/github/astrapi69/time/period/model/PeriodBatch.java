@@ -0,0 +1,605 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.period.model;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * A period batch is a column of time ranges that stores the start and the end of every element as
+ * primitive epoch seconds and nano of second arrays instead of {@link Period} and {@link Instant}
+ * objects. The batch predicates have the same semantics as the corresponding methods of the class
+ * {@link Period} and write their results into a bitmask where the bit <code>i</code> of the word
+ * <code>i / 64</code> stands for the element at the index <code>i</code>
+ */
+public class PeriodBatch
+{
+
+	/**
+	 * The default capacity of a new {@link PeriodBatch} object
+	 */
+	private static final int DEFAULT_CAPACITY = 16;
+
+	/**
+	 * The epoch seconds of the starts
+	 */
+	private long[] startSeconds;
+
+	/**
+	 * The nano of second values of the starts
+	 */
+	private int[] startNanos;
+
+	/**
+	 * The epoch seconds of the ends
+	 */
+	private long[] endSeconds;
+
+	/**
+	 * The nano of second values of the ends
+	 */
+	private int[] endNanos;
+
+	/**
+	 * The number of elements
+	 */
+	private int size;
+
+	private PeriodBatch(int capacity)
+	{
+		if (capacity < 0)
+		{
+			throw new IllegalArgumentException("capacity must not be negative: " + capacity);
+		}
+		this.startSeconds = new long[capacity];
+		this.startNanos = new int[capacity];
+		this.endSeconds = new long[capacity];
+		this.endNanos = new int[capacity];
+	}
+
+	/**
+	 * Factory method for create a new empty {@link PeriodBatch} object
+	 *
+	 * @return the new created {@link PeriodBatch} object
+	 */
+	public static PeriodBatch empty()
+	{
+		return withCapacity(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Factory method for create a new empty {@link PeriodBatch} object with the given initial
+	 * capacity
+	 *
+	 * @param capacity
+	 *            the initial capacity
+	 * @return the new created {@link PeriodBatch} object
+	 */
+	public static PeriodBatch withCapacity(int capacity)
+	{
+		return new PeriodBatch(capacity);
+	}
+
+	/**
+	 * Factory method for create a new {@link PeriodBatch} object from the given {@link Period}
+	 * objects
+	 *
+	 * @param periods
+	 *            the periods
+	 * @return the new created {@link PeriodBatch} object
+	 */
+	public static PeriodBatch of(Collection<Period> periods)
+	{
+		Objects.requireNonNull(periods, "periods");
+		PeriodBatch batch = new PeriodBatch(periods.size());
+		for (Period period : periods)
+		{
+			batch.add(period);
+		}
+		return batch;
+	}
+
+	/**
+	 * Adds the given {@link Period} object to the end of this batch
+	 *
+	 * @param period
+	 *            the period to add
+	 */
+	public void add(Period period)
+	{
+		Objects.requireNonNull(period, "period");
+		add(period.getStart().getEpochSecond(), period.getStart().getNano(),
+			period.getEnd().getEpochSecond(), period.getEnd().getNano());
+	}
+
+	/**
+	 * Adds a new element with the given epoch values to the end of this batch
+	 *
+	 * @param startSecond
+	 *            the epoch second of the start
+	 * @param startNano
+	 *            the nano of second of the start
+	 * @param endSecond
+	 *            the epoch second of the end
+	 * @param endNano
+	 *            the nano of second of the end
+	 */
+	public void add(long startSecond, int startNano, long endSecond, int endNano)
+	{
+		checkNano(startNano);
+		checkNano(endNano);
+		if (size == startSeconds.length)
+		{
+			grow();
+		}
+		startSeconds[size] = startSecond;
+		startNanos[size] = startNano;
+		endSeconds[size] = endSecond;
+		endNanos[size] = endNano;
+		size++;
+	}
+
+	/**
+	 * Removes all elements from this batch and keeps the capacity
+	 */
+	public void clear()
+	{
+		size = 0;
+	}
+
+	/**
+	 * Gets the number of elements
+	 *
+	 * @return the number of elements
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Checks if this batch contains no elements
+	 *
+	 * @return true if this batch contains no elements otherwise false
+	 */
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	/**
+	 * Gets the element at the given index as a new {@link Period} object
+	 *
+	 * @param index
+	 *            the index
+	 * @return the new {@link Period} object
+	 */
+	public Period get(int index)
+	{
+		Objects.checkIndex(index, size);
+		return Period.of(Instant.ofEpochSecond(startSeconds[index], startNanos[index]),
+			Instant.ofEpochSecond(endSeconds[index], endNanos[index]));
+	}
+
+	/**
+	 * Gets the epoch second of the start of the element at the given index
+	 *
+	 * @param index
+	 *            the index
+	 * @return the epoch second of the start
+	 */
+	public long getStartSecond(int index)
+	{
+		Objects.checkIndex(index, size);
+		return startSeconds[index];
+	}
+
+	/**
+	 * Gets the nano of second of the start of the element at the given index
+	 *
+	 * @param index
+	 *            the index
+	 * @return the nano of second of the start
+	 */
+	public int getStartNano(int index)
+	{
+		Objects.checkIndex(index, size);
+		return startNanos[index];
+	}
+
+	/**
+	 * Gets the epoch second of the end of the element at the given index
+	 *
+	 * @param index
+	 *            the index
+	 * @return the epoch second of the end
+	 */
+	public long getEndSecond(int index)
+	{
+		Objects.checkIndex(index, size);
+		return endSeconds[index];
+	}
+
+	/**
+	 * Gets the nano of second of the end of the element at the given index
+	 *
+	 * @param index
+	 *            the index
+	 * @return the nano of second of the end
+	 */
+	public int getEndNano(int index)
+	{
+		Objects.checkIndex(index, size);
+		return endNanos[index];
+	}
+
+	/**
+	 * Converts all elements of this batch to a list of new {@link Period} objects
+	 *
+	 * @return the list with the {@link Period} objects
+	 */
+	public List<Period> toList()
+	{
+		List<Period> periods = new ArrayList<>(size);
+		for (int i = 0; i < size; i++)
+		{
+			periods.add(get(i));
+		}
+		return periods;
+	}
+
+	/**
+	 * Factory method for create a new {@link Cursor} object that iterates over this batch without
+	 * allocating an object per element
+	 *
+	 * @return the new {@link Cursor} object
+	 */
+	public Cursor cursor()
+	{
+		return new Cursor();
+	}
+
+	/**
+	 * Factory method for create a new bitmask that can hold one bit for every element of this
+	 * batch
+	 *
+	 * @return the new bitmask
+	 */
+	public long[] newBitmask()
+	{
+		return new long[(size + 63) >>> 6];
+	}
+
+	/**
+	 * Marks in the given bitmask every element that overlaps the given {@link Period} object in
+	 * the sense of {@link Period#overlaps(Period)}
+	 *
+	 * @param period
+	 *            the period to check with
+	 * @param bitmask
+	 *            the bitmask that receives the result
+	 * @return the number of matching elements
+	 */
+	public int overlaps(Period period, long[] bitmask)
+	{
+		Objects.requireNonNull(period, "period");
+		checkBitmask(bitmask);
+		long ps = period.getStart().getEpochSecond();
+		int pn = period.getStart().getNano();
+		long pes = period.getEnd().getEpochSecond();
+		int pen = period.getEnd().getNano();
+		int count = 0;
+		for (int i = 0; i < size; i++)
+		{
+			boolean match = (startSeconds[i] == ps && startNanos[i] == pn && endSeconds[i] == pes
+				&& endNanos[i] == pen)
+				|| (compare(startSeconds[i], startNanos[i], pes, pen) < 0
+					&& compare(ps, pn, endSeconds[i], endNanos[i]) < 0);
+			count += mark(bitmask, i, match);
+		}
+		return count;
+	}
+
+	/**
+	 * Marks in the given bitmask every element that encloses the given {@link Period} object in
+	 * the sense of {@link Period#encloses(Period)}
+	 *
+	 * @param period
+	 *            the period to check with
+	 * @param bitmask
+	 *            the bitmask that receives the result
+	 * @return the number of matching elements
+	 */
+	public int encloses(Period period, long[] bitmask)
+	{
+		Objects.requireNonNull(period, "period");
+		checkBitmask(bitmask);
+		long ps = period.getStart().getEpochSecond();
+		int pn = period.getStart().getNano();
+		long pes = period.getEnd().getEpochSecond();
+		int pen = period.getEnd().getNano();
+		int count = 0;
+		for (int i = 0; i < size; i++)
+		{
+			boolean match = compare(startSeconds[i], startNanos[i], ps, pn) <= 0
+				&& compare(pes, pen, endSeconds[i], endNanos[i]) <= 0;
+			count += mark(bitmask, i, match);
+		}
+		return count;
+	}
+
+	/**
+	 * Marks in the given bitmask every element that adjoins the given {@link Period} object in the
+	 * sense of {@link Period#adjoins(Period)}
+	 *
+	 * @param period
+	 *            the period to check with
+	 * @param bitmask
+	 *            the bitmask that receives the result
+	 * @return the number of matching elements
+	 */
+	public int adjoins(Period period, long[] bitmask)
+	{
+		Objects.requireNonNull(period, "period");
+		checkBitmask(bitmask);
+		long ps = period.getStart().getEpochSecond();
+		int pn = period.getStart().getNano();
+		long pes = period.getEnd().getEpochSecond();
+		int pen = period.getEnd().getNano();
+		int count = 0;
+		for (int i = 0; i < size; i++)
+		{
+			boolean endMeetsStart = endSeconds[i] == ps && endNanos[i] == pn;
+			boolean startMeetsEnd = startSeconds[i] == pes && startNanos[i] == pen;
+			count += mark(bitmask, i, endMeetsStart ^ startMeetsEnd);
+		}
+		return count;
+	}
+
+	/**
+	 * Marks in the given bitmask every element that is before the given {@link Period} object in
+	 * the sense of {@link Period#isBefore(Period)}
+	 *
+	 * @param period
+	 *            the period to check with
+	 * @param bitmask
+	 *            the bitmask that receives the result
+	 * @return the number of matching elements
+	 */
+	public int isBefore(Period period, long[] bitmask)
+	{
+		Objects.requireNonNull(period, "period");
+		checkBitmask(bitmask);
+		long ps = period.getStart().getEpochSecond();
+		int pn = period.getStart().getNano();
+		long pes = period.getEnd().getEpochSecond();
+		int pen = period.getEnd().getNano();
+		int count = 0;
+		for (int i = 0; i < size; i++)
+		{
+			boolean equal = startSeconds[i] == ps && startNanos[i] == pn && endSeconds[i] == pes
+				&& endNanos[i] == pen;
+			boolean match = compare(endSeconds[i], endNanos[i], ps, pn) <= 0 && !equal;
+			count += mark(bitmask, i, match);
+		}
+		return count;
+	}
+
+	/**
+	 * Marks in the given bitmask every element that is after the given {@link Period} object in
+	 * the sense of {@link Period#isAfter(Period)}
+	 *
+	 * @param period
+	 *            the period to check with
+	 * @param bitmask
+	 *            the bitmask that receives the result
+	 * @return the number of matching elements
+	 */
+	public int isAfter(Period period, long[] bitmask)
+	{
+		Objects.requireNonNull(period, "period");
+		checkBitmask(bitmask);
+		long ps = period.getStart().getEpochSecond();
+		int pn = period.getStart().getNano();
+		long pes = period.getEnd().getEpochSecond();
+		int pen = period.getEnd().getNano();
+		int count = 0;
+		for (int i = 0; i < size; i++)
+		{
+			boolean equal = startSeconds[i] == ps && startNanos[i] == pn && endSeconds[i] == pes
+				&& endNanos[i] == pen;
+			boolean match = compare(startSeconds[i], startNanos[i], pes, pen) >= 0 && !equal;
+			count += mark(bitmask, i, match);
+		}
+		return count;
+	}
+
+	private void grow()
+	{
+		int capacity = Math.max(DEFAULT_CAPACITY, startSeconds.length + (startSeconds.length >> 1));
+		startSeconds = Arrays.copyOf(startSeconds, capacity);
+		startNanos = Arrays.copyOf(startNanos, capacity);
+		endSeconds = Arrays.copyOf(endSeconds, capacity);
+		endNanos = Arrays.copyOf(endNanos, capacity);
+	}
+
+	private void checkBitmask(long[] bitmask)
+	{
+		Objects.requireNonNull(bitmask, "bitmask");
+		if (bitmask.length < (size + 63) >>> 6)
+		{
+			throw new IllegalArgumentException(
+				"bitmask is too small for " + size + " elements: " + bitmask.length);
+		}
+		Arrays.fill(bitmask, 0L);
+	}
+
+	private static int mark(long[] bitmask, int index, boolean match)
+	{
+		int bit = match ? 1 : 0;
+		bitmask[index >>> 6] |= (long)bit << index;
+		return bit;
+	}
+
+	private static int compare(long second, int nano, long otherSecond, int otherNano)
+	{
+		int result = Long.compare(second, otherSecond);
+		return result != 0 ? result : Integer.compare(nano, otherNano);
+	}
+
+	private static void checkNano(int nano)
+	{
+		if (nano < 0 || 999_999_999 < nano)
+		{
+			throw new IllegalArgumentException("nano of second out of range: " + nano);
+		}
+	}
+
+	/**
+	 * A cursor is a flyweight view that moves over the elements of the enclosing
+	 * {@link PeriodBatch} object. A cursor is not thread safe
+	 */
+	public final class Cursor
+	{
+
+		/**
+		 * The current index
+		 */
+		private int index = -1;
+
+		private Cursor()
+		{
+		}
+
+		/**
+		 * Moves this cursor to the next element
+		 *
+		 * @return true if this cursor points to an element otherwise false
+		 */
+		public boolean next()
+		{
+			if (index < size)
+			{
+				index++;
+			}
+			return index < size;
+		}
+
+		/**
+		 * Moves this cursor to the given index
+		 *
+		 * @param index
+		 *            the index to move to
+		 */
+		public void moveTo(int index)
+		{
+			Objects.checkIndex(index, size);
+			this.index = index;
+		}
+
+		/**
+		 * Moves this cursor back to the position before the first element
+		 */
+		public void reset()
+		{
+			index = -1;
+		}
+
+		/**
+		 * Gets the index of the current element
+		 *
+		 * @return the index of the current element
+		 */
+		public int getIndex()
+		{
+			return index;
+		}
+
+		/**
+		 * Gets the epoch second of the start of the current element
+		 *
+		 * @return the epoch second of the start
+		 */
+		public long getStartSecond()
+		{
+			return startSeconds[current()];
+		}
+
+		/**
+		 * Gets the nano of second of the start of the current element
+		 *
+		 * @return the nano of second of the start
+		 */
+		public int getStartNano()
+		{
+			return startNanos[current()];
+		}
+
+		/**
+		 * Gets the epoch second of the end of the current element
+		 *
+		 * @return the epoch second of the end
+		 */
+		public long getEndSecond()
+		{
+			return endSeconds[current()];
+		}
+
+		/**
+		 * Gets the nano of second of the end of the current element
+		 *
+		 * @return the nano of second of the end
+		 */
+		public int getEndNano()
+		{
+			return endNanos[current()];
+		}
+
+		/**
+		 * Converts the current element to a new {@link Period} object
+		 *
+		 * @return the new {@link Period} object
+		 */
+		public Period toPeriod()
+		{
+			return get(current());
+		}
+
+		private int current()
+		{
+			if (index < 0 || size <= index)
+			{
+				throw new NoSuchElementException("cursor is not positioned on an element");
+			}
+			return index;
+		}
+	}
+
+}
@@ -0,0 +1,166 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.period.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A stabbing result holds for a batch of query instants the {@link Period} objects that encloses
+ * every instant. The result is stored in compressed sparse row form, so the periods of the query
+ * instant <code>i</code> are found in the flat period array from the offset <code>i</code>
+ * inclusive to the offset <code>i + 1</code> exclusive
+ */
+public class StabbingResult
+{
+
+	/**
+	 * The offsets into the flat period array, one more than the number of query instants
+	 */
+	private final int[] offsets;
+
+	/**
+	 * The flat period array
+	 */
+	private final Period[] periods;
+
+	private StabbingResult(int[] offsets, Period[] periods)
+	{
+		this.offsets = offsets;
+		this.periods = periods;
+	}
+
+	/**
+	 * Factory method for create a new {@link StabbingResult} object from the given offsets and
+	 * the given flat period array. The arrays are copied, so later changes to them do not affect
+	 * the new created object
+	 *
+	 * @param offsets
+	 *            the offsets into the flat period array, one more than the number of query
+	 *            instants
+	 * @param periods
+	 *            the flat period array
+	 * @return the new created {@link StabbingResult} object
+	 * @throws IllegalArgumentException
+	 *             if the offsets do not start with zero, are decreasing or do not end with the
+	 *             length of the period array
+	 */
+	public static StabbingResult of(int[] offsets, Period[] periods)
+	{
+		Objects.requireNonNull(offsets, "offsets");
+		Objects.requireNonNull(periods, "periods");
+		if (offsets.length == 0 || offsets[0] != 0 || offsets[offsets.length - 1] != periods.length)
+		{
+			throw new IllegalArgumentException("offsets do not match the periods");
+		}
+		for (int i = 1; i < offsets.length; i++)
+		{
+			if (offsets[i] < offsets[i - 1])
+			{
+				throw new IllegalArgumentException("offsets are decreasing at index " + i);
+			}
+		}
+		return new StabbingResult(offsets.clone(), periods.clone());
+	}
+
+	/**
+	 * Gets the number of query instants
+	 *
+	 * @return the number of query instants
+	 */
+	public int getInstantCount()
+	{
+		return offsets.length - 1;
+	}
+
+	/**
+	 * Gets the total number of found periods over all query instants
+	 *
+	 * @return the total number of found periods
+	 */
+	public int getTotalCount()
+	{
+		return periods.length;
+	}
+
+	/**
+	 * Gets the number of periods that encloses the query instant with the given index
+	 *
+	 * @param instantIndex
+	 *            the index of the query instant
+	 * @return the number of enclosing periods
+	 */
+	public int getCount(int instantIndex)
+	{
+		Objects.checkIndex(instantIndex, offsets.length - 1);
+		return offsets[instantIndex + 1] - offsets[instantIndex];
+	}
+
+	/**
+	 * Gets the offset into the flat period array where the periods of the query instant with the
+	 * given index starts
+	 *
+	 * @param instantIndex
+	 *            the index of the query instant, or the number of query instants for the end of
+	 *            the flat period array
+	 * @return the offset into the flat period array
+	 */
+	public int getOffset(int instantIndex)
+	{
+		Objects.checkIndex(instantIndex, offsets.length);
+		return offsets[instantIndex];
+	}
+
+	/**
+	 * Gets the period at the given position of the flat period array
+	 *
+	 * @param position
+	 *            the position in the flat period array
+	 * @return the period at the given position
+	 */
+	public Period getPeriod(int position)
+	{
+		Objects.checkIndex(position, periods.length);
+		return periods[position];
+	}
+
+	/**
+	 * Gets the periods that encloses the query instant with the given index as an unmodifiable
+	 * list view
+	 *
+	 * @param instantIndex
+	 *            the index of the query instant
+	 * @return the enclosing periods
+	 */
+	public List<Period> getPeriods(int instantIndex)
+	{
+		Objects.checkIndex(instantIndex, offsets.length - 1);
+		return Collections.unmodifiableList(
+			Arrays.asList(periods).subList(offsets[instantIndex], offsets[instantIndex + 1]));
+	}
+
+}
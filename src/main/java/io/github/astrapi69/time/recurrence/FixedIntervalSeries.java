@@ -0,0 +1,438 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.recurrence;
+
+import java.math.BigInteger;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import io.github.astrapi69.time.period.model.Period;
+
+/**
+ * The class {@link FixedIntervalSeries} is a series of {@link Period} objects of equal duration
+ * whose starts are a fixed interval apart. The conflicts of two such series are found with
+ * arithmetic on their intervals, offsets and durations instead of expanding the occurrences:
+ * the differences between the starts of the two series are exactly the values of the offset
+ * plus a multiple of the greatest common divisor of the intervals, so each difference that lets
+ * two occurrences overlap is solved as a linear diophantine equation for the first pair of
+ * occurrences with that difference
+ */
+public final class FixedIntervalSeries implements Iterable<Period>
+{
+
+	/**
+	 * The maximum number of differences that are solved in closed form. Beyond this number the
+	 * occurrences overlap so densely that the merge walk finds the first conflict faster
+	 */
+	static final int MAX_DIFFERENCES = 4096;
+
+	private static final BigInteger NANOS_PER_SECOND = BigInteger.valueOf(1_000_000_000L);
+
+	private final Instant start;
+
+	private final Duration interval;
+
+	private final Duration duration;
+
+	private final long count;
+
+	private FixedIntervalSeries(Instant start, Duration interval, Duration duration, long count)
+	{
+		this.start = start;
+		this.interval = interval;
+		this.duration = duration;
+		this.count = count;
+	}
+
+	/**
+	 * Factory method for create a new unbounded {@link FixedIntervalSeries} object
+	 *
+	 * @param start
+	 *            the start of the first occurrence
+	 * @param interval
+	 *            the positive interval between the starts of two consecutive occurrences
+	 * @param duration
+	 *            the duration of each occurrence
+	 * @return the new {@link FixedIntervalSeries} object
+	 */
+	public static FixedIntervalSeries of(Instant start, Duration interval, Duration duration)
+	{
+		return of(start, interval, duration, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Factory method for create a new {@link FixedIntervalSeries} object
+	 *
+	 * @param start
+	 *            the start of the first occurrence
+	 * @param interval
+	 *            the positive interval between the starts of two consecutive occurrences
+	 * @param duration
+	 *            the duration of each occurrence
+	 * @param count
+	 *            the number of occurrences
+	 * @return the new {@link FixedIntervalSeries} object
+	 */
+	public static FixedIntervalSeries of(Instant start, Duration interval, Duration duration,
+		long count)
+	{
+		Objects.requireNonNull(start, "start");
+		Objects.requireNonNull(interval, "interval");
+		Objects.requireNonNull(duration, "duration");
+		if (interval.isZero() || interval.isNegative())
+		{
+			throw new IllegalArgumentException("interval is not positive: " + interval);
+		}
+		if (duration.isNegative())
+		{
+			throw new IllegalArgumentException("duration is negative: " + duration);
+		}
+		if (count < 0)
+		{
+			throw new IllegalArgumentException("count is negative: " + count);
+		}
+		return new FixedIntervalSeries(start, interval, duration, count);
+	}
+
+	/**
+	 * Gets the start of the first occurrence
+	 *
+	 * @return the start of the first occurrence
+	 */
+	public Instant getStart()
+	{
+		return start;
+	}
+
+	/**
+	 * Gets the interval between the starts of two consecutive occurrences
+	 *
+	 * @return the interval
+	 */
+	public Duration getInterval()
+	{
+		return interval;
+	}
+
+	/**
+	 * Gets the duration of each occurrence
+	 *
+	 * @return the duration of each occurrence
+	 */
+	public Duration getDuration()
+	{
+		return duration;
+	}
+
+	/**
+	 * Gets the number of occurrences
+	 *
+	 * @return the number of occurrences or {@link Long#MAX_VALUE} if the series is unbounded
+	 */
+	public long getCount()
+	{
+		return count;
+	}
+
+	/**
+	 * Creates a lazy iterator over all occurrences of this series
+	 *
+	 * @return the lazy iterator over the occurrences in ascending order
+	 */
+	@Override
+	public Iterator<Period> iterator()
+	{
+		return new OccurrenceIterator(BigInteger.ZERO);
+	}
+
+	/**
+	 * Creates a lazy iterator over the occurrences of this series that end after the given
+	 * instant or start at or after it
+	 *
+	 * @param from
+	 *            the instant from where the occurrences are iterated
+	 * @return the lazy iterator over the occurrences in ascending order
+	 */
+	public Iterator<Period> iterator(Instant from)
+	{
+		Objects.requireNonNull(from, "from");
+		return new OccurrenceIterator(firstIndex(BigInteger.ZERO, nanos(interval),
+			nanos(duration), nanosBetween(start, from)));
+	}
+
+	/**
+	 * Checks if this series conflicts with the given series within the given horizon in the
+	 * sense of {@link #firstConflict(FixedIntervalSeries, Period)}
+	 *
+	 * @param other
+	 *            the other series
+	 * @param horizon
+	 *            the horizon
+	 * @return true if the two series conflict within the given horizon otherwise false
+	 */
+	public boolean conflicts(FixedIntervalSeries other, Period horizon)
+	{
+		return firstConflict(other, horizon) != null;
+	}
+
+	/**
+	 * Finds the first conflict of this series with the given series within the given horizon. A
+	 * conflict is a pair of occurrences that overlap in the sense of
+	 * {@link Period#overlaps(Period)}. Only the occurrences that end after the start of the
+	 * horizon or start at or after it are considered, and the later start of the two
+	 * occurrences must be before the end of the horizon
+	 *
+	 * @param other
+	 *            the other series
+	 * @param horizon
+	 *            the horizon
+	 * @return the later start of the two occurrences of the first conflict but not before the
+	 *         start of the horizon, or null if there is no conflict within the horizon
+	 */
+	public Instant firstConflict(FixedIntervalSeries other, Period horizon)
+	{
+		Objects.requireNonNull(other, "other");
+		Objects.requireNonNull(horizon, "horizon");
+		// all values are nanoseconds relative to the start of this series
+		BigInteger horizonStart = nanosBetween(start, horizon.getStart());
+		BigInteger horizonEnd = nanosBetween(start, horizon.getEnd());
+		BigInteger offset = nanosBetween(start, other.start);
+		BigInteger firstInterval = nanos(interval);
+		BigInteger secondInterval = nanos(other.interval);
+		BigInteger firstDuration = nanos(duration);
+		BigInteger secondDuration = nanos(other.duration);
+		BigInteger firstMin = firstIndex(BigInteger.ZERO, firstInterval, firstDuration,
+			horizonStart);
+		BigInteger secondMin = firstIndex(offset, secondInterval, secondDuration, horizonStart);
+		BigInteger firstCount = BigInteger.valueOf(count);
+		BigInteger secondCount = BigInteger.valueOf(other.count);
+		if (firstCount.compareTo(firstMin) <= 0 || secondCount.compareTo(secondMin) <= 0)
+		{
+			return null;
+		}
+		// the difference of the starts of the occurrences i and j is
+		// offset + j * secondInterval - i * firstInterval = remainder + m * gcd
+		BigInteger gcd = firstInterval.gcd(secondInterval);
+		BigInteger remainder = offset.mod(gcd);
+		BigInteger low = floorDiv(secondDuration.negate().subtract(remainder), gcd)
+			.add(BigInteger.ONE);
+		BigInteger high = ceilDiv(firstDuration.subtract(remainder), gcd)
+			.subtract(BigInteger.ONE);
+		if (firstDuration.signum() == 0 && secondDuration.signum() == 0)
+		{
+			// zero length occurrences only overlap if they are equal
+			if (remainder.signum() != 0)
+			{
+				return null;
+			}
+			low = BigInteger.ZERO;
+			high = BigInteger.ZERO;
+		}
+		if (BigInteger.valueOf(MAX_DIFFERENCES).compareTo(high.subtract(low)) < 0)
+		{
+			return mergeWalk(iterator(horizon.getStart()),
+				other.iterator(horizon.getStart()), horizon);
+		}
+		BigInteger p = firstInterval.divide(gcd);
+		BigInteger q = secondInterval.divide(gcd);
+		BigInteger inverse = q.equals(BigInteger.ONE) ? BigInteger.ZERO : p.modInverse(q);
+		BigInteger base = remainder.subtract(offset).divide(gcd);
+		BigInteger first = null;
+		for (BigInteger m = low; m.compareTo(high) <= 0; m = m.add(BigInteger.ONE))
+		{
+			// solve j * q - i * p = k for the first i and j within the bounds
+			BigInteger k = base.add(m);
+			BigInteger i0 = k.negate().multiply(inverse).mod(q);
+			BigInteger j0 = k.add(i0.multiply(p)).divide(q);
+			BigInteger t = ceilDiv(firstMin.subtract(i0), q)
+				.max(ceilDiv(secondMin.subtract(j0), p));
+			BigInteger i = i0.add(t.multiply(q));
+			BigInteger j = j0.add(t.multiply(p));
+			if (i.compareTo(firstCount) < 0 && j.compareTo(secondCount) < 0)
+			{
+				BigInteger conflict = i.multiply(firstInterval)
+					.max(offset.add(j.multiply(secondInterval)));
+				first = first == null ? conflict : first.min(conflict);
+			}
+		}
+		if (first == null || horizonEnd.compareTo(first) <= 0)
+		{
+			return null;
+		}
+		return plusNanos(start, first.max(horizonStart));
+	}
+
+	/**
+	 * Finds the first conflict of two series in the sense of
+	 * {@link #firstConflict(FixedIntervalSeries, Period)} by walking both series in the order of
+	 * the starts of their occurrences
+	 *
+	 * @param first
+	 *            the occurrences of the first series from the start of the horizon
+	 * @param second
+	 *            the occurrences of the second series from the start of the horizon
+	 * @param horizon
+	 *            the horizon
+	 * @return the later start of the two occurrences of the first conflict but not before the
+	 *         start of the horizon, or null if there is no conflict within the horizon
+	 */
+	static Instant mergeWalk(Iterator<Period> first, Iterator<Period> second, Period horizon)
+	{
+		Deque<Period> firstActive = new ArrayDeque<>();
+		Deque<Period> secondActive = new ArrayDeque<>();
+		Period firstNext = first.hasNext() ? first.next() : null;
+		Period secondNext = second.hasNext() ? second.next() : null;
+		while (firstNext != null && (secondNext != null || !secondActive.isEmpty())
+			|| secondNext != null && !firstActive.isEmpty())
+		{
+			boolean fromFirst = secondNext == null
+				|| firstNext != null && !secondNext.getStart().isBefore(firstNext.getStart());
+			Period occurrence = fromFirst ? firstNext : secondNext;
+			Instant occurrenceStart = occurrence.getStart();
+			if (!occurrenceStart.isBefore(horizon.getEnd()))
+			{
+				return null;
+			}
+			firstActive.removeIf(active -> active.getEnd().isBefore(occurrenceStart));
+			secondActive.removeIf(active -> active.getEnd().isBefore(occurrenceStart));
+			for (Period active : fromFirst ? secondActive : firstActive)
+			{
+				if (active.overlaps(occurrence))
+				{
+					return occurrenceStart.isBefore(horizon.getStart())
+						? horizon.getStart()
+						: occurrenceStart;
+				}
+			}
+			if (fromFirst)
+			{
+				firstActive.addLast(occurrence);
+				firstNext = first.hasNext() ? first.next() : null;
+			}
+			else
+			{
+				secondActive.addLast(occurrence);
+				secondNext = second.hasNext() ? second.next() : null;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Finds the index of the first occurrence that ends after the given instant or starts at or
+	 * after it
+	 */
+	private static BigInteger firstIndex(BigInteger start, BigInteger interval,
+		BigInteger duration, BigInteger from)
+	{
+		BigInteger index = duration.signum() == 0
+			? ceilDiv(from.subtract(start), interval)
+			: floorDiv(from.subtract(start).subtract(duration), interval).add(BigInteger.ONE);
+		return index.max(BigInteger.ZERO);
+	}
+
+	private static BigInteger floorDiv(BigInteger dividend, BigInteger divisor)
+	{
+		BigInteger[] result = dividend.divideAndRemainder(divisor);
+		return result[1].signum() < 0 ? result[0].subtract(BigInteger.ONE) : result[0];
+	}
+
+	private static BigInteger ceilDiv(BigInteger dividend, BigInteger divisor)
+	{
+		return floorDiv(dividend.negate(), divisor).negate();
+	}
+
+	private static BigInteger nanos(Duration duration)
+	{
+		return BigInteger.valueOf(duration.getSeconds()).multiply(NANOS_PER_SECOND)
+			.add(BigInteger.valueOf(duration.getNano()));
+	}
+
+	private static BigInteger nanosBetween(Instant from, Instant to)
+	{
+		return BigInteger.valueOf(to.getEpochSecond()).subtract(
+			BigInteger.valueOf(from.getEpochSecond())).multiply(NANOS_PER_SECOND)
+			.add(BigInteger.valueOf(to.getNano() - from.getNano()));
+	}
+
+	private static Instant plusNanos(Instant instant, BigInteger nanos)
+	{
+		BigInteger[] result = nanos.divideAndRemainder(NANOS_PER_SECOND);
+		return instant.plusSeconds(result[0].longValueExact()).plusNanos(result[1].longValue());
+	}
+
+	/**
+	 * The iterator over the occurrences from a given index
+	 */
+	private final class OccurrenceIterator implements Iterator<Period>
+	{
+		private final BigInteger step = nanos(interval);
+		private BigInteger index;
+		private Period next;
+
+		OccurrenceIterator(BigInteger index)
+		{
+			this.index = index;
+		}
+
+		@Override
+		public boolean hasNext()
+		{
+			if (next == null && index.compareTo(BigInteger.valueOf(count)) < 0)
+			{
+				try
+				{
+					Instant occurrenceStart = plusNanos(start, index.multiply(step));
+					next = Period.of(occurrenceStart, occurrenceStart.plus(duration));
+					index = index.add(BigInteger.ONE);
+				}
+				catch (DateTimeException | ArithmeticException exception)
+				{
+					index = BigInteger.valueOf(count);
+				}
+			}
+			return next != null;
+		}
+
+		@Override
+		public Period next()
+		{
+			if (!hasNext())
+			{
+				throw new NoSuchElementException();
+			}
+			Period result = next;
+			next = null;
+			return result;
+		}
+	}
+
+}
@@ -0,0 +1,461 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.recurrence;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+
+import io.github.astrapi69.time.enumtype.RecurrenceFrequency;
+
+/**
+ * The class {@link RecurrenceRule} is an immutable recurrence rule in the format of RFC 5545. The
+ * rule parts FREQ with the frequencies daily, weekly, monthly and yearly, INTERVAL, BYDAY,
+ * BYMONTHDAY, COUNT, UNTIL and WKST are supported. Other rule parts are rejected
+ */
+public final class RecurrenceRule
+{
+
+	private static final DateTimeFormatter DATE_TIME = DateTimeFormatter
+		.ofPattern("yyyyMMdd'T'HHmmss");
+
+	private static final DateTimeFormatter DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+	private static final String[] WEEKDAYS = { "MO", "TU", "WE", "TH", "FR", "SA", "SU" };
+
+	private final String text;
+
+	private final RecurrenceFrequency frequency;
+
+	private final int interval;
+
+	/**
+	 * The days of week of the BYDAY rule part
+	 */
+	private final DayOfWeek[] byDayWeekdays;
+
+	/**
+	 * The ordinals of the BYDAY rule part or 0 for every such weekday
+	 */
+	private final int[] byDayOrdinals;
+
+	private final int[] byMonthDays;
+
+	private final int count;
+
+	private final Instant untilInstant;
+
+	private final LocalDateTime untilLocal;
+
+	private final DayOfWeek weekStart;
+
+	private RecurrenceRule(String text, RecurrenceFrequency frequency, int interval,
+		DayOfWeek[] byDayWeekdays, int[] byDayOrdinals, int[] byMonthDays, int count,
+		Instant untilInstant, LocalDateTime untilLocal, DayOfWeek weekStart)
+	{
+		this.text = text;
+		this.frequency = frequency;
+		this.interval = interval;
+		this.byDayWeekdays = byDayWeekdays;
+		this.byDayOrdinals = byDayOrdinals;
+		this.byMonthDays = byMonthDays;
+		this.count = count;
+		this.untilInstant = untilInstant;
+		this.untilLocal = untilLocal;
+		this.weekStart = weekStart;
+	}
+
+	/**
+	 * Parses the given recurrence rule like <code>FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,WE</code>. An
+	 * optional prefix <code>RRULE:</code> is ignored
+	 *
+	 * @param rule
+	 *            the recurrence rule to parse
+	 * @return the new {@link RecurrenceRule} object
+	 * @throws IllegalArgumentException
+	 *             if the given rule is invalid or contains a not supported rule part
+	 */
+	public static RecurrenceRule parse(String rule)
+	{
+		Objects.requireNonNull(rule, "rule");
+		String text = rule.trim();
+		if (text.regionMatches(true, 0, "RRULE:", 0, 6))
+		{
+			text = text.substring(6);
+		}
+		RecurrenceFrequency frequency = null;
+		int interval = 1;
+		String byDay = null;
+		String byMonthDay = null;
+		int count = 0;
+		String until = null;
+		DayOfWeek weekStart = DayOfWeek.MONDAY;
+		Set<String> names = new HashSet<>();
+		for (String part : text.split(";"))
+		{
+			int separator = part.indexOf('=');
+			if (separator <= 0)
+			{
+				throw new IllegalArgumentException("invalid rule part: " + part);
+			}
+			String name = part.substring(0, separator).trim().toUpperCase(Locale.ROOT);
+			String value = part.substring(separator + 1).trim().toUpperCase(Locale.ROOT);
+			if (!names.add(name))
+			{
+				throw new IllegalArgumentException("duplicate rule part: " + name);
+			}
+			switch (name)
+			{
+				case "FREQ" :
+					frequency = parseFrequency(value);
+					break;
+				case "INTERVAL" :
+					interval = parsePositive(name, value);
+					break;
+				case "BYDAY" :
+					byDay = value;
+					break;
+				case "BYMONTHDAY" :
+					byMonthDay = value;
+					break;
+				case "COUNT" :
+					count = parsePositive(name, value);
+					break;
+				case "UNTIL" :
+					until = value;
+					break;
+				case "WKST" :
+					weekStart = parseWeekday(value);
+					break;
+				default :
+					throw new IllegalArgumentException("unsupported rule part: " + name);
+			}
+		}
+		if (frequency == null)
+		{
+			throw new IllegalArgumentException("rule part FREQ is missing: " + rule);
+		}
+		if (count != 0 && until != null)
+		{
+			throw new IllegalArgumentException("COUNT and UNTIL must not occur together");
+		}
+		DayOfWeek[] weekdays = new DayOfWeek[0];
+		int[] ordinals = new int[0];
+		if (byDay != null)
+		{
+			String[] values = byDay.split(",");
+			weekdays = new DayOfWeek[values.length];
+			ordinals = new int[values.length];
+			for (int i = 0; i < values.length; i++)
+			{
+				String value = values[i].trim();
+				if (value.length() < 2)
+				{
+					throw new IllegalArgumentException("invalid BYDAY value: " + value);
+				}
+				weekdays[i] = parseWeekday(value.substring(value.length() - 2));
+				if (2 < value.length())
+				{
+					ordinals[i] = parseInt("BYDAY", value.substring(0, value.length() - 2));
+					if (ordinals[i] == 0 || 53 < Math.abs(ordinals[i]))
+					{
+						throw new IllegalArgumentException("invalid BYDAY ordinal: " + value);
+					}
+					if (frequency == RecurrenceFrequency.DAILY
+						|| frequency == RecurrenceFrequency.WEEKLY)
+					{
+						throw new IllegalArgumentException(
+							"BYDAY ordinals are only allowed for monthly and yearly rules");
+					}
+				}
+			}
+		}
+		int[] monthDays = new int[0];
+		if (byMonthDay != null)
+		{
+			if (frequency == RecurrenceFrequency.WEEKLY)
+			{
+				throw new IllegalArgumentException("BYMONTHDAY is not allowed for weekly rules");
+			}
+			monthDays = Arrays.stream(byMonthDay.split(","))
+				.mapToInt(value -> parseInt("BYMONTHDAY", value.trim())).toArray();
+			for (int monthDay : monthDays)
+			{
+				if (monthDay == 0 || 31 < Math.abs(monthDay))
+				{
+					throw new IllegalArgumentException("invalid BYMONTHDAY value: " + monthDay);
+				}
+			}
+		}
+		Instant untilInstant = null;
+		LocalDateTime untilLocal = null;
+		if (until != null)
+		{
+			try
+			{
+				if (until.length() == 8)
+				{
+					untilLocal = LocalDate.parse(until, DATE).atTime(LocalTime.MAX);
+				}
+				else if (until.endsWith("Z"))
+				{
+					untilInstant = LocalDateTime
+						.parse(until.substring(0, until.length() - 1), DATE_TIME)
+						.toInstant(ZoneOffset.UTC);
+				}
+				else
+				{
+					untilLocal = LocalDateTime.parse(until, DATE_TIME);
+				}
+			}
+			catch (DateTimeParseException exception)
+			{
+				throw new IllegalArgumentException("invalid UNTIL value: " + until, exception);
+			}
+		}
+		return new RecurrenceRule(text, frequency, interval, weekdays, ordinals, monthDays,
+			count, untilInstant, untilLocal, weekStart);
+	}
+
+	/**
+	 * Gets the frequency
+	 *
+	 * @return the frequency
+	 */
+	public RecurrenceFrequency getFrequency()
+	{
+		return frequency;
+	}
+
+	/**
+	 * Gets the interval
+	 *
+	 * @return the interval
+	 */
+	public int getInterval()
+	{
+		return interval;
+	}
+
+	/**
+	 * Gets the maximum number of occurrences
+	 *
+	 * @return the maximum number of occurrences or 0 if the rule has no COUNT part
+	 */
+	public int getCount()
+	{
+		return count;
+	}
+
+	/**
+	 * Gets the first day of the week
+	 *
+	 * @return the first day of the week
+	 */
+	public DayOfWeek getWeekStart()
+	{
+		return weekStart;
+	}
+
+	/**
+	 * Checks if this rule has an UNTIL part
+	 *
+	 * @return true if this rule has an UNTIL part otherwise false
+	 */
+	public boolean hasUntil()
+	{
+		return untilInstant != null || untilLocal != null;
+	}
+
+	/**
+	 * Checks if this rule has BYDAY or BYMONTHDAY parts
+	 *
+	 * @return true if this rule has BYDAY or BYMONTHDAY parts otherwise false
+	 */
+	public boolean hasByRules()
+	{
+		return byDayWeekdays.length != 0 || byMonthDays.length != 0;
+	}
+
+	/**
+	 * Gets the number of weekdays in the BYDAY part
+	 *
+	 * @return the number of weekdays in the BYDAY part
+	 */
+	int getByDayCount()
+	{
+		return byDayWeekdays.length;
+	}
+
+	/**
+	 * Gets the weekday of the BYDAY part at the given index
+	 *
+	 * @param index
+	 *            the index
+	 * @return the weekday
+	 */
+	DayOfWeek getByDayWeekday(int index)
+	{
+		return byDayWeekdays[index];
+	}
+
+	/**
+	 * Gets the ordinal of the BYDAY part at the given index
+	 *
+	 * @param index
+	 *            the index
+	 * @return the ordinal or 0 for every such weekday
+	 */
+	int getByDayOrdinal(int index)
+	{
+		return byDayOrdinals[index];
+	}
+
+	/**
+	 * Gets the number of days of month in the BYMONTHDAY part
+	 *
+	 * @return the number of days of month
+	 */
+	int getByMonthDayCount()
+	{
+		return byMonthDays.length;
+	}
+
+	/**
+	 * Gets the day of month of the BYMONTHDAY part at the given index
+	 *
+	 * @param index
+	 *            the index
+	 * @return the day of month, negative values count from the end of the month
+	 */
+	int getByMonthDay(int index)
+	{
+		return byMonthDays[index];
+	}
+
+	/**
+	 * Gets the UNTIL part if it was given in UTC
+	 *
+	 * @return the UNTIL part in UTC or null
+	 */
+	Instant getUntilInstant()
+	{
+		return untilInstant;
+	}
+
+	/**
+	 * Gets the UNTIL part if it was given as local date or local date time
+	 *
+	 * @return the UNTIL part as local date time or null
+	 */
+	LocalDateTime getUntilLocal()
+	{
+		return untilLocal;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object object)
+	{
+		return object instanceof RecurrenceRule && text.equals(((RecurrenceRule)object).text);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode()
+	{
+		return text.hashCode();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString()
+	{
+		return text;
+	}
+
+	private static RecurrenceFrequency parseFrequency(String value)
+	{
+		try
+		{
+			return RecurrenceFrequency.valueOf(value);
+		}
+		catch (IllegalArgumentException exception)
+		{
+			throw new IllegalArgumentException("unsupported frequency: " + value, exception);
+		}
+	}
+
+	private static DayOfWeek parseWeekday(String value)
+	{
+		for (int i = 0; i < WEEKDAYS.length; i++)
+		{
+			if (WEEKDAYS[i].equals(value))
+			{
+				return DayOfWeek.of(i + 1);
+			}
+		}
+		throw new IllegalArgumentException("invalid weekday: " + value);
+	}
+
+	private static int parsePositive(String name, String value)
+	{
+		int result = parseInt(name, value);
+		if (result <= 0)
+		{
+			throw new IllegalArgumentException(name + " must be positive: " + value);
+		}
+		return result;
+	}
+
+	private static int parseInt(String name, String value)
+	{
+		try
+		{
+			return Integer.parseInt(value);
+		}
+		catch (NumberFormatException exception)
+		{
+			throw new IllegalArgumentException("invalid " + name + " value: " + value, exception);
+		}
+	}
+
+}
@@ -0,0 +1,708 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.recurrence;
+
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Year;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+import io.github.astrapi69.time.enumtype.RecurrenceFrequency;
+import io.github.astrapi69.time.period.model.Period;
+
+/**
+ * The class {@link RecurringSeries} is a series of {@link Period} objects that recur by a
+ * {@link RecurrenceRule} from a start in a zone. Every occurrence starts at the local time of the
+ * start of the series and lasts the duration of the series. An occurrence whose local start does
+ * not exist because of a daylight saving time transition is shifted like
+ * {@link ZonedDateTime#of(LocalDateTime, ZoneId)} does it. The occurrences are expanded lazily, and
+ * an expansion from an instant jumps directly to the recurrence interval that contains it instead
+ * of iterating from the start of the series
+ * <p>
+ * As in RFC 5545 the excluded starts count for the COUNT part of the rule, and only occurrences
+ * that are generated from the rule and are not before the start of the series are part of the
+ * series
+ */
+public final class RecurringSeries implements Iterable<Period>
+{
+
+	/**
+	 * The maximum number of consecutive recurrence intervals without an occurrence. It covers
+	 * the 400 year cycle of the gregorian calendar, so a rule that has no occurrence within this
+	 * number of intervals never has one
+	 */
+	private static final int MAX_EMPTY_INTERVALS = 146097;
+
+	private final ZonedDateTime start;
+
+	private final Duration duration;
+
+	private final RecurrenceRule rule;
+
+	private final Set<Instant> excludedStarts;
+
+	private final LocalTime time;
+
+	/**
+	 * The epoch day of the start
+	 */
+	private final long startDay;
+
+	/**
+	 * The epoch day of the first day of the week of the start
+	 */
+	private final long startWeekDay;
+
+	/**
+	 * The months since the year zero of the start
+	 */
+	private final long startMonth;
+
+	private RecurringSeries(ZonedDateTime start, Duration duration, RecurrenceRule rule,
+		Set<Instant> excludedStarts)
+	{
+		this.start = start;
+		this.duration = duration;
+		this.rule = rule;
+		this.excludedStarts = excludedStarts;
+		this.time = start.toLocalTime();
+		LocalDate date = start.toLocalDate();
+		this.startDay = date.toEpochDay();
+		this.startWeekDay = date.with(TemporalAdjusters.previousOrSame(rule.getWeekStart()))
+			.toEpochDay();
+		this.startMonth = date.getYear() * 12L + date.getMonthValue() - 1;
+	}
+
+	/**
+	 * Factory method for create a new {@link RecurringSeries} object
+	 *
+	 * @param start
+	 *            the start of the first occurrence in the zone of the series
+	 * @param duration
+	 *            the duration of each occurrence
+	 * @param rule
+	 *            the recurrence rule
+	 * @return the new {@link RecurringSeries} object
+	 */
+	public static RecurringSeries of(ZonedDateTime start, Duration duration, RecurrenceRule rule)
+	{
+		return of(start, duration, rule, Collections.emptySet());
+	}
+
+	/**
+	 * Factory method for create a new {@link RecurringSeries} object
+	 *
+	 * @param start
+	 *            the start of the first occurrence in the zone of the series
+	 * @param duration
+	 *            the duration of each occurrence
+	 * @param rule
+	 *            the recurrence rule
+	 * @param excludedStarts
+	 *            the starts of the occurrences that are excluded like with EXDATE
+	 * @return the new {@link RecurringSeries} object
+	 */
+	public static RecurringSeries of(ZonedDateTime start, Duration duration, RecurrenceRule rule,
+		Collection<Instant> excludedStarts)
+	{
+		Objects.requireNonNull(start, "start");
+		Objects.requireNonNull(duration, "duration");
+		Objects.requireNonNull(rule, "rule");
+		Objects.requireNonNull(excludedStarts, "excludedStarts");
+		if (duration.isNegative())
+		{
+			throw new IllegalArgumentException("duration is negative: " + duration);
+		}
+		return new RecurringSeries(start, duration, rule,
+			Collections.unmodifiableSet(new HashSet<>(excludedStarts)));
+	}
+
+	/**
+	 * Gets the start of the series
+	 *
+	 * @return the start of the series
+	 */
+	public ZonedDateTime getStart()
+	{
+		return start;
+	}
+
+	/**
+	 * Gets the duration of each occurrence
+	 *
+	 * @return the duration of each occurrence
+	 */
+	public Duration getDuration()
+	{
+		return duration;
+	}
+
+	/**
+	 * Gets the recurrence rule
+	 *
+	 * @return the recurrence rule
+	 */
+	public RecurrenceRule getRule()
+	{
+		return rule;
+	}
+
+	/**
+	 * Gets the starts of the excluded occurrences
+	 *
+	 * @return the unmodifiable set of the starts of the excluded occurrences
+	 */
+	public Set<Instant> getExcludedStarts()
+	{
+		return excludedStarts;
+	}
+
+	/**
+	 * Creates a lazy iterator over all occurrences of this series
+	 *
+	 * @return the lazy iterator over the occurrences in ascending order
+	 */
+	@Override
+	public Iterator<Period> iterator()
+	{
+		return new OccurrenceIterator(null);
+	}
+
+	/**
+	 * Creates a lazy iterator over the occurrences of this series that end after the given
+	 * instant or start at or after it
+	 *
+	 * @param from
+	 *            the instant from where the occurrences are expanded
+	 * @return the lazy iterator over the occurrences in ascending order
+	 */
+	public Iterator<Period> iterator(Instant from)
+	{
+		Objects.requireNonNull(from, "from");
+		return new OccurrenceIterator(from);
+	}
+
+	/**
+	 * Finds the first occurrence of this series that overlaps the given window in the sense of
+	 * {@link Period#overlaps(Period)}. Only the occurrences from the start of the given window
+	 * are expanded
+	 *
+	 * @param window
+	 *            the window
+	 * @return the first overlapping occurrence or null if there is none
+	 */
+	public Period firstOverlapping(Period window)
+	{
+		Objects.requireNonNull(window, "window");
+		Iterator<Period> occurrences = iterator(window.getStart());
+		while (occurrences.hasNext())
+		{
+			Period occurrence = occurrences.next();
+			if (occurrence.overlaps(window))
+			{
+				return occurrence;
+			}
+			if (window.getEnd().isBefore(occurrence.getStart()))
+			{
+				return null;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Checks if an occurrence of this series overlaps the given window in the sense of
+	 * {@link Period#overlaps(Period)}
+	 *
+	 * @param window
+	 *            the window
+	 * @return true if an occurrence overlaps the given window otherwise false
+	 */
+	public boolean overlaps(Period window)
+	{
+		return firstOverlapping(window) != null;
+	}
+
+	/**
+	 * Checks if this series conflicts with the given series within the given horizon in the
+	 * sense of {@link #firstConflict(RecurringSeries, Period)}
+	 *
+	 * @param other
+	 *            the other series
+	 * @param horizon
+	 *            the horizon
+	 * @return true if the two series conflict within the given horizon otherwise false
+	 */
+	public boolean conflicts(RecurringSeries other, Period horizon)
+	{
+		return firstConflict(other, horizon) != null;
+	}
+
+	/**
+	 * Finds the first conflict of this series with the given series within the given horizon in
+	 * the sense of {@link FixedIntervalSeries#firstConflict(FixedIntervalSeries, Period)}. If
+	 * both series are regular, they are split into {@link FixedIntervalSeries} objects whose
+	 * conflicts are found in closed form. Otherwise the occurrences of both series are walked
+	 * from the start of the horizon
+	 *
+	 * @param other
+	 *            the other series
+	 * @param horizon
+	 *            the horizon
+	 * @return the later start of the two occurrences of the first conflict but not before the
+	 *         start of the horizon, or null if there is no conflict within the horizon
+	 */
+	public Instant firstConflict(RecurringSeries other, Period horizon)
+	{
+		Objects.requireNonNull(other, "other");
+		Objects.requireNonNull(horizon, "horizon");
+		List<FixedIntervalSeries> first = toFixedIntervalSeries();
+		List<FixedIntervalSeries> second = other.toFixedIntervalSeries();
+		if (first == null || second == null)
+		{
+			return FixedIntervalSeries.mergeWalk(iterator(horizon.getStart()),
+				other.iterator(horizon.getStart()), horizon);
+		}
+		Instant result = null;
+		for (FixedIntervalSeries firstSeries : first)
+		{
+			for (FixedIntervalSeries secondSeries : second)
+			{
+				Instant conflict = firstSeries.firstConflict(secondSeries, horizon);
+				if (conflict != null && (result == null || conflict.isBefore(result)))
+				{
+					result = conflict;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Splits this series into series with a fixed interval. This is possible if the zone has a
+	 * fixed offset, no starts are excluded and the rule is daily without further rule parts or
+	 * weekly with a BYDAY rule part at most, but with only one weekday if the rule has a COUNT
+	 *
+	 * @return the series with a fixed interval or null if this series is not regular
+	 */
+	List<FixedIntervalSeries> toFixedIntervalSeries()
+	{
+		if (!excludedStarts.isEmpty() || !start.getZone().getRules().isFixedOffset())
+		{
+			return null;
+		}
+		Set<DayOfWeek> weekdays = EnumSet.noneOf(DayOfWeek.class);
+		for (int i = 0; i < rule.getByDayCount(); i++)
+		{
+			weekdays.add(rule.getByDayWeekday(i));
+		}
+		List<FixedIntervalSeries> series = new ArrayList<>();
+		if (rule.getFrequency() == RecurrenceFrequency.DAILY && !rule.hasByRules())
+		{
+			addFixedIntervalSeries(series, start.toInstant(),
+				Duration.ofDays(rule.getInterval()));
+			return series;
+		}
+		if (rule.getFrequency() != RecurrenceFrequency.WEEKLY
+			|| rule.getCount() != 0 && 1 < weekdays.size())
+		{
+			return null;
+		}
+		if (weekdays.isEmpty())
+		{
+			weekdays.add(start.getDayOfWeek());
+		}
+		Duration interval = Duration.ofDays(7L * rule.getInterval());
+		for (DayOfWeek weekday : weekdays)
+		{
+			long day = startWeekDay + Math.floorMod(weekday.getValue() - rule.getWeekStart()
+				.getValue(), 7);
+			if (day < startDay)
+			{
+				day += 7L * rule.getInterval();
+			}
+			addFixedIntervalSeries(series, ZonedDateTime
+				.of(LocalDate.ofEpochDay(day), time, start.getZone()).toInstant(), interval);
+		}
+		return series;
+	}
+
+	private void addFixedIntervalSeries(List<FixedIntervalSeries> series, Instant first,
+		Duration interval)
+	{
+		long count = rule.getCount() == 0 ? Long.MAX_VALUE : rule.getCount();
+		Instant until = rule.getUntilInstant();
+		if (rule.getUntilLocal() != null)
+		{
+			until = rule.getUntilLocal().toInstant(start.getOffset());
+		}
+		if (until != null)
+		{
+			if (until.isBefore(first))
+			{
+				return;
+			}
+			count = Duration.between(first, until).dividedBy(interval) + 1;
+		}
+		series.add(FixedIntervalSeries.of(first, interval, duration, count));
+	}
+
+	/**
+	 * Finds the index of the recurrence interval that contains the given epoch day
+	 */
+	private long intervalOf(long epochDay)
+	{
+		int interval = rule.getInterval();
+		switch (rule.getFrequency())
+		{
+			case DAILY :
+				return Math.floorDiv(epochDay - startDay, interval);
+			case WEEKLY :
+				return Math.floorDiv(Math.floorDiv(epochDay - startWeekDay, 7), interval);
+			case MONTHLY :
+				LocalDate date = LocalDate.ofEpochDay(epochDay);
+				return Math.floorDiv(date.getYear() * 12L + date.getMonthValue() - 1 - startMonth,
+					interval);
+			default :
+				return Math.floorDiv(LocalDate.ofEpochDay(epochDay).getYear() - start.getYear(),
+					interval);
+		}
+	}
+
+	/**
+	 * Computes the epoch days of the candidates of the recurrence interval with the given index
+	 * in ascending order
+	 *
+	 * @return the number of candidates
+	 */
+	private int candidates(long index, long[] days)
+	{
+		long step = index * rule.getInterval();
+		switch (rule.getFrequency())
+		{
+			case DAILY :
+			{
+				long day = startDay + step;
+				if (matchesByDay(day, 0, 0) && matchesByMonthDay(day))
+				{
+					days[0] = day;
+					return 1;
+				}
+				return 0;
+			}
+			case WEEKLY :
+			{
+				long first = startWeekDay + step * 7;
+				int count = 0;
+				for (long day = first; day < first + 7; day++)
+				{
+					boolean match = rule.getByDayCount() == 0
+						? dayOfWeek(day) == start.getDayOfWeek()
+						: matchesByDay(day, 0, 0);
+					if (match)
+					{
+						days[count++] = day;
+					}
+				}
+				return count;
+			}
+			case MONTHLY :
+			{
+				long month = startMonth + step;
+				LocalDate firstOfMonth = LocalDate.of(checkYear(Math.floorDiv(month, 12)),
+					Math.floorMod(month, 12) + 1, 1);
+				return candidatesInMonth(firstOfMonth, firstOfMonth.toEpochDay(),
+					firstOfMonth.toEpochDay() + firstOfMonth.lengthOfMonth(), days, 0);
+			}
+			default :
+			{
+				int year = checkYear(start.getYear() + step);
+				if (!rule.hasByRules())
+				{
+					if (start.getMonthValue() == 2 && start.getDayOfMonth() == 29
+						&& !Year.isLeap(year))
+					{
+						return 0;
+					}
+					days[0] = LocalDate.of(year, start.getMonth(), start.getDayOfMonth())
+						.toEpochDay();
+					return 1;
+				}
+				long yearStart = LocalDate.of(year, 1, 1).toEpochDay();
+				long yearEnd = LocalDate.of(year, 12, 31).toEpochDay() + 1;
+				int count = 0;
+				for (int month = 1; month <= 12; month++)
+				{
+					count = candidatesInMonth(LocalDate.of(year, month, 1), yearStart, yearEnd,
+						days, count);
+				}
+				return count;
+			}
+		}
+	}
+
+	private int candidatesInMonth(LocalDate firstOfMonth, long scopeStart, long scopeEnd,
+		long[] days, int offset)
+	{
+		long first = firstOfMonth.toEpochDay();
+		int length = firstOfMonth.lengthOfMonth();
+		int count = offset;
+		if (!rule.hasByRules())
+		{
+			if (start.getDayOfMonth() <= length)
+			{
+				days[count++] = first + start.getDayOfMonth() - 1;
+			}
+			return count;
+		}
+		for (long day = first; day < first + length; day++)
+		{
+			if (matchesByDay(day, scopeStart, scopeEnd)
+				&& matchesByMonthDay((int)(day - first) + 1, length))
+			{
+				days[count++] = day;
+			}
+		}
+		return count;
+	}
+
+	private boolean matchesByDay(long day, long scopeStart, long scopeEnd)
+	{
+		if (rule.getByDayCount() == 0)
+		{
+			return true;
+		}
+		DayOfWeek dayOfWeek = dayOfWeek(day);
+		for (int i = 0; i < rule.getByDayCount(); i++)
+		{
+			if (rule.getByDayWeekday(i) != dayOfWeek)
+			{
+				continue;
+			}
+			int ordinal = rule.getByDayOrdinal(i);
+			if (ordinal == 0 || 0 < ordinal && (day - scopeStart) / 7 + 1 == ordinal
+				|| ordinal < 0 && (scopeEnd - 1 - day) / 7 + 1 == -ordinal)
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean matchesByMonthDay(long day)
+	{
+		if (rule.getByMonthDayCount() == 0)
+		{
+			return true;
+		}
+		LocalDate date = LocalDate.ofEpochDay(day);
+		return matchesByMonthDay(date.getDayOfMonth(), date.lengthOfMonth());
+	}
+
+	private boolean matchesByMonthDay(int dayOfMonth, int lengthOfMonth)
+	{
+		if (rule.getByMonthDayCount() == 0)
+		{
+			return true;
+		}
+		for (int i = 0; i < rule.getByMonthDayCount(); i++)
+		{
+			int monthDay = rule.getByMonthDay(i);
+			if (0 < monthDay ? dayOfMonth == monthDay : dayOfMonth == lengthOfMonth + monthDay + 1)
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static DayOfWeek dayOfWeek(long epochDay)
+	{
+		return DayOfWeek.of((int)Math.floorMod(epochDay + 3, 7L) + 1);
+	}
+
+	private static int checkYear(long year)
+	{
+		if (year < Year.MIN_VALUE || Year.MAX_VALUE <= year)
+		{
+			throw new DateTimeException("year out of range: " + year);
+		}
+		return (int)year;
+	}
+
+	/**
+	 * The iterator that expands the occurrences interval by interval
+	 */
+	private final class OccurrenceIterator implements Iterator<Period>
+	{
+		private final Instant from;
+		private final long[] days = new long[366];
+		private long index;
+		private int size;
+		private int position;
+		private long generated;
+		private boolean done;
+		private Period next;
+
+		OccurrenceIterator(Instant from)
+		{
+			this.from = from;
+			if (from != null)
+			{
+				jump(from);
+			}
+		}
+
+		private void jump(Instant from)
+		{
+			Instant earliest;
+			try
+			{
+				earliest = from.minus(duration);
+			}
+			catch (DateTimeException | ArithmeticException exception)
+			{
+				earliest = Instant.MIN;
+			}
+			long day = LocalDate.ofInstant(earliest.isBefore(start.toInstant())
+				? start.toInstant()
+				: earliest, start.getZone()).toEpochDay() - 1;
+			long target = Math.max(0, intervalOf(day) - 1);
+			if (rule.getCount() == 0)
+			{
+				index = target;
+				return;
+			}
+			for (; index < target; index++)
+			{
+				for (int i = 0, count = candidates(index, days); i < count; i++)
+				{
+					if (startDay <= days[i])
+					{
+						generated++;
+					}
+				}
+				if (rule.getCount() <= generated)
+				{
+					done = true;
+					return;
+				}
+			}
+		}
+
+		@Override
+		public boolean hasNext()
+		{
+			while (next == null && !done)
+			{
+				next = computeNext();
+			}
+			return next != null;
+		}
+
+		@Override
+		public Period next()
+		{
+			if (!hasNext())
+			{
+				throw new NoSuchElementException();
+			}
+			Period result = next;
+			next = null;
+			return result;
+		}
+
+		private Period computeNext()
+		{
+			int empty = 0;
+			while (position == size)
+			{
+				if (MAX_EMPTY_INTERVALS < empty)
+				{
+					done = true;
+					return null;
+				}
+				try
+				{
+					size = candidates(index++, days);
+				}
+				catch (DateTimeException exception)
+				{
+					done = true;
+					return null;
+				}
+				position = 0;
+				empty = size == 0 ? empty + 1 : 0;
+			}
+			long day = days[position++];
+			if (day < startDay)
+			{
+				return null;
+			}
+			LocalDateTime local = LocalDateTime.of(LocalDate.ofEpochDay(day), time);
+			Instant occurrenceStart = ZonedDateTime.of(local, start.getZone()).toInstant();
+			if (rule.getUntilInstant() != null && rule.getUntilInstant().isBefore(occurrenceStart)
+				|| rule.getUntilLocal() != null && rule.getUntilLocal().isBefore(local))
+			{
+				done = true;
+				return null;
+			}
+			generated++;
+			if (rule.getCount() != 0 && rule.getCount() < generated)
+			{
+				done = true;
+				return null;
+			}
+			if (excludedStarts.contains(occurrenceStart))
+			{
+				return null;
+			}
+			Instant occurrenceEnd = occurrenceStart.plus(duration);
+			if (from != null && !occurrenceEnd.isAfter(from) && occurrenceStart.isBefore(from))
+			{
+				return null;
+			}
+			return Period.of(occurrenceStart, occurrenceEnd);
+		}
+	}
+
+}
@@ -0,0 +1,230 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.window;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Objects;
+
+import io.github.astrapi69.time.period.model.Period;
+
+/**
+ * The abstract class {@link AbstractPaneWindow} is the base for the sliding window aggregators of
+ * this package. The time line is divided into panes whose length is the greatest common divisor
+ * of the window size and the slide. Every event is combined into the partial aggregate of its pane
+ * and a window is evaluated by combining the partial aggregates of its panes. The panes are kept
+ * in a ring that holds one window and the allowed lateness, so older panes are reused
+ * <p>
+ * The watermark is the latest timestamp of all added events. An event is accepted if it is not
+ * older than the watermark minus the allowed lateness. All times have a resolution of
+ * milliseconds and the windows are aligned to the epoch
+ */
+abstract class AbstractPaneWindow
+{
+
+	/**
+	 * The size of a window in milliseconds
+	 */
+	private final long sizeMillis;
+
+	/**
+	 * The slide in milliseconds
+	 */
+	private final long slideMillis;
+
+	/**
+	 * The allowed lateness in milliseconds
+	 */
+	private final long latenessMillis;
+
+	/**
+	 * The length of a pane in milliseconds
+	 */
+	private final long paneMillis;
+
+	/**
+	 * The pane that is stored in each slot of the ring
+	 */
+	private final long[] paneIds;
+
+	/**
+	 * The latest timestamp of all added events
+	 */
+	private long watermark = Long.MIN_VALUE;
+
+	AbstractPaneWindow(Duration size, Duration slide, Duration allowedLateness)
+	{
+		Objects.requireNonNull(size, "size");
+		Objects.requireNonNull(slide, "slide");
+		Objects.requireNonNull(allowedLateness, "allowedLateness");
+		this.sizeMillis = size.toMillis();
+		this.slideMillis = slide.toMillis();
+		this.latenessMillis = allowedLateness.toMillis();
+		if (sizeMillis <= 0 || slideMillis <= 0 || latenessMillis < 0
+			|| !Duration.ofMillis(sizeMillis).equals(size)
+			|| !Duration.ofMillis(slideMillis).equals(slide)
+			|| !Duration.ofMillis(latenessMillis).equals(allowedLateness))
+		{
+			throw new IllegalArgumentException(
+				"size and slide have to be positive and all durations whole milliseconds");
+		}
+		this.paneMillis = gcd(sizeMillis, slideMillis);
+		long capacity = sizeMillis / paneMillis + (latenessMillis + paneMillis - 1) / paneMillis
+			+ 2;
+		if (Integer.MAX_VALUE - 8 < capacity)
+		{
+			throw new IllegalArgumentException("too many panes: " + capacity);
+		}
+		this.paneIds = new long[(int)capacity];
+		Arrays.fill(paneIds, Long.MIN_VALUE);
+	}
+
+	/**
+	 * Gets the number of slots of the ring
+	 *
+	 * @return the number of slots
+	 */
+	final int capacity()
+	{
+		return paneIds.length;
+	}
+
+	/**
+	 * Gets the watermark
+	 *
+	 * @return the latest timestamp of all added events or null if no event was added
+	 */
+	public Instant getWatermark()
+	{
+		return watermark == Long.MIN_VALUE ? null : Instant.ofEpochMilli(watermark);
+	}
+
+	/**
+	 * Creates the window that ends at the given instant
+	 *
+	 * @param windowEnd
+	 *            the end of the window exclusive, a multiple of the slide since the epoch
+	 * @return the new {@link Period} object of the window
+	 */
+	public Period getWindow(Instant windowEnd)
+	{
+		long end = windowEnd(windowEnd);
+		return Period.of(Instant.ofEpochMilli(end - sizeMillis), windowEnd);
+	}
+
+	/**
+	 * Finds the slot for an event with the given timestamp and resets it if it holds an older
+	 * pane
+	 *
+	 * @param timestamp
+	 *            the timestamp in milliseconds since the epoch
+	 * @return the slot or -1 if the event is too late
+	 */
+	final int slotForEvent(long timestamp)
+	{
+		if (watermark != Long.MIN_VALUE && timestamp < watermark - latenessMillis)
+		{
+			return -1;
+		}
+		watermark = Math.max(watermark, timestamp);
+		long pane = Math.floorDiv(timestamp, paneMillis);
+		int slot = (int)Math.floorMod(pane, (long)paneIds.length);
+		if (paneIds[slot] != pane)
+		{
+			paneIds[slot] = pane;
+			resetSlot(slot);
+		}
+		return slot;
+	}
+
+	/**
+	 * Finds the first pane of the window that ends at the given instant
+	 *
+	 * @param windowEnd
+	 *            the end of the window
+	 * @return the first pane of the window
+	 */
+	final long firstPane(Instant windowEnd)
+	{
+		long end = windowEnd(windowEnd);
+		long first = Math.floorDiv(end - sizeMillis, paneMillis);
+		long latestPane = Math.floorDiv(watermark, paneMillis);
+		if (watermark != Long.MIN_VALUE && first <= latestPane - paneIds.length)
+		{
+			throw new IllegalArgumentException("window is no longer retained: " + windowEnd);
+		}
+		return first;
+	}
+
+	/**
+	 * Gets the number of panes of a window
+	 *
+	 * @return the number of panes of a window
+	 */
+	final int panesPerWindow()
+	{
+		return (int)(sizeMillis / paneMillis);
+	}
+
+	/**
+	 * Finds the slot that holds the given pane
+	 *
+	 * @param pane
+	 *            the pane
+	 * @return the slot or -1 if the given pane has no events
+	 */
+	final int slotOfPane(long pane)
+	{
+		int slot = (int)Math.floorMod(pane, (long)paneIds.length);
+		return paneIds[slot] == pane ? slot : -1;
+	}
+
+	/**
+	 * Resets the partial aggregate of the given slot to the identity
+	 *
+	 * @param slot
+	 *            the slot to reset
+	 */
+	abstract void resetSlot(int slot);
+
+	private long windowEnd(Instant windowEnd)
+	{
+		Objects.requireNonNull(windowEnd, "windowEnd");
+		long end = windowEnd.toEpochMilli();
+		if (Math.floorMod(end, slideMillis) != 0 || windowEnd.getNano() % 1_000_000 != 0)
+		{
+			throw new IllegalArgumentException(
+				"window end is not a multiple of the slide: " + windowEnd);
+		}
+		return end;
+	}
+
+	private static long gcd(long a, long b)
+	{
+		return b == 0 ? a : gcd(b, a % b);
+	}
+
+}
@@ -0,0 +1,332 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.window;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
+import io.github.astrapi69.time.period.model.Period;
+
+/**
+ * The class {@link CalendarBuckets} splits a range of time into tumbling windows of a
+ * {@link ChronoUnit} in a {@link ZoneId}, for instance into the local hours, days or months of a
+ * zone. The boundaries of the buckets are computed once with the rules of the zone and cached as
+ * epoch seconds, so a day bucket is 23 or 25 hours long on the days with a daylight saving time
+ * transition. Durations of {@link Period} objects are split at the boundaries and added in
+ * nanoseconds into <code>long</code> accumulators with one element for each bucket. A bucket
+ * starts inclusive and ends exclusive
+ */
+public final class CalendarBuckets
+{
+
+	private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+	private static final Set<ChronoUnit> SUPPORTED_UNITS = EnumSet.of(ChronoUnit.SECONDS,
+		ChronoUnit.MINUTES, ChronoUnit.HOURS, ChronoUnit.DAYS, ChronoUnit.WEEKS,
+		ChronoUnit.MONTHS, ChronoUnit.YEARS);
+
+	private final ZoneId zone;
+
+	private final ChronoUnit unit;
+
+	/**
+	 * The epoch seconds of the boundaries, the bucket <code>i</code> starts at the boundary
+	 * <code>i</code> and ends at the boundary <code>i + 1</code>
+	 */
+	private final long[] boundaries;
+
+	private CalendarBuckets(ZoneId zone, ChronoUnit unit, long[] boundaries)
+	{
+		this.zone = zone;
+		this.unit = unit;
+		this.boundaries = boundaries;
+	}
+
+	/**
+	 * Factory method for create a new {@link CalendarBuckets} object with the buckets that
+	 * intersect the given range. The first bucket starts at the beginning of the unit that
+	 * contains the start of the given range. Weeks start on monday
+	 *
+	 * @param zone
+	 *            the zone of the calendar
+	 * @param unit
+	 *            the unit of the buckets, one of seconds, minutes, hours, days, weeks, months and
+	 *            years
+	 * @param range
+	 *            the range that has to be covered from the buckets
+	 * @return the new {@link CalendarBuckets} object
+	 */
+	public static CalendarBuckets of(ZoneId zone, ChronoUnit unit, Period range)
+	{
+		Objects.requireNonNull(zone, "zone");
+		Objects.requireNonNull(unit, "unit");
+		Objects.requireNonNull(range, "range");
+		if (!SUPPORTED_UNITS.contains(unit))
+		{
+			throw new IllegalArgumentException("unsupported unit: " + unit);
+		}
+		if (range.getEnd().isBefore(range.getStart()))
+		{
+			throw new IllegalArgumentException("range ends before it starts: " + range);
+		}
+		long end = range.getEnd().getEpochSecond() + (range.getEnd().getNano() == 0 ? 0 : 1);
+		ZonedDateTime boundary = startOf(ZonedDateTime.ofInstant(range.getStart(), zone), unit);
+		long[] boundaries = new long[16];
+		int count = 0;
+		boundaries[count++] = boundary.toEpochSecond();
+		while (boundaries[count - 1] < end || count == 1)
+		{
+			boundary = next(boundary, unit);
+			if (count == boundaries.length)
+			{
+				boundaries = Arrays.copyOf(boundaries, count * 2);
+			}
+			boundaries[count++] = boundary.toEpochSecond();
+		}
+		return new CalendarBuckets(zone, unit, Arrays.copyOf(boundaries, count));
+	}
+
+	/**
+	 * Gets the zone of the calendar
+	 *
+	 * @return the zone
+	 */
+	public ZoneId getZone()
+	{
+		return zone;
+	}
+
+	/**
+	 * Gets the unit of the buckets
+	 *
+	 * @return the unit
+	 */
+	public ChronoUnit getUnit()
+	{
+		return unit;
+	}
+
+	/**
+	 * Gets the number of buckets
+	 *
+	 * @return the number of buckets
+	 */
+	public int size()
+	{
+		return boundaries.length - 1;
+	}
+
+	/**
+	 * Gets the bucket with the given index
+	 *
+	 * @param index
+	 *            the index of the bucket
+	 * @return the new {@link Period} object of the bucket
+	 */
+	public Period getBucket(int index)
+	{
+		Objects.checkIndex(index, size());
+		return Period.of(Instant.ofEpochSecond(boundaries[index]),
+			Instant.ofEpochSecond(boundaries[index + 1]));
+	}
+
+	/**
+	 * Finds the index of the bucket that contains the given instant
+	 *
+	 * @param instant
+	 *            the instant
+	 * @return the index of the bucket or -1 if the given instant is outside of all buckets
+	 */
+	public int indexOf(Instant instant)
+	{
+		Objects.requireNonNull(instant, "instant");
+		long second = instant.getEpochSecond();
+		if (second < boundaries[0] || boundaries[boundaries.length - 1] <= second)
+		{
+			return -1;
+		}
+		return floorIndex(second);
+	}
+
+	/**
+	 * Factory method for create a new accumulator with one element for each bucket
+	 *
+	 * @return the new accumulator
+	 */
+	public long[] newAccumulator()
+	{
+		return new long[size()];
+	}
+
+	/**
+	 * Splits the given {@link Period} object at the boundaries of the buckets and adds the
+	 * nanoseconds of each part to the element of its bucket in the given accumulator. Parts
+	 * outside of all buckets are ignored
+	 *
+	 * @param period
+	 *            the period to add
+	 * @param accumulator
+	 *            the accumulator
+	 */
+	public void add(Period period, long[] accumulator)
+	{
+		Objects.requireNonNull(period, "period");
+		add(period.getStart().getEpochSecond(), period.getStart().getNano(),
+			period.getEnd().getEpochSecond(), period.getEnd().getNano(), accumulator);
+	}
+
+	/**
+	 * Splits the period with the given start and end at the boundaries of the buckets and adds
+	 * the nanoseconds of each part to the element of its bucket in the given accumulator. Parts
+	 * outside of all buckets are ignored
+	 *
+	 * @param startSecond
+	 *            the epoch second of the start
+	 * @param startNano
+	 *            the nano of second of the start
+	 * @param endSecond
+	 *            the epoch second of the end
+	 * @param endNano
+	 *            the nano of second of the end
+	 * @param accumulator
+	 *            the accumulator
+	 */
+	public void add(long startSecond, int startNano, long endSecond, int endNano,
+		long[] accumulator)
+	{
+		Objects.requireNonNull(accumulator, "accumulator");
+		if (accumulator.length < size())
+		{
+			throw new IllegalArgumentException(
+				"accumulator is too small for " + size() + " buckets: " + accumulator.length);
+		}
+		int last = boundaries.length - 1;
+		if (endSecond < boundaries[0] || boundaries[last] <= startSecond)
+		{
+			return;
+		}
+		int index = startSecond < boundaries[0] ? 0 : floorIndex(startSecond);
+		for (; index < last && isBefore(boundaries[index], endSecond, endNano); index++)
+		{
+			long partStartSecond = startSecond;
+			int partStartNano = startNano;
+			if (startSecond < boundaries[index])
+			{
+				partStartSecond = boundaries[index];
+				partStartNano = 0;
+			}
+			long partEndSecond = endSecond;
+			int partEndNano = endNano;
+			if (boundaries[index + 1] <= endSecond)
+			{
+				partEndSecond = boundaries[index + 1];
+				partEndNano = 0;
+			}
+			long nanos = (partEndSecond - partStartSecond) * NANOS_PER_SECOND + partEndNano
+				- partStartNano;
+			if (0 < nanos)
+			{
+				accumulator[index] += nanos;
+			}
+		}
+	}
+
+	/**
+	 * Converts the given accumulator to the duration of each bucket
+	 *
+	 * @param accumulator
+	 *            the accumulator
+	 * @return the durations of the buckets
+	 */
+	public Duration[] toDurations(long[] accumulator)
+	{
+		Objects.requireNonNull(accumulator, "accumulator");
+		Duration[] durations = new Duration[size()];
+		for (int i = 0; i < durations.length; i++)
+		{
+			durations[i] = Duration.ofNanos(accumulator[i]);
+		}
+		return durations;
+	}
+
+	/**
+	 * Finds the index of the last boundary at or before the given epoch second
+	 */
+	private int floorIndex(long second)
+	{
+		int index = Arrays.binarySearch(boundaries, second);
+		return index < 0 ? -index - 2 : Math.min(index, boundaries.length - 2);
+	}
+
+	/**
+	 * Checks if the given boundary is before the given instant
+	 */
+	private static boolean isBefore(long boundary, long second, int nano)
+	{
+		return boundary < second || boundary == second && 0 < nano;
+	}
+
+	private static ZonedDateTime startOf(ZonedDateTime dateTime, ChronoUnit unit)
+	{
+		switch (unit)
+		{
+			case YEARS :
+				return dateTime.toLocalDate().withDayOfYear(1).atStartOfDay(dateTime.getZone());
+			case MONTHS :
+				return dateTime.toLocalDate().withDayOfMonth(1).atStartOfDay(dateTime.getZone());
+			case WEEKS :
+				return dateTime.toLocalDate()
+					.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+					.atStartOfDay(dateTime.getZone());
+			case DAYS :
+				return dateTime.toLocalDate().atStartOfDay(dateTime.getZone());
+			default :
+				return dateTime.truncatedTo(unit);
+		}
+	}
+
+	private static ZonedDateTime next(ZonedDateTime boundary, ChronoUnit unit)
+	{
+		if (unit.isDateBased())
+		{
+			LocalDate date = boundary.toLocalDate().plus(1, unit);
+			return date.atStartOfDay(boundary.getZone());
+		}
+		ZonedDateTime next = boundary.plus(1, unit);
+		ZonedDateTime truncated = next.truncatedTo(unit);
+		return boundary.isBefore(truncated) ? truncated : next;
+	}
+
+}
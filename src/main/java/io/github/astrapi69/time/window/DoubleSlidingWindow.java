@@ -0,0 +1,190 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.window;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.function.DoubleBinaryOperator;
+
+/**
+ * The class {@link DoubleSlidingWindow} aggregates <code>double</code> values of time stamped
+ * events over sliding windows with an associative combiner, for instance the sum or maximum of
+ * the last five minutes every ten seconds. Adding an event costs constant time and evaluating a
+ * window combines one partial aggregate per pane. A sliding window is not thread safe
+ */
+public final class DoubleSlidingWindow extends AbstractPaneWindow
+{
+
+	private final double identity;
+
+	private final DoubleBinaryOperator combiner;
+
+	private final double[] values;
+
+	private DoubleSlidingWindow(Duration size, Duration slide, Duration allowedLateness,
+		double identity, DoubleBinaryOperator combiner)
+	{
+		super(size, slide, allowedLateness);
+		this.identity = identity;
+		this.combiner = Objects.requireNonNull(combiner, "combiner");
+		this.values = new double[capacity()];
+	}
+
+	/**
+	 * Factory method for create a new {@link DoubleSlidingWindow} object
+	 *
+	 * @param size
+	 *            the size of a window
+	 * @param slide
+	 *            the distance between the ends of two consecutive windows
+	 * @param allowedLateness
+	 *            the allowed lateness of an event behind the watermark
+	 * @param identity
+	 *            the identity of the given combiner
+	 * @param combiner
+	 *            the associative combiner
+	 * @return the new {@link DoubleSlidingWindow} object
+	 */
+	public static DoubleSlidingWindow of(Duration size, Duration slide, Duration allowedLateness,
+		double identity, DoubleBinaryOperator combiner)
+	{
+		return new DoubleSlidingWindow(size, slide, allowedLateness, identity, combiner);
+	}
+
+	/**
+	 * Factory method for create a new {@link DoubleSlidingWindow} object that sums the values
+	 *
+	 * @param size
+	 *            the size of a window
+	 * @param slide
+	 *            the distance between the ends of two consecutive windows
+	 * @param allowedLateness
+	 *            the allowed lateness of an event behind the watermark
+	 * @return the new {@link DoubleSlidingWindow} object
+	 */
+	public static DoubleSlidingWindow sum(Duration size, Duration slide, Duration allowedLateness)
+	{
+		return of(size, slide, allowedLateness, 0.0, Double::sum);
+	}
+
+	/**
+	 * Factory method for create a new {@link DoubleSlidingWindow} object that computes the maximum
+	 * of the values. An empty window has the value {@link Double#NEGATIVE_INFINITY}
+	 *
+	 * @param size
+	 *            the size of a window
+	 * @param slide
+	 *            the distance between the ends of two consecutive windows
+	 * @param allowedLateness
+	 *            the allowed lateness of an event behind the watermark
+	 * @return the new {@link DoubleSlidingWindow} object
+	 */
+	public static DoubleSlidingWindow max(Duration size, Duration slide, Duration allowedLateness)
+	{
+		return of(size, slide, allowedLateness, Double.NEGATIVE_INFINITY, Math::max);
+	}
+
+	/**
+	 * Factory method for create a new {@link DoubleSlidingWindow} object that computes the minimum
+	 * of the values. An empty window has the value {@link Double#POSITIVE_INFINITY}
+	 *
+	 * @param size
+	 *            the size of a window
+	 * @param slide
+	 *            the distance between the ends of two consecutive windows
+	 * @param allowedLateness
+	 *            the allowed lateness of an event behind the watermark
+	 * @return the new {@link DoubleSlidingWindow} object
+	 */
+	public static DoubleSlidingWindow min(Duration size, Duration slide, Duration allowedLateness)
+	{
+		return of(size, slide, allowedLateness, Double.POSITIVE_INFINITY, Math::min);
+	}
+
+	/**
+	 * Adds an event with the given timestamp and value
+	 *
+	 * @param timestamp
+	 *            the timestamp of the event
+	 * @param value
+	 *            the value of the event
+	 * @return true if the event was added, false if it is later than the allowed lateness
+	 */
+	public boolean add(Instant timestamp, double value)
+	{
+		Objects.requireNonNull(timestamp, "timestamp");
+		return add(timestamp.toEpochMilli(), value);
+	}
+
+	/**
+	 * Adds an event with the given timestamp and value
+	 *
+	 * @param epochMilli
+	 *            the timestamp of the event in milliseconds since the epoch
+	 * @param value
+	 *            the value of the event
+	 * @return true if the event was added, false if it is later than the allowed lateness
+	 */
+	public boolean add(long epochMilli, double value)
+	{
+		int slot = slotForEvent(epochMilli);
+		if (slot < 0)
+		{
+			return false;
+		}
+		values[slot] = combiner.applyAsDouble(values[slot], value);
+		return true;
+	}
+
+	/**
+	 * Computes the aggregate of the window that ends at the given instant
+	 *
+	 * @param windowEnd
+	 *            the end of the window exclusive, a multiple of the slide since the epoch
+	 * @return the aggregate of the window or the identity if the window has no events
+	 */
+	public double aggregate(Instant windowEnd)
+	{
+		long pane = firstPane(windowEnd);
+		double result = identity;
+		for (int i = 0, panes = panesPerWindow(); i < panes; i++)
+		{
+			int slot = slotOfPane(pane + i);
+			if (0 <= slot)
+			{
+				result = combiner.applyAsDouble(result, values[slot]);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	void resetSlot(int slot)
+	{
+		values[slot] = identity;
+	}
+
+}
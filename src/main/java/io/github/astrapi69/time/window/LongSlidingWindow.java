@@ -0,0 +1,191 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.window;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * The class {@link LongSlidingWindow} aggregates <code>long</code> values of time stamped events
+ * over sliding windows with an associative combiner, for instance the count, sum or maximum of the
+ * last five minutes every ten seconds. Adding an event costs constant time and evaluating a window
+ * combines one partial aggregate per pane. A sliding window is not thread safe
+ */
+public final class LongSlidingWindow extends AbstractPaneWindow
+{
+
+	private final long identity;
+
+	private final LongBinaryOperator combiner;
+
+	private final long[] values;
+
+	private LongSlidingWindow(Duration size, Duration slide, Duration allowedLateness,
+		long identity, LongBinaryOperator combiner)
+	{
+		super(size, slide, allowedLateness);
+		this.identity = identity;
+		this.combiner = Objects.requireNonNull(combiner, "combiner");
+		this.values = new long[capacity()];
+	}
+
+	/**
+	 * Factory method for create a new {@link LongSlidingWindow} object
+	 *
+	 * @param size
+	 *            the size of a window
+	 * @param slide
+	 *            the distance between the ends of two consecutive windows
+	 * @param allowedLateness
+	 *            the allowed lateness of an event behind the watermark
+	 * @param identity
+	 *            the identity of the given combiner
+	 * @param combiner
+	 *            the associative combiner
+	 * @return the new {@link LongSlidingWindow} object
+	 */
+	public static LongSlidingWindow of(Duration size, Duration slide, Duration allowedLateness,
+		long identity, LongBinaryOperator combiner)
+	{
+		return new LongSlidingWindow(size, slide, allowedLateness, identity, combiner);
+	}
+
+	/**
+	 * Factory method for create a new {@link LongSlidingWindow} object that sums the values. For
+	 * a count every event is added with the value one
+	 *
+	 * @param size
+	 *            the size of a window
+	 * @param slide
+	 *            the distance between the ends of two consecutive windows
+	 * @param allowedLateness
+	 *            the allowed lateness of an event behind the watermark
+	 * @return the new {@link LongSlidingWindow} object
+	 */
+	public static LongSlidingWindow sum(Duration size, Duration slide, Duration allowedLateness)
+	{
+		return of(size, slide, allowedLateness, 0L, Long::sum);
+	}
+
+	/**
+	 * Factory method for create a new {@link LongSlidingWindow} object that computes the maximum
+	 * of the values. An empty window has the value {@link Long#MIN_VALUE}
+	 *
+	 * @param size
+	 *            the size of a window
+	 * @param slide
+	 *            the distance between the ends of two consecutive windows
+	 * @param allowedLateness
+	 *            the allowed lateness of an event behind the watermark
+	 * @return the new {@link LongSlidingWindow} object
+	 */
+	public static LongSlidingWindow max(Duration size, Duration slide, Duration allowedLateness)
+	{
+		return of(size, slide, allowedLateness, Long.MIN_VALUE, Math::max);
+	}
+
+	/**
+	 * Factory method for create a new {@link LongSlidingWindow} object that computes the minimum
+	 * of the values. An empty window has the value {@link Long#MAX_VALUE}
+	 *
+	 * @param size
+	 *            the size of a window
+	 * @param slide
+	 *            the distance between the ends of two consecutive windows
+	 * @param allowedLateness
+	 *            the allowed lateness of an event behind the watermark
+	 * @return the new {@link LongSlidingWindow} object
+	 */
+	public static LongSlidingWindow min(Duration size, Duration slide, Duration allowedLateness)
+	{
+		return of(size, slide, allowedLateness, Long.MAX_VALUE, Math::min);
+	}
+
+	/**
+	 * Adds an event with the given timestamp and value
+	 *
+	 * @param timestamp
+	 *            the timestamp of the event
+	 * @param value
+	 *            the value of the event
+	 * @return true if the event was added, false if it is later than the allowed lateness
+	 */
+	public boolean add(Instant timestamp, long value)
+	{
+		Objects.requireNonNull(timestamp, "timestamp");
+		return add(timestamp.toEpochMilli(), value);
+	}
+
+	/**
+	 * Adds an event with the given timestamp and value
+	 *
+	 * @param epochMilli
+	 *            the timestamp of the event in milliseconds since the epoch
+	 * @param value
+	 *            the value of the event
+	 * @return true if the event was added, false if it is later than the allowed lateness
+	 */
+	public boolean add(long epochMilli, long value)
+	{
+		int slot = slotForEvent(epochMilli);
+		if (slot < 0)
+		{
+			return false;
+		}
+		values[slot] = combiner.applyAsLong(values[slot], value);
+		return true;
+	}
+
+	/**
+	 * Computes the aggregate of the window that ends at the given instant
+	 *
+	 * @param windowEnd
+	 *            the end of the window exclusive, a multiple of the slide since the epoch
+	 * @return the aggregate of the window or the identity if the window has no events
+	 */
+	public long aggregate(Instant windowEnd)
+	{
+		long pane = firstPane(windowEnd);
+		long result = identity;
+		for (int i = 0, panes = panesPerWindow(); i < panes; i++)
+		{
+			int slot = slotOfPane(pane + i);
+			if (0 <= slot)
+			{
+				result = combiner.applyAsLong(result, values[slot]);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	void resetSlot(int slot)
+	{
+		values[slot] = identity;
+	}
+
+}
@@ -29,4 +29,6 @@ module time.machine.main
 	exports io.github.astrapi69.time.query;
 	exports io.github.astrapi69.time.period;
 	exports io.github.astrapi69.time.period.model;
+	exports io.github.astrapi69.time.recurrence;
+	exports io.github.astrapi69.time.window;
 }
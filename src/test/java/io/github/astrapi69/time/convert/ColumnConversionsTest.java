@@ -0,0 +1,193 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.convert;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link ColumnConversions}
+ */
+public class ColumnConversionsTest
+{
+
+	private static final ZoneId BERLIN = ZoneId.of("Europe/Berlin");
+
+	/**
+	 * Creates sorted epoch milliseconds around the daylight saving time transitions, followed
+	 * by random epoch milliseconds from 1800 to 2200
+	 */
+	private static long[] newEpochMillis(int size)
+	{
+		Random random = new Random(size);
+		long[] epochMillis = new long[size];
+		long epochMilli = Instant.parse("2023-03-20T00:00:00Z").toEpochMilli();
+		for (int i = 0; i < size; i++)
+		{
+			if (i < size / 2)
+			{
+				epochMillis[i] = epochMilli;
+				epochMilli += random.nextInt(7_200_000);
+			}
+			else
+			{
+				epochMillis[i] = -5_364_662_400_000L
+					+ (long)(random.nextDouble() * 12_623_040_000_000L);
+			}
+		}
+		return epochMillis;
+	}
+
+	/**
+	 * Test method for {@link ColumnConversions#toLocalDateTime(long[], ZoneId)},
+	 * {@link ColumnConversions#toOffsetDateTime(long[], ZoneId)},
+	 * {@link ColumnConversions#toInstant(long[])} and
+	 * {@link ColumnConversions#packYmd(long[], ZoneId)}
+	 */
+	@Test
+	public void testEpochMilliColumns()
+	{
+		for (int size : new int[] { 0, 1000, ColumnConversions.PARALLEL_THRESHOLD + 123 })
+		{
+			long[] epochMillis = newEpochMillis(size);
+			LocalDateTime[] localDateTimes = ColumnConversions.toLocalDateTime(epochMillis,
+				BERLIN);
+			OffsetDateTime[] offsetDateTimes = ColumnConversions.toOffsetDateTime(epochMillis,
+				BERLIN);
+			Instant[] instants = ColumnConversions.toInstant(epochMillis);
+			int[] packed = ColumnConversions.packYmd(epochMillis, BERLIN);
+			assertEquals(size, localDateTimes.length);
+			for (int i = 0; i < size; i++)
+			{
+				Instant instant = Instant.ofEpochMilli(epochMillis[i]);
+				ZonedDateTime expected = instant.atZone(BERLIN);
+				assertEquals(expected.toLocalDateTime(), localDateTimes[i]);
+				assertEquals(expected.toOffsetDateTime(), offsetDateTimes[i]);
+				assertEquals(instant, instants[i]);
+				assertEquals(EpochConversions.packYmd(epochMillis[i], BERLIN), packed[i]);
+			}
+		}
+	}
+
+	/**
+	 * Test method for {@link ColumnConversions#toLocalDateTime(Date[], ZoneId)},
+	 * {@link ColumnConversions#toOffsetDateTime(Date[], ZoneId)} and
+	 * {@link ColumnConversions#toEpochMilli(Date[])}
+	 */
+	@Test
+	public void testDateColumns()
+	{
+		for (int size : new int[] { 1000, ColumnConversions.PARALLEL_THRESHOLD + 123 })
+		{
+			long[] epochMillis = newEpochMillis(size);
+			Date[] dates = new Date[size];
+			for (int i = 0; i < size; i++)
+			{
+				if (i % 3 == 0)
+				{
+					Timestamp timestamp = new Timestamp(epochMillis[i]);
+					timestamp.setNanos(
+						(int)Math.floorMod(epochMillis[i], 1000L) * 1_000_000 + i % 1000);
+					dates[i] = timestamp;
+				}
+				else
+				{
+					dates[i] = new Date(epochMillis[i]);
+				}
+			}
+			LocalDateTime[] localDateTimes = ColumnConversions.toLocalDateTime(dates, BERLIN);
+			OffsetDateTime[] offsetDateTimes = ColumnConversions.toOffsetDateTime(dates, BERLIN);
+			assertArrayEquals(epochMillis, ColumnConversions.toEpochMilli(dates));
+			for (int i = 0; i < size; i++)
+			{
+				ZonedDateTime expected = dates[i].toInstant().atZone(BERLIN);
+				assertEquals(expected.toLocalDateTime(), localDateTimes[i]);
+				assertEquals(expected.toOffsetDateTime(), offsetDateTimes[i]);
+			}
+		}
+		// new scenario: a timestamp column and null elements...
+		Timestamp[] timestamps = { Timestamp.from(Instant.parse("2024-06-01T10:00:00.123456789Z")),
+				null };
+		OffsetDateTime[] offsetDateTimes = ColumnConversions.toOffsetDateTime(timestamps, BERLIN);
+		assertEquals(OffsetDateTime.parse("2024-06-01T12:00:00.123456789+02:00"),
+			offsetDateTimes[0]);
+		assertNull(offsetDateTimes[1]);
+		assertNull(ColumnConversions.toLocalDateTime(timestamps, BERLIN)[1]);
+		assertThrows(NullPointerException.class, () -> ColumnConversions.toEpochMilli(timestamps));
+		assertThrows(NullPointerException.class,
+			() -> ColumnConversions.toLocalDateTime((Date[])null, BERLIN));
+		assertThrows(NullPointerException.class,
+			() -> ColumnConversions.toLocalDateTime(new Date[0], null));
+	}
+
+	/**
+	 * Test method for {@link ColumnConversions#toEpochMilli(LocalDateTime[], ZoneId)} and
+	 * {@link ColumnConversions#toDate(LocalDateTime[], ZoneId)}
+	 */
+	@Test
+	public void testLocalDateTimeColumns()
+	{
+		for (int size : new int[] { 1000, ColumnConversions.PARALLEL_THRESHOLD + 123 })
+		{
+			LocalDateTime[] localDateTimes = ColumnConversions
+				.toLocalDateTime(newEpochMillis(size), ZoneId.of("UTC"));
+			long[] epochMillis = ColumnConversions.toEpochMilli(localDateTimes, BERLIN);
+			Date[] dates = ColumnConversions.toDate(localDateTimes, BERLIN);
+			for (int i = 0; i < size; i++)
+			{
+				long expected = ZonedDateTime.of(localDateTimes[i], BERLIN).toInstant()
+					.toEpochMilli();
+				assertEquals(expected, epochMillis[i]);
+				assertEquals(new Date(expected), dates[i]);
+			}
+		}
+		// new scenario: the gap and the overlap...
+		LocalDateTime[] localDateTimes = { LocalDateTime.of(2024, 3, 31, 2, 30),
+				LocalDateTime.of(2024, 10, 27, 2, 30), null };
+		Date[] dates = ColumnConversions.toDate(localDateTimes, BERLIN);
+		assertEquals(Date.from(Instant.parse("2024-03-31T01:30:00Z")), dates[0]);
+		assertEquals(Date.from(Instant.parse("2024-10-27T00:30:00Z")), dates[1]);
+		assertNull(dates[2]);
+		assertThrows(NullPointerException.class,
+			() -> ColumnConversions.toEpochMilli(localDateTimes, BERLIN));
+		assertArrayEquals(new long[0],
+			ColumnConversions.toEpochMilli(Arrays.copyOf(localDateTimes, 0), BERLIN));
+	}
+
+}
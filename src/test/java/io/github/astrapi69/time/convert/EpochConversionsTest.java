@@ -0,0 +1,119 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.convert;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link EpochConversions}
+ */
+public class EpochConversionsTest
+{
+
+	/**
+	 * Test method for {@link EpochConversions#epochDayToYmd(long)} and
+	 * {@link EpochConversions#ymdToEpochDay(int)}
+	 */
+	@Test
+	public void testEpochDayToYmd()
+	{
+		assertEquals(19700101, EpochConversions.epochDayToYmd(0));
+		assertEquals(20000229, EpochConversions.epochDayToYmd(11016));
+		assertEquals(11016, EpochConversions.ymdToEpochDay(20000229));
+		assertEquals(-9899, EpochConversions.epochDayToYmd(LocalDate.of(-1, 1, 1).toEpochDay()));
+		int previous = Integer.MIN_VALUE;
+		long first = LocalDate.of(-2000, 1, 1).toEpochDay();
+		long last = LocalDate.of(4000, 12, 31).toEpochDay();
+		for (long epochDay = first; epochDay <= last; epochDay++)
+		{
+			LocalDate date = LocalDate.ofEpochDay(epochDay);
+			int ymd = EpochConversions.epochDayToYmd(epochDay);
+			assertEquals(date.getYear(), EpochConversions.year(ymd));
+			assertEquals(date.getMonthValue(), EpochConversions.month(ymd));
+			assertEquals(date.getDayOfMonth(), EpochConversions.dayOfMonth(ymd));
+			assertEquals(date.getDayOfWeek().getValue(), EpochConversions.dayOfWeek(epochDay));
+			assertEquals(epochDay, EpochConversions.ymdToEpochDay(ymd));
+			assertTrue(previous < ymd);
+			previous = ymd;
+		}
+		// new scenario: the limits of the packed years...
+		long maxDay = LocalDate.of(214747, 12, 31).toEpochDay();
+		assertEquals(2147471231, EpochConversions.epochDayToYmd(maxDay));
+		assertEquals(maxDay, EpochConversions.ymdToEpochDay(2147471231));
+		long minDay = LocalDate.of(-214747, 1, 1).toEpochDay();
+		assertEquals(-2147469899, EpochConversions.epochDayToYmd(minDay));
+		assertEquals(minDay, EpochConversions.ymdToEpochDay(-2147469899));
+		assertThrows(ArithmeticException.class, () -> EpochConversions.epochDayToYmd(maxDay + 1));
+		assertThrows(ArithmeticException.class, () -> EpochConversions.epochDayToYmd(minDay - 1));
+		// new scenario: invalid packed dates...
+		assertThrows(IllegalArgumentException.class,
+			() -> EpochConversions.ymdToEpochDay(20010229));
+		assertThrows(IllegalArgumentException.class,
+			() -> EpochConversions.ymdToEpochDay(20011301));
+		assertThrows(IllegalArgumentException.class,
+			() -> EpochConversions.ymdToEpochDay(20010400));
+	}
+
+	/**
+	 * Test method for {@link EpochConversions#epochMilliToEpochDay(long, ZoneId)},
+	 * {@link EpochConversions#epochMilliToMilliOfDay(long, ZoneId)} and
+	 * {@link EpochConversions#packYmd(long, ZoneId)}
+	 */
+	@Test
+	public void testEpochMilli()
+	{
+		ZoneId[] zones = { ZoneId.of("Europe/Berlin"), ZoneId.of("America/Los_Angeles"),
+				ZoneId.of("Pacific/Kiritimati"), ZoneId.of("UTC") };
+		Random random = new Random(21);
+		for (ZoneId zone : zones)
+		{
+			for (int i = 0; i < 50_000; i++)
+			{
+				long epochMilli = (long)((random.nextDouble() - 0.3) * 8_000_000_000_000L);
+				ZonedDateTime expected = Instant.ofEpochMilli(epochMilli).atZone(zone);
+				LocalDate date = expected.toLocalDate();
+				assertEquals(date.toEpochDay(),
+					EpochConversions.epochMilliToEpochDay(epochMilli, zone));
+				assertEquals(expected.toLocalTime().toNanoOfDay() / 1_000_000,
+					EpochConversions.epochMilliToMilliOfDay(epochMilli, zone));
+				assertEquals(date.getYear() * 10000 + date.getMonthValue() * 100
+					+ date.getDayOfMonth(), EpochConversions.packYmd(epochMilli, zone));
+			}
+		}
+		assertThrows(NullPointerException.class,
+			() -> EpochConversions.epochMilliToEpochDay(0, null));
+	}
+
+}
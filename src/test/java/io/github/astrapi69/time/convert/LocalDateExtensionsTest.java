@@ -27,7 +27,9 @@ package io.github.astrapi69.time.convert;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import java.sql.Timestamp;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.Date;
 import java.util.Locale;
 
@@ -58,6 +60,21 @@ public class LocalDateExtensionsTest
 		assertEquals(actual, expected);
 	}
 
+	/**
+	 * Test method for {@link LocalDateExtensions#toTimestamp(LocalDate, ZoneId)} and
+	 * {@link LocalDateExtensions#toSqlDate(LocalDate, ZoneId)}
+	 */
+	@Test
+	public void testToTimestampWithZone()
+	{
+		LocalDate localDate = LocalDate.of(1900, 10, 1);
+		ZoneId zone = ZoneId.of("Europe/Berlin");
+		Instant expected = localDate.atStartOfDay(zone).toInstant();
+		assertEquals(Timestamp.from(expected), LocalDateExtensions.toTimestamp(localDate, zone));
+		assertEquals(expected.toEpochMilli(),
+			LocalDateExtensions.toSqlDate(localDate, zone).getTime());
+	}
+
 	/**
 	 * Test method for {@link LocalDateExtensions#toSqlDate(LocalDate)}
 	 */
@@ -26,7 +26,10 @@ package io.github.astrapi69.time.convert;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.sql.Timestamp;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Date;
 
 import org.junit.jupiter.api.Test;
@@ -56,6 +59,24 @@ public class LocalDateTimeExtensionsTest
 		assertEquals(expected, actual);
 	}
 
+	/**
+	 * Test method for {@link LocalDateTimeExtensions#toTimestamp(LocalDateTime, ZoneId)}
+	 */
+	@Test
+	public void testToTimestampWithZone()
+	{
+		LocalDateTime input = LocalDateTime.of(2000, 9, 1, 0, 0, 0, 1);
+		ZoneId zone = ZoneId.of("America/Sao_Paulo");
+		Timestamp actual = LocalDateTimeExtensions.toTimestamp(input, zone);
+		assertEquals(Timestamp.from(input.atZone(zone).toInstant()), actual);
+		assertEquals(1, actual.getNanos());
+		// new scenario: a local date-time in the gap is shifted forward...
+		input = LocalDateTime.of(2000, 10, 8, 0, 30);
+		actual = LocalDateTimeExtensions.toTimestamp(input, zone);
+		assertEquals(Timestamp.from(input.atZone(zone).toInstant()), actual);
+		assertEquals(Instant.parse("2000-10-08T03:30:00Z"), actual.toInstant());
+	}
+
 	/**
 	 * Test method for {@link LocalDateTimeExtensions}
 	 */
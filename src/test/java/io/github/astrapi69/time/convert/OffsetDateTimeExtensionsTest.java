@@ -157,6 +157,19 @@ public class OffsetDateTimeExtensionsTest
 		assertEquals(expected, actual);
 	}
 
+	/**
+	 * Test method for {@link OffsetDateTimeExtensions#toInstantTimestamp(OffsetDateTime)}
+	 */
+	@Test
+	public void testToInstantTimestamp()
+	{
+		OffsetDateTime offsetDateTime = OffsetDateTime.of(2000, 9, 1, 0, 0, 0, 123_456_789,
+			ZoneOffset.ofHours(5));
+		Timestamp actual = OffsetDateTimeExtensions.toInstantTimestamp(offsetDateTime);
+		assertEquals(Timestamp.from(offsetDateTime.toInstant()), actual);
+		assertEquals(Instant.parse("2000-08-31T19:00:00.123456789Z"), actual.toInstant());
+	}
+
 	/**
 	 * Test method for show deltas between {@link OffsetDateTime} object and {@link ZonedDateTime}
 	 * object
@@ -0,0 +1,131 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.convert;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link SqlDateTimeConverter}
+ */
+public class SqlDateTimeConverterTest
+{
+
+	/**
+	 * Test method for {@link SqlDateTimeConverter#toTimestamp(LocalDateTime)} and
+	 * {@link SqlDateTimeConverter#toLocalDateTime(Timestamp)}
+	 */
+	@Test
+	public void testToTimestamp()
+	{
+		Random random = new Random(25);
+		for (String id : new String[] { "Europe/Paris", "America/New_York", "Asia/Kathmandu",
+				"Australia/Lord_Howe", "UTC" })
+		{
+			ZoneId zone = ZoneId.of(id);
+			SqlDateTimeConverter converter = SqlDateTimeConverter.of(zone);
+			assertEquals(zone, converter.getZone());
+			for (int run = 0; run < 20000; run++)
+			{
+				LocalDateTime localDateTime = LocalDateTime.of(1800, 1, 1, 0, 0)
+					.plusSeconds((long)(random.nextDouble() * 400L * 365 * 86400))
+					.withNano(random.nextInt(1_000_000_000));
+				Instant instant = localDateTime.atZone(zone).toInstant();
+				Timestamp timestamp = converter.toTimestamp(localDateTime);
+				assertEquals(Timestamp.from(instant), timestamp);
+				assertEquals(instant, timestamp.toInstant());
+				assertEquals(instant.atZone(zone).toLocalDateTime(),
+					converter.toLocalDateTime(timestamp));
+				LocalDate localDate = localDateTime.toLocalDate();
+				Instant startOfDay = localDate.atStartOfDay(zone).toInstant();
+				assertEquals(Timestamp.from(startOfDay), converter.toTimestamp(localDate));
+				java.sql.Date date = converter.toSqlDate(localDate);
+				assertEquals(startOfDay.toEpochMilli(), date.getTime());
+				assertEquals(localDate, converter.toLocalDate(date));
+			}
+		}
+		// new scenario: a gap and an overlap...
+		SqlDateTimeConverter converter = SqlDateTimeConverter.of(ZoneId.of("Europe/Paris"));
+		assertEquals(Instant.parse("2021-03-28T01:30:00Z"),
+			converter.toTimestamp(LocalDateTime.of(2021, 3, 28, 2, 30)).toInstant());
+		assertEquals(Instant.parse("2021-10-31T00:30:00Z"),
+			converter.toTimestamp(LocalDateTime.of(2021, 10, 31, 2, 30)).toInstant());
+		// new scenario: values beyond the epoch milliseconds...
+		assertThrows(IllegalArgumentException.class,
+			() -> converter.toTimestamp(LocalDateTime.MAX));
+	}
+
+	/**
+	 * Test method for {@link SqlDateTimeConverter#toTimestamp(OffsetDateTime)}
+	 */
+	@Test
+	public void testToTimestampWithOffset()
+	{
+		OffsetDateTime offsetDateTime = OffsetDateTime.of(1969, 12, 31, 23, 59, 59, 1,
+			ZoneOffset.ofHours(-3));
+		Timestamp timestamp = SqlDateTimeConverter.of(ZoneId.of("Asia/Tokyo"))
+			.toTimestamp(offsetDateTime);
+		assertEquals(offsetDateTime.toInstant(), timestamp.toInstant());
+		assertEquals(1, timestamp.getNanos());
+	}
+
+	/**
+	 * Test method for {@link SqlDateTimeConverter} with different default zones
+	 */
+	@Test
+	public void testIndependentOfDefaultZone()
+	{
+		TimeZone defaultTimeZone = TimeZone.getDefault();
+		SqlDateTimeConverter converter = SqlDateTimeConverter.of(ZoneId.of("Europe/Berlin"));
+		LocalDateTime localDateTime = LocalDateTime.of(2021, 6, 1, 12, 0, 0, 123_456_789);
+		try
+		{
+			TimeZone.setDefault(TimeZone.getTimeZone("America/Los_Angeles"));
+			Timestamp first = converter.toTimestamp(localDateTime);
+			java.sql.Date firstDate = converter.toSqlDate(localDateTime.toLocalDate());
+			TimeZone.setDefault(TimeZone.getTimeZone("Asia/Tokyo"));
+			assertEquals(first, converter.toTimestamp(localDateTime));
+			assertEquals(firstDate, converter.toSqlDate(localDateTime.toLocalDate()));
+			assertEquals(Instant.parse("2021-06-01T10:00:00.123456789Z"), first.toInstant());
+		}
+		finally
+		{
+			TimeZone.setDefault(defaultTimeZone);
+		}
+	}
+
+}
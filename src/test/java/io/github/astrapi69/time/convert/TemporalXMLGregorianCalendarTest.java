@@ -0,0 +1,281 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.convert;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Random;
+
+import javax.xml.datatype.DatatypeConfigurationException;
+import javax.xml.datatype.DatatypeConstants;
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.datatype.XMLGregorianCalendar;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link TemporalXMLGregorianCalendar}
+ */
+public class TemporalXMLGregorianCalendarTest
+{
+
+	private static final int UNDEFINED = DatatypeConstants.FIELD_UNDEFINED;
+
+	/**
+	 * Test method for {@link TemporalXMLGregorianCalendar#of(OffsetDateTime)} and
+	 * {@link TemporalXMLGregorianCalendar#toOffsetDateTime()}
+	 */
+	@Test
+	public void testOf()
+	{
+		OffsetDateTime offsetDateTime = OffsetDateTime.of(-5, 6, 7, 8, 9, 10, 11,
+			ZoneOffset.ofHoursMinutes(5, 45));
+		TemporalXMLGregorianCalendar calendar = TemporalXMLGregorianCalendar.of(offsetDateTime);
+		assertEquals(-6, calendar.getYear());
+		assertEquals(BigInteger.valueOf(-6), calendar.getEonAndYear());
+		assertNull(calendar.getEon());
+		assertEquals(6, calendar.getMonth());
+		assertEquals(7, calendar.getDay());
+		assertEquals(8, calendar.getHour());
+		assertEquals(9, calendar.getMinute());
+		assertEquals(10, calendar.getSecond());
+		assertEquals(0, calendar.getMillisecond());
+		assertEquals(new BigDecimal("0.000000011"), calendar.getFractionalSecond());
+		assertEquals(345, calendar.getTimezone());
+		assertEquals(offsetDateTime, calendar.toOffsetDateTime());
+		assertEquals(offsetDateTime.toZonedDateTime(), calendar.toZonedDateTime());
+		assertEquals(offsetDateTime.toLocalDateTime(), calendar.toLocalDateTime());
+		// new scenario: a local date-time has no timezone...
+		calendar = TemporalXMLGregorianCalendar.of(offsetDateTime.toLocalDateTime());
+		assertEquals(UNDEFINED, calendar.getTimezone());
+		assertThrows(IllegalStateException.class, calendar::toOffsetDateTime);
+		// new scenario: an offset with seconds...
+		assertThrows(IllegalArgumentException.class, () -> TemporalXMLGregorianCalendar
+			.of(offsetDateTime.withOffsetSameLocal(ZoneOffset.ofTotalSeconds(30))));
+		// new scenario: incomplete and leap second calendars...
+		calendar.setSecond(60);
+		assertThrows(IllegalStateException.class, calendar::toLocalDateTime);
+		calendar.setSecond(UNDEFINED);
+		assertThrows(IllegalStateException.class, calendar::toLocalDateTime);
+	}
+
+	/**
+	 * Test method for the setters, {@link TemporalXMLGregorianCalendar#clear()} and
+	 * {@link TemporalXMLGregorianCalendar#reset()}
+	 */
+	@Test
+	public void testSetters()
+	{
+		LocalDateTime localDateTime = LocalDateTime.of(2020, 2, 29, 23, 59, 59, 123_000_000);
+		TemporalXMLGregorianCalendar calendar = TemporalXMLGregorianCalendar.of(localDateTime);
+		assertThrows(IllegalArgumentException.class, () -> calendar.setMonth(13));
+		assertThrows(IllegalArgumentException.class, () -> calendar.setDay(0));
+		assertThrows(IllegalArgumentException.class, () -> calendar.setHour(25));
+		assertThrows(IllegalArgumentException.class, () -> calendar.setMinute(60));
+		assertThrows(IllegalArgumentException.class, () -> calendar.setSecond(61));
+		assertThrows(IllegalArgumentException.class, () -> calendar.setMillisecond(1000));
+		assertThrows(IllegalArgumentException.class, () -> calendar.setTimezone(841));
+		assertThrows(IllegalArgumentException.class,
+			() -> calendar.setFractionalSecond(BigDecimal.ONE));
+		assertThrows(IllegalArgumentException.class,
+			() -> calendar.setFractionalSecond(new BigDecimal("0.0000000001")));
+		assertThrows(IllegalArgumentException.class,
+			() -> calendar.setYear(BigInteger.TEN.pow(10)));
+		assertThrows(IllegalArgumentException.class, () -> calendar.setYear(1_000_000_000));
+		calendar.setTime(1, 2, 3, new BigDecimal("0.5"));
+		calendar.setTimezone(-60);
+		assertEquals(500, calendar.getMillisecond());
+		assertEquals("2020-02-29T01:02:03.5-01:00", calendar.toXMLFormat());
+		calendar.clear();
+		assertEquals(UNDEFINED, calendar.getYear());
+		assertThrows(IllegalStateException.class, calendar::getXMLSchemaType);
+		calendar.reset();
+		assertEquals(localDateTime, calendar.toLocalDateTime());
+		// new scenario: the year 0 can be set but is not valid...
+		calendar.setYear(0);
+		assertFalse(calendar.isValid());
+		calendar.setYear(2021);
+		assertFalse(calendar.isValid());
+		calendar.setDay(28);
+		assertTrue(calendar.isValid());
+		calendar.setTime(24, 0, 1);
+		assertFalse(calendar.isValid());
+	}
+
+	/**
+	 * Test method for {@link TemporalXMLGregorianCalendar#toXMLFormat()} and
+	 * {@link TemporalXMLGregorianCalendar#getXMLSchemaType()} against the
+	 * {@link DatatypeFactory}
+	 *
+	 * @throws DatatypeConfigurationException
+	 *             is thrown if the implementation is not available or cannot be instantiated
+	 */
+	@Test
+	public void testToXMLFormat() throws DatatypeConfigurationException
+	{
+		DatatypeFactory factory = DatatypeFactory.newInstance();
+		Random random = new Random(7);
+		for (int run = 0; run < 5000; run++)
+		{
+			XMLGregorianCalendar expected = randomCalendar(factory, random);
+			TemporalXMLGregorianCalendar actual = copy(expected);
+			assertEquals(expected.getXMLSchemaType(), actual.getXMLSchemaType());
+			assertEquals(expected.toXMLFormat(), actual.toXMLFormat());
+			if (0 < expected.getYear())
+			{
+				// the factory validates negative years with the leap years of XML Schema 1.1
+				assertEquals(expected.isValid(), actual.isValid());
+			}
+		}
+	}
+
+	/**
+	 * Test method for {@link TemporalXMLGregorianCalendar#compare(XMLGregorianCalendar)},
+	 * {@link TemporalXMLGregorianCalendar#normalize()} and
+	 * {@link TemporalXMLGregorianCalendar#add(javax.xml.datatype.Duration)} against the
+	 * {@link DatatypeFactory}
+	 *
+	 * @throws DatatypeConfigurationException
+	 *             is thrown if the implementation is not available or cannot be instantiated
+	 */
+	@Test
+	public void testCompareNormalizeAndAdd() throws DatatypeConfigurationException
+	{
+		DatatypeFactory factory = DatatypeFactory.newInstance();
+		Random random = new Random(11);
+		for (int run = 0; run < 5000; run++)
+		{
+			XMLGregorianCalendar first = randomDateTime(factory, random);
+			XMLGregorianCalendar second = random.nextInt(4) == 0
+				? (XMLGregorianCalendar)first.clone()
+				: randomDateTime(factory, random);
+			TemporalXMLGregorianCalendar actual = copy(first);
+			assertEquals(first.compare(second), actual.compare(second));
+			assertEquals(first.compare(second), actual.compare(copy(second)));
+			assertEquals(copy(first.normalize()).toXMLFormat(),
+				actual.normalize().toXMLFormat());
+			javax.xml.datatype.Duration duration = factory
+				.newDuration(random.nextLong() % 100_000_000_000L);
+			first.add(duration);
+			actual.add(duration);
+			assertEquals(copy(first).toXMLFormat(), actual.toXMLFormat());
+			assertEquals(first.toGregorianCalendar(), actual.toGregorianCalendar());
+		}
+		// new scenario: equality needs the same instant...
+		TemporalXMLGregorianCalendar calendar = TemporalXMLGregorianCalendar
+			.of(OffsetDateTime.of(2021, 1, 1, 1, 0, 0, 0, ZoneOffset.ofHours(1)));
+		XMLGregorianCalendar utc = factory.newXMLGregorianCalendar("2021-01-01T00:00:00Z");
+		assertEquals(DatatypeConstants.EQUAL, calendar.compare(utc));
+		assertEquals(calendar, copy(utc));
+		assertEquals(calendar.hashCode(), TemporalXMLGregorianCalendar
+			.of(OffsetDateTime.of(2021, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC)).hashCode());
+		// new scenario: the normalized calendar resets to the normalized fields...
+		XMLGregorianCalendar normalized = TemporalXMLGregorianCalendar
+			.of(LocalDateTime.of(2021, 1, 1, 1, 0)).normalize();
+		assertEquals(UNDEFINED, normalized.getTimezone());
+		calendar.setFractionalSecond(null);
+		normalized = calendar.normalize();
+		normalized.reset();
+		assertEquals("2021-01-01T00:00:00Z", normalized.toXMLFormat());
+		assertNull(normalized.getFractionalSecond());
+		TemporalXMLGregorianCalendar date = TemporalXMLGregorianCalendar
+			.of(OffsetDateTime.of(2021, 1, 1, 0, 0, 0, 0, ZoneOffset.ofHours(-10)));
+		date.setTime(UNDEFINED, UNDEFINED, UNDEFINED, null);
+		normalized = date.normalize();
+		normalized.reset();
+		assertEquals(factory.newXMLGregorianCalendar("2021-01-01-10:00").normalize().toXMLFormat(),
+			normalized.toXMLFormat());
+		assertEquals(DatatypeConstants.INDETERMINATE,
+			calendar.compare(factory.newXMLGregorianCalendar("2021-01-01T00:00:00")));
+	}
+
+	private static TemporalXMLGregorianCalendar copy(XMLGregorianCalendar calendar)
+	{
+		TemporalXMLGregorianCalendar copy = TemporalXMLGregorianCalendar
+			.of(LocalDateTime.of(2000, 1, 1, 0, 0));
+		copy.clear();
+		copy.setYear(calendar.getEonAndYear());
+		copy.setMonth(calendar.getMonth());
+		copy.setDay(calendar.getDay());
+		copy.setHour(calendar.getHour());
+		copy.setMinute(calendar.getMinute());
+		copy.setSecond(calendar.getSecond());
+		copy.setFractionalSecond(calendar.getFractionalSecond());
+		copy.setTimezone(calendar.getTimezone());
+		return copy;
+	}
+
+	private static XMLGregorianCalendar randomDateTime(DatatypeFactory factory, Random random)
+	{
+		int nano = random.nextInt(1_000_000_000);
+		return factory.newXMLGregorianCalendar(BigInteger.valueOf(1 + random.nextInt(9999)),
+			1 + random.nextInt(12), 1 + random.nextInt(28), random.nextInt(24),
+			random.nextInt(60), random.nextInt(60),
+			random.nextBoolean() ? null : BigDecimal.valueOf(nano, 9).stripTrailingZeros(),
+			random.nextInt(3) == 0 ? UNDEFINED : random.nextInt(1681) - 840);
+	}
+
+	private static XMLGregorianCalendar randomCalendar(DatatypeFactory factory, Random random)
+	{
+		int[] masks = { 0x3F, 0x38, 0x07, 0x30, 0x18, 0x20, 0x10, 0x08 };
+		int mask = masks[random.nextInt(masks.length)];
+		XMLGregorianCalendar calendar = randomDateTime(factory, random);
+		if ((mask & 0x20) == 0)
+		{
+			calendar.setYear(UNDEFINED);
+		}
+		else if (random.nextBoolean())
+		{
+			calendar.setYear(-1 - random.nextInt(20000));
+		}
+		if ((mask & 0x10) == 0)
+		{
+			calendar.setMonth(UNDEFINED);
+		}
+		if ((mask & 0x08) == 0)
+		{
+			calendar.setDay(UNDEFINED);
+		}
+		else if (random.nextBoolean())
+		{
+			calendar.setDay(29 + random.nextInt(3));
+		}
+		if ((mask & 0x07) == 0)
+		{
+			calendar.setTime(UNDEFINED, UNDEFINED, UNDEFINED, null);
+		}
+		return calendar;
+	}
+
+}
@@ -0,0 +1,230 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.convert;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Random;
+
+import javax.xml.datatype.DatatypeConfigurationException;
+import javax.xml.datatype.DatatypeConstants;
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.datatype.XMLGregorianCalendar;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link XMLDateTimeCodec}
+ */
+public class XMLDateTimeCodecTest
+{
+
+	/**
+	 * Test method for {@link XMLDateTimeCodec#getDatatypeFactory()}
+	 *
+	 * @throws DatatypeConfigurationException
+	 *             is thrown if the implementation is not available or cannot be instantiated
+	 */
+	@Test
+	public void testGetDatatypeFactory() throws DatatypeConfigurationException
+	{
+		assertSame(XMLDateTimeCodec.getDatatypeFactory(), XMLDateTimeCodec.getDatatypeFactory());
+	}
+
+	/**
+	 * Test method for the fractional seconds of
+	 * {@link LocalDateTimeExtensions#toXMLGregorianCalendar(LocalDateTime)},
+	 * {@link OffsetDateTimeExtensions#toXMLGregorianCalendar(OffsetDateTime)} and
+	 * {@link ZonedDateTimeExtensions#toXMLGregorianCalendar(ZonedDateTime)}
+	 *
+	 * @throws DatatypeConfigurationException
+	 *             is thrown if the implementation is not available or cannot be instantiated
+	 */
+	@Test
+	public void testFractionalSecondOfExtensions() throws DatatypeConfigurationException
+	{
+		LocalDateTime localDateTime = LocalDateTime.of(2021, 3, 4, 5, 6, 7, 123_400_000);
+		OffsetDateTime offsetDateTime = localDateTime.atOffset(ZoneOffset.ofHours(2));
+		assertEquals("2021-03-04T05:06:07.123400",
+			LocalDateTimeExtensions.toXMLGregorianCalendar(localDateTime).toXMLFormat());
+		assertEquals("2021-03-04T05:06:07.123400+02:00",
+			OffsetDateTimeExtensions.toXMLGregorianCalendar(offsetDateTime).toXMLFormat());
+		assertEquals("2021-03-04T05:06:07.123400+02:00", ZonedDateTimeExtensions
+			.toXMLGregorianCalendar(offsetDateTime.toZonedDateTime()).toXMLFormat());
+		// new scenario: whole seconds have the millisecond digits...
+		assertEquals("2021-03-04T05:06:07.000", LocalDateTimeExtensions
+			.toXMLGregorianCalendar(localDateTime.withNano(0)).toXMLFormat());
+		assertEquals("2021-03-04T05:06:07.000+02:00", OffsetDateTimeExtensions
+			.toXMLGregorianCalendar(offsetDateTime.withNano(0)).toXMLFormat());
+		assertEquals("2021-03-04T05:06:07.000000001+02:00", ZonedDateTimeExtensions
+			.toXMLGregorianCalendar(offsetDateTime.withNano(1).toZonedDateTime()).toXMLFormat());
+	}
+
+	/**
+	 * Test method for {@link XMLDateTimeCodec#format(LocalDateTime)} and
+	 * {@link XMLDateTimeCodec#format(OffsetDateTime)}
+	 */
+	@Test
+	public void testFormat()
+	{
+		assertEquals("2021-03-04T05:06:07",
+			XMLDateTimeCodec.format(LocalDateTime.of(2021, 3, 4, 5, 6, 7)));
+		assertEquals("2021-03-04T05:06:07.12",
+			XMLDateTimeCodec.format(LocalDateTime.of(2021, 3, 4, 5, 6, 7, 120_000_000)));
+		assertEquals("2021-03-04T05:06:07.000000001",
+			XMLDateTimeCodec.format(LocalDateTime.of(2021, 3, 4, 5, 6, 7, 1)));
+		assertEquals("2021-03-04T05:06:07Z", XMLDateTimeCodec
+			.format(OffsetDateTime.of(2021, 3, 4, 5, 6, 7, 0, ZoneOffset.UTC)));
+		assertEquals("2021-03-04T05:06:07-09:30", XMLDateTimeCodec
+			.format(OffsetDateTime.of(2021, 3, 4, 5, 6, 7, 0, ZoneOffset.ofHoursMinutes(-9, -30))));
+		// new scenario: the ISO year 0 is the XML Schema 1.0 year -1...
+		assertEquals("-0001-01-01T00:00:00",
+			XMLDateTimeCodec.format(LocalDateTime.of(0, 1, 1, 0, 0)));
+		assertEquals("-0044-03-15T12:00:00",
+			XMLDateTimeCodec.format(LocalDateTime.of(-43, 3, 15, 12, 0)));
+		assertEquals("12345-01-01T00:00:00",
+			XMLDateTimeCodec.format(LocalDateTime.of(12345, 1, 1, 0, 0)));
+		// new scenario: an offset with seconds...
+		assertThrows(IllegalArgumentException.class, () -> XMLDateTimeCodec
+			.format(OffsetDateTime.of(2021, 3, 4, 5, 6, 7, 0, ZoneOffset.ofTotalSeconds(61))));
+	}
+
+	/**
+	 * Test method for {@link XMLDateTimeCodec#format(LocalDateTime, StringBuilder)} and
+	 * {@link XMLDateTimeCodec#format(OffsetDateTime, byte[], int)}
+	 */
+	@Test
+	public void testFormatIntoBuffers()
+	{
+		OffsetDateTime value = OffsetDateTime.of(-999_999_999, 12, 31, 23, 59, 59, 999_999_999,
+			ZoneOffset.ofHours(-14));
+		StringBuilder builder = new StringBuilder("<");
+		assertSame(builder, XMLDateTimeCodec.format(value.toLocalDateTime(), builder));
+		assertEquals("<-1000000000-12-31T23:59:59.999999999", builder.toString());
+		byte[] buffer = new byte[XMLDateTimeCodec.MAX_LENGTH + 1];
+		int end = XMLDateTimeCodec.format(value, buffer, 1);
+		assertEquals(XMLDateTimeCodec.MAX_LENGTH + 1, end);
+		assertEquals("-1000000000-12-31T23:59:59.999999999-14:00",
+			new String(buffer, 1, end - 1, StandardCharsets.US_ASCII));
+		assertEquals(value, XMLDateTimeCodec.parse(buffer, 1, end).toOffsetDateTime());
+	}
+
+	/**
+	 * Test method for {@link XMLDateTimeCodec#parse(CharSequence)}
+	 */
+	@Test
+	public void testParse()
+	{
+		assertEquals(LocalDateTime.of(2021, 3, 4, 5, 6, 7, 100_000_000),
+			XMLDateTimeCodec.parseLocalDateTime("2021-03-04T05:06:07.1"));
+		assertEquals(LocalDateTime.of(2021, 3, 4, 5, 6, 7, 1),
+			XMLDateTimeCodec.parseLocalDateTime("2021-03-04T05:06:07.000000001000"));
+		assertEquals(OffsetDateTime.of(2021, 3, 4, 5, 6, 7, 0, ZoneOffset.ofHours(14)),
+			XMLDateTimeCodec.parseOffsetDateTime("2021-03-04T05:06:07+14:00"));
+		assertEquals(LocalDateTime.of(0, 1, 1, 0, 0),
+			XMLDateTimeCodec.parseLocalDateTime("-0001-01-01T00:00:00"));
+		// new scenario: the end of day is the start of the next day...
+		assertEquals(LocalDateTime.of(2021, 1, 1, 0, 0),
+			XMLDateTimeCodec.parseLocalDateTime("2020-12-31T24:00:00"));
+		// new scenario: the timezone is required or forbidden...
+		assertThrows(IllegalArgumentException.class,
+			() -> XMLDateTimeCodec.parseLocalDateTime("2021-03-04T05:06:07Z"));
+		assertThrows(IllegalArgumentException.class,
+			() -> XMLDateTimeCodec.parseOffsetDateTime("2021-03-04T05:06:07"));
+		// new scenario: invalid values...
+		String[] invalid = { "", "2021-03-04", "2021-03-04T05:06", "21-03-04T05:06:07",
+				"02021-03-04T05:06:07", "0000-03-04T05:06:07", "2021-3-04T05:06:07",
+				"2021-02-29T05:06:07", "2021-13-04T05:06:07", "2021-03-04T25:00:00",
+				"2021-03-04T24:00:01", "2021-03-04T05:60:07", "2021-03-04T05:06:60",
+				"2021-03-04T05:06:07.", "2021-03-04T05:06:07.0000000001",
+				"2021-03-04T05:06:07+14:01", "2021-03-04T05:06:07+0100",
+				"2021-03-04T05:06:07Z ", "+2021-03-04T05:06:07" };
+		for (String value : invalid)
+		{
+			assertThrows(IllegalArgumentException.class, () -> XMLDateTimeCodec.parse(value),
+				value);
+		}
+	}
+
+	/**
+	 * Test method for {@link XMLDateTimeCodec#parse(CharSequence)} and
+	 * {@link XMLDateTimeCodec#format(OffsetDateTime)} against the {@link DatatypeFactory}
+	 *
+	 * @throws DatatypeConfigurationException
+	 *             is thrown if the implementation is not available or cannot be instantiated
+	 */
+	@Test
+	public void testRoundTripWithDatatypeFactory() throws DatatypeConfigurationException
+	{
+		DatatypeFactory factory = DatatypeFactory.newInstance();
+		Random random = new Random(23);
+		for (int run = 0; run < 20000; run++)
+		{
+			LocalDateTime localDateTime = LocalDateTime.of(random.nextInt(20000) - 10000, 1, 1,
+				0, 0).plusSeconds(random.nextInt(366 * 86400)).withNano(
+					random.nextBoolean() ? 0 : random.nextInt(1_000_000_000));
+			int timezone = random.nextInt(14 * 60 * 2 + 2) - 14 * 60 - 1;
+			String value;
+			if (timezone < -14 * 60)
+			{
+				value = XMLDateTimeCodec.format(localDateTime);
+				assertEquals(localDateTime, XMLDateTimeCodec.parseLocalDateTime(value));
+				timezone = DatatypeConstants.FIELD_UNDEFINED;
+			}
+			else
+			{
+				OffsetDateTime offsetDateTime = localDateTime
+					.atOffset(ZoneOffset.ofTotalSeconds(timezone * 60));
+				value = XMLDateTimeCodec.format(offsetDateTime);
+				assertEquals(offsetDateTime, XMLDateTimeCodec.parseOffsetDateTime(value));
+			}
+			if (localDateTime.getYear() <= 0)
+			{
+				// the validation of the factory takes the leap years of negative years from
+				// XML Schema 1.1, so only the common era is compared
+				continue;
+			}
+			int nano = localDateTime.getNano();
+			XMLGregorianCalendar expected = factory.newXMLGregorianCalendar(
+				BigInteger.valueOf(XMLDateTimeCodec.toXmlYear(localDateTime.getYear())),
+				localDateTime.getMonthValue(), localDateTime.getDayOfMonth(),
+				localDateTime.getHour(), localDateTime.getMinute(), localDateTime.getSecond(),
+				nano == 0 ? null : BigDecimal.valueOf(nano, 9).stripTrailingZeros(), timezone);
+			assertEquals(expected.toXMLFormat(), value);
+			assertEquals(expected, factory.newXMLGregorianCalendar(value));
+			assertEquals(0, XMLDateTimeCodec.parse(value).compare(expected));
+		}
+	}
+
+}
@@ -26,14 +26,20 @@ package io.github.astrapi69.time.convert;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.Random;
+import java.util.TimeZone;
 
 import javax.xml.datatype.DatatypeConfigurationException;
+import javax.xml.datatype.DatatypeConstants;
+import javax.xml.datatype.DatatypeFactory;
 import javax.xml.datatype.XMLGregorianCalendar;
 
 import org.junit.jupiter.api.Test;
@@ -104,6 +110,80 @@ class XMLGregorianCalendarExtensionsTest
 		assertEquals(expected.getDayOfMonth(), actual.getDayOfMonth());
 	}
 
+	/**
+	 * Test method for {@link XMLGregorianCalendarExtensions#toZonedDateTime(XMLGregorianCalendar)}
+	 * against the conversion through {@link XMLGregorianCalendar#toGregorianCalendar()}
+	 *
+	 * @throws DatatypeConfigurationException
+	 *             is thrown if the implementation is not available or cannot be instantiated
+	 */
+	@Test
+	public void testToZonedDateTimeLikeGregorianCalendar() throws DatatypeConfigurationException
+	{
+		int undefined = DatatypeConstants.FIELD_UNDEFINED;
+		DatatypeFactory factory = DatatypeFactory.newInstance();
+		TimeZone defaultTimeZone = TimeZone.getDefault();
+		try
+		{
+			TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+			Random random = new Random(24);
+			for (int run = 0; run < 20000; run++)
+			{
+				int hour = random.nextInt(8) == 0 ? undefined : random.nextInt(25);
+				XMLGregorianCalendar calendar = factory.newXMLGregorianCalendar(
+					random.nextInt(8) == 0
+						? null
+						: BigInteger.valueOf(random.nextInt(4000) - 1000 | 1),
+					random.nextInt(8) == 0 ? undefined : 1 + random.nextInt(12),
+					random.nextInt(8) == 0 ? undefined : 1 + random.nextInt(28),
+					hour, hour == 24 ? 0 : random.nextInt(60),
+					hour == 24 ? 0 : random.nextInt(8) == 0 ? undefined : random.nextInt(60),
+					random.nextBoolean() || hour == 24
+						? null
+						: BigDecimal.valueOf(random.nextInt(1000), 3),
+					random.nextInt(3) == 0 ? undefined : random.nextInt(1681) - 840);
+				if (calendar.getTimezone() == undefined && calendar.getYear() != undefined
+					&& calendar.getYear() < 1900)
+				{
+					// the TimeZone of the GregorianCalendar has no local mean time
+					continue;
+				}
+				ZonedDateTime expected = calendar.toGregorianCalendar().toZonedDateTime();
+				ZonedDateTime actual = XMLGregorianCalendarExtensions.toZonedDateTime(calendar);
+				assertEquals(expected, actual);
+				assertEquals(expected.toOffsetDateTime(),
+					XMLGregorianCalendarExtensions.toOffsetDateTime(calendar));
+				if (calendar.getTimezone() != undefined)
+				{
+					assertEquals(expected.toLocalDateTime(),
+						XMLGregorianCalendarExtensions.toLocalDateTime(calendar));
+				}
+			}
+			// new scenario: the overlap and the gap of the default zone...
+			assertEquals(OffsetDateTime.parse("2021-11-07T01:30-05:00"),
+				XMLGregorianCalendarExtensions
+					.toOffsetDateTime(factory.newXMLGregorianCalendar("2021-11-07T01:30:00")));
+			assertEquals(OffsetDateTime.parse("2021-03-14T03:30-04:00"),
+				XMLGregorianCalendarExtensions
+					.toOffsetDateTime(factory.newXMLGregorianCalendar("2021-03-14T02:30:00")));
+			// new scenario: the local fields are kept in the gap...
+			assertEquals(LocalDateTime.parse("2021-03-14T02:30"), XMLGregorianCalendarExtensions
+				.toLocalDateTime(factory.newXMLGregorianCalendar("2021-03-14T02:30:00")));
+		}
+		finally
+		{
+			TimeZone.setDefault(defaultTimeZone);
+		}
+		// new scenario: a leap second is rolled over like the GregorianCalendar does...
+		XMLGregorianCalendar leapSecond = factory.newXMLGregorianCalendar("2016-12-31T23:59:60Z");
+		assertEquals(OffsetDateTime.parse("2017-01-01T00:00Z"),
+			XMLGregorianCalendarExtensions.toOffsetDateTime(leapSecond));
+		// new scenario: the nanoseconds are kept...
+		assertEquals(OffsetDateTime.parse("0000-12-31T23:59:59.123456789Z"),
+			XMLGregorianCalendarExtensions.toOffsetDateTime(
+				factory.newXMLGregorianCalendar("-0001-12-31T23:59:59.123456789Z")));
+	}
+
 	/**
 	 * Test method for {@link XMLGregorianCalendarExtensions}
 	 */
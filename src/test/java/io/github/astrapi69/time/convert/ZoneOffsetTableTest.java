@@ -0,0 +1,167 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.convert;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneOffsetTransition;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link ZoneOffsetTable}
+ */
+public class ZoneOffsetTableTest
+{
+
+	private static final String[] ZONES = { "Europe/Berlin", "America/New_York",
+			"Australia/Lord_Howe", "Asia/Kolkata", "Pacific/Apia", "America/St_Johns",
+			"Europe/Dublin", "Africa/Casablanca", "UTC", "+05:45" };
+
+	/**
+	 * Test method for {@link ZoneOffsetTable#of(ZoneId)} and
+	 * {@link ZoneOffsetTable#of(ZoneId, int, int)}
+	 */
+	@Test
+	public void testOf()
+	{
+		ZoneId zone = ZoneId.of("Europe/Berlin");
+		ZoneOffsetTable table = ZoneOffsetTable.of(zone);
+		assertSame(table, ZoneOffsetTable.of(zone));
+		assertEquals(zone, table.getZone());
+		assertEquals(ZoneOffsetTable.DEFAULT_MIN_YEAR, table.getMinYear());
+		assertEquals(ZoneOffsetTable.DEFAULT_MAX_YEAR, table.getMaxYear());
+		table = ZoneOffsetTable.of(zone, 2000, 2030);
+		assertEquals(2000, table.getMinYear());
+		assertEquals(2030, table.getMaxYear());
+		assertThrows(NullPointerException.class, () -> ZoneOffsetTable.of(null));
+		assertThrows(IllegalArgumentException.class, () -> ZoneOffsetTable.of(zone, 2030, 2000));
+		assertThrows(IllegalArgumentException.class,
+			() -> ZoneOffsetTable.of(zone, 2000, 1_000_000));
+	}
+
+	/**
+	 * Test method for {@link ZoneOffsetTable#getOffset(Instant)} and
+	 * {@link ZoneOffsetTable#getOffsetSeconds(long)}
+	 */
+	@Test
+	public void testGetOffset()
+	{
+		Random random = new Random(20);
+		for (String id : ZONES)
+		{
+			ZoneId zone = ZoneId.of(id);
+			ZoneOffsetTable table = ZoneOffsetTable.of(zone, 1950, 2050);
+			for (int i = 0; i < 20_000; i++)
+			{
+				// instants from 1800 to 2200 to cover the delegation outside of the range
+				Instant instant = Instant.ofEpochSecond(-5_364_662_400L
+					+ (long)(random.nextDouble() * 12_623_040_000L));
+				ZoneOffset expected = zone.getRules().getOffset(instant);
+				assertEquals(expected, table.getOffset(instant), id + " " + instant);
+				assertEquals(expected.getTotalSeconds(),
+					table.getOffsetSeconds(instant.getEpochSecond()));
+			}
+			// new scenario: the seconds around each transition...
+			ZoneOffsetTransition transition = zone.getRules()
+				.nextTransition(Instant.parse("1950-01-01T00:00:00Z"));
+			while (transition != null && transition.getInstant()
+				.isBefore(Instant.parse("2051-01-01T00:00:00Z")))
+			{
+				long epochSecond = transition.toEpochSecond();
+				assertEquals(transition.getOffsetBefore(), table.getOffset(epochSecond - 1));
+				assertEquals(transition.getOffsetAfter(), table.getOffset(epochSecond));
+				transition = zone.getRules().nextTransition(transition.getInstant());
+			}
+		}
+	}
+
+	/**
+	 * Test method for {@link ZoneOffsetTable#toEpochSecond(LocalDateTime)} and
+	 * {@link ZoneOffsetTable#toOffsetDateTime(LocalDateTime)}
+	 */
+	@Test
+	public void testToOffsetDateTime()
+	{
+		Random random = new Random(20);
+		for (String id : ZONES)
+		{
+			ZoneId zone = ZoneId.of(id);
+			ZoneOffsetTable table = ZoneOffsetTable.of(zone, 1950, 2050);
+			for (int i = 0; i < 20_000; i++)
+			{
+				LocalDateTime localDateTime = LocalDateTime.ofEpochSecond(-5_364_662_400L
+					+ (long)(random.nextDouble() * 12_623_040_000L), random.nextInt(1000),
+					ZoneOffset.UTC);
+				ZonedDateTime expected = ZonedDateTime.of(localDateTime, zone);
+				assertEquals(expected.toOffsetDateTime(), table.toOffsetDateTime(localDateTime),
+					id + " " + localDateTime);
+				assertEquals(expected.toEpochSecond(), table.toEpochSecond(localDateTime));
+			}
+			// new scenario: the local date-times in and around the gaps and overlaps...
+			ZoneOffsetTransition transition = zone.getRules()
+				.nextTransition(Instant.parse("1950-01-01T00:00:00Z"));
+			while (transition != null && transition.getInstant()
+				.isBefore(Instant.parse("2051-01-01T00:00:00Z")))
+			{
+				LocalDateTime before = transition.getDateTimeBefore();
+				LocalDateTime after = transition.getDateTimeAfter();
+				for (LocalDateTime localDateTime : new LocalDateTime[] { before.minusSeconds(1),
+						before, before.plusSeconds(1), after.minusSeconds(1), after,
+						after.plusSeconds(1) })
+				{
+					assertEquals(ZonedDateTime.of(localDateTime, zone).toOffsetDateTime(),
+						table.toOffsetDateTime(localDateTime), id + " " + localDateTime);
+				}
+				transition = zone.getRules().nextTransition(transition.getInstant());
+			}
+		}
+	}
+
+	/**
+	 * Test method for {@link ZoneOffsetTable#toOffsetDateTime(Instant)} and
+	 * {@link ZoneOffsetTable#toLocalDateTime(Instant)}
+	 */
+	@Test
+	public void testToLocalDateTime()
+	{
+		ZoneOffsetTable table = ZoneOffsetTable.of(ZoneId.of("Europe/Berlin"));
+		Instant instant = Instant.parse("2024-03-31T01:00:00.5Z");
+		assertEquals(LocalDateTime.of(2024, 3, 31, 3, 0, 0, 500_000_000),
+			table.toLocalDateTime(instant));
+		assertEquals(instant.atOffset(ZoneOffset.ofHours(2)), table.toOffsetDateTime(instant));
+		instant = Instant.parse("2024-03-31T00:59:59Z");
+		assertEquals(LocalDateTime.of(2024, 3, 31, 1, 59, 59), table.toLocalDateTime(instant));
+	}
+
+}
@@ -0,0 +1,176 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.gap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.time.period.PeriodCoalescer;
+import io.github.astrapi69.time.period.model.Period;
+
+/**
+ * The unit test class for the class {@link FreeSlotExtensions}
+ */
+public class FreeSlotExtensionsTest
+{
+
+	private static Period minutes(long start, long end)
+	{
+		return Period.of(Instant.ofEpochSecond(start * 60), Instant.ofEpochSecond(end * 60));
+	}
+
+	/**
+	 * Test method for
+	 * {@link FreeSlotExtensions#findFreeSlots(List, Period, Duration, Duration, int)}
+	 */
+	@Test
+	public void testFindFreeSlots()
+	{
+		List<Period> actual;
+		List<Period> expected;
+		List<Period> busy = List.of(minutes(10, 20), minutes(20, 47), minutes(50, 52),
+			minutes(100, 130));
+		// new scenario: without constraints...
+		actual = FreeSlotExtensions.findFreeSlots(busy, minutes(0, 200), Duration.ZERO,
+			Duration.ZERO, 10);
+		expected = List.of(minutes(0, 10), minutes(47, 50), minutes(52, 100), minutes(130, 200));
+		assertEquals(expected, actual);
+		// new scenario: aligned to 15 minutes with at least 30 minutes...
+		actual = FreeSlotExtensions.findFreeSlots(busy, minutes(0, 200), Duration.ofMinutes(30),
+			Duration.ofMinutes(15), 10);
+		expected = List.of(minutes(60, 100), minutes(135, 200));
+		assertEquals(expected, actual);
+		// new scenario: the window cuts the busy periods...
+		actual = FreeSlotExtensions.findFreeSlots(busy, minutes(15, 110), Duration.ZERO,
+			Duration.ZERO, 10);
+		expected = List.of(minutes(47, 50), minutes(52, 100));
+		assertEquals(expected, actual);
+		// new scenario: the limit stops the search...
+		actual = FreeSlotExtensions.findFreeSlots(busy, minutes(0, 200), Duration.ZERO,
+			Duration.ZERO, 2);
+		expected = List.of(minutes(0, 10), minutes(47, 50));
+		assertEquals(expected, actual);
+		// new scenario: sub second alignment...
+		actual = FreeSlotExtensions.findFreeSlots(
+			List.of(Period.of(Instant.ofEpochSecond(0), Instant.ofEpochSecond(1, 300))),
+			Period.of(Instant.ofEpochSecond(0), Instant.ofEpochSecond(2)), Duration.ZERO,
+			Duration.ofMillis(250), 10);
+		expected = List.of(Period.of(Instant.ofEpochSecond(1, 250_000_000),
+			Instant.ofEpochSecond(2)));
+		assertEquals(expected, actual);
+	}
+
+	/**
+	 * Test method for
+	 * {@link FreeSlotExtensions#findFreeSlots(List, Period, Duration, Duration, int)} compared
+	 * with a minute by minute search
+	 */
+	@Test
+	public void testFindFreeSlotsRandom()
+	{
+		Random random = new Random(11);
+		for (int round = 0; round < 200; round++)
+		{
+			int horizon = 600;
+			Period[] periods = new Period[random.nextInt(30)];
+			for (int i = 0; i < periods.length; i++)
+			{
+				int start = random.nextInt(horizon);
+				periods[i] = minutes(start, start + random.nextInt(40));
+			}
+			List<Period> busy = PeriodCoalescer.coalesce(periods).collect(Collectors.toList());
+			int windowStart = random.nextInt(horizon / 2);
+			int windowEnd = windowStart + random.nextInt(horizon);
+			int minimum = random.nextInt(40);
+			int alignment = 1 + random.nextInt(20);
+			boolean[] occupied = new boolean[horizon * 3];
+			for (Period period : busy)
+			{
+				for (long m = period.getStart().getEpochSecond() / 60; m < period.getEnd()
+					.getEpochSecond() / 60; m++)
+				{
+					occupied[(int)m] = true;
+				}
+			}
+			List<Period> expected = new ArrayList<>();
+			int m = windowStart;
+			while (m < windowEnd)
+			{
+				if (occupied[m])
+				{
+					m++;
+					continue;
+				}
+				int end = m;
+				while (end < windowEnd && !occupied[end])
+				{
+					end++;
+				}
+				int alignedStart = (m + alignment - 1) / alignment * alignment;
+				if (alignedStart < end && minimum <= end - alignedStart)
+				{
+					expected.add(minutes(alignedStart, end));
+				}
+				m = end;
+			}
+			List<Period> actual = FreeSlotExtensions.findFreeSlots(busy,
+				minutes(windowStart, windowEnd), Duration.ofMinutes(minimum),
+				Duration.ofMinutes(alignment), Integer.MAX_VALUE);
+			assertEquals(expected, actual);
+		}
+	}
+
+	/**
+	 * Test method for {@link FreeSlotExtensions#freeSlots(List, Period, Duration, Duration)}
+	 * with invalid arguments
+	 */
+	@Test
+	public void testFreeSlotsInvalid()
+	{
+		Iterator<Period> iterator = FreeSlotExtensions.freeSlots(
+			List.of(minutes(10, 30), minutes(20, 40)), minutes(0, 100), Duration.ZERO,
+			Duration.ZERO);
+		iterator.next();
+		assertThrows(IllegalArgumentException.class, iterator::next);
+		assertThrows(IllegalArgumentException.class, () -> FreeSlotExtensions
+			.freeSlots(List.of(), minutes(0, 100), Duration.ofMinutes(-1), Duration.ZERO));
+		assertThrows(IllegalArgumentException.class, () -> FreeSlotExtensions
+			.findFreeSlots(List.of(), minutes(0, 100), Duration.ZERO, Duration.ZERO, -1));
+		assertFalse(FreeSlotExtensions
+			.freeSlots(List.of(), minutes(5, 5), Duration.ZERO, Duration.ZERO).hasNext());
+	}
+
+}
@@ -0,0 +1,241 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.period;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.time.period.model.Period;
+
+/**
+ * The unit test class for the class {@link ConcurrentPeriodSet}
+ */
+public class ConcurrentPeriodSetTest
+{
+
+	private static Period period(long start, long end)
+	{
+		return Period.of(Instant.ofEpochSecond(start), Instant.ofEpochSecond(end));
+	}
+
+	private static List<Period> toList(Iterator<Period> iterator)
+	{
+		List<Period> list = new ArrayList<>();
+		iterator.forEachRemaining(list::add);
+		return list;
+	}
+
+	/**
+	 * Test method for {@link ConcurrentPeriodSet#insertIfNoOverlap(Period)}
+	 */
+	@Test
+	public void testInsertIfNoOverlap()
+	{
+		ConcurrentPeriodSet set = new ConcurrentPeriodSet();
+		assertTrue(set.isEmpty());
+		assertTrue(set.insertIfNoOverlap(period(10, 20)));
+		// new scenario: overlapping periods are rejected...
+		assertFalse(set.insertIfNoOverlap(period(15, 25)));
+		assertFalse(set.insertIfNoOverlap(period(0, 100)));
+		assertFalse(set.insertIfNoOverlap(period(10, 20)));
+		// new scenario: adjoining periods are accepted...
+		assertTrue(set.insertIfNoOverlap(period(20, 30)));
+		assertTrue(set.insertIfNoOverlap(period(0, 10)));
+		// new scenario: a zero length period overlaps only an equal period...
+		assertTrue(set.insertIfNoOverlap(period(40, 40)));
+		assertFalse(set.insertIfNoOverlap(period(40, 40)));
+		assertEquals(4, set.size());
+		assertEquals(List.of(period(0, 10), period(10, 20), period(20, 30), period(40, 40)),
+			toList(set.iterator()));
+		// new scenario: a long period is found from a later start...
+		assertTrue(set.insertIfNoOverlap(period(100, 1000)));
+		assertFalse(set.insertIfNoOverlap(period(999, 1001)));
+	}
+
+	/**
+	 * Test method for {@link ConcurrentPeriodSet#remove(Period)} and
+	 * {@link ConcurrentPeriodSet#contains(Period)}
+	 */
+	@Test
+	public void testRemoveAndContains()
+	{
+		ConcurrentPeriodSet set = new ConcurrentPeriodSet();
+		set.insertIfNoOverlap(period(10, 20));
+		assertTrue(set.contains(period(10, 20)));
+		assertFalse(set.contains(period(10, 21)));
+		assertFalse(set.remove(period(10, 21)));
+		assertTrue(set.remove(period(10, 20)));
+		assertFalse(set.contains(period(10, 20)));
+		assertFalse(set.remove(period(10, 20)));
+		// new scenario: the freed range can be inserted again...
+		assertTrue(set.insertIfNoOverlap(period(15, 25)));
+		assertEquals(1, set.size());
+	}
+
+	/**
+	 * Test method for {@link ConcurrentPeriodSet#overlapping(Period)} and
+	 * {@link ConcurrentPeriodSet#iterator(Instant, Instant)}
+	 */
+	@Test
+	public void testOverlappingAndRange()
+	{
+		ConcurrentPeriodSet set = new ConcurrentPeriodSet();
+		set.insertIfNoOverlap(period(0, 50));
+		set.insertIfNoOverlap(period(60, 70));
+		set.insertIfNoOverlap(period(80, 90));
+		assertEquals(List.of(period(0, 50), period(60, 70)), set.overlapping(period(40, 65)));
+		assertEquals(List.of(), set.overlapping(period(50, 60)));
+		assertEquals(List.of(period(60, 70), period(80, 90)),
+			toList(set.iterator(Instant.ofEpochSecond(60), Instant.ofEpochSecond(81))));
+		assertEquals(List.of(period(60, 70)),
+			toList(set.iterator(Instant.ofEpochSecond(1), Instant.ofEpochSecond(80))));
+		assertThrows(IllegalArgumentException.class,
+			() -> set.iterator(Instant.ofEpochSecond(2), Instant.ofEpochSecond(1)));
+	}
+
+	/**
+	 * Test method for {@link ConcurrentPeriodSet#insertIfNoOverlap(Period)} with a long period
+	 * between many short periods
+	 */
+	@Test
+	public void testSearchRangeWithLongPeriod()
+	{
+		long year = 365L * 86400;
+		ConcurrentPeriodSet set = new ConcurrentPeriodSet();
+		for (long minute = 0; minute < 10000; minute++)
+		{
+			assertTrue(set.insertIfNoOverlap(period(minute * 60, minute * 60 + 60)));
+		}
+		long yearStart = 10000 * 60;
+		assertTrue(set.insertIfNoOverlap(period(yearStart, yearStart + year)));
+		for (long minute = 0; minute < 10000; minute++)
+		{
+			long start = yearStart + year + minute * 60;
+			assertTrue(set.insertIfNoOverlap(period(start, start + 60)));
+		}
+		// new scenario: rejected long periods do not widen the search range...
+		assertFalse(set.insertIfNoOverlap(period(0, 10 * year)));
+		// new scenario: the long period is still found from inside...
+		assertFalse(set.insertIfNoOverlap(period(yearStart + year - 60, yearStart + year)));
+		assertEquals(List.of(period(yearStart, yearStart + year)),
+			set.overlapping(period(yearStart + year / 2, yearStart + year / 2 + 60)));
+		assertTrue(set.countCandidates(period(yearStart + year / 2, yearStart + year / 2)) <= 2);
+		// new scenario: the search range stays bounded before and after the long period...
+		for (long minute = 0; minute < 10000; minute += 97)
+		{
+			assertTrue(set.countCandidates(period(minute * 60 + 30, minute * 60 + 90)) <= 3);
+			long after = yearStart + year + minute * 60 + 30;
+			assertTrue(set.countCandidates(period(after, after + 60)) <= 3);
+		}
+		// new scenario: the search range stays bounded after removals...
+		assertTrue(set.remove(period(yearStart, yearStart + year)));
+		for (long minute = 0; minute < 10000; minute += 2)
+		{
+			assertTrue(set.remove(period(minute * 60, minute * 60 + 60)));
+		}
+		for (long minute = 1; minute < 10000; minute += 194)
+		{
+			assertTrue(set.countCandidates(period(minute * 60 + 90, minute * 60 + 100)) <= 3);
+		}
+		assertTrue(set.countCandidates(period(yearStart + year / 2, yearStart + year / 2)) <= 2);
+		assertTrue(set.insertIfNoOverlap(period(yearStart, yearStart + year)));
+		assertEquals(15001, set.size());
+	}
+
+	/**
+	 * Test method for {@link ConcurrentPeriodSet#insertIfNoOverlap(Period)} with concurrent
+	 * inserts
+	 *
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted
+	 */
+	@Test
+	public void testConcurrentInserts() throws InterruptedException
+	{
+		ConcurrentPeriodSet set = new ConcurrentPeriodSet();
+		ConcurrentLinkedQueue<Period> accepted = new ConcurrentLinkedQueue<>();
+		ConcurrentLinkedQueue<Period> rejected = new ConcurrentLinkedQueue<>();
+		int threadCount = 8;
+		CountDownLatch startSignal = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < threadCount; t++)
+		{
+			Random random = new Random(t);
+			Thread thread = new Thread(() -> {
+				try
+				{
+					startSignal.await();
+				}
+				catch (InterruptedException exception)
+				{
+					Thread.currentThread().interrupt();
+					return;
+				}
+				for (int i = 0; i < 2000; i++)
+				{
+					long start = random.nextInt(20000);
+					Period period = period(start, start + random.nextInt(30));
+					(set.insertIfNoOverlap(period) ? accepted : rejected).add(period);
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		startSignal.countDown();
+		for (Thread thread : threads)
+		{
+			thread.join();
+		}
+		List<Period> actual = toList(set.iterator());
+		assertEquals(accepted.size(), actual.size());
+		Instant latestEnd = Instant.MIN;
+		for (Period period : actual)
+		{
+			assertFalse(period.getStart().isBefore(latestEnd));
+			latestEnd = period.getEnd();
+		}
+		for (Period period : accepted)
+		{
+			assertTrue(set.contains(period));
+		}
+		for (Period period : rejected)
+		{
+			assertFalse(set.overlapping(period).isEmpty());
+		}
+	}
+
+}
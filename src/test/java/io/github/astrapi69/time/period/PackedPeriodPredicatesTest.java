@@ -0,0 +1,163 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.period;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Instant;
+import java.util.Random;
+import java.util.function.BiPredicate;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.time.period.model.Period;
+
+/**
+ * The unit test class for the class {@link PackedPeriodPredicates}
+ */
+public class PackedPeriodPredicatesTest
+{
+
+	private interface Kernel
+	{
+		int apply(long[] starts, long[] ends, int size, long queryStart, long queryEnd,
+			long[] bitmask);
+	}
+
+	private static long randomValue(Random random)
+	{
+		switch (random.nextInt(8))
+		{
+			case 0 :
+				return Long.MIN_VALUE + random.nextInt(3);
+			case 1 :
+				return Long.MAX_VALUE - random.nextInt(3);
+			default :
+				return random.nextInt(12) - 6;
+		}
+	}
+
+	private static void assertKernel(BiPredicate<Period, Period> expected, Kernel actual,
+		boolean fullRange)
+	{
+		Random random = new Random(7);
+		for (int round = 0; round < 100; round++)
+		{
+			int size = random.nextInt(200);
+			long[] starts = new long[size];
+			long[] ends = new long[size];
+			for (int i = 0; i < size; i++)
+			{
+				starts[i] = fullRange ? randomValue(random) : random.nextInt(12) - 6;
+				ends[i] = fullRange ? randomValue(random) : starts[i] + random.nextInt(5);
+			}
+			long queryStart = fullRange ? randomValue(random) : random.nextInt(12) - 6;
+			long queryEnd = fullRange ? randomValue(random) : queryStart + random.nextInt(5);
+			Period query = Period.of(toInstant(queryStart), toInstant(queryEnd));
+			long[] bitmask = PackedPeriodPredicates.newBitmask(size);
+			int count = actual.apply(starts, ends, size, queryStart, queryEnd, bitmask);
+			int expectedCount = 0;
+			for (int i = 0; i < size; i++)
+			{
+				boolean expectedMatch = expected
+					.test(Period.of(toInstant(starts[i]), toInstant(ends[i])), query);
+				assertEquals(expectedMatch, (bitmask[i >>> 6] & (1L << i)) != 0);
+				expectedCount += expectedMatch ? 1 : 0;
+			}
+			assertEquals(expectedCount, count);
+		}
+	}
+
+	/**
+	 * Maps packed values to instants with the same order, also for the extreme values
+	 */
+	private static Instant toInstant(long value)
+	{
+		return Instant.ofEpochSecond(Math.floorDiv(value, 1000), Math.floorMod(value, 1000));
+	}
+
+	/**
+	 * Test method for {@link PackedPeriodPredicates#pack(Instant)} and
+	 * {@link PackedPeriodPredicates#unpack(long)}
+	 */
+	@Test
+	public void testPackAndUnpack()
+	{
+		Instant instant = Instant.parse("1969-12-31T23:59:59.999999999Z");
+		assertEquals(-1L, PackedPeriodPredicates.pack(instant));
+		assertEquals(instant, PackedPeriodPredicates.unpack(-1L));
+		instant = Instant.parse("2024-02-29T12:00:00.123456789Z");
+		assertEquals(instant, PackedPeriodPredicates.unpack(PackedPeriodPredicates.pack(instant)));
+		assertThrows(ArithmeticException.class,
+			() -> PackedPeriodPredicates.pack(Instant.parse("2300-01-01T00:00:00Z")));
+	}
+
+	/**
+	 * Test method for {@link PackedPeriodPredicates#overlaps}
+	 */
+	@Test
+	public void testOverlaps()
+	{
+		assertKernel(Period::overlaps, PackedPeriodPredicates::overlaps, false);
+		assertKernel(Period::overlaps, PackedPeriodPredicates::overlaps, true);
+	}
+
+	/**
+	 * Test method for {@link PackedPeriodPredicates#encloses}
+	 */
+	@Test
+	public void testEncloses()
+	{
+		assertKernel(Period::encloses, PackedPeriodPredicates::encloses, false);
+		assertKernel(Period::encloses, PackedPeriodPredicates::encloses, true);
+	}
+
+	/**
+	 * Test method for {@link PackedPeriodPredicates#enclosedBy}
+	 */
+	@Test
+	public void testEnclosedBy()
+	{
+		assertKernel((period, query) -> query.encloses(period),
+			PackedPeriodPredicates::enclosedBy, false);
+		assertKernel((period, query) -> query.encloses(period),
+			PackedPeriodPredicates::enclosedBy, true);
+	}
+
+	/**
+	 * Test method for {@link PackedPeriodPredicates} with invalid arguments
+	 */
+	@Test
+	public void testInvalidArguments()
+	{
+		long[] values = new long[65];
+		assertThrows(IllegalArgumentException.class,
+			() -> PackedPeriodPredicates.overlaps(values, values, 65, 0, 0, new long[1]));
+		assertThrows(IllegalArgumentException.class,
+			() -> PackedPeriodPredicates.encloses(values, values, 66, 0, 0, new long[2]));
+	}
+
+}
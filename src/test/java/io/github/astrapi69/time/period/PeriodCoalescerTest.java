@@ -0,0 +1,221 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.period;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.time.period.model.Period;
+
+/**
+ * The unit test class for the class {@link PeriodCoalescer}
+ */
+public class PeriodCoalescerTest
+{
+
+	private static Period period(long startSeconds, long endSeconds)
+	{
+		return Period.of(Instant.ofEpochSecond(startSeconds), Instant.ofEpochSecond(endSeconds));
+	}
+
+	/**
+	 * Test method for {@link PeriodCoalescer#coalesce(Iterator)}
+	 */
+	@Test
+	public void testCoalesceIterator()
+	{
+		List<Period> actual;
+		List<Period> expected;
+		Iterator<Period> iterator;
+
+		// new scenario with overlapping, adjoining and disjoint periods...
+		iterator = PeriodCoalescer.coalesce(
+			List.of(period(0, 10), period(5, 12), period(12, 15), period(20, 30)).iterator());
+		actual = new ArrayList<>();
+		iterator.forEachRemaining(actual::add);
+		expected = List.of(period(0, 15), period(20, 30));
+		assertEquals(expected, actual);
+
+		// new scenario with an empty input...
+		assertFalse(PeriodCoalescer.coalesce(Collections.<Period> emptyIterator()).hasNext());
+
+		// new scenario with an unsorted input...
+		Iterator<Period> unsorted = PeriodCoalescer
+			.coalesce(List.of(period(20, 30), period(0, 10)).iterator());
+		assertThrows(IllegalArgumentException.class, unsorted::next);
+	}
+
+	/**
+	 * Test method for {@link PeriodCoalescer#coalesce(Stream)}
+	 */
+	@Test
+	public void testCoalesceStream()
+	{
+		List<Period> actual;
+		List<Period> expected;
+
+		actual = PeriodCoalescer
+			.coalesce(Stream.of(period(0, 10), period(2, 3), period(10, 11), period(15, 16)))
+			.collect(Collectors.toList());
+		expected = List.of(period(0, 11), period(15, 16));
+		assertEquals(expected, actual);
+	}
+
+	/**
+	 * Test method for {@link PeriodCoalescer#coalesce(Period...)} and
+	 * {@link PeriodCoalescer#coveredDuration(Period...)} against a naive implementation
+	 */
+	@Test
+	public void testCoalesceArray()
+	{
+		Random random = new Random(13);
+		for (int round = 0; round < 200; round++)
+		{
+			Period[] periods = new Period[random.nextInt(30)];
+			for (int i = 0; i < periods.length; i++)
+			{
+				long start = random.nextInt(100);
+				periods[i] = period(start, start + random.nextInt(10));
+			}
+			List<Period> expected = naiveUnion(periods);
+			List<Period> actual = PeriodCoalescer.coalesce(periods).collect(Collectors.toList());
+			assertEquals(expected, actual);
+
+			Duration expectedDuration = Duration.ZERO;
+			for (Period period : expected)
+			{
+				expectedDuration = expectedDuration
+					.plus(Duration.between(period.getStart(), period.getEnd()));
+			}
+			assertEquals(expectedDuration, PeriodCoalescer.coveredDuration(periods));
+		}
+	}
+
+	/**
+	 * Test method for {@link PeriodCoalescer#parallelCoalesce(java.util.Collection)} compared
+	 * with {@link PeriodCoalescer#coalesce(Period...)}
+	 */
+	@Test
+	public void testParallelCoalesce()
+	{
+		Random random = new Random(29);
+		for (int size : new int[] { 0, 10, PeriodCoalescer.PARALLEL_THRESHOLD, 100000 })
+		{
+			for (int spread : new int[] { 50, 1000, 100000 })
+			{
+				List<Period> periods = new ArrayList<>();
+				for (int i = 0; i < size; i++)
+				{
+					long start = random.nextInt(size * spread / 100 + 1);
+					periods.add(Period.of(Instant.ofEpochSecond(start, random.nextInt(3)),
+						Instant.ofEpochSecond(start + random.nextInt(50), random.nextInt(3))));
+				}
+				List<Period> expected = PeriodCoalescer.coalesce(periods.toArray(new Period[0]))
+					.collect(Collectors.toList());
+				assertEquals(expected, PeriodCoalescer.parallelCoalesce(periods));
+			}
+		}
+		// new scenario: periods that can not be packed or end before they start...
+		List<Period> periods = new ArrayList<>();
+		for (int i = 0; i < PeriodCoalescer.PARALLEL_THRESHOLD; i++)
+		{
+			periods.add(period(i * 3, i * 3 + 2));
+		}
+		periods.add(Period.of(Instant.MIN, Instant.ofEpochSecond(-10)));
+		periods.add(period(4, 1));
+		List<Period> expected = PeriodCoalescer.coalesce(periods.toArray(new Period[0]))
+			.collect(Collectors.toList());
+		assertEquals(expected, PeriodCoalescer.parallelCoalesce(periods));
+	}
+
+	/**
+	 * Test method for {@link PeriodCoalescer#coveredDuration(Iterator)}
+	 */
+	@Test
+	public void testCoveredDuration()
+	{
+		Duration actual;
+		Duration expected;
+
+		actual = PeriodCoalescer.coveredDuration(List
+			.of(Period.of(Instant.ofEpochSecond(0, 500), Instant.ofEpochSecond(2, 100)),
+				Period.of(Instant.ofEpochSecond(1), Instant.ofEpochSecond(3)),
+				Period.of(Instant.ofEpochSecond(5), Instant.ofEpochSecond(5, 999_999_999)))
+			.iterator());
+		expected = Duration.ofSeconds(3, -500).plusNanos(999_999_999);
+		assertEquals(expected, actual);
+	}
+
+	private static List<Period> naiveUnion(Period[] periods)
+	{
+		List<Period> result = new ArrayList<>();
+		for (Period period : periods)
+		{
+			result.add(period);
+		}
+		boolean merged = true;
+		while (merged)
+		{
+			merged = false;
+			outer : for (int i = 0; i < result.size(); i++)
+			{
+				for (int j = i + 1; j < result.size(); j++)
+				{
+					Period one = result.get(i);
+					Period other = result.get(j);
+					if (one.isConnected(other))
+					{
+						Instant start = one.getStart().isBefore(other.getStart())
+							? one.getStart()
+							: other.getStart();
+						Instant end = one.getEnd().isAfter(other.getEnd())
+							? one.getEnd()
+							: other.getEnd();
+						result.remove(j);
+						result.set(i, Period.of(start, end));
+						merged = true;
+						break outer;
+					}
+				}
+			}
+		}
+		Collections.sort(result);
+		return result;
+	}
+
+}
@@ -0,0 +1,165 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.period;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.time.period.model.Period;
+
+/**
+ * The unit test class for the class {@link PeriodCodec}
+ */
+public class PeriodCodecTest
+{
+
+	private static List<Period> toList(Iterator<Period> iterator)
+	{
+		List<Period> list = new ArrayList<>();
+		iterator.forEachRemaining(list::add);
+		return list;
+	}
+
+	private static List<Period> timeline(int size)
+	{
+		List<Period> periods = new ArrayList<>();
+		Instant start = Instant.parse("2024-01-01T08:00:00Z");
+		for (int i = 0; i < size; i++)
+		{
+			periods.add(Period.of(start, start.plusSeconds(1800 + 900 * (i % 3))));
+			start = start.plusSeconds(3600);
+		}
+		return periods;
+	}
+
+	/**
+	 * Test method for {@link PeriodCodec#encode(Iterable, java.io.OutputStream)} and
+	 * {@link PeriodCodec#decode(java.io.InputStream)}
+	 *
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	@Test
+	public void testEncodeAndDecodeStream() throws IOException
+	{
+		Random random = new Random(17);
+		List<Period> expected = new ArrayList<>();
+		for (int i = 0; i < 5000; i++)
+		{
+			long start = random.nextInt(1 << 30) - (1 << 29);
+			expected.add(Period.of(Instant.ofEpochSecond(start, random.nextInt(3) * 1000),
+				Instant.ofEpochSecond(start + random.nextInt(100) - 10, random.nextInt(2) * 7)));
+		}
+		expected.add(Period.of(Instant.MIN, Instant.MAX));
+		expected.add(Period.of(Instant.MAX, Instant.MIN));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		PeriodCodec.encode(expected, out);
+		List<Period> actual = toList(
+			PeriodCodec.decode(new ByteArrayInputStream(out.toByteArray())));
+		assertEquals(expected, actual);
+		// new scenario: an empty sequence...
+		out.reset();
+		PeriodCodec.encode(List.of(), out);
+		assertEquals(1, out.size());
+		assertFalse(PeriodCodec.decode(new ByteArrayInputStream(out.toByteArray())).hasNext());
+	}
+
+	/**
+	 * Test method for {@link PeriodCodec#encode(Iterable, ByteBuffer)} and
+	 * {@link PeriodCodec#decode(ByteBuffer)}
+	 */
+	@Test
+	public void testEncodeAndDecodeByteBuffer()
+	{
+		List<Period> expected = timeline(10000);
+		ByteBuffer buffer = ByteBuffer.allocate(24 * expected.size());
+		PeriodCodec.encode(expected, buffer);
+		int encodedSize = buffer.position();
+		assertTrue(encodedSize * 5 <= 24 * expected.size());
+		// new scenario: data after the encoded periods is not read...
+		buffer.put((byte)42);
+		buffer.flip();
+		assertEquals(expected, toList(PeriodCodec.decode(buffer)));
+		assertEquals(encodedSize, buffer.position());
+		assertEquals(42, buffer.get());
+	}
+
+	/**
+	 * Test method for {@link PeriodCodec.Encoder} and {@link PeriodCodec.Decoder}
+	 *
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	@Test
+	public void testEncoderAndDecoder() throws IOException
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (PeriodCodec.Encoder encoder = PeriodCodec.newEncoder(out, 2))
+		{
+			encoder.write(10, 0, 20, 0);
+			encoder.write(15, 5, 30, 0);
+			encoder.write(40, 0, 40, 0);
+			assertThrows(IllegalArgumentException.class, () -> encoder.write(1, -1, 2, 0));
+		}
+		PeriodCodec.Decoder decoder = PeriodCodec
+			.newDecoder(new ByteArrayInputStream(out.toByteArray()));
+		assertThrows(NoSuchElementException.class, decoder::getStartSecond);
+		assertTrue(decoder.next());
+		assertEquals(10, decoder.getStartSecond());
+		assertEquals(20, decoder.getEndSecond());
+		assertTrue(decoder.next());
+		assertEquals(15, decoder.getStartSecond());
+		assertEquals(5, decoder.getStartNano());
+		assertEquals(30, decoder.getEndSecond());
+		assertTrue(decoder.next());
+		assertEquals(Period.of(Instant.ofEpochSecond(40), Instant.ofEpochSecond(40)),
+			decoder.toPeriod());
+		assertFalse(decoder.next());
+		assertFalse(decoder.next());
+		// new scenario: truncated data...
+		byte[] bytes = out.toByteArray();
+		byte[] truncated = Arrays.copyOf(bytes, 4);
+		Iterator<Period> iterator = PeriodCodec.decode(ByteBuffer.wrap(truncated));
+		assertThrows(UncheckedIOException.class, () -> toList(iterator));
+	}
+
+}
@@ -24,19 +24,23 @@
  */
 package io.github.astrapi69.time.period;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
+import java.util.Random;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.meanbean.test.BeanTester;
 
+import io.github.astrapi69.time.enumtype.PeriodRelation;
 import io.github.astrapi69.time.period.model.Period;
 
 /**
@@ -743,4 +747,142 @@ public class PeriodExtensionsTest
 		beanTester.testBean(PeriodExtensions.class);
 	}
 
+	/**
+	 * Test method for {@link PeriodExtensions#relate(Period, Period)}
+	 */
+	@Test
+	public void testRelate()
+	{
+		PeriodRelation actual;
+		PeriodRelation expected;
+		Period timeRange;
+
+		timeRange = period(10, 20);
+
+		actual = PeriodExtensions.relate(timeRange, period(30, 40));
+		expected = PeriodRelation.BEFORE;
+		assertEquals(expected, actual);
+
+		actual = PeriodExtensions.relate(timeRange, period(20, 40));
+		expected = PeriodRelation.MEETS;
+		assertEquals(expected, actual);
+
+		actual = PeriodExtensions.relate(timeRange, period(15, 40));
+		expected = PeriodRelation.OVERLAPS;
+		assertEquals(expected, actual);
+
+		actual = PeriodExtensions.relate(timeRange, period(15, 20));
+		expected = PeriodRelation.FINISHED_BY;
+		assertEquals(expected, actual);
+
+		actual = PeriodExtensions.relate(timeRange, period(12, 18));
+		expected = PeriodRelation.CONTAINS;
+		assertEquals(expected, actual);
+
+		actual = PeriodExtensions.relate(timeRange, period(10, 30));
+		expected = PeriodRelation.STARTS;
+		assertEquals(expected, actual);
+
+		actual = PeriodExtensions.relate(timeRange, period(10, 20));
+		expected = PeriodRelation.EQUALS;
+		assertEquals(expected, actual);
+
+		actual = PeriodExtensions.relate(timeRange, period(10, 15));
+		expected = PeriodRelation.STARTED_BY;
+		assertEquals(expected, actual);
+
+		actual = PeriodExtensions.relate(timeRange, period(5, 25));
+		expected = PeriodRelation.DURING;
+		assertEquals(expected, actual);
+
+		actual = PeriodExtensions.relate(timeRange, period(5, 20));
+		expected = PeriodRelation.FINISHES;
+		assertEquals(expected, actual);
+
+		actual = PeriodExtensions.relate(timeRange, period(5, 15));
+		expected = PeriodRelation.OVERLAPPED_BY;
+		assertEquals(expected, actual);
+
+		actual = PeriodExtensions.relate(timeRange, period(5, 10));
+		expected = PeriodRelation.MET_BY;
+		assertEquals(expected, actual);
+
+		actual = PeriodExtensions.relate(timeRange, period(0, 5));
+		expected = PeriodRelation.AFTER;
+		assertEquals(expected, actual);
+	}
+
+	/**
+	 * Test method for {@link PeriodExtensions#relate(Period, Period)} against the predicates of
+	 * the class {@link PeriodExtensions}
+	 */
+	@Test
+	public void testRelateMatchesPredicates()
+	{
+		Random random = new Random(5);
+		for (int i = 0; i < 5000; i++)
+		{
+			long start = random.nextInt(10);
+			Period timeRange = period(start, start + 1 + random.nextInt(5));
+			start = random.nextInt(10);
+			Period timeRangeToCheck = period(start, start + 1 + random.nextInt(5));
+			PeriodRelation relation = PeriodExtensions.relate(timeRange, timeRangeToCheck);
+
+			assertEquals(relation.inverse(), PeriodExtensions.relate(timeRangeToCheck, timeRange));
+			assertEquals(PeriodExtensions.isBetween(timeRange, timeRangeToCheck),
+				relation == PeriodRelation.CONTAINS);
+			assertEquals(PeriodExtensions.isEqual(timeRange, timeRangeToCheck),
+				relation == PeriodRelation.EQUALS);
+			assertEquals(PeriodExtensions.isBorderingOnStartToEnd(timeRange, timeRangeToCheck),
+				relation == PeriodRelation.MEETS);
+			assertEquals(PeriodExtensions.isBorderingOnEndToStart(timeRange, timeRangeToCheck),
+				relation == PeriodRelation.MET_BY);
+			assertEquals(
+				PeriodExtensions.isLargerAndOverlappingAndBorderingOnEnd(timeRange,
+					timeRangeToCheck),
+				relation == PeriodRelation.FINISHED_BY);
+			assertEquals(
+				PeriodExtensions.isLargerAndOverlappingAndBorderingOnStart(timeRange,
+					timeRangeToCheck),
+				relation == PeriodRelation.STARTED_BY);
+			assertEquals(
+				PeriodExtensions.isSmallerAndOverlappingAndBorderingOnEnd(timeRange,
+					timeRangeToCheck),
+				relation == PeriodRelation.FINISHES);
+			assertEquals(
+				PeriodExtensions.isSmallerAndOverlappingAndBorderingOnStart(timeRange,
+					timeRangeToCheck),
+				relation == PeriodRelation.STARTS);
+			assertEquals(PeriodExtensions.isOverlappingBeforeAndAfter(timeRange, timeRangeToCheck),
+				relation == PeriodRelation.DURING);
+			assertEquals(PeriodExtensions.isBefore(timeRange, timeRangeToCheck),
+				relation == PeriodRelation.BEFORE || relation == PeriodRelation.MEETS);
+			assertEquals(PeriodExtensions.isAfter(timeRange, timeRangeToCheck),
+				relation == PeriodRelation.AFTER || relation == PeriodRelation.MET_BY);
+		}
+	}
+
+	/**
+	 * Test method for {@link PeriodExtensions#relate(Period, Period[], PeriodRelation[])}
+	 */
+	@Test
+	public void testRelateBulk()
+	{
+		PeriodRelation[] actual;
+		PeriodRelation[] expected;
+		Period[] timeRangesToCheck;
+
+		timeRangesToCheck = new Period[] { period(30, 40), period(12, 18), period(0, 10) };
+		actual = PeriodExtensions.relate(period(10, 20), timeRangesToCheck,
+			new PeriodRelation[3]);
+		expected = new PeriodRelation[] { PeriodRelation.BEFORE, PeriodRelation.CONTAINS,
+				PeriodRelation.MET_BY };
+		assertArrayEquals(expected, actual);
+	}
+
+	private static Period period(long startSeconds, long endSeconds)
+	{
+		return Period.of(Instant.ofEpochSecond(startSeconds), Instant.ofEpochSecond(endSeconds));
+	}
+
 }
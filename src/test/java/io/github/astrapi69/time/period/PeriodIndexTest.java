@@ -0,0 +1,239 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.period;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.time.period.model.Period;
+import io.github.astrapi69.time.period.model.StabbingResult;
+
+/**
+ * The unit test class for the class {@link PeriodIndex}
+ */
+public class PeriodIndexTest
+{
+
+	private static Period period(long startSeconds, long endSeconds)
+	{
+		return Period.of(Instant.ofEpochSecond(startSeconds), Instant.ofEpochSecond(endSeconds));
+	}
+
+	private static List<Period> randomPeriods(Random random, int size)
+	{
+		List<Period> periods = new ArrayList<>();
+		for (int i = 0; i < size; i++)
+		{
+			long start = random.nextInt(1000);
+			periods.add(period(start, start + random.nextInt(50)));
+		}
+		return periods;
+	}
+
+	/**
+	 * Test method for {@link PeriodIndex#overlapping(Period)}
+	 */
+	@Test
+	public void testOverlapping()
+	{
+		List<Period> actual;
+		List<Period> expected;
+		PeriodIndex index;
+
+		// new scenario...
+		index = PeriodIndex.of(List.of(period(0, 10), period(10, 20), period(5, 15)));
+		actual = index.overlapping(period(10, 12));
+		expected = List.of(period(5, 15), period(10, 20));
+		assertEquals(expected, actual);
+
+		// new scenario with an adjoining period...
+		actual = index.overlapping(period(20, 30));
+		assertTrue(actual.isEmpty());
+
+		// new scenario with random data compared against a linear scan...
+		Random random = new Random(42);
+		List<Period> periods = randomPeriods(random, 2000);
+		index = PeriodIndex.of(periods);
+		Collections.sort(periods);
+		for (int i = 0; i < 500; i++)
+		{
+			long start = random.nextInt(1100) - 50;
+			Period window = period(start, start + random.nextInt(30));
+			expected = new ArrayList<>();
+			for (Period period : periods)
+			{
+				if (period.overlaps(window))
+				{
+					expected.add(period);
+				}
+			}
+			actual = index.overlapping(window);
+			assertEquals(expected, actual);
+		}
+	}
+
+	/**
+	 * Test method for {@link PeriodIndex#enclosing(Instant)}
+	 */
+	@Test
+	public void testEnclosing()
+	{
+		List<Period> actual;
+		List<Period> expected;
+		PeriodIndex index;
+
+		// new scenario...
+		index = PeriodIndex.of(List.of(period(0, 10), period(10, 20), period(5, 15)));
+		actual = index.enclosing(Instant.ofEpochSecond(10));
+		expected = List.of(period(0, 10), period(5, 15), period(10, 20));
+		assertEquals(expected, actual);
+
+		// new scenario with random data compared against a linear scan...
+		Random random = new Random(7);
+		List<Period> periods = randomPeriods(random, 2000);
+		index = PeriodIndex.of(periods);
+		Collections.sort(periods);
+		for (int i = 0; i < 500; i++)
+		{
+			Instant instant = Instant.ofEpochSecond(random.nextInt(1100) - 50);
+			expected = new ArrayList<>();
+			for (Period period : periods)
+			{
+				if (period.encloses(Period.of(instant, instant)))
+				{
+					expected.add(period);
+				}
+			}
+			actual = index.enclosing(instant);
+			assertEquals(expected, actual);
+		}
+	}
+
+	/**
+	 * Test method for {@link PeriodIndex#enclosedBy(Period)}
+	 */
+	@Test
+	public void testEnclosedBy()
+	{
+		List<Period> actual;
+		List<Period> expected;
+		PeriodIndex index;
+
+		// new scenario...
+		index = PeriodIndex.of(List.of(period(0, 10), period(10, 20), period(5, 15)));
+		actual = index.enclosedBy(period(0, 15));
+		expected = List.of(period(0, 10), period(5, 15));
+		assertEquals(expected, actual);
+
+		// new scenario with random data compared against a linear scan...
+		Random random = new Random(11);
+		List<Period> periods = randomPeriods(random, 2000);
+		index = PeriodIndex.of(periods);
+		Collections.sort(periods);
+		for (int i = 0; i < 500; i++)
+		{
+			long start = random.nextInt(1100) - 50;
+			Period window = period(start, start + random.nextInt(200));
+			expected = new ArrayList<>();
+			for (Period period : periods)
+			{
+				if (window.encloses(period))
+				{
+					expected.add(period);
+				}
+			}
+			actual = index.enclosedBy(window);
+			assertEquals(expected, actual);
+		}
+	}
+
+	/**
+	 * Test method for {@link PeriodIndex#ofSorted(List)}
+	 */
+	@Test
+	public void testOfSorted()
+	{
+		PeriodIndex index;
+
+		index = PeriodIndex.ofSorted(List.of(period(0, 10), period(5, 15), period(10, 20)));
+		assertEquals(3, index.size());
+
+		assertThrows(IllegalArgumentException.class,
+			() -> PeriodIndex.ofSorted(List.of(period(5, 15), period(0, 10))));
+	}
+
+	/**
+	 * Test method for {@link PeriodIndex#enclosingAll(Instant[])} and
+	 * {@link PeriodIndex#enclosingAll(long[])}
+	 */
+	@Test
+	public void testEnclosingAll()
+	{
+		StabbingResult actual;
+		PeriodIndex index;
+
+		Random random = new Random(41);
+		List<Period> periods = randomPeriods(random, 2000);
+		index = PeriodIndex.of(periods);
+		Instant[] instants = new Instant[700];
+		long[] epochMillis = new long[instants.length];
+		for (int i = 0; i < instants.length; i++)
+		{
+			epochMillis[i] = random.nextInt(1_100_000) - 50_000;
+		}
+		Arrays.sort(epochMillis);
+		for (int i = 0; i < instants.length; i++)
+		{
+			instants[i] = Instant.ofEpochMilli(epochMillis[i]);
+		}
+
+		actual = index.enclosingAll(instants);
+		assertEquals(instants.length, actual.getInstantCount());
+		for (int i = 0; i < instants.length; i++)
+		{
+			assertEquals(index.enclosing(instants[i]), actual.getPeriods(i));
+		}
+
+		actual = index.enclosingAll(epochMillis);
+		for (int i = 0; i < instants.length; i++)
+		{
+			assertEquals(index.enclosing(instants[i]), actual.getPeriods(i));
+		}
+
+		assertThrows(IllegalArgumentException.class,
+			() -> PeriodIndex.of(periods).enclosingAll(new long[] { 2, 1 }));
+	}
+
+}
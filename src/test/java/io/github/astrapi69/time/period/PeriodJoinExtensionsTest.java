@@ -0,0 +1,149 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.period;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.time.period.model.Period;
+
+/**
+ * The unit test class for the class {@link PeriodJoinExtensions}
+ */
+public class PeriodJoinExtensionsTest
+{
+
+	private static List<Period> randomPeriods(Random random, int size)
+	{
+		List<Period> periods = new ArrayList<>();
+		for (int i = 0; i < size; i++)
+		{
+			long start = random.nextInt(1000);
+			periods.add(Period.of(Instant.ofEpochSecond(start),
+				Instant.ofEpochSecond(start + random.nextInt(40))));
+		}
+		return periods;
+	}
+
+	private static Map<Period, Integer> identities(List<Period> periods)
+	{
+		Map<Period, Integer> identities = new IdentityHashMap<>();
+		for (int i = 0; i < periods.size(); i++)
+		{
+			identities.put(periods.get(i), i);
+		}
+		return identities;
+	}
+
+	private static List<String> nestedLoopJoin(List<Period> left, List<Period> right)
+	{
+		List<String> pairs = new ArrayList<>();
+		for (int i = 0; i < left.size(); i++)
+		{
+			for (int j = 0; j < right.size(); j++)
+			{
+				if (left.get(i).overlaps(right.get(j)))
+				{
+					pairs.add(i + ":" + j);
+				}
+			}
+		}
+		Collections.sort(pairs);
+		return pairs;
+	}
+
+	/**
+	 * Test method for {@link PeriodJoinExtensions#overlapJoin}
+	 */
+	@Test
+	public void testOverlapJoin()
+	{
+		List<String> actual;
+		List<String> expected;
+
+		Random random = new Random(29);
+		for (int round = 0; round < 20; round++)
+		{
+			List<Period> left = randomPeriods(random, 300);
+			List<Period> right = randomPeriods(random, 200);
+			Map<Period, Integer> leftIds = identities(left);
+			Map<Period, Integer> rightIds = identities(right);
+			expected = nestedLoopJoin(left, right);
+			actual = new ArrayList<>();
+			List<String> pairs = actual;
+			PeriodJoinExtensions.overlapJoin(left, right,
+				(one, other) -> pairs.add(leftIds.get(one) + ":" + rightIds.get(other)));
+			Collections.sort(actual);
+			assertEquals(expected, actual);
+		}
+	}
+
+	/**
+	 * Test method for {@link PeriodJoinExtensions#parallelOverlapJoin}
+	 */
+	@Test
+	public void testParallelOverlapJoin()
+	{
+		List<String> actual;
+		List<String> expected;
+
+		Random random = new Random(31);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try
+		{
+			for (int round = 0; round < 20; round++)
+			{
+				List<Period> left = randomPeriods(random, 400);
+				List<Period> right = randomPeriods(random, 300);
+				Map<Period, Integer> leftIds = identities(left);
+				Map<Period, Integer> rightIds = identities(right);
+				expected = nestedLoopJoin(left, right);
+				ConcurrentLinkedQueue<String> pairs = new ConcurrentLinkedQueue<>();
+				PeriodJoinExtensions.parallelOverlapJoin(left, right,
+					(one, other) -> pairs.add(leftIds.get(one) + ":" + rightIds.get(other)), pool,
+					1 + round);
+				actual = new ArrayList<>(pairs);
+				Collections.sort(actual);
+				assertEquals(expected, actual);
+			}
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+	}
+
+}
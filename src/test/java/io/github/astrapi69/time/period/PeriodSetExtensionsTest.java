@@ -0,0 +1,229 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.period;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.time.period.model.Period;
+
+/**
+ * The unit test class for the class {@link PeriodSetExtensions}
+ */
+public class PeriodSetExtensionsTest
+{
+
+	private static final int HORIZON = 200;
+
+	private static Period period(long startSeconds, long endSeconds)
+	{
+		return Period.of(Instant.ofEpochSecond(startSeconds), Instant.ofEpochSecond(endSeconds));
+	}
+
+	private static List<Period> toList(Iterator<Period> iterator)
+	{
+		List<Period> result = new ArrayList<>();
+		iterator.forEachRemaining(result::add);
+		return result;
+	}
+
+	private static List<Period> randomSortedPeriods(Random random)
+	{
+		List<Period> periods = new ArrayList<>();
+		int size = random.nextInt(20);
+		for (int i = 0; i < size; i++)
+		{
+			long start = random.nextInt(HORIZON - 20);
+			periods.add(period(start, start + 1 + random.nextInt(15)));
+		}
+		Collections.sort(periods);
+		return periods;
+	}
+
+	private static boolean[] toCells(List<Period> periods)
+	{
+		boolean[] cells = new boolean[HORIZON];
+		for (Period period : periods)
+		{
+			for (long i = period.getStart().getEpochSecond(); i < period.getEnd()
+				.getEpochSecond(); i++)
+			{
+				cells[(int)i] = true;
+			}
+		}
+		return cells;
+	}
+
+	private static List<Period> fromCells(boolean[] cells)
+	{
+		List<Period> periods = new ArrayList<>();
+		int i = 0;
+		while (i < cells.length)
+		{
+			if (cells[i])
+			{
+				int start = i;
+				while (i < cells.length && cells[i])
+				{
+					i++;
+				}
+				periods.add(period(start, i));
+			}
+			else
+			{
+				i++;
+			}
+		}
+		return periods;
+	}
+
+	/**
+	 * Test method for {@link PeriodSetExtensions#intersect(Iterator, Iterator)}
+	 */
+	@Test
+	public void testIntersect()
+	{
+		List<Period> actual;
+		List<Period> expected;
+
+		// new scenario...
+		actual = toList(PeriodSetExtensions.intersect(
+			List.of(period(0, 10), period(20, 30)).iterator(),
+			List.of(period(5, 25), period(30, 40)).iterator()));
+		expected = List.of(period(5, 10), period(20, 25));
+		assertEquals(expected, actual);
+
+		// new scenario with random data compared against a cell based implementation...
+		Random random = new Random(17);
+		for (int round = 0; round < 300; round++)
+		{
+			List<Period> one = randomSortedPeriods(random);
+			List<Period> other = randomSortedPeriods(random);
+			boolean[] cells = toCells(one);
+			boolean[] otherCells = toCells(other);
+			for (int i = 0; i < cells.length; i++)
+			{
+				cells[i] &= otherCells[i];
+			}
+			expected = fromCells(cells);
+			actual = toList(PeriodSetExtensions.intersect(one.iterator(), other.iterator()));
+			assertEquals(expected, actual);
+		}
+	}
+
+	/**
+	 * Test method for {@link PeriodSetExtensions#subtract(Iterator, Iterator)}
+	 */
+	@Test
+	public void testSubtract()
+	{
+		List<Period> actual;
+		List<Period> expected;
+
+		// new scenario...
+		actual = toList(PeriodSetExtensions.subtract(List.of(period(0, 100)).iterator(),
+			List.of(period(10, 20), period(15, 30), period(90, 120)).iterator()));
+		expected = List.of(period(0, 10), period(30, 90));
+		assertEquals(expected, actual);
+
+		// new scenario with random data compared against a cell based implementation...
+		Random random = new Random(19);
+		for (int round = 0; round < 300; round++)
+		{
+			List<Period> one = randomSortedPeriods(random);
+			List<Period> other = randomSortedPeriods(random);
+			boolean[] cells = toCells(one);
+			boolean[] otherCells = toCells(other);
+			for (int i = 0; i < cells.length; i++)
+			{
+				cells[i] &= !otherCells[i];
+			}
+			expected = fromCells(cells);
+			actual = toList(PeriodSetExtensions.subtract(one.iterator(), other.iterator()));
+			assertEquals(expected, actual);
+		}
+	}
+
+	/**
+	 * Test method for {@link PeriodSetExtensions#symmetricDifference(Iterator, Iterator)}
+	 */
+	@Test
+	public void testSymmetricDifference()
+	{
+		List<Period> actual;
+		List<Period> expected;
+
+		// new scenario with random data compared against a cell based implementation...
+		Random random = new Random(23);
+		for (int round = 0; round < 300; round++)
+		{
+			List<Period> one = randomSortedPeriods(random);
+			List<Period> other = randomSortedPeriods(random);
+			boolean[] cells = toCells(one);
+			boolean[] otherCells = toCells(other);
+			for (int i = 0; i < cells.length; i++)
+			{
+				cells[i] ^= otherCells[i];
+			}
+			expected = fromCells(cells);
+			actual = toList(
+				PeriodSetExtensions.symmetricDifference(one.iterator(), other.iterator()));
+			assertEquals(expected, actual);
+		}
+	}
+
+	/**
+	 * Test method for {@link PeriodSetExtensions#subtract(Stream, Stream)}
+	 */
+	@Test
+	public void testStreams()
+	{
+		List<Period> actual;
+		List<Period> expected;
+
+		actual = PeriodSetExtensions
+			.subtract(Stream.of(period(0, 10), period(20, 30)), Stream.of(period(5, 25)))
+			.collect(Collectors.toList());
+		expected = List.of(period(0, 5), period(25, 30));
+		assertEquals(expected, actual);
+
+		actual = PeriodSetExtensions
+			.symmetricDifference(Stream.of(period(0, 10)), Stream.of(period(10, 20)))
+			.collect(Collectors.toList());
+		expected = List.of(period(0, 20));
+		assertEquals(expected, actual);
+	}
+
+}
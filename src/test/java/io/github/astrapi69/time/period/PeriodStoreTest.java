@@ -0,0 +1,199 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.period;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.time.period.model.Period;
+
+/**
+ * The unit test class for the class {@link PeriodStore}
+ */
+public class PeriodStoreTest
+{
+
+	private Path file;
+
+	/**
+	 * Sets up method will be invoked before every unit test method in this class
+	 *
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	@BeforeEach
+	public void setUp() throws IOException
+	{
+		file = Files.createTempFile("periods", ".store");
+	}
+
+	/**
+	 * Tear down method will be invoked after every unit test method in this class
+	 *
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	@AfterEach
+	public void tearDown() throws IOException
+	{
+		Files.deleteIfExists(file);
+	}
+
+	private static Instant second(long second)
+	{
+		return Instant.ofEpochSecond(second);
+	}
+
+	private static List<Period> randomPeriods(Random random, int size)
+	{
+		List<Period> periods = new ArrayList<>();
+		for (int i = 0; i < size; i++)
+		{
+			long start = random.nextInt(10000);
+			periods.add(Period.of(Instant.ofEpochSecond(start, random.nextInt(1000)),
+				Instant.ofEpochSecond(start + random.nextInt(100), random.nextInt(1000))));
+		}
+		return periods;
+	}
+
+	/**
+	 * Test method for {@link PeriodStore#write(Path, java.util.Collection)} and
+	 * {@link PeriodStore#open(Path)}
+	 *
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	@Test
+	public void testWriteAndOpen() throws IOException
+	{
+		List<Period> expected = randomPeriods(new Random(3), 10000);
+		PeriodStore.write(file, expected);
+		expected.sort(null);
+		assertEquals(PeriodStore.HEADER_SIZE + expected.size() * PeriodStore.RECORD_SIZE,
+			Files.size(file));
+		// new scenario: a single segment and many small segments...
+		for (int recordsPerSegment : new int[] { 1 << 25, 7, 1 })
+		{
+			try (PeriodStore store = PeriodStore.open(file, recordsPerSegment))
+			{
+				assertEquals(expected.size(), store.size());
+				for (int i = 0; i < expected.size(); i++)
+				{
+					assertEquals(expected.get(i), store.get(i));
+				}
+				List<Period> actual = new ArrayList<>();
+				PeriodStore.Cursor cursor = store.cursor();
+				while (cursor.next())
+				{
+					actual.add(cursor.toPeriod());
+				}
+				assertEquals(expected, actual);
+			}
+		}
+	}
+
+	/**
+	 * Test method for {@link PeriodStore#startingIn(Instant, Instant)} and
+	 * {@link PeriodStore#ceilingIndex(Instant)}
+	 *
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	@Test
+	public void testStartingIn() throws IOException
+	{
+		Random random = new Random(5);
+		List<Period> periods = randomPeriods(random, 2000);
+		PeriodStore.write(file, periods);
+		try (PeriodStore store = PeriodStore.open(file, 64))
+		{
+			for (int round = 0; round < 200; round++)
+			{
+				Instant from = Instant.ofEpochSecond(random.nextInt(11000), random.nextInt(1000));
+				Instant to = from.plusSeconds(random.nextInt(500));
+				List<Period> expected = new ArrayList<>();
+				for (Period period : periods)
+				{
+					if (!period.getStart().isBefore(from) && period.getStart().isBefore(to))
+					{
+						expected.add(period);
+					}
+				}
+				expected.sort(null);
+				List<Period> actual = new ArrayList<>();
+				store.startingIn(from, to).forEachRemaining(actual::add);
+				assertEquals(expected, actual);
+			}
+			assertEquals(0, store.ceilingIndex(Instant.MIN));
+			assertEquals(store.size(), store.ceilingIndex(Instant.MAX));
+		}
+	}
+
+	/**
+	 * Test method for {@link PeriodStore} with an empty store and invalid files
+	 *
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	@Test
+	public void testEmptyAndInvalid() throws IOException
+	{
+		PeriodStore.write(file, List.of());
+		PeriodStore store = PeriodStore.open(file);
+		assertTrue(store.isEmpty());
+		assertFalse(store.startingIn(Instant.MIN, Instant.MAX).hasNext());
+		store.close();
+		assertThrows(IllegalStateException.class, () -> store.ceilingIndex(Instant.EPOCH));
+		// new scenario: unsorted periods...
+		Iterator<Period> unsorted = List.of(Period.of(second(5), second(6)),
+			Period.of(second(1), second(2))).iterator();
+		assertThrows(IllegalArgumentException.class, () -> PeriodStore.write(file, unsorted));
+		// new scenario: not a store file...
+		Files.write(file, new byte[PeriodStore.HEADER_SIZE]);
+		assertThrows(IOException.class, () -> PeriodStore.open(file));
+		// new scenario: a truncated store file...
+		PeriodStore.write(file, List.of(Period.of(second(1), second(2))));
+		byte[] bytes = Files.readAllBytes(file);
+		Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+		assertThrows(IOException.class, () -> PeriodStore.open(file));
+	}
+
+}
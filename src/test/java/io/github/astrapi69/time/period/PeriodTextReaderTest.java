@@ -0,0 +1,161 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.period;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.time.period.PeriodTextReader.ErrorHandler;
+import io.github.astrapi69.time.period.PeriodTextReader.Sink;
+import io.github.astrapi69.time.period.model.Period;
+import io.github.astrapi69.time.period.model.PeriodBatch;
+
+/**
+ * The unit test class for the class {@link PeriodTextReader}
+ */
+public class PeriodTextReaderTest
+{
+
+	private static ByteBuffer bytes(String text)
+	{
+		return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static Period period(String start, String end)
+	{
+		return Period.of(Instant.parse(start), Instant.parse(end));
+	}
+
+	/**
+	 * Test method for {@link PeriodTextReader#read(ByteBuffer, Sink, ErrorHandler)} with CSV text
+	 */
+	@Test
+	public void testReadCsv()
+	{
+		String text = "id;start;end\r\n" + "1;2024-03-01T10:15:30Z;2024-03-01T11:00:00.5Z\r\n"
+			+ "2; \"2024-03-01T10:15:30+01:00\" ;2024-03-01T10:15:30.123456789-02:30\n" + "\n"
+			+ "3;2024-02-30T10:15:30Z;2024-03-01T10:15:30Z\n" + "4;2024-03-01T10:15:30Z\n"
+			+ "5;-0001-01-01T00:00:00Z;+10000-01-01T00:00Z";
+		List<Period> actual = new ArrayList<>();
+		List<String> errors = new ArrayList<>();
+		long parsed = PeriodTextReader.csv(';', 1, 2, true).read(bytes(text),
+			Sink.of(actual::add),
+			(lineNumber, row, message) -> errors.add(lineNumber + ":" + row + ":" + message));
+		List<Period> expected = List.of(
+			period("2024-03-01T10:15:30Z", "2024-03-01T11:00:00.500Z"),
+			period("2024-03-01T09:15:30Z", "2024-03-01T12:45:30.123456789Z"),
+			period("-0001-01-01T00:00:00Z", "+10000-01-01T00:00:00Z"));
+		assertEquals(expected, actual);
+		assertEquals(3, parsed);
+		assertEquals(
+			List.of("5:3;2024-02-30T10:15:30Z;2024-03-01T10:15:30Z:invalid start instant",
+				"6:4;2024-03-01T10:15:30Z:missing end value"),
+			errors);
+	}
+
+	/**
+	 * Test method for {@link PeriodTextReader#read(ByteBuffer, Sink, ErrorHandler)} with NDJSON
+	 * text
+	 */
+	@Test
+	public void testReadNdjson()
+	{
+		String text = "{\"id\":1,\"from\":\"2024-03-01T10:15:30Z\","
+			+ "\"to\" : \"2024-03-01T12:00Z\"}\n"
+			+ "{\"note\":\"from\",\"to\":\"2024-03-01T12:00Z\"}\n"
+			+ "{\"from\":\"2024-03-01T10:15:30Z\",\"to\":\"tomorrow\"}\n";
+		PeriodBatch batch = PeriodBatch.empty();
+		List<String> errors = new ArrayList<>();
+		long parsed = PeriodTextReader.ndjson("from", "to").read(bytes(text), batch::add,
+			(lineNumber, row, message) -> errors.add(lineNumber + ":" + message));
+		assertEquals(1, parsed);
+		assertEquals(List.of(period("2024-03-01T10:15:30Z", "2024-03-01T12:00:00Z")),
+			batch.toList());
+		assertEquals(List.of("2:missing start value", "3:invalid end instant"), errors);
+	}
+
+	/**
+	 * Test method for {@link PeriodTextReader#split(ByteBuffer, int)} and
+	 * {@link PeriodTextReader#read(ReadableByteChannel, Sink, ErrorHandler)} compared with
+	 * {@link Instant#parse(CharSequence)}
+	 *
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	@Test
+	public void testSplitAndChannel() throws IOException
+	{
+		Random random = new Random(23);
+		StringBuilder text = new StringBuilder("start,end\n");
+		List<Period> expected = new ArrayList<>();
+		for (int i = 0; i < 20000; i++)
+		{
+			Instant start = Instant.ofEpochSecond(random.nextLong() % 100_000_000_000L,
+				random.nextInt(4) == 0 ? random.nextInt(1_000_000_000) : 0);
+			Instant end = start.plusSeconds(random.nextInt(100000));
+			ZoneOffset offset = ZoneOffset.ofTotalSeconds(random.nextInt(36) * 900 - 16 * 1800);
+			expected.add(Period.of(start, end));
+			text.append(start).append(',').append(OffsetDateTime.ofInstant(end, offset))
+				.append('\n');
+		}
+		PeriodTextReader reader = PeriodTextReader.csv(',', 0, 1, true);
+		ErrorHandler failing = (lineNumber, row, message) -> {
+			throw new AssertionError(lineNumber + ": " + row + ": " + message);
+		};
+		ByteBuffer source = bytes(text.toString());
+		List<ByteBuffer> chunks = reader.split(source, 7);
+		assertEquals(7, chunks.size());
+		List<Period> actual = new ArrayList<>();
+		for (ByteBuffer chunk : chunks)
+		{
+			reader.readChunk(chunk, Sink.of(actual::add), failing);
+		}
+		assertEquals(expected, actual);
+		// new scenario: a channel...
+		actual.clear();
+		reader.read(
+			Channels.newChannel(
+				new ByteArrayInputStream(text.toString().getBytes(StandardCharsets.UTF_8))),
+			Sink.of(actual::add), failing);
+		assertEquals(expected, actual);
+		assertTrue(reader.split(bytes("a,b\n"), 3).isEmpty());
+	}
+
+}
@@ -0,0 +1,114 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.period.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link CoverageProfile}
+ */
+public class CoverageProfileTest
+{
+
+	private static Period period(long startSeconds, long endSeconds)
+	{
+		return Period.of(Instant.ofEpochSecond(startSeconds), Instant.ofEpochSecond(endSeconds));
+	}
+
+	/**
+	 * Test method for {@link CoverageProfile#of(java.util.Collection)}
+	 */
+	@Test
+	public void testOf()
+	{
+		CoverageProfile profile;
+
+		profile = CoverageProfile
+			.of(List.of(period(0, 10), period(5, 15), period(10, 20), period(30, 30)));
+		assertEquals(2, profile.getPeakDepth());
+		assertEquals(4, profile.getStepCount());
+		assertEquals(Instant.ofEpochSecond(0), profile.getStepStart(0));
+		assertEquals(1, profile.getStepDepth(0));
+		assertEquals(Instant.ofEpochSecond(5), profile.getStepStart(1));
+		assertEquals(2, profile.getStepDepth(1));
+		assertEquals(Instant.ofEpochSecond(15), profile.getStepStart(2));
+		assertEquals(1, profile.getStepDepth(2));
+		assertEquals(Instant.ofEpochSecond(20), profile.getStepStart(3));
+		assertEquals(0, profile.getStepDepth(3));
+
+		assertEquals(List.of(period(5, 15)), profile.peakPeriods());
+		assertEquals(Duration.ofSeconds(10), profile.durationAbove(1));
+		assertEquals(Duration.ofSeconds(20), profile.durationAbove(0));
+
+		profile = CoverageProfile.of(List.of());
+		assertEquals(0, profile.getPeakDepth());
+		assertEquals(0, profile.depthAt(Instant.EPOCH));
+	}
+
+	/**
+	 * Test method for {@link CoverageProfile#depthAt(Instant)} against a linear count
+	 */
+	@Test
+	public void testDepthAt()
+	{
+		Random random = new Random(37);
+		List<Period> periods = new ArrayList<>();
+		for (int i = 0; i < 500; i++)
+		{
+			long start = random.nextInt(1000);
+			periods.add(period(start, start + random.nextInt(60)));
+		}
+		CoverageProfile profile = CoverageProfile.of(periods);
+		int peak = 0;
+		long secondsAboveThree = 0;
+		for (int second = -10; second < 1100; second++)
+		{
+			int expected = 0;
+			for (Period period : periods)
+			{
+				if (period.getStart().getEpochSecond() <= second
+					&& second < period.getEnd().getEpochSecond())
+				{
+					expected++;
+				}
+			}
+			peak = Math.max(peak, expected);
+			secondsAboveThree += 3 < expected ? 1 : 0;
+			assertEquals(expected, profile.depthAt(Instant.ofEpochSecond(second)));
+			assertEquals(expected, profile.depthAt(Instant.ofEpochSecond(second, 500)));
+		}
+		assertEquals(peak, profile.getPeakDepth());
+		assertEquals(Duration.ofSeconds(secondsAboveThree), profile.durationAbove(3));
+	}
+
+}
@@ -0,0 +1,195 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.period.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.function.BiPredicate;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link PeriodBatch}
+ */
+public class PeriodBatchTest
+{
+
+	private static Period period(long startSeconds, int startNanos, long endSeconds, int endNanos)
+	{
+		return Period.of(Instant.ofEpochSecond(startSeconds, startNanos),
+			Instant.ofEpochSecond(endSeconds, endNanos));
+	}
+
+	private static List<Period> randomPeriods(Random random, int size)
+	{
+		List<Period> periods = new ArrayList<>();
+		for (int i = 0; i < size; i++)
+		{
+			long start = random.nextInt(20);
+			periods.add(period(start, random.nextInt(2), start + random.nextInt(5),
+				random.nextInt(2)));
+		}
+		return periods;
+	}
+
+	private static void assertBatchPredicate(BiPredicate<Period, Period> expected,
+		BatchPredicate actual)
+	{
+		Random random = new Random(3);
+		List<Period> periods = randomPeriods(random, 300);
+		PeriodBatch batch = PeriodBatch.of(periods);
+		long[] bitmask = batch.newBitmask();
+		for (int i = 0; i < 200; i++)
+		{
+			Period window = randomPeriods(random, 1).get(0);
+			int count = actual.apply(batch, window, bitmask);
+			int expectedCount = 0;
+			for (int j = 0; j < periods.size(); j++)
+			{
+				boolean expectedMatch = expected.test(periods.get(j), window);
+				boolean actualMatch = (bitmask[j >>> 6] & (1L << j)) != 0;
+				assertEquals(expectedMatch, actualMatch);
+				expectedCount += expectedMatch ? 1 : 0;
+			}
+			assertEquals(expectedCount, count);
+		}
+	}
+
+	private interface BatchPredicate
+	{
+		int apply(PeriodBatch batch, Period period, long[] bitmask);
+	}
+
+	/**
+	 * Test method for {@link PeriodBatch#add(Period)} and {@link PeriodBatch#get(int)}
+	 */
+	@Test
+	public void testAddAndGet()
+	{
+		PeriodBatch batch;
+		List<Period> periods;
+
+		periods = randomPeriods(new Random(1), 100);
+		batch = PeriodBatch.empty();
+		for (Period period : periods)
+		{
+			batch.add(period);
+		}
+		assertEquals(100, batch.size());
+		assertEquals(periods, batch.toList());
+		assertEquals(periods.get(5).getStart().getEpochSecond(), batch.getStartSecond(5));
+		assertEquals(periods.get(5).getEnd().getNano(), batch.getEndNano(5));
+
+		batch.clear();
+		assertTrue(batch.isEmpty());
+		assertThrows(IndexOutOfBoundsException.class, () -> PeriodBatch.empty().get(0));
+		assertThrows(IllegalArgumentException.class,
+			() -> PeriodBatch.empty().add(0, 1_000_000_000, 1, 0));
+	}
+
+	/**
+	 * Test method for {@link PeriodBatch#cursor()}
+	 */
+	@Test
+	public void testCursor()
+	{
+		PeriodBatch batch;
+		PeriodBatch.Cursor cursor;
+		List<Period> periods;
+		List<Period> actual;
+
+		periods = randomPeriods(new Random(2), 50);
+		batch = PeriodBatch.of(periods);
+		cursor = batch.cursor();
+		assertThrows(NoSuchElementException.class, cursor::getStartSecond);
+		actual = new ArrayList<>();
+		while (cursor.next())
+		{
+			assertEquals(periods.get(cursor.getIndex()).getStart(),
+				Instant.ofEpochSecond(cursor.getStartSecond(), cursor.getStartNano()));
+			actual.add(cursor.toPeriod());
+		}
+		assertEquals(periods, actual);
+		assertFalse(cursor.next());
+
+		cursor.reset();
+		assertTrue(cursor.next());
+		assertEquals(0, cursor.getIndex());
+	}
+
+	/**
+	 * Test method for {@link PeriodBatch#overlaps(Period, long[])}
+	 */
+	@Test
+	public void testOverlaps()
+	{
+		assertBatchPredicate(Period::overlaps, PeriodBatch::overlaps);
+	}
+
+	/**
+	 * Test method for {@link PeriodBatch#encloses(Period, long[])}
+	 */
+	@Test
+	public void testEncloses()
+	{
+		assertBatchPredicate(Period::encloses, PeriodBatch::encloses);
+	}
+
+	/**
+	 * Test method for {@link PeriodBatch#adjoins(Period, long[])}
+	 */
+	@Test
+	public void testAdjoins()
+	{
+		assertBatchPredicate(Period::adjoins, PeriodBatch::adjoins);
+	}
+
+	/**
+	 * Test method for {@link PeriodBatch#isBefore(Period, long[])}
+	 */
+	@Test
+	public void testIsBefore()
+	{
+		assertBatchPredicate(Period::isBefore, PeriodBatch::isBefore);
+	}
+
+	/**
+	 * Test method for {@link PeriodBatch#isAfter(Period, long[])}
+	 */
+	@Test
+	public void testIsAfter()
+	{
+		assertBatchPredicate(Period::isAfter, PeriodBatch::isAfter);
+	}
+
+}
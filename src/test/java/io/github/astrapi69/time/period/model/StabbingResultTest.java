@@ -0,0 +1,108 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.period.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link StabbingResult}
+ */
+public class StabbingResultTest
+{
+
+	/**
+	 * Test method for {@link StabbingResult#of(int[], Period[])}
+	 */
+	@Test
+	public void testOf()
+	{
+		StabbingResult result;
+		Period one;
+		Period other;
+
+		one = Period.of(Instant.ofEpochSecond(0), Instant.ofEpochSecond(10));
+		other = Period.of(Instant.ofEpochSecond(5), Instant.ofEpochSecond(15));
+		result = StabbingResult.of(new int[] { 0, 1, 1, 3 }, new Period[] { one, one, other });
+
+		assertEquals(3, result.getInstantCount());
+		assertEquals(3, result.getTotalCount());
+		assertEquals(1, result.getCount(0));
+		assertEquals(0, result.getCount(1));
+		assertEquals(2, result.getCount(2));
+		assertEquals(1, result.getOffset(2));
+		assertEquals(other, result.getPeriod(2));
+		assertEquals(List.of(one, other), result.getPeriods(2));
+
+		assertThrows(IllegalArgumentException.class,
+			() -> StabbingResult.of(new int[] { 0, 1 }, new Period[0]));
+		assertThrows(IndexOutOfBoundsException.class, () -> StabbingResult
+			.of(new int[] { 0 }, new Period[0]).getCount(0));
+		// new scenario with decreasing offsets...
+		assertThrows(IllegalArgumentException.class,
+			() -> StabbingResult.of(new int[] { 0, 3, 1, 3 }, new Period[] { one, one, other }));
+	}
+
+	/**
+	 * Test method for {@link StabbingResult#of(int[], Period[])} that checks that the given arrays
+	 * are copied
+	 */
+	@Test
+	public void testOfCopiesArrays()
+	{
+		Period one = Period.of(Instant.ofEpochSecond(0), Instant.ofEpochSecond(10));
+		Period other = Period.of(Instant.ofEpochSecond(5), Instant.ofEpochSecond(15));
+		int[] offsets = { 0, 1, 2 };
+		Period[] periods = { one, other };
+		StabbingResult result = StabbingResult.of(offsets, periods);
+		offsets[1] = 2;
+		periods[0] = other;
+		assertEquals(1, result.getCount(0));
+		assertEquals(one, result.getPeriod(0));
+		assertEquals(List.of(one), result.getPeriods(0));
+	}
+
+	/**
+	 * Test method for {@link StabbingResult#getPeriods(int)}
+	 */
+	@Test
+	public void testGetPeriodsIsUnmodifiable()
+	{
+		Period one = Period.of(Instant.ofEpochSecond(0), Instant.ofEpochSecond(10));
+		Period other = Period.of(Instant.ofEpochSecond(5), Instant.ofEpochSecond(15));
+		StabbingResult result = StabbingResult.of(new int[] { 0, 1, 2 },
+			new Period[] { one, other });
+		List<Period> periods = result.getPeriods(0);
+		assertThrows(UnsupportedOperationException.class, () -> periods.set(0, other));
+		assertEquals(one, result.getPeriod(0));
+		assertEquals(List.of(other), result.getPeriods(1));
+	}
+
+}
@@ -0,0 +1,233 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.recurrence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.time.period.model.Period;
+
+/**
+ * The unit test class for the class {@link FixedIntervalSeries}
+ */
+public class FixedIntervalSeriesTest
+{
+
+	private static final Instant BASE = Instant.parse("2024-01-01T00:00:00Z");
+
+	/**
+	 * Finds the first conflict by comparing all pairs of occurrences
+	 */
+	static Instant bruteForce(Iterator<Period> first, Iterator<Period> second, Period horizon)
+	{
+		List<Period> firstList = until(first, horizon.getEnd());
+		List<Period> secondList = until(second, horizon.getEnd());
+		Instant result = null;
+		for (Period a : firstList)
+		{
+			for (Period b : secondList)
+			{
+				Instant conflict = a.getStart().isBefore(b.getStart())
+					? b.getStart()
+					: a.getStart();
+				if (a.overlaps(b) && conflict.isBefore(horizon.getEnd()))
+				{
+					if (conflict.isBefore(horizon.getStart()))
+					{
+						conflict = horizon.getStart();
+					}
+					if (result == null || conflict.isBefore(result))
+					{
+						result = conflict;
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	private static List<Period> until(Iterator<Period> iterator, Instant end)
+	{
+		List<Period> periods = new ArrayList<>();
+		while (iterator.hasNext())
+		{
+			Period period = iterator.next();
+			if (!period.getStart().isBefore(end))
+			{
+				break;
+			}
+			periods.add(period);
+		}
+		return periods;
+	}
+
+	/**
+	 * Test method for {@link FixedIntervalSeries#of(Instant, Duration, Duration, long)}
+	 */
+	@Test
+	public void testOf()
+	{
+		FixedIntervalSeries series = FixedIntervalSeries.of(BASE, Duration.ofDays(1),
+			Duration.ofHours(1), 3);
+		assertEquals(BASE, series.getStart());
+		assertEquals(Duration.ofDays(1), series.getInterval());
+		assertEquals(Duration.ofHours(1), series.getDuration());
+		assertEquals(3, series.getCount());
+		assertEquals(Long.MAX_VALUE,
+			FixedIntervalSeries.of(BASE, Duration.ofDays(1), Duration.ofHours(1)).getCount());
+		assertThrows(NullPointerException.class,
+			() -> FixedIntervalSeries.of(null, Duration.ofDays(1), Duration.ofHours(1)));
+		assertThrows(IllegalArgumentException.class,
+			() -> FixedIntervalSeries.of(BASE, Duration.ZERO, Duration.ofHours(1)));
+		assertThrows(IllegalArgumentException.class,
+			() -> FixedIntervalSeries.of(BASE, Duration.ofDays(1), Duration.ofHours(-1)));
+		assertThrows(IllegalArgumentException.class,
+			() -> FixedIntervalSeries.of(BASE, Duration.ofDays(1), Duration.ofHours(1), -1));
+	}
+
+	/**
+	 * Test method for {@link FixedIntervalSeries#iterator()} and
+	 * {@link FixedIntervalSeries#iterator(Instant)}
+	 */
+	@Test
+	public void testIterator()
+	{
+		FixedIntervalSeries series = FixedIntervalSeries.of(BASE, Duration.ofDays(1),
+			Duration.ofHours(1), 3);
+		List<Period> periods = new ArrayList<>();
+		series.forEach(periods::add);
+		assertEquals(List.of(Period.of(BASE, BASE.plus(Duration.ofHours(1))),
+			Period.of(BASE.plus(Duration.ofDays(1)), BASE.plus(Duration.ofHours(25))),
+			Period.of(BASE.plus(Duration.ofDays(2)), BASE.plus(Duration.ofHours(49)))),
+			periods);
+		Iterator<Period> iterator = series.iterator(BASE.plus(Duration.ofMinutes(30)));
+		assertEquals(periods.get(0), iterator.next());
+		iterator = series.iterator(BASE.plus(Duration.ofHours(1)));
+		assertEquals(periods.get(1), iterator.next());
+		assertFalse(series.iterator(BASE.plus(Duration.ofDays(3))).hasNext());
+		// new scenario: zero length occurrences...
+		series = FixedIntervalSeries.of(BASE, Duration.ofDays(1), Duration.ZERO);
+		assertEquals(Period.of(BASE.plus(Duration.ofDays(1)), BASE.plus(Duration.ofDays(1))),
+			series.iterator(BASE.plus(Duration.ofDays(1))).next());
+		// new scenario: the end of the time line...
+		series = FixedIntervalSeries.of(Instant.MAX.minus(Duration.ofDays(2)),
+			Duration.ofDays(1), Duration.ZERO);
+		assertEquals(3, until(series.iterator(), Instant.MAX).size() + 1);
+	}
+
+	/**
+	 * Test method for {@link FixedIntervalSeries#firstConflict(FixedIntervalSeries, Period)}
+	 */
+	@Test
+	public void testFirstConflict()
+	{
+		// weekly from 09:00 to 10:00 and every three days from 10:00 to 11:00 never overlap
+		FixedIntervalSeries weekly = FixedIntervalSeries.of(BASE.plus(Duration.ofHours(9)),
+			Duration.ofDays(7), Duration.ofHours(1));
+		FixedIntervalSeries threeDays = FixedIntervalSeries.of(BASE.plus(Duration.ofHours(10)),
+			Duration.ofDays(3), Duration.ofHours(1));
+		Period horizon = Period.of(BASE, BASE.plus(Duration.ofDays(365L * 100_000)));
+		assertNull(weekly.firstConflict(threeDays, horizon));
+		assertFalse(weekly.conflicts(threeDays, horizon));
+		// new scenario: from the second day at 09:30 every three days conflicts after 7 days...
+		threeDays = FixedIntervalSeries.of(BASE.plus(Duration.ofMinutes(33 * 60 + 30)),
+			Duration.ofDays(3), Duration.ofHours(1));
+		assertEquals(BASE.plus(Duration.ofDays(7)).plus(Duration.ofMinutes(9 * 60 + 30)),
+			weekly.firstConflict(threeDays, horizon));
+		assertTrue(weekly.conflicts(threeDays, horizon));
+		// new scenario: a conflict in the far future after the start of the horizon...
+		Instant far = BASE.plus(Duration.ofDays(365L * 50_000));
+		Instant conflict = weekly.firstConflict(threeDays,
+			Period.of(far, far.plus(Duration.ofDays(30))));
+		assertEquals(bruteForce(weekly.iterator(far), threeDays.iterator(far),
+			Period.of(far, far.plus(Duration.ofDays(30)))), conflict);
+		// new scenario: the count ends the series before the first conflict...
+		weekly = FixedIntervalSeries.of(BASE.plus(Duration.ofHours(9)), Duration.ofDays(7),
+			Duration.ofHours(1), 1);
+		assertNull(weekly.firstConflict(threeDays, horizon));
+		// new scenario: a conflict that started before the horizon...
+		weekly = FixedIntervalSeries.of(BASE, Duration.ofDays(7), Duration.ofDays(2));
+		threeDays = FixedIntervalSeries.of(BASE.plus(Duration.ofDays(1)), Duration.ofDays(3),
+			Duration.ofHours(1));
+		Instant horizonStart = BASE.plus(Duration.ofMinutes(24 * 60 + 30));
+		assertEquals(horizonStart, weekly.firstConflict(threeDays,
+			Period.of(horizonStart, horizonStart.plus(Duration.ofDays(1)))));
+	}
+
+	/**
+	 * Test method for {@link FixedIntervalSeries#firstConflict(FixedIntervalSeries, Period)}
+	 * compared with all pairs of occurrences
+	 */
+	@Test
+	public void testFirstConflictRandom()
+	{
+		Random random = new Random(19);
+		for (int run = 0; run < 2000; run++)
+		{
+			boolean dense = run % 10 == 0;
+			FixedIntervalSeries first = randomSeries(random, dense);
+			FixedIntervalSeries second = randomSeries(random, dense);
+			Instant horizonStart = BASE.plusSeconds(random.nextInt(400) - 50);
+			Period horizon = Period.of(horizonStart,
+				horizonStart.plusSeconds(random.nextInt(dense ? 2_000 : 600)));
+			Instant expected = bruteForce(first.iterator(horizonStart),
+				second.iterator(horizonStart), horizon);
+			assertEquals(expected, first.firstConflict(second, horizon), "run " + run);
+			assertEquals(expected, second.firstConflict(first, horizon), "run " + run);
+			assertEquals(expected, FixedIntervalSeries.mergeWalk(first.iterator(horizonStart),
+				second.iterator(horizonStart), horizon), "run " + run);
+		}
+	}
+
+	private static FixedIntervalSeries randomSeries(Random random, boolean dense)
+	{
+		Instant start = BASE.plusSeconds(random.nextInt(200)).plusNanos(
+			random.nextBoolean() ? 0 : random.nextInt(3) * 500_000_000L);
+		Duration interval = dense
+			? Duration.ofSeconds(1 + random.nextInt(3))
+			: Duration.ofSeconds(1 + random.nextInt(40));
+		Duration duration = dense
+			? Duration.ofSeconds(5000 + random.nextInt(5000))
+			: Duration.ofSeconds(random.nextInt(4) == 0 ? 0 : random.nextInt(60));
+		if (random.nextInt(3) == 0)
+		{
+			return FixedIntervalSeries.of(start, interval, duration, random.nextInt(20));
+		}
+		return FixedIntervalSeries.of(start, interval, duration);
+	}
+
+}
@@ -0,0 +1,141 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.recurrence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.time.enumtype.RecurrenceFrequency;
+
+/**
+ * The unit test class for the class {@link RecurrenceRule}
+ */
+public class RecurrenceRuleTest
+{
+
+	/**
+	 * Test method for {@link RecurrenceRule#parse(String)}
+	 */
+	@Test
+	public void testParse()
+	{
+		RecurrenceRule rule = RecurrenceRule
+			.parse("RRULE:FREQ=WEEKLY;INTERVAL=2;UNTIL=19971224T000000Z;WKST=SU;BYDAY=MO,WE,FR");
+		assertEquals(RecurrenceFrequency.WEEKLY, rule.getFrequency());
+		assertEquals(2, rule.getInterval());
+		assertEquals(0, rule.getCount());
+		assertEquals(DayOfWeek.SUNDAY, rule.getWeekStart());
+		assertTrue(rule.hasUntil());
+		assertTrue(rule.hasByRules());
+		assertEquals(Instant.parse("1997-12-24T00:00:00Z"), rule.getUntilInstant());
+		assertNull(rule.getUntilLocal());
+		assertEquals(3, rule.getByDayCount());
+		assertEquals(DayOfWeek.MONDAY, rule.getByDayWeekday(0));
+		assertEquals(DayOfWeek.FRIDAY, rule.getByDayWeekday(2));
+		assertEquals(0, rule.getByDayOrdinal(1));
+		// new scenario: ordinals, month days and defaults...
+		rule = RecurrenceRule.parse("FREQ=MONTHLY;COUNT=10;BYDAY=1FR,-1SU;BYMONTHDAY=-3,13");
+		assertEquals(RecurrenceFrequency.MONTHLY, rule.getFrequency());
+		assertEquals(1, rule.getInterval());
+		assertEquals(10, rule.getCount());
+		assertEquals(DayOfWeek.MONDAY, rule.getWeekStart());
+		assertFalse(rule.hasUntil());
+		assertEquals(1, rule.getByDayOrdinal(0));
+		assertEquals(-1, rule.getByDayOrdinal(1));
+		assertEquals(DayOfWeek.SUNDAY, rule.getByDayWeekday(1));
+		assertEquals(2, rule.getByMonthDayCount());
+		assertEquals(-3, rule.getByMonthDay(0));
+		assertEquals(13, rule.getByMonthDay(1));
+		// new scenario: local until values...
+		rule = RecurrenceRule.parse("FREQ=DAILY;UNTIL=20000131");
+		assertFalse(rule.hasByRules());
+		assertNull(rule.getUntilInstant());
+		assertEquals(LocalDateTime.of(2000, 1, 31, 0, 0).with(LocalTime.MAX),
+			rule.getUntilLocal());
+		rule = RecurrenceRule.parse("freq=yearly;until=20000131T090000");
+		assertEquals(RecurrenceFrequency.YEARLY, rule.getFrequency());
+		assertEquals(LocalDateTime.of(2000, 1, 31, 9, 0), rule.getUntilLocal());
+	}
+
+	/**
+	 * Test method for {@link RecurrenceRule#parse(String)} with invalid rules
+	 */
+	@Test
+	public void testParseInvalid()
+	{
+		assertThrows(NullPointerException.class, () -> RecurrenceRule.parse(null));
+		assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse(""));
+		assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse("INTERVAL=2"));
+		assertThrows(IllegalArgumentException.class,
+			() -> RecurrenceRule.parse("FREQ=HOURLY"));
+		assertThrows(IllegalArgumentException.class,
+			() -> RecurrenceRule.parse("FREQ=DAILY;FREQ=WEEKLY"));
+		assertThrows(IllegalArgumentException.class,
+			() -> RecurrenceRule.parse("FREQ=DAILY;INTERVAL=0"));
+		assertThrows(IllegalArgumentException.class,
+			() -> RecurrenceRule.parse("FREQ=DAILY;COUNT=2;UNTIL=20000131"));
+		assertThrows(IllegalArgumentException.class,
+			() -> RecurrenceRule.parse("FREQ=DAILY;BYMONTH=1"));
+		assertThrows(IllegalArgumentException.class,
+			() -> RecurrenceRule.parse("FREQ=WEEKLY;BYDAY=1MO"));
+		assertThrows(IllegalArgumentException.class,
+			() -> RecurrenceRule.parse("FREQ=WEEKLY;BYMONTHDAY=1"));
+		assertThrows(IllegalArgumentException.class,
+			() -> RecurrenceRule.parse("FREQ=MONTHLY;BYMONTHDAY=32"));
+		assertThrows(IllegalArgumentException.class,
+			() -> RecurrenceRule.parse("FREQ=MONTHLY;BYDAY=0MO"));
+		assertThrows(IllegalArgumentException.class,
+			() -> RecurrenceRule.parse("FREQ=MONTHLY;BYDAY=XX"));
+		assertThrows(IllegalArgumentException.class,
+			() -> RecurrenceRule.parse("FREQ=DAILY;UNTIL=2000-01-31"));
+	}
+
+	/**
+	 * Test method for {@link RecurrenceRule#equals(Object)}, {@link RecurrenceRule#hashCode()}
+	 * and {@link RecurrenceRule#toString()}
+	 */
+	@Test
+	public void testEqualsHashCodeAndToString()
+	{
+		RecurrenceRule rule = RecurrenceRule.parse("RRULE:FREQ=DAILY;COUNT=10");
+		RecurrenceRule same = RecurrenceRule.parse("FREQ=DAILY;COUNT=10");
+		assertEquals(rule, same);
+		assertEquals(rule.hashCode(), same.hashCode());
+		assertEquals("FREQ=DAILY;COUNT=10", rule.toString());
+		assertNotEquals(rule, RecurrenceRule.parse("FREQ=DAILY;COUNT=11"));
+	}
+
+}
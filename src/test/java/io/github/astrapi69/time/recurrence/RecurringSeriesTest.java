@@ -0,0 +1,389 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.recurrence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.time.period.model.Period;
+
+/**
+ * The unit test class for the class {@link RecurringSeries}
+ */
+public class RecurringSeriesTest
+{
+
+	private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+
+	private static ZonedDateTime at(int year, int month, int day)
+	{
+		return ZonedDateTime.of(LocalDateTime.of(year, month, day, 9, 0), NEW_YORK);
+	}
+
+	private static List<LocalDate> dates(Iterable<Period> periods, int limit)
+	{
+		List<LocalDate> dates = new ArrayList<>();
+		for (Period period : periods)
+		{
+			if (limit <= dates.size())
+			{
+				break;
+			}
+			ZonedDateTime start = period.getStart().atZone(NEW_YORK);
+			assertEquals(9, start.getHour());
+			dates.add(start.toLocalDate());
+		}
+		return dates;
+	}
+
+	private static List<Period> list(Iterator<Period> iterator, int limit)
+	{
+		List<Period> periods = new ArrayList<>();
+		while (iterator.hasNext() && periods.size() < limit)
+		{
+			periods.add(iterator.next());
+		}
+		return periods;
+	}
+
+	/**
+	 * Test method for {@link RecurringSeries#iterator()} with a daily rule
+	 */
+	@Test
+	public void testIteratorDaily()
+	{
+		RecurringSeries series = RecurringSeries.of(at(1997, 9, 2), Duration.ofHours(1),
+			RecurrenceRule.parse("FREQ=DAILY;COUNT=10"));
+		List<LocalDate> dates = dates(series, 100);
+		assertEquals(10, dates.size());
+		assertEquals(LocalDate.of(1997, 9, 2), dates.get(0));
+		assertEquals(LocalDate.of(1997, 9, 11), dates.get(9));
+		Period first = series.iterator().next();
+		assertEquals(Duration.ofHours(1), Duration.between(first.getStart(), first.getEnd()));
+		// new scenario: every other day across the daylight saving time transition...
+		series = RecurringSeries.of(at(1997, 10, 30), Duration.ofHours(1),
+			RecurrenceRule.parse("FREQ=DAILY;INTERVAL=2;UNTIL=19971105"));
+		assertEquals(List.of(LocalDate.of(1997, 10, 30), LocalDate.of(1997, 11, 1),
+			LocalDate.of(1997, 11, 3), LocalDate.of(1997, 11, 5)), dates(series, 100));
+		// new scenario: every friday the 13th...
+		series = RecurringSeries.of(at(1997, 9, 2), Duration.ofHours(1),
+			RecurrenceRule.parse("FREQ=DAILY;BYDAY=FR;BYMONTHDAY=13"));
+		assertEquals(List.of(LocalDate.of(1998, 2, 13), LocalDate.of(1998, 3, 13),
+			LocalDate.of(1998, 11, 13)), dates(series, 3));
+	}
+
+	/**
+	 * Test method for {@link RecurringSeries#iterator()} with a weekly rule
+	 */
+	@Test
+	public void testIteratorWeekly()
+	{
+		RecurringSeries series = RecurringSeries.of(at(1997, 9, 1), Duration.ofHours(1),
+			RecurrenceRule
+				.parse("FREQ=WEEKLY;INTERVAL=2;UNTIL=19971224T000000Z;WKST=SU;BYDAY=MO,WE,FR"));
+		List<LocalDate> dates = dates(series, 100);
+		assertEquals(25, dates.size());
+		assertEquals(List.of(LocalDate.of(1997, 9, 1), LocalDate.of(1997, 9, 3),
+			LocalDate.of(1997, 9, 5), LocalDate.of(1997, 9, 15)), dates.subList(0, 4));
+		assertEquals(LocalDate.of(1997, 12, 22), dates.get(24));
+		// new scenario: the week start changes the result...
+		series = RecurringSeries.of(at(1997, 8, 5), Duration.ofHours(1),
+			RecurrenceRule.parse("FREQ=WEEKLY;INTERVAL=2;COUNT=4;BYDAY=TU,SU;WKST=MO"));
+		assertEquals(List.of(LocalDate.of(1997, 8, 5), LocalDate.of(1997, 8, 10),
+			LocalDate.of(1997, 8, 19), LocalDate.of(1997, 8, 24)), dates(series, 100));
+		series = RecurringSeries.of(at(1997, 8, 5), Duration.ofHours(1),
+			RecurrenceRule.parse("FREQ=WEEKLY;INTERVAL=2;COUNT=4;BYDAY=TU,SU;WKST=SU"));
+		assertEquals(List.of(LocalDate.of(1997, 8, 5), LocalDate.of(1997, 8, 17),
+			LocalDate.of(1997, 8, 19), LocalDate.of(1997, 8, 31)), dates(series, 100));
+	}
+
+	/**
+	 * Test method for {@link RecurringSeries#iterator()} with a monthly rule
+	 */
+	@Test
+	public void testIteratorMonthly()
+	{
+		RecurringSeries series = RecurringSeries.of(at(1997, 9, 5), Duration.ofHours(1),
+			RecurrenceRule.parse("FREQ=MONTHLY;COUNT=10;BYDAY=1FR"));
+		assertEquals(List.of(LocalDate.of(1997, 9, 5), LocalDate.of(1997, 10, 3),
+			LocalDate.of(1997, 11, 7), LocalDate.of(1997, 12, 5), LocalDate.of(1998, 1, 2),
+			LocalDate.of(1998, 2, 6), LocalDate.of(1998, 3, 6), LocalDate.of(1998, 4, 3),
+			LocalDate.of(1998, 5, 1), LocalDate.of(1998, 6, 5)), dates(series, 100));
+		// new scenario: the third to the last day of the month...
+		series = RecurringSeries.of(at(1997, 9, 28), Duration.ofHours(1),
+			RecurrenceRule.parse("FREQ=MONTHLY;BYMONTHDAY=-3;COUNT=6"));
+		assertEquals(List.of(LocalDate.of(1997, 9, 28), LocalDate.of(1997, 10, 29),
+			LocalDate.of(1997, 11, 28), LocalDate.of(1997, 12, 29), LocalDate.of(1998, 1, 29),
+			LocalDate.of(1998, 2, 26)), dates(series, 100));
+		// new scenario: the first and last sunday every other month...
+		series = RecurringSeries.of(at(1997, 9, 7), Duration.ofHours(1),
+			RecurrenceRule.parse("FREQ=MONTHLY;INTERVAL=2;COUNT=4;BYDAY=1SU,-1SU"));
+		assertEquals(List.of(LocalDate.of(1997, 9, 7), LocalDate.of(1997, 9, 28),
+			LocalDate.of(1997, 11, 2), LocalDate.of(1997, 11, 30)), dates(series, 100));
+		// new scenario: months without the day of the start are skipped...
+		series = RecurringSeries.of(at(2024, 1, 31), Duration.ofHours(1),
+			RecurrenceRule.parse("FREQ=MONTHLY;COUNT=3"));
+		assertEquals(List.of(LocalDate.of(2024, 1, 31), LocalDate.of(2024, 3, 31),
+			LocalDate.of(2024, 5, 31)), dates(series, 100));
+	}
+
+	/**
+	 * Test method for {@link RecurringSeries#iterator()} with a yearly rule
+	 */
+	@Test
+	public void testIteratorYearly()
+	{
+		RecurringSeries series = RecurringSeries.of(at(1997, 5, 19), Duration.ofHours(1),
+			RecurrenceRule.parse("FREQ=YEARLY;BYDAY=20MO"));
+		assertEquals(List.of(LocalDate.of(1997, 5, 19), LocalDate.of(1998, 5, 18),
+			LocalDate.of(1999, 5, 17)), dates(series, 3));
+		// new scenario: the 29th of february...
+		series = RecurringSeries.of(at(2024, 2, 29), Duration.ofHours(1),
+			RecurrenceRule.parse("FREQ=YEARLY;COUNT=3"));
+		assertEquals(List.of(LocalDate.of(2024, 2, 29), LocalDate.of(2028, 2, 29),
+			LocalDate.of(2032, 2, 29)), dates(series, 100));
+		// new scenario: the last day of the year...
+		series = RecurringSeries.of(at(2023, 12, 31), Duration.ofHours(1),
+			RecurrenceRule.parse("FREQ=YEARLY;BYDAY=-1SU;COUNT=2"));
+		assertEquals(List.of(LocalDate.of(2023, 12, 31), LocalDate.of(2024, 12, 29)),
+			dates(series, 100));
+	}
+
+	/**
+	 * Test method for {@link RecurringSeries#iterator()} with excluded starts
+	 */
+	@Test
+	public void testExcludedStarts()
+	{
+		Instant excluded = at(1997, 9, 3).toInstant();
+		RecurringSeries series = RecurringSeries.of(at(1997, 9, 2), Duration.ofHours(1),
+			RecurrenceRule.parse("FREQ=DAILY;COUNT=3"), List.of(excluded));
+		assertEquals(List.of(LocalDate.of(1997, 9, 2), LocalDate.of(1997, 9, 4)),
+			dates(series, 100));
+		assertEquals(Collections.singleton(excluded), series.getExcludedStarts());
+		Iterator<Period> iterator = series.iterator(at(1997, 9, 5).toInstant());
+		assertFalse(iterator.hasNext());
+		assertThrows(NoSuchElementException.class, iterator::next);
+	}
+
+	/**
+	 * Test method for {@link RecurringSeries#iterator(Instant)}
+	 */
+	@Test
+	public void testIteratorFrom()
+	{
+		RecurringSeries series = RecurringSeries.of(at(2000, 1, 3), Duration.ofHours(2),
+			RecurrenceRule.parse("FREQ=WEEKLY;BYDAY=MO,TH"));
+		Instant from = Instant.parse("2450-06-01T00:00:00Z");
+		Period first = series.iterator(from).next();
+		assertFalse(first.getEnd().isBefore(from));
+		assertTrue(first.getStart().minus(Duration.ofDays(5)).isBefore(from));
+		// new scenario: a from within an occurrence...
+		Period occurrence = series.iterator().next();
+		assertEquals(occurrence,
+			series.iterator(occurrence.getStart().plus(Duration.ofHours(1))).next());
+		// new scenario: random rules compared with the full expansion...
+		String[] rules = { "FREQ=DAILY;INTERVAL=3", "FREQ=DAILY;BYDAY=MO,FR;COUNT=40",
+				"FREQ=WEEKLY;INTERVAL=2;BYDAY=SU,WE;WKST=SU;COUNT=30",
+				"FREQ=WEEKLY;UNTIL=20030101", "FREQ=MONTHLY;BYMONTHDAY=1,-1;COUNT=25",
+				"FREQ=MONTHLY;INTERVAL=5;BYDAY=-2TU,3WE", "FREQ=YEARLY;BYDAY=-1MO",
+				"FREQ=YEARLY;INTERVAL=2;BYMONTHDAY=15;COUNT=50", "FREQ=YEARLY;COUNT=4" };
+		Random random = new Random(18);
+		for (String text : rules)
+		{
+			ZonedDateTime start = at(2000, 1, 1).plusDays(random.nextInt(400))
+				.plusMinutes(random.nextInt(1440));
+			Duration duration = Duration.ofHours(random.nextInt(60));
+			RecurringSeries randomSeries = RecurringSeries.of(start, duration,
+				RecurrenceRule.parse(text));
+			List<Period> all = list(randomSeries.iterator(), 60);
+			for (int i = 0; i < 20; i++)
+			{
+				Instant randomFrom = start.toInstant().minus(Duration.ofDays(10))
+					.plus(Duration.ofHours(random.nextInt(24 * 365 * 3)));
+				List<Period> expected = new ArrayList<>();
+				for (Period period : all)
+				{
+					if (period.getEnd().isAfter(randomFrom)
+						|| !period.getStart().isBefore(randomFrom))
+					{
+						expected.add(period);
+					}
+				}
+				List<Period> actual = list(randomSeries.iterator(randomFrom), expected.size());
+				assertEquals(expected, actual, text + " from " + randomFrom);
+			}
+		}
+	}
+
+	/**
+	 * Test method for {@link RecurringSeries#overlaps(Period)} and
+	 * {@link RecurringSeries#firstOverlapping(Period)}
+	 */
+	@Test
+	public void testOverlaps()
+	{
+		RecurringSeries series = RecurringSeries.of(at(1997, 9, 2), Duration.ofHours(1),
+			RecurrenceRule.parse("FREQ=WEEKLY;BYDAY=TU"));
+		Instant tuesday = at(2020, 6, 2).toInstant();
+		Period window = Period.of(tuesday.minus(Duration.ofHours(2)),
+			tuesday.plus(Duration.ofMinutes(30)));
+		assertTrue(series.overlaps(window));
+		assertEquals(Period.of(tuesday, tuesday.plus(Duration.ofHours(1))),
+			series.firstOverlapping(window));
+		window = Period.of(tuesday.plus(Duration.ofHours(1)), tuesday.plus(Duration.ofDays(6)));
+		assertFalse(series.overlaps(window));
+		assertNull(series.firstOverlapping(window));
+		assertTrue(series.overlaps(Period.of(tuesday, tuesday.plus(Duration.ofDays(8)))));
+	}
+
+	/**
+	 * Test method for {@link RecurringSeries#firstConflict(RecurringSeries, Period)} and
+	 * {@link RecurringSeries#conflicts(RecurringSeries, Period)}
+	 */
+	@Test
+	public void testFirstConflict()
+	{
+		ZoneId utc = ZoneId.of("UTC");
+		RecurringSeries standup = RecurringSeries.of(
+			ZonedDateTime.of(LocalDateTime.of(2024, 1, 1, 9, 0), utc), Duration.ofMinutes(30),
+			RecurrenceRule.parse("FREQ=DAILY"));
+		RecurringSeries review = RecurringSeries.of(
+			ZonedDateTime.of(LocalDateTime.of(2024, 1, 3, 9, 15), utc), Duration.ofHours(1),
+			RecurrenceRule.parse("FREQ=WEEKLY;INTERVAL=2;BYDAY=WE,FR"));
+		Period horizon = Period.of(Instant.parse("2024-01-01T00:00:00Z"),
+			Instant.parse("3024-01-01T00:00:00Z"));
+		assertEquals(Instant.parse("2024-01-03T09:15:00Z"),
+			standup.firstConflict(review, horizon));
+		assertTrue(review.conflicts(standup, horizon));
+		// new scenario: a later start of the standup avoids the conflict...
+		standup = RecurringSeries.of(ZonedDateTime.of(LocalDateTime.of(2024, 1, 1, 10, 15), utc),
+			Duration.ofMinutes(30), RecurrenceRule.parse("FREQ=DAILY"));
+		assertNull(standup.firstConflict(review, horizon));
+		assertFalse(standup.conflicts(review, horizon));
+		// new scenario: random regular and irregular series compared with all pairs...
+		String[] rules = { "FREQ=DAILY", "FREQ=DAILY;INTERVAL=3;COUNT=20",
+				"FREQ=DAILY;UNTIL=20240301", "FREQ=WEEKLY;BYDAY=MO,WE;WKST=SU",
+				"FREQ=WEEKLY;INTERVAL=2;COUNT=5", "FREQ=WEEKLY;INTERVAL=3;BYDAY=SA;COUNT=7",
+				"FREQ=WEEKLY;UNTIL=20240401T120000Z;BYDAY=TU,TH,SU",
+				"FREQ=MONTHLY;BYDAY=1MO,-1FR", "FREQ=DAILY;BYDAY=MO,TU" };
+		ZoneId[] zones = { utc, ZoneId.of("+05:30"), NEW_YORK };
+		Random random = new Random(19);
+		for (int run = 0; run < 400; run++)
+		{
+			RecurringSeries first = randomSeries(random, rules, zones);
+			RecurringSeries second = randomSeries(random, rules, zones);
+			Instant horizonStart = Instant.parse("2024-01-01T00:00:00Z")
+				.plus(Duration.ofHours(random.nextInt(24 * 60)));
+			Period randomHorizon = Period.of(horizonStart,
+				horizonStart.plus(Duration.ofHours(random.nextInt(24 * 90))));
+			Instant expected = FixedIntervalSeriesTest.bruteForce(
+				first.iterator(horizonStart), second.iterator(horizonStart), randomHorizon);
+			assertEquals(expected, first.firstConflict(second, randomHorizon), "run " + run);
+		}
+	}
+
+	/**
+	 * Test method for {@link RecurringSeries#toFixedIntervalSeries()}
+	 */
+	@Test
+	public void testToFixedIntervalSeries()
+	{
+		ZoneId offset = ZoneId.of("+02:00");
+		ZonedDateTime start = ZonedDateTime.of(LocalDateTime.of(2024, 1, 4, 9, 0), offset);
+		assertNull(RecurringSeries.of(start.withZoneSameLocal(NEW_YORK), Duration.ofHours(1),
+			RecurrenceRule.parse("FREQ=DAILY")).toFixedIntervalSeries());
+		assertNull(RecurringSeries.of(start, Duration.ofHours(1),
+			RecurrenceRule.parse("FREQ=DAILY"), List.of(start.toInstant()))
+			.toFixedIntervalSeries());
+		assertNull(RecurringSeries.of(start, Duration.ofHours(1),
+			RecurrenceRule.parse("FREQ=WEEKLY;COUNT=3;BYDAY=MO,TU")).toFixedIntervalSeries());
+		assertNull(RecurringSeries.of(start, Duration.ofHours(1),
+			RecurrenceRule.parse("FREQ=MONTHLY")).toFixedIntervalSeries());
+		String[] rules = { "FREQ=DAILY;INTERVAL=2;COUNT=9", "FREQ=DAILY;UNTIL=20240210T070000Z",
+				"FREQ=WEEKLY;UNTIL=20240401;BYDAY=MO,TH,SU;WKST=TH",
+				"FREQ=WEEKLY;INTERVAL=4;COUNT=6;BYDAY=TU", "FREQ=WEEKLY;INTERVAL=2;COUNT=8",
+				"FREQ=WEEKLY;INTERVAL=2;UNTIL=20240101" };
+		for (String text : rules)
+		{
+			RecurringSeries series = RecurringSeries.of(start, Duration.ofHours(1),
+				RecurrenceRule.parse(text));
+			List<Period> expected = list(series.iterator(), 1000);
+			List<Period> actual = new ArrayList<>();
+			for (FixedIntervalSeries fixed : series.toFixedIntervalSeries())
+			{
+				actual.addAll(list(fixed.iterator(), 1000));
+			}
+			Collections.sort(actual);
+			assertEquals(expected, actual, text);
+		}
+	}
+
+	private static RecurringSeries randomSeries(Random random, String[] rules, ZoneId[] zones)
+	{
+		ZonedDateTime start = ZonedDateTime.of(LocalDateTime.of(2024, 1, 1, 0, 0),
+			zones[random.nextInt(zones.length)]).plusDays(random.nextInt(30))
+			.plusMinutes(15 * random.nextInt(96));
+		return RecurringSeries.of(start, Duration.ofMinutes(15 * random.nextInt(12)),
+			RecurrenceRule.parse(rules[random.nextInt(rules.length)]));
+	}
+
+	/**
+	 * Test method for {@link RecurringSeries#of(ZonedDateTime, Duration, RecurrenceRule)}
+	 */
+	@Test
+	public void testOf()
+	{
+		RecurrenceRule rule = RecurrenceRule.parse("FREQ=DAILY");
+		RecurringSeries series = RecurringSeries.of(at(1997, 9, 2), Duration.ofHours(1), rule);
+		assertEquals(at(1997, 9, 2), series.getStart());
+		assertEquals(Duration.ofHours(1), series.getDuration());
+		assertEquals(rule, series.getRule());
+		assertTrue(series.getExcludedStarts().isEmpty());
+		assertThrows(NullPointerException.class,
+			() -> RecurringSeries.of(null, Duration.ofHours(1), rule));
+		assertThrows(IllegalArgumentException.class,
+			() -> RecurringSeries.of(at(1997, 9, 2), Duration.ofHours(-1), rule));
+	}
+
+}
@@ -0,0 +1,156 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.window;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.time.period.model.Period;
+
+/**
+ * The unit test class for the class {@link CalendarBuckets}
+ */
+public class CalendarBucketsTest
+{
+
+	private static final ZoneId BERLIN = ZoneId.of("Europe/Berlin");
+
+	private static Instant berlin(String localDateTime)
+	{
+		return LocalDateTime.parse(localDateTime).atZone(BERLIN).toInstant();
+	}
+
+	/**
+	 * Test method for {@link CalendarBuckets#of(ZoneId, ChronoUnit, Period)} with days that have
+	 * a daylight saving time transition
+	 */
+	@Test
+	public void testOfDaysWithTransitions()
+	{
+		CalendarBuckets buckets = CalendarBuckets.of(BERLIN, ChronoUnit.DAYS,
+			Period.of(berlin("2024-03-30T12:00"), berlin("2024-04-01T00:00")));
+		assertEquals(2, buckets.size());
+		assertEquals(Period.of(berlin("2024-03-30T00:00"), berlin("2024-03-31T00:00")),
+			buckets.getBucket(0));
+		long[] accumulator = buckets.newAccumulator();
+		buckets.add(Period.of(berlin("2024-03-29T00:00"), berlin("2024-04-02T00:00")),
+			accumulator);
+		assertArrayEquals(new Duration[] { Duration.ofHours(24), Duration.ofHours(23) },
+			buckets.toDurations(accumulator));
+		// new scenario: the hours of the day with the transition back to standard time...
+		buckets = CalendarBuckets.of(BERLIN, ChronoUnit.HOURS,
+			Period.of(berlin("2024-10-27T00:00"), berlin("2024-10-28T00:00")));
+		assertEquals(25, buckets.size());
+		accumulator = buckets.newAccumulator();
+		buckets.add(Period.of(berlin("2024-10-27T01:30"), berlin("2024-10-27T03:00")),
+			accumulator);
+		assertEquals(Duration.ofMinutes(30).toNanos(), accumulator[1]);
+		assertEquals(Duration.ofHours(1).toNanos(), accumulator[2]);
+		assertEquals(Duration.ofHours(1).toNanos(), accumulator[3]);
+		assertEquals(0, accumulator[4]);
+		// new scenario: months...
+		buckets = CalendarBuckets.of(BERLIN, ChronoUnit.MONTHS,
+			Period.of(berlin("2024-01-15T00:00"), berlin("2024-03-01T00:00")));
+		assertEquals(2, buckets.size());
+		assertEquals(buckets.getBucket(1),
+			Period.of(berlin("2024-02-01T00:00"), berlin("2024-03-01T00:00")));
+		assertEquals(1, buckets.indexOf(berlin("2024-02-29T23:59:59")));
+		assertEquals(-1, buckets.indexOf(berlin("2024-03-01T00:00")));
+	}
+
+	/**
+	 * Test method for {@link CalendarBuckets#add(Period, long[])} compared with the overlap with
+	 * each bucket
+	 */
+	@Test
+	public void testAdd()
+	{
+		Random random = new Random(31);
+		for (ChronoUnit unit : new ChronoUnit[] { ChronoUnit.MINUTES, ChronoUnit.HOURS,
+				ChronoUnit.DAYS, ChronoUnit.WEEKS })
+		{
+			ZoneId zone = ZoneId.of("America/New_York");
+			Instant start = ZonedDateTime.of(2024, 3, 9, 0, 0, 0, 0, zone).toInstant();
+			CalendarBuckets buckets = CalendarBuckets.of(zone, unit,
+				Period.of(start, start.plus(Duration.ofDays(3))));
+			for (int round = 0; round < 100; round++)
+			{
+				Instant periodStart = start.plusSeconds(random.nextInt(4 * 86400) - 86400)
+					.plusNanos(random.nextInt(1000));
+				Period period = Period.of(periodStart,
+					periodStart.plusSeconds(random.nextInt(86400)).plusNanos(random.nextInt(1000)));
+				long[] actual = buckets.newAccumulator();
+				buckets.add(period, actual);
+				long[] expected = new long[buckets.size()];
+				for (int i = 0; i < expected.length; i++)
+				{
+					Period bucket = buckets.getBucket(i);
+					Instant from = max(bucket.getStart(), period.getStart());
+					Instant to = min(bucket.getEnd(), period.getEnd());
+					expected[i] = from.isBefore(to) ? Duration.between(from, to).toNanos() : 0;
+				}
+				assertArrayEquals(expected, actual);
+			}
+		}
+	}
+
+	/**
+	 * Test method for {@link CalendarBuckets#of(ZoneId, ChronoUnit, Period)} with invalid
+	 * arguments
+	 */
+	@Test
+	public void testOfInvalid()
+	{
+		Period range = Period.of(Instant.EPOCH, Instant.EPOCH.plusSeconds(1));
+		assertThrows(IllegalArgumentException.class,
+			() -> CalendarBuckets.of(BERLIN, ChronoUnit.DECADES, range));
+		assertThrows(IllegalArgumentException.class, () -> CalendarBuckets.of(BERLIN,
+			ChronoUnit.DAYS, Period.of(range.getEnd(), range.getStart())));
+		assertThrows(IllegalArgumentException.class, () -> CalendarBuckets.of(BERLIN,
+			ChronoUnit.DAYS, range).add(range, new long[0]));
+	}
+
+	private static Instant max(Instant one, Instant other)
+	{
+		return one.isAfter(other) ? one : other;
+	}
+
+	private static Instant min(Instant one, Instant other)
+	{
+		return one.isBefore(other) ? one : other;
+	}
+
+}
@@ -0,0 +1,68 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.window;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link DoubleSlidingWindow}
+ */
+public class DoubleSlidingWindowTest
+{
+
+	/**
+	 * Test method for {@link DoubleSlidingWindow#add(Instant, double)} and
+	 * {@link DoubleSlidingWindow#aggregate(Instant)}
+	 */
+	@Test
+	public void testAddAndAggregate()
+	{
+		DoubleSlidingWindow window = DoubleSlidingWindow.max(Duration.ofSeconds(60),
+			Duration.ofSeconds(15), Duration.ZERO);
+		Instant start = Instant.parse("2024-01-01T12:00:00Z");
+		assertEquals(Double.NEGATIVE_INFINITY, window.aggregate(start));
+		assertTrue(window.add(start.plusSeconds(5), 1.5));
+		assertTrue(window.add(start.plusSeconds(20), 0.5));
+		assertFalse(window.add(start.plusSeconds(19), 9.0));
+		assertEquals(1.5, window.aggregate(start.plusSeconds(30)));
+		assertEquals(0.5, window.aggregate(start.plusSeconds(75)));
+		// new scenario: a custom combiner...
+		DoubleSlidingWindow product = DoubleSlidingWindow.of(Duration.ofSeconds(60),
+			Duration.ofSeconds(60), Duration.ofSeconds(60), 1.0, (a, b) -> a * b);
+		product.add(start, 2.0);
+		product.add(start.plusSeconds(59), 4.0);
+		product.add(start.plusSeconds(60), 3.0);
+		assertEquals(8.0, product.aggregate(start.plusSeconds(60)));
+		assertEquals(3.0, product.aggregate(start.plusSeconds(120)));
+	}
+
+}
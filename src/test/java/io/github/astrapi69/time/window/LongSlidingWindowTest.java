@@ -0,0 +1,130 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.time.window;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.time.period.model.Period;
+
+/**
+ * The unit test class for the class {@link LongSlidingWindow}
+ */
+public class LongSlidingWindowTest
+{
+
+	/**
+	 * Test method for {@link LongSlidingWindow#add(Instant, long)} and
+	 * {@link LongSlidingWindow#aggregate(Instant)}
+	 */
+	@Test
+	public void testAddAndAggregate()
+	{
+		LongSlidingWindow window = LongSlidingWindow.sum(Duration.ofMinutes(5),
+			Duration.ofSeconds(10), Duration.ofSeconds(30));
+		assertNull(window.getWatermark());
+		Instant start = Instant.parse("2024-01-01T12:00:00Z");
+		assertTrue(window.add(start, 1));
+		assertTrue(window.add(start.plusSeconds(299), 1));
+		assertTrue(window.add(start.plusSeconds(300), 1));
+		assertEquals(2, window.aggregate(start.plusSeconds(300)));
+		assertEquals(2, window.aggregate(start.plusSeconds(310)));
+		assertEquals(Period.of(start.plusSeconds(10), start.plusSeconds(310)),
+			window.getWindow(start.plusSeconds(310)));
+		// new scenario: a late event within the lateness and a too late event...
+		assertTrue(window.add(start.plusSeconds(271), 5));
+		assertFalse(window.add(start.plusSeconds(269), 5));
+		assertEquals(7, window.aggregate(start.plusSeconds(310)));
+		assertEquals(start.plusSeconds(300), window.getWatermark());
+		// new scenario: invalid window ends...
+		assertThrows(IllegalArgumentException.class,
+			() -> window.aggregate(start.plusSeconds(305)));
+		window.add(start.plusSeconds(3600), 1);
+		assertThrows(IllegalArgumentException.class,
+			() -> window.aggregate(start.plusSeconds(310)));
+	}
+
+	/**
+	 * Test method for {@link LongSlidingWindow} compared with a scan of all accepted events
+	 */
+	@Test
+	public void testAggregateRandom()
+	{
+		Random random = new Random(37);
+		Duration size = Duration.ofSeconds(25);
+		Duration slide = Duration.ofSeconds(10);
+		Duration lateness = Duration.ofSeconds(7);
+		LongSlidingWindow sum = LongSlidingWindow.sum(size, slide, lateness);
+		LongSlidingWindow max = LongSlidingWindow.max(size, slide, lateness);
+		DoubleSlidingWindow doubleSum = DoubleSlidingWindow.sum(size, slide, lateness);
+		List<long[]> accepted = new ArrayList<>();
+		long watermark = Long.MIN_VALUE;
+		long now = 1_000_000;
+		for (int i = 0; i < 5000; i++)
+		{
+			now += random.nextInt(200);
+			long timestamp = now - random.nextInt(9000);
+			long value = random.nextInt(1000);
+			boolean expectedAccepted = watermark == Long.MIN_VALUE
+				|| watermark - lateness.toMillis() <= timestamp;
+			assertEquals(expectedAccepted, sum.add(timestamp, value));
+			assertEquals(expectedAccepted, max.add(timestamp, value));
+			assertEquals(expectedAccepted, doubleSum.add(timestamp, value));
+			if (expectedAccepted)
+			{
+				accepted.add(new long[] { timestamp, value });
+				watermark = Math.max(watermark, timestamp);
+			}
+			long windowEnd = Math.floorDiv(watermark, 10000) * 10000 + 10000
+				- 10000 * random.nextInt(3);
+			long expectedSum = 0;
+			long expectedMax = Long.MIN_VALUE;
+			for (long[] event : accepted)
+			{
+				if (windowEnd - size.toMillis() <= event[0] && event[0] < windowEnd)
+				{
+					expectedSum += event[1];
+					expectedMax = Math.max(expectedMax, event[1]);
+				}
+			}
+			Instant end = Instant.ofEpochMilli(windowEnd);
+			assertEquals(expectedSum, sum.aggregate(end));
+			assertEquals(expectedMax, max.aggregate(end));
+			assertEquals((double)expectedSum, doubleSum.aggregate(end));
+		}
+	}
+
+}